@@ -0,0 +1,106 @@
+#!/bin/bash
+
+# Payment Processing Simulator - Saga Throughput Benchmark (logging on vs off)
+# Posts orders to order-service and measures how many sagas finish per second
+# (SHIPPED or FAILED), once per log level. The level of each service's own loggers is
+# switched at runtime on all 5 services through /actuator/loggers - no restarts.
+#
+# Usage: ./benchmark-saga.sh [orders] [concurrency] [levels]
+#   ./benchmark-saga.sh 500 8 "WARN INFO DEBUG"
+# Needs the full stack running (docker-compose up + all 5 services).
+
+ORDERS=${1:-500}
+CONCURRENCY=${2:-8}
+LEVELS=${3:-"WARN INFO DEBUG"}
+PRODUCT_ID=${PRODUCT_ID:-1}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-300}
+
+ORDER_URL="http://localhost:8081/api/orders"
+# port:logger - each service sets its own package level in application.yml
+SERVICES="8081:com.payment.order 8082:com.payment.inventory 8083:com.payment.payment 8084:com.payment.shipping 8085:com.payment.notification"
+
+# Color codes for output
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+RED='\033[0;31m'
+NC='\033[0m' # No Color
+
+set_log_level() {
+    for SERVICE in $SERVICES; do
+        PORT=${SERVICE%%:*}
+        curl -s -o /dev/null -X POST "http://localhost:$PORT/actuator/loggers/${SERVICE#*:}" \
+          -H "Content-Type: application/json" \
+          -d "{\"configuredLevel\": \"$1\"}" \
+          || echo -e "${RED}Could not set log level on port $PORT${NC}"
+    done
+}
+
+create_order() {
+    curl -s -X POST "$ORDER_URL" \
+      -H "Content-Type: application/json" \
+      -d "{\"customerId\": $(( (RANDOM % 1000) + 1 )), \"items\": [{\"productId\": $PRODUCT_ID, \"quantity\": 1, \"price\": 29.99}]}" \
+      | grep -o '"orderId":[0-9]*' | cut -d: -f2
+}
+export -f create_order
+export ORDER_URL PRODUCT_ID
+
+order_status() {
+    curl -s "$ORDER_URL/$1" | grep -o '"status":"[A-Z_]*"' | cut -d'"' -f4
+}
+
+run_round() {
+    LEVEL=$1
+    echo -e "${BLUE}Level $LEVEL: creating $ORDERS orders ($CONCURRENCY at a time)...${NC}"
+    set_log_level "$LEVEL"
+
+    START=$(date +%s.%N)
+    ORDER_IDS=$(seq "$ORDERS" | xargs -P "$CONCURRENCY" -I{} bash -c create_order)
+    CREATED=$(date +%s.%N)
+
+    # Wait until every saga has reached SHIPPED or FAILED
+    PENDING="$ORDER_IDS"
+    DEADLINE=$(( $(date +%s) + TIMEOUT_SECONDS ))
+    while [ -n "$PENDING" ] && [ "$(date +%s)" -lt "$DEADLINE" ]; do
+        STILL_PENDING=""
+        for ID in $PENDING; do
+            case "$(order_status "$ID")" in
+                SHIPPED|COMPLETED|FAILED) ;;
+                *) STILL_PENDING="$STILL_PENDING $ID" ;;
+            esac
+        done
+        PENDING="$STILL_PENDING"
+        [ -n "$PENDING" ] && sleep 0.5
+    done
+    END=$(date +%s.%N)
+
+    TOTAL=$(echo "$ORDER_IDS" | wc -w)
+    UNFINISHED=$(echo "$PENDING" | wc -w)
+    FINISHED=$(( TOTAL - UNFINISHED ))
+    echo -e "${GREEN}Level $LEVEL: $FINISHED/$TOTAL sagas finished${NC}"
+    awk -v level="$LEVEL" -v n="$FINISHED" -v total="$TOTAL" -v s="$START" -v c="$CREATED" -v e="$END" 'BEGIN {
+        printf "  %-5s  create: %7.1f orders/s   end-to-end: %7.1f sagas/s   (%.1f s)\n",
+            level, total / (c - s), n / (e - s), e - s
+    }' | tee -a "$RESULTS"
+}
+
+echo "🚀 Saga throughput benchmark: $ORDERS orders, concurrency $CONCURRENCY, levels: $LEVELS"
+
+if ! curl -s -o /dev/null "http://localhost:8081/actuator/health"; then
+    echo -e "${RED}order-service is not running on port 8081${NC}"
+    exit 1
+fi
+
+RESULTS=$(mktemp)
+for LEVEL in $LEVELS; do
+    run_round "$LEVEL"
+done
+
+# Back to the level in application.yml
+set_log_level INFO
+
+echo ""
+echo "═══════════════════════════════════════════════════"
+echo "📊 Results"
+echo "═══════════════════════════════════════════════════"
+cat "$RESULTS"
+rm -f "$RESULTS"
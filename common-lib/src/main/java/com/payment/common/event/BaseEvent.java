@@ -1,10 +1,10 @@
 package com.payment.common.event;
 
+import com.payment.common.id.IdGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Base event class containing common fields for all events
@@ -45,7 +45,7 @@ public abstract class BaseEvent {
      * Constructor to auto-generate eventId and timestamp
      */
     public BaseEvent(String correlationId, String eventType, String source) {
-        this.eventId = UUID.randomUUID().toString();
+        this.eventId = IdGenerator.nextString();
         this.correlationId = correlationId;
         this.timestamp = LocalDateTime.now();
         this.eventType = eventType;
@@ -0,0 +1,141 @@
+package com.payment.common.money;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money - An amount in minor units (cents) plus an ISO 4217 currency code
+ *
+ * Arithmetic and comparisons are plain long operations (overflow throws), so totals and
+ * threshold checks allocate at most the result. Every supported currency has 2 decimal places.
+ * Amounts in different currencies are never added or compared - that throws IllegalArgumentException.
+ *
+ * In JSON (events, REST) and in the database an amount is still a decimal number (29.99), so
+ * services on either side of a topic read each other's events unchanged; the currency there is
+ * the default currency.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final String DEFAULT_CURRENCY = "USD";
+    public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+    private static final int SCALE = 2;
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        if (currency == null || currency.length() != 3) {
+            throw new IllegalArgumentException("Currency must be a 3-letter ISO 4217 code, got " + currency);
+        }
+        return DEFAULT_CURRENCY.equals(currency) ? ofMinor(minorUnits) : new Money(minorUnits, currency);
+    }
+
+    /**
+     * Decimal amount in the default currency
+     *
+     * @throws IllegalArgumentException if the amount has fractions of a cent
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        try {
+            return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Not a valid money amount: " + amount, e);
+        }
+    }
+
+    /**
+     * Decimal literal in the default currency, e.g. Money.parse("29.99")
+     */
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return other.minorUnits == 0 ? this : new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return other.minorUnits == 0 ? this : new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return quantity == 1 ? this : new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return compareTo(other) > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * Decimal amount (allocates) - for JSON, JDBC and other BigDecimal APIs
+     */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits) * 31 + currency.hashCode();
+    }
+
+    /**
+     * Plain decimal amount ("29.99"), so log lines like "Amount: ${}" read as before
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
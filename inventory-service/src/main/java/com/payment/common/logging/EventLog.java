@@ -0,0 +1,36 @@
+package com.payment.common.logging;
+
+import org.slf4j.Logger;
+
+/**
+ * Event Log - The one structured INFO line a service writes per event it handles
+ *
+ *   ... INFO  ...SagaEventListener - event handled event="PAYMENT_PROCESSED" orderId="42"
+ *       correlationId="..." outcome="PAYMENT_PROCESSED" latencyMs="12"
+ *
+ * Fields are SLF4J key-values, so they stay separate fields for structured (JSON) output and can be
+ * searched by orderId / correlationId. Step-by-step detail belongs at DEBUG; failures still log their
+ * own WARN / ERROR line. Nothing is built when INFO is off for the logger.
+ */
+public final class EventLog {
+
+    private EventLog() {
+    }
+
+    /**
+     * @param startNanos - System.nanoTime() when handling started
+     */
+    public static void handled(Logger log, String eventType, Object orderId, String correlationId,
+                               String outcome, long startNanos) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        log.atInfo()
+            .addKeyValue("event", eventType)
+            .addKeyValue("orderId", orderId)
+            .addKeyValue("correlationId", correlationId)
+            .addKeyValue("outcome", outcome)
+            .addKeyValue("latencyMs", (System.nanoTime() - startNanos) / 1_000_000)
+            .log("event handled");
+    }
+}
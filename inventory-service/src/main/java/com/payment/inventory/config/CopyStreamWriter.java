@@ -0,0 +1,89 @@
+package com.payment.inventory.config;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into PostgreSQL with COPY ... FROM STDIN (CSV)
+ * Rows are buffered and flushed in chunks, so memory stays flat no matter how many rows are written
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/config/CopyStreamWriter.java
+ */
+public class CopyStreamWriter implements AutoCloseable {
+
+    private final CopyIn copyIn;
+    private final int flushBytes;
+    private final StringBuilder buffer;
+    private long rows;
+
+    public CopyStreamWriter(CopyManager copyManager, String table, String columns, int flushBytes) throws SQLException {
+        this.copyIn = copyManager.copyIn("COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)");
+        this.flushBytes = flushBytes;
+        this.buffer = new StringBuilder(flushBytes + 1024);
+    }
+
+    /**
+     * Append one row - values are written in column order, null becomes SQL NULL
+     */
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            appendValue(values[i]);
+        }
+        buffer.append('\n');
+        rows++;
+
+        if (buffer.length() >= flushBytes) {
+            flush();
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            return; // empty unquoted field = NULL in CSV mode
+        }
+        if (value instanceof String text) {
+            buffer.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 /**
  * Data Loader - Seeds initial products into database
  * 
@@ -109,17 +111,11 @@ public class DataLoader {
                 .reservedQuantity(0)
                 .build();
 
-            // Save all products
-            productRepository.save(product1);
-            productRepository.save(product2);
-            productRepository.save(product3);
-            productRepository.save(product4);
-            productRepository.save(product5);
-            productRepository.save(product6);
-            productRepository.save(product7);
-            productRepository.save(product8);
-            productRepository.save(product9);
-            productRepository.save(product10);
+            // Save all products in a single transaction
+            productRepository.saveAll(List.of(
+                product1, product2, product3, product4, product5,
+                product6, product7, product8, product9, product10
+            ));
 
             log.info("✅ Database initialized with 10 sample products");
             log.info("Products: Laptops, Phones, Tablets, Watches, Headphones, Mice, Keyboards, Monitors, Cameras, Speakers");
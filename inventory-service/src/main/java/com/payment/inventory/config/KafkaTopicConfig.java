@@ -0,0 +1,31 @@
+package com.payment.inventory.config;
+
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Kafka Topic Configuration for topics owned by inventory-service
+ * (the saga topics are declared by order-service)
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Product Stock Topic (log-compacted)
+     * Latest StockLevelSnapshot per productId - consumers rebuild a full availability view
+     * by reading it from the beginning
+     */
+    @Bean
+    public NewTopic productStockTopic() {
+        return TopicBuilder.name("product-stock")
+            .partitions(3)
+            .replicas(1)
+            .compact()
+            .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+            .config(TopicConfig.SEGMENT_MS_CONFIG, "3600000") // Roll hourly so old segments get compacted
+            .build();
+    }
+}
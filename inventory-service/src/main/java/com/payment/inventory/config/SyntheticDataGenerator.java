@@ -0,0 +1,148 @@
+package com.payment.inventory.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic Data Generator - Streams a realistic product catalog into PostgreSQL using COPY
+ * Used for scale testing (indexes, pagination, caches) at real catalog sizes
+ *
+ * Enable with: datagen.enabled=true (see application.yml for the distribution settings)
+ *
+ * Stock levels follow a configurable mix:
+ * - out-of-stock products (available = 0)
+ * - low-stock products (1..low-stock-max)
+ * - everything else uniformly up to stock-max
+ * The first hot-sku-ratio of the generated ids are "hot SKUs" and get deeper stock,
+ * matching the skew used by the order-service generator.
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/config/SyntheticDataGenerator.java
+ */
+@Component
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String[] CATEGORIES = {
+        "Laptop", "Phone", "Tablet", "Watch", "Headphones", "Mouse", "Keyboard",
+        "Monitor", "Camera", "Speaker", "Charger", "Router", "Drive", "Printer"
+    };
+    private static final String[] BRANDS = {
+        "Dell", "Apple", "Samsung", "Sony", "Logitech", "Keychron", "LG",
+        "Canon", "Sonos", "Anker", "Asus", "Lenovo", "Bose", "Netgear"
+    };
+    private static final String[] ADJECTIVES = {
+        "Pro", "Air", "Max", "Mini", "Ultra", "Lite", "Plus", "Wireless", "Compact", "Gaming"
+    };
+
+    private final DataSource dataSource;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.flush-bytes:1048576}")
+    private int flushBytes;
+
+    @Value("${datagen.products:1000000}")
+    private long productCount;
+
+    @Value("${datagen.first-product-id:1001}")
+    private long firstProductId;
+
+    @Value("${datagen.hot-sku-ratio:0.01}")
+    private double hotSkuRatio;
+
+    @Value("${datagen.stock.out-of-stock-ratio:0.02}")
+    private double outOfStockRatio;
+
+    @Value("${datagen.stock.low-stock-ratio:0.08}")
+    private double lowStockRatio;
+
+    @Value("${datagen.stock.low-stock-max:10}")
+    private int lowStockMax;
+
+    @Value("${datagen.stock.max:500}")
+    private int stockMax;
+
+    public SyntheticDataGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("🏭 Generating {} synthetic products starting at ID {}...", productCount, firstProductId);
+        long start = System.currentTimeMillis();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long hotSkus = Math.max(1, (long) (productCount * hotSkuRatio));
+        LocalDateTime now = LocalDateTime.now();
+
+        try (Connection connection = dataSource.getConnection()) {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+            try (CopyStreamWriter writer = new CopyStreamWriter(
+                    pgConnection.getCopyAPI(),
+                    "products",
+                    "id, sku, name, description, available_quantity, reserved_quantity, version, created_at, updated_at",
+                    flushBytes)) {
+
+                for (long i = 0; i < productCount; i++) {
+                    long id = firstProductId + i;
+                    String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                    String brand = BRANDS[random.nextInt(BRANDS.length)];
+                    String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+                    LocalDateTime createdAt = now.minusMinutes(random.nextLong(525_600)); // within the last year
+
+                    writer.row(
+                        id,
+                        String.format("%s-%08d", category.toUpperCase(), id),
+                        brand + " " + category + " " + adjective + " " + (1 + random.nextInt(20)),
+                        adjective + " " + category.toLowerCase() + " by " + brand,
+                        stockLevel(random, i < hotSkus),
+                        0,
+                        0,
+                        createdAt,
+                        createdAt
+                    );
+
+                    if ((i + 1) % 1_000_000 == 0) {
+                        log.info("   ... {} products streamed", i + 1);
+                    }
+                }
+            }
+
+            // Keep the identity sequence ahead of the explicit IDs we just wrote
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('products', 'id'), (SELECT MAX(id) FROM products))");
+            }
+        }
+
+        log.info("✅ Synthetic catalog generated: {} products in {} ms",
+            productCount, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Draw an available quantity from the configured stock distribution
+     */
+    private int stockLevel(SplittableRandom random, boolean hotSku) {
+        double roll = random.nextDouble();
+        if (roll < outOfStockRatio) {
+            return 0;
+        }
+        if (roll < outOfStockRatio + lowStockRatio) {
+            return 1 + random.nextInt(lowStockMax);
+        }
+        int level = 1 + random.nextInt(stockMax);
+        return hotSku ? level * 10 : level;
+    }
+}
@@ -1,7 +1,12 @@
 package com.payment.inventory.controller;
 
+import com.payment.inventory.dto.ProductSearchResponse;
+import com.payment.inventory.dto.StockFeedResult;
 import com.payment.inventory.model.Product;
+import com.payment.inventory.model.StockMovement;
 import com.payment.inventory.service.InventoryService;
+import com.payment.inventory.service.StockFeedParser;
+import com.payment.inventory.service.StockFeedService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,9 +26,11 @@ import java.util.Map;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final StockFeedService stockFeedService;
 
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService, StockFeedService stockFeedService) {
         this.inventoryService = inventoryService;
+        this.stockFeedService = stockFeedService;
     }
 
     /**
@@ -38,6 +45,37 @@ public class InventoryController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Get low stock products (lowest stock first)
+     * GET /api/inventory/products/low-stock?threshold=10&limit=100
+     */
+    @GetMapping("/products/low-stock")
+    public ResponseEntity<List<Product>> getLowStockProducts(
+            @RequestParam(required = false) Integer threshold,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        log.info("📖 API: Get low stock products request (threshold: {}, limit: {})", threshold, limit);
+        List<Product> products = inventoryService.getLowStockProducts(threshold, limit);
+        log.info("✅ API: Returning {} low stock products", products.size());
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Search products by sku, name and description (ranked, paginated)
+     * GET /api/inventory/products/search?q=laptop&page=0&size=20
+     */
+    @GetMapping("/products/search")
+    public ResponseEntity<ProductSearchResponse> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        log.info("🔍 API: Search products request (q: '{}', page: {}, size: {})", q, page, size);
+        ProductSearchResponse response = inventoryService.searchProducts(q, page, size);
+        log.info("✅ API: Returning {} of {} hits in {} µs", response.getHits().size(), response.getTotalHits(), response.getTookMicros());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get product by ID
      * GET /api/inventory/products/{id}
@@ -60,6 +98,31 @@ public class InventoryController {
         return ResponseEntity.ok(product);
     }
 
+    /**
+     * Get available stock per warehouse for a product
+     * GET /api/inventory/products/{id}/warehouses
+     */
+    @GetMapping("/products/{id}/warehouses")
+    public ResponseEntity<Map<String, Integer>> getWarehouseStock(@PathVariable Long id) {
+        log.info("📖 API: Get warehouse stock for product {}", id);
+        return ResponseEntity.ok(inventoryService.getWarehouseStock(id));
+    }
+
+    /**
+     * Get stock movement history (ledger) for a product, newest first
+     * GET /api/inventory/products/{id}/movements?limit=50
+     */
+    @GetMapping("/products/{id}/movements")
+    public ResponseEntity<List<StockMovement>> getStockMovements(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        log.info("📖 API: Get stock movements for product {} (limit: {})", id, limit);
+        List<StockMovement> movements = inventoryService.getStockMovements(id, limit);
+        log.info("✅ API: Returning {} stock movements", movements.size());
+        return ResponseEntity.ok(movements);
+    }
+
     /**
      * Check stock availability for a product
      * GET /api/inventory/products/{id}/availability?quantity=5
@@ -86,6 +149,20 @@ public class InventoryController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Ingest a warehouse stock feed (full counts) from the configured feed directory
+     * POST /api/inventory/stock-feeds?file=warehouse-1.csv&format=CSV
+     */
+    @PostMapping("/stock-feeds")
+    public ResponseEntity<StockFeedResult> ingestStockFeed(
+            @RequestParam String file,
+            @RequestParam(defaultValue = "CSV") StockFeedParser.Format format) {
+
+        log.info("📥 API: Ingest stock feed request (file: {}, format: {})", file, format);
+        StockFeedResult result = stockFeedService.ingest(file, format);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Health check endpoint
      * GET /api/inventory/health
@@ -99,7 +176,12 @@ public class InventoryController {
             "GET /api/inventory/products - Get all products",
             "GET /api/inventory/products/{id} - Get product by ID",
             "GET /api/inventory/products/sku/{sku} - Get product by SKU",
-            "GET /api/inventory/products/{id}/availability - Check stock availability"
+            "GET /api/inventory/products/low-stock - Get low stock products",
+            "GET /api/inventory/products/search?q= - Search products by sku, name and description",
+            "GET /api/inventory/products/{id}/availability - Check stock availability",
+            "GET /api/inventory/products/{id}/movements - Get stock movement history",
+            "GET /api/inventory/products/{id}/warehouses - Get available stock per warehouse",
+            "POST /api/inventory/stock-feeds?file=&format=CSV|NDJSON - Ingest a warehouse stock feed"
         ));
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,41 @@
+package com.payment.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for product search response (one page of ranked hits)
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/dto/ProductSearchResponse.java
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSearchResponse {
+
+    private String query;
+    private int page;
+    private int size;
+    private int totalHits;
+    private List<Hit> hits;
+    private long tookMicros;
+
+    /**
+     * Nested DTO for a single search hit
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Hit {
+        private Long productId;
+        private String sku;
+        private String name;
+        private int score;
+    }
+}
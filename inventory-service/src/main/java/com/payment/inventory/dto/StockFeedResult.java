@@ -0,0 +1,27 @@
+package com.payment.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one stock feed ingestion
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/dto/StockFeedResult.java
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockFeedResult {
+
+    private String file;
+    private String format;
+    private long records;
+    private long malformedLines;
+    private long unknownSkus;
+    private long movementsWritten;
+    private int productsChanged;
+    private long durationMs;
+}
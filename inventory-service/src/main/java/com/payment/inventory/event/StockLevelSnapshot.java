@@ -0,0 +1,22 @@
+package com.payment.inventory.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest stock level of one product, published to the log-compacted product-stock topic
+ * keyed by productId - the topic always holds the current level of every product
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelSnapshot {
+
+    private Long productId;
+    private Integer availableQuantity;
+    private Integer reservedQuantity;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,14 @@
+package com.payment.inventory.model;
+
+/**
+ * Stock movement types recorded in the inventory ledger
+ * 
+ * Location: inventory-service/src/main/java/com/payment/inventory/model/MovementType.java
+ */
+public enum MovementType {
+    RESERVE,    // available -> reserved (order placed)
+    UNRESERVE,  // reserved -> available (compensation)
+    SALE,       // reserved -> gone (order completed)
+    RESTOCK,    // new stock arrives
+    ADJUSTMENT  // stock feed correction downwards (count was lower than the ledger)
+}
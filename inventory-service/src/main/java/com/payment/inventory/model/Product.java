@@ -1,6 +1,7 @@
 package com.payment.inventory.model;
 
 import jakarta.persistence.*;
+import com.payment.inventory.service.ProductSearchListener;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "products")
+@EntityListeners(ProductSearchListener.class) // Keeps the in-memory search index current
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,6 +44,8 @@ public class Product {
     @Column(nullable = false)
     private Integer reservedQuantity; // Reserved for pending orders
 
+    private Long lastMovementId; // Last stock_movements row folded into the quantities above (snapshot position)
+
     @Version // Optimistic locking to prevent race conditions
     private Long version;
 
@@ -0,0 +1,54 @@
+package com.payment.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock Movement Entity - One append-only inventory ledger entry
+ * Rows are never updated; a product's quantities are its snapshot plus the movements after it
+ * 
+ * Location: inventory-service/src/main/java/com/payment/inventory/model/StockMovement.java
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_stock_movements_product", columnList = "productId, id"),
+    @Index(name = "idx_stock_movements_correlation", columnList = "correlationId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MovementType movementType;
+
+    @Column(nullable = false)
+    private Integer availableDelta;
+
+    @Column(nullable = false)
+    private Integer reservedDelta;
+
+    private Long warehouseId; // Warehouse whose available stock moved (null when only reserved stock moved)
+
+    private Long orderId;
+
+    @Column(length = 100)
+    private String correlationId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.payment.inventory.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Warehouse Stock Entity - Available quantity of one product at one warehouse (snapshot)
+ * Like Product, the current level is this row plus the stock_movements tail for the warehouse.
+ * The default warehouse has no rows: it holds whatever product stock no other warehouse holds.
+ * 
+ * Location: inventory-service/src/main/java/com/payment/inventory/model/WarehouseStock.java
+ */
+@Entity
+@Table(name = "warehouse_stock", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_warehouse_stock", columnNames = {"warehouseId", "productId"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WarehouseStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer availableQuantity;
+
+    private Long lastMovementId; // Last stock_movements row folded into availableQuantity
+}
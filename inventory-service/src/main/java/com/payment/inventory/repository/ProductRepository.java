@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +33,12 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     List<Product> findByNameContainingIgnoreCase(String name);
 
+    /**
+     * (sku, id) pairs for a chunk of SKUs - used by the stock feed to resolve SKUs in bulk
+     */
+    @Query("SELECT p.sku, p.id FROM Product p WHERE p.sku IN :skus")
+    List<Object[]> findIdsBySkuIn(Collection<String> skus);
+
     /**
      * Check if product exists by SKU
      */
@@ -42,4 +49,29 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     @Query("SELECT p FROM Product p WHERE p.availableQuantity < :threshold")
     List<Product> findLowStockProducts(Integer threshold);
+
+    /**
+     * Current (id, available, reserved) for every product: the snapshot row plus the ledger tail after it
+     * Used to build the in-memory stock indexes
+     */
+    @Query("SELECT p.id, " + CURRENT_AVAILABLE + ", " + CURRENT_RESERVED + " FROM Product p")
+    List<Object[]> findAllStockLevels();
+
+    /**
+     * Current (id, available, reserved) for one product (snapshot plus ledger tail)
+     */
+    @Query("SELECT p.id, " + CURRENT_AVAILABLE + ", " + CURRENT_RESERVED + " FROM Product p WHERE p.id = :productId")
+    List<Object[]> findStockLevel(Long productId);
+
+    String CURRENT_AVAILABLE = "p.availableQuantity + COALESCE((SELECT SUM(m.availableDelta) FROM StockMovement m "
+        + "WHERE m.productId = p.id AND m.id > COALESCE(p.lastMovementId, 0)), 0)";
+
+    String CURRENT_RESERVED = "p.reservedQuantity + COALESCE((SELECT SUM(m.reservedDelta) FROM StockMovement m "
+        + "WHERE m.productId = p.id AND m.id > COALESCE(p.lastMovementId, 0)), 0)";
+
+    /**
+     * (id, sku, name, description) projection used to build the in-memory search index
+     */
+    @Query("SELECT p.id, p.sku, p.name, p.description FROM Product p")
+    List<Object[]> findAllSearchFields();
 }
\ No newline at end of file
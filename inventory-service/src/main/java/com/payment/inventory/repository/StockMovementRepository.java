@@ -0,0 +1,36 @@
+package com.payment.inventory.repository;
+
+import com.payment.inventory.model.MovementType;
+import com.payment.inventory.model.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for StockMovement entity (inventory ledger)
+ * Inserts go through StockLedger's JDBC batches; this repository is for reads
+ * 
+ * Location: inventory-service/src/main/java/com/payment/inventory/repository/StockMovementRepository.java
+ */
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    /**
+     * Movement history for a product, newest first
+     */
+    List<StockMovement> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+
+    /**
+     * Movements of one type for an order's product - used to find where a reservation was allocated
+     */
+    List<StockMovement> findByCorrelationIdAndProductIdAndMovementType(String correlationId, Long productId,
+                                                                       MovementType movementType);
+
+    /**
+     * Whether an order's product already has a movement of this type - used to skip redelivered sales
+     */
+    boolean existsByCorrelationIdAndProductIdAndMovementType(String correlationId, Long productId,
+                                                             MovementType movementType);
+}
@@ -0,0 +1,21 @@
+package com.payment.inventory.repository;
+
+import com.payment.inventory.model.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for Warehouse entity
+ * 
+ * Location: inventory-service/src/main/java/com/payment/inventory/repository/WarehouseRepository.java
+ */
+@Repository
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+
+    /**
+     * All warehouses, default (lowest ID) first
+     */
+    List<Warehouse> findAllByOrderByIdAsc();
+}
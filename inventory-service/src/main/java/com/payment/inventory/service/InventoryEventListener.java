@@ -1,5 +1,6 @@
 package com.payment.inventory.service;
 
+import com.payment.common.logging.EventLog;
 import com.payment.order.event.OrderEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -21,8 +22,9 @@ public class InventoryEventListener {
     }
 
     /**
-     * Listen to order-events topic and process ORDER_CREATED events
-     * For each item in the order, attempt to reserve inventory
+     * Listen to order-events topic and process ORDER_CREATED and ORDER_COMPLETED events
+     * ORDER_CREATED: for each item in the order, attempt to reserve inventory
+     * ORDER_COMPLETED: for each item in the order, record the sale of the reserved units
      */
     @KafkaListener(
         topics = "order-events",
@@ -30,33 +32,30 @@ public class InventoryEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handleOrderCreated(OrderEvent orderEvent) {
-        log.info("═══════════════════════════════════════════════════");
-        log.info("📦 INVENTORY SERVICE - Order Event Received");
-        log.info("═══════════════════════════════════════════════════");
-        log.info("Event Type: {}", orderEvent.getEventType());
-        log.info("Correlation ID: {}", orderEvent.getCorrelationId());
-        log.info("Order ID: {}", orderEvent.getOrderId());
-        log.info("Customer ID: {}", orderEvent.getCustomerId());
-        log.info("Total Amount: ${}", orderEvent.getTotalAmount());
-        log.info("Number of Items: {}", orderEvent.getItems().size());
-        log.info("───────────────────────────────────────────────────");
+        long start = System.nanoTime();
+        log.debug("📦 Order event {} for order {}: ${}, {} items", orderEvent.getEventType(),
+            orderEvent.getOrderId(), orderEvent.getTotalAmount(), orderEvent.getItems().size());
 
-        // Only process ORDER_CREATED events
+        if ("ORDER_COMPLETED".equals(orderEvent.getEventType())) {
+            handleOrderCompleted(orderEvent, start);
+            return;
+        }
+
+        // Otherwise only process ORDER_CREATED events
         if (!"ORDER_CREATED".equals(orderEvent.getEventType())) {
-            log.info("⏭️  Skipping event type: {}", orderEvent.getEventType());
-            log.info("═══════════════════════════════════════════════════\n");
+            log.debug("⏭️  Skipping event type: {}", orderEvent.getEventType());
             return;
         }
 
+        String outcome;
         try {
             // Process each item in the order
-            log.info("Processing {} order items...", orderEvent.getItems().size());
+            log.debug("Processing {} order items...", orderEvent.getItems().size());
             
             boolean allItemsReserved = true;
             
             for (OrderEvent.OrderItemEvent item : orderEvent.getItems()) {
-                log.info("───────────────────────────────────────────────────");
-                log.info("Processing item: Product ID {} | Quantity {}", 
+                log.debug("Processing item: Product ID {} | Quantity {}", 
                     item.getProductId(), item.getQuantity());
 
                 // Attempt to reserve inventory for this item
@@ -64,34 +63,54 @@ public class InventoryEventListener {
                     orderEvent.getOrderId(),
                     item.getProductId(),
                     item.getQuantity(),
-                    orderEvent.getCorrelationId()
+                    orderEvent.getCorrelationId(),
+                    orderEvent.getCustomerId(),
+                    orderEvent.getTotalAmount()
                 );
 
                 // Check if reservation was successful
                 if (!inventoryEvent.isSuccess()) {
-                    log.warn("❌ Failed to reserve inventory for product {}", item.getProductId());
-                    log.warn("Reason: {}", inventoryEvent.getMessage());
+                    log.warn("❌ Failed to reserve inventory for product {}: {}",
+                        item.getProductId(), inventoryEvent.getMessage());
                     allItemsReserved = false;
                     break; // Stop processing remaining items
                 } else {
-                    log.info("✅ Inventory reserved for product {}", item.getProductId());
+                    log.debug("✅ Inventory reserved for product {}", item.getProductId());
                 }
             }
 
-            log.info("───────────────────────────────────────────────────");
-            
             if (allItemsReserved) {
-                log.info("🎉 All inventory items reserved successfully");
-                log.info("📤 INVENTORY_RESERVED event published");
+                outcome = "INVENTORY_RESERVED";
+                log.debug("🎉 All inventory items reserved successfully");
             } else {
-                log.warn("⚠️ Some inventory items could not be reserved");
-                log.warn("📤 INVENTORY_FAILED event published");
+                outcome = "INVENTORY_FAILED";
             }
+        } catch (Exception e) {
+            outcome = "error";
+            log.error("❌ Error processing order event: {}", e.getMessage(), e);
+        }
 
+        EventLog.handled(log, orderEvent.getEventType(), orderEvent.getOrderId(), orderEvent.getCorrelationId(),
+            outcome, start);
+    }
+
+    /**
+     * Record a SALE for each item of a completed order, moving its reserved units out of stock
+     */
+    private void handleOrderCompleted(OrderEvent orderEvent, long start) {
+        String outcome;
+        try {
+            for (OrderEvent.OrderItemEvent item : orderEvent.getItems()) {
+                inventoryService.recordSale(orderEvent.getOrderId(), item.getProductId(), item.getQuantity(),
+                    orderEvent.getCorrelationId());
+            }
+            outcome = "SOLD";
         } catch (Exception e) {
+            outcome = "error";
             log.error("❌ Error processing order event: {}", e.getMessage(), e);
         }
 
-        log.info("═══════════════════════════════════════════════════\n");
+        EventLog.handled(log, orderEvent.getEventType(), orderEvent.getOrderId(), orderEvent.getCorrelationId(),
+            outcome, start);
     }
-}
\ No newline at end of file
+}
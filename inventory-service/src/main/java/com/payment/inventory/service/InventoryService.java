@@ -1,13 +1,23 @@
 package com.payment.inventory.service;
 
+import com.payment.common.money.Money;
+import com.payment.inventory.dto.ProductSearchResponse;
 import com.payment.inventory.event.InventoryEvent;
+import com.payment.inventory.model.MovementType;
 import com.payment.inventory.model.Product;
+import com.payment.inventory.model.StockMovement;
 import com.payment.inventory.repository.ProductRepository;
+import com.payment.inventory.repository.StockMovementRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Inventory Service - Business logic for inventory management
@@ -20,19 +30,32 @@ public class InventoryService {
 
     private final ProductRepository productRepository;
     private final EventPublisher eventPublisher;
-
-    public InventoryService(ProductRepository productRepository, EventPublisher eventPublisher) {
+    private final LowStockIndex lowStockIndex;
+    private final ProductSearchIndex productSearchIndex;
+    private final StockLedger stockLedger;
+    private final StockMovementRepository stockMovementRepository;
+
+    public InventoryService(ProductRepository productRepository, EventPublisher eventPublisher,
+                            LowStockIndex lowStockIndex, ProductSearchIndex productSearchIndex,
+                            StockLedger stockLedger, StockMovementRepository stockMovementRepository) {
         this.productRepository = productRepository;
         this.eventPublisher = eventPublisher;
+        this.lowStockIndex = lowStockIndex;
+        this.productSearchIndex = productSearchIndex;
+        this.stockLedger = stockLedger;
+        this.stockMovementRepository = stockMovementRepository;
     }
 
     /**
      * Reserve inventory for an order
+     * Allocated across warehouses nearest the customer and recorded as RESERVE movements in the
+     * stock ledger (no product row update)
+     * The success event carries the order's customer and total for payment processing
      * Returns InventoryEvent indicating success or failure
      */
-    @Transactional
-    public InventoryEvent reserveInventory(Long orderId, Long productId, Integer quantity, String correlationId) {
-        log.info("Attempting to reserve {} units of product {} for order {}", 
+    public InventoryEvent reserveInventory(Long orderId, Long productId, Integer quantity, String correlationId,
+                                           Long customerId, Money orderTotal) {
+        log.debug("Attempting to reserve {} units of product {} for order {}", 
             quantity, productId, orderId);
 
         try {
@@ -40,22 +63,26 @@ public class InventoryService {
             Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
 
-            log.info("Product found: {} (SKU: {})", product.getName(), product.getSku());
-            log.info("Available: {}, Reserved: {}", product.getAvailableQuantity(), product.getReservedQuantity());
-
-            // Check and reserve inventory
-            boolean reserved = product.reserve(quantity);
+            log.debug("Product found: {} (SKU: {})", product.getName(), product.getSku());
 
-            if (reserved) {
-                // Save updated product
-                productRepository.save(product);
+            // Check, allocate and reserve inventory (returns once the movements are durable)
+            List<WarehouseAllocator.Allocation> allocations =
+                stockLedger.reserve(productId, quantity, orderId, correlationId, customerId);
 
-                log.info("✅ Inventory reserved successfully");
-                log.info("New Available: {}, New Reserved: {}", 
-                    product.getAvailableQuantity(), product.getReservedQuantity());
+            if (!allocations.isEmpty()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("✅ Inventory reserved - New Available: {}", stockLedger.getAvailable(productId));
+                    allocations.forEach(allocation -> log.debug("🏬 Allocated {} units from {}",
+                        allocation.quantity(), allocation.warehouseCode()));
+                }
 
                 // Create success event
-                InventoryEvent event = InventoryEvent.reserved(correlationId, orderId, productId, quantity);
+                InventoryEvent event = InventoryEvent.reserved(correlationId, orderId, productId, quantity,
+                    allocations.stream()
+                        .map(allocation -> new InventoryEvent.WarehouseAllocation(
+                            allocation.warehouseId(), allocation.warehouseCode(), allocation.quantity()))
+                        .collect(Collectors.toList()),
+                    customerId, orderTotal);
                 
                 // Publish event
                 eventPublisher.publishEvent("inventory-events", correlationId, event);
@@ -64,7 +91,7 @@ public class InventoryService {
             } else {
                 // Insufficient stock
                 String message = String.format("Insufficient stock for product %s. Requested: %d, Available: %d",
-                    product.getName(), quantity, product.getAvailableQuantity());
+                    product.getName(), quantity, stockLedger.getAvailable(productId));
                 
                 log.warn("❌ Inventory reservation failed: {}", message);
 
@@ -91,8 +118,8 @@ public class InventoryService {
 
     /**
      * Unreserve inventory (compensation for payment failure)
+     * Recorded as an UNRESERVE movement in the stock ledger
      */
-    @Transactional
     public InventoryEvent unreserveInventory(Long orderId, Long productId, Integer quantity, String correlationId) {
         log.info("🔄 COMPENSATION: Unreserving {} units of product {} for order {}", 
             quantity, productId, orderId);
@@ -102,19 +129,14 @@ public class InventoryService {
             Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
 
-            log.info("Product found: {} (SKU: {})", product.getName(), product.getSku());
-            log.info("Before unreserve - Available: {}, Reserved: {}", 
-                product.getAvailableQuantity(), product.getReservedQuantity());
+            log.debug("Product found: {} (SKU: {})", product.getName(), product.getSku());
 
-            // Unreserve inventory
-            product.unreserve(quantity);
+            // Unreserve inventory (returns once the movement is durable)
+            stockLedger.unreserve(productId, quantity, orderId, correlationId);
 
-            // Save updated product
-            productRepository.save(product);
-
-            log.info("✅ Inventory unreserved successfully");
-            log.info("After unreserve - Available: {}, Reserved: {}", 
-                product.getAvailableQuantity(), product.getReservedQuantity());
+            if (log.isDebugEnabled()) {
+                log.debug("✅ Inventory unreserved - Available: {}", stockLedger.getAvailable(productId));
+            }
 
             // Create unreserved event
             InventoryEvent event = InventoryEvent.unreserved(correlationId, orderId, productId, quantity);
@@ -130,12 +152,36 @@ public class InventoryService {
         }
     }
 
+    /**
+     * Record a completed order's sale - the reserved units leave the stock for good
+     * Recorded as a SALE movement in the stock ledger; a redelivered ORDER_COMPLETED finds the
+     * SALE already written and records nothing
+     */
+    public void recordSale(Long orderId, Long productId, Integer quantity, String correlationId) {
+        if (stockMovementRepository.existsByCorrelationIdAndProductIdAndMovementType(
+                correlationId, productId, MovementType.SALE)) {
+            log.debug("⏭️  Sale of product {} for order {} already recorded", productId, orderId);
+            return;
+        }
+
+        try {
+            // Returns once the movement is durable
+            stockLedger.sell(productId, quantity, orderId, correlationId);
+            log.debug("💰 Sold {} units of product {} for order {}", quantity, productId, orderId);
+        } catch (Exception e) {
+            log.error("❌ Error recording sale: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to record sale", e);
+        }
+    }
+
     /**
      * Get all products
      */
     @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        List<Product> products = productRepository.findAll();
+        products.forEach(stockLedger::withCurrentLevels);
+        return products;
     }
 
     /**
@@ -144,6 +190,7 @@ public class InventoryService {
     @Transactional(readOnly = true)
     public Product getProductById(Long id) {
         return productRepository.findById(id)
+            .map(stockLedger::withCurrentLevels)
             .orElseThrow(() -> new RuntimeException("Product not found: " + id));
     }
 
@@ -153,6 +200,53 @@ public class InventoryService {
     @Transactional(readOnly = true)
     public Product getProductBySku(String sku) {
         return productRepository.findBySku(sku)
+            .map(stockLedger::withCurrentLevels)
             .orElseThrow(() -> new RuntimeException("Product not found with SKU: " + sku));
     }
-}
\ No newline at end of file
+
+    /**
+     * Get products below a stock threshold, lowest stock first
+     * Served from the in-memory LowStockIndex instead of a table scan
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getLowStockProducts(Integer threshold, int limit) {
+        int belowQuantity = threshold != null ? threshold : lowStockIndex.getThreshold();
+        List<Long> productIds = lowStockIndex.findLowStockProductIds(belowQuantity, limit);
+
+        Map<Long, Product> productsById = productRepository.findAllById(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // findAllById does not keep the index order
+        return productIds.stream()
+            .map(productsById::get)
+            .filter(Objects::nonNull)
+            .map(stockLedger::withCurrentLevels)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Current available quantity per warehouse for a product
+     */
+    public Map<String, Integer> getWarehouseStock(Long productId) {
+        return stockLedger.getWarehouseLevels(productId);
+    }
+
+    /**
+     * Stock movement history for a product, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<StockMovement> getStockMovements(Long productId, int limit) {
+        return stockMovementRepository.findByProductIdOrderByIdDesc(productId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Search products by sku, name and description
+     * Served from the in-memory ProductSearchIndex instead of LIKE '%x%'
+     */
+    public ProductSearchResponse searchProducts(String query, int page, int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new RuntimeException("Invalid page/size: page must be >= 0 and size between 1 and 100");
+        }
+        return productSearchIndex.search(query, page, size);
+    }
+}
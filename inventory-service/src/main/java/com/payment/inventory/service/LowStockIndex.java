@@ -0,0 +1,141 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.event.InventoryEvent;
+import com.payment.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Low Stock Index - In-memory sorted index of products by available quantity
+ *
+ * Replaces the full table scan in ProductRepository.findLowStockProducts:
+ * - Built once at startup from the products table
+ * - Updated on every stock change (O(log n))
+ * - Low-stock queries walk the head of the sorted set (O(log n + k))
+ * - Publishes a LOW_STOCK event the moment a product drops below the configured threshold
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/service/LowStockIndex.java
+ */
+@Component
+@Slf4j
+public class LowStockIndex {
+
+    private final ProductRepository productRepository;
+    private final EventPublisher eventPublisher;
+
+    // productId -> current available quantity
+    private final ConcurrentHashMap<Long, Integer> levels = new ConcurrentHashMap<>();
+
+    // Same data ordered by (availableQuantity, productId)
+    private final ConcurrentSkipListSet<StockEntry> byQuantity = new ConcurrentSkipListSet<>();
+
+    @Value("${inventory.low-stock.threshold:10}")
+    private int threshold;
+
+    public LowStockIndex(ProductRepository productRepository, EventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Load current stock levels once the application (and any data loaders) are ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        levels.clear();
+        byQuantity.clear();
+
+        for (Object[] row : productRepository.findAllStockLevels()) {
+            Long productId = (Long) row[0];
+            int available = ((Number) row[1]).intValue();
+            levels.put(productId, available);
+            byQuantity.add(new StockEntry(available, productId));
+        }
+
+        log.info("📇 Low stock index built: {} products in {} ms (threshold: {})",
+            levels.size(), System.currentTimeMillis() - start, threshold);
+    }
+
+    /**
+     * Record a stock change - applied after commit when called inside a transaction,
+     * so a rolled-back reservation never reaches the index
+     */
+    public void onStockChanged(Long productId, int availableQuantity) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(productId, availableQuantity);
+                }
+            });
+        } else {
+            update(productId, availableQuantity);
+        }
+    }
+
+    /**
+     * Apply a new level and detect a downward threshold crossing
+     * (including a product's first level when it is already below the threshold)
+     */
+    void update(Long productId, int availableQuantity) {
+        Integer[] previous = new Integer[1];
+
+        // compute() serializes updates per product, keeping the map and the sorted set in step
+        levels.compute(productId, (id, old) -> {
+            previous[0] = old;
+            if (old != null) {
+                byQuantity.remove(new StockEntry(old, id));
+            }
+            byQuantity.add(new StockEntry(availableQuantity, id));
+            return availableQuantity;
+        });
+
+        // A product first seen here was created after rebuild() - it starts out above the threshold
+        Integer old = previous[0];
+        if ((old == null || old >= threshold) && availableQuantity < threshold) {
+            log.warn("📉 LOW STOCK: product {} dropped to {} (threshold: {})", productId, availableQuantity, threshold);
+            InventoryEvent event = InventoryEvent.lowStock(productId, availableQuantity, threshold);
+            eventPublisher.publishEvent("inventory-events", String.valueOf(productId), event);
+        }
+    }
+
+    /**
+     * Product IDs with available quantity below the threshold, lowest stock first
+     */
+    public List<Long> findLowStockProductIds(int belowQuantity, int limit) {
+        List<Long> productIds = new ArrayList<>();
+        for (StockEntry entry : byQuantity.headSet(new StockEntry(belowQuantity, Long.MIN_VALUE))) {
+            if (productIds.size() >= limit) {
+                break;
+            }
+            productIds.add(entry.productId());
+        }
+        return productIds;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sorted-set entry ordered by quantity, then product ID
+     */
+    record StockEntry(int quantity, long productId) implements Comparable<StockEntry> {
+        @Override
+        public int compareTo(StockEntry other) {
+            int byQty = Integer.compare(quantity, other.quantity);
+            return byQty != 0 ? byQty : Long.compare(productId, other.productId);
+        }
+    }
+}
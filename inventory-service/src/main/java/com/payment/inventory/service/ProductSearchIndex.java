@@ -0,0 +1,531 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.dto.ProductSearchResponse;
+import com.payment.inventory.model.Product;
+import com.payment.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Product Search Index - In-process trigram inverted index over product sku, name and description
+ *
+ * Replaces ProductRepository.findByNameContainingIgnoreCase (LIKE '%x%' cannot use a B-tree index):
+ * - Every word is padded ("  word ") and split into 3-character grams, like pg_trgm
+ * - Each gram maps to a sorted posting array of (productId << 3 | fieldMask)
+ * - Query grams are scored per product, weighted by field (sku > name > description)
+ * - Queries scan the smallest posting lists and probe the rest; only the requested top hits are kept
+ * - Postings are copy-on-write arrays, so searches never block on writers
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/service/ProductSearchIndex.java
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    static final int FIELD_SKU = 1;
+    static final int FIELD_NAME = 2;
+    static final int FIELD_DESCRIPTION = 4;
+
+    private static final int WEIGHT_SKU = 3;
+    private static final int WEIGHT_NAME = 2;
+    private static final int WEIGHT_DESCRIPTION = 1;
+    private static final int EXACT_NAME_BONUS = 2;
+
+    // A product must match at least this share of the query grams to be returned
+    private static final double MIN_GRAM_MATCH = 0.5;
+
+    // Deepest hit a page may reach ((page + 1) * size), which also bounds the top-k heap
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    // Best hits first: higher score, then lower productId
+    private static final Comparator<ProductSearchResponse.Hit> RANKING = Comparator
+        .comparingInt(ProductSearchResponse.Hit::getScore).reversed()
+        .thenComparingLong(ProductSearchResponse.Hit::getProductId);
+
+    private static final long[] NO_POSTINGS = new long[0];
+
+    private final ProductRepository productRepository;
+
+    // gram -> sorted postings (productId << 3 | fieldMask)
+    private final ConcurrentHashMap<Long, long[]> postings = new ConcurrentHashMap<>();
+
+    // productId -> indexed document (needed to remove old grams on update)
+    private final ConcurrentHashMap<Long, IndexedProduct> documents = new ConcurrentHashMap<>();
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Build the index once the application (and any data loaders) are ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        // Accumulate postings in growable arrays, then sort each list once
+        Map<Long, long[]> building = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        documents.clear();
+
+        for (Object[] row : productRepository.findAllSearchFields()) {
+            IndexedProduct document = toDocument((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            documents.put(document.productId(), document);
+
+            for (int i = 0; i < document.grams().length; i++) {
+                long gram = document.grams()[i];
+                int size = sizes.getOrDefault(gram, 0);
+                long[] list = building.get(gram);
+                if (list == null || list.length == size) {
+                    list = list == null ? new long[4] : Arrays.copyOf(list, size * 2);
+                    building.put(gram, list);
+                }
+                list[size] = encode(document.productId(), document.masks()[i]);
+                sizes.put(gram, size + 1);
+            }
+        }
+
+        postings.clear();
+        building.forEach((gram, list) -> {
+            long[] trimmed = Arrays.copyOf(list, sizes.get(gram));
+            Arrays.sort(trimmed);
+            postings.put(gram, trimmed);
+        });
+
+        log.info("🔎 Product search index built: {} products, {} grams in {} ms",
+            documents.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Record a product change - applied after commit when called inside a transaction,
+     * so a rolled-back insert or rename never reaches the index
+     */
+    public void onProductChanged(Product product) {
+        if (product.getId() == null) {
+            return;
+        }
+        afterCommit(() -> index(product));
+    }
+
+    /**
+     * Record a product delete - applied after commit like onProductChanged,
+     * so a rolled-back delete leaves the product searchable
+     */
+    public void onProductRemoved(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        afterCommit(() -> remove(productId));
+    }
+
+    /**
+     * Run an index change after the current transaction commits, or now when there is none
+     */
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Add or refresh one product (no-op when the searchable fields did not change)
+     */
+    public void index(Product product) {
+        IndexedProduct document = toDocument(product.getId(), product.getSku(), product.getName(), product.getDescription());
+        IndexedProduct previous = documents.put(product.getId(), document);
+
+        if (previous != null && previous.sameText(document)) {
+            return;
+        }
+        if (previous != null) {
+            removePostings(previous);
+        }
+        for (int i = 0; i < document.grams().length; i++) {
+            addPosting(document.grams()[i], encode(document.productId(), document.masks()[i]));
+        }
+    }
+
+    /**
+     * Remove a product from the index
+     */
+    public void remove(Long productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous != null) {
+            removePostings(previous);
+        }
+    }
+
+    /**
+     * Ranked, paginated search
+     *
+     * Posting lists are visited smallest first: a product matching at least minMatches of n query grams
+     * appears in at least one of the n - minMatches + 1 smallest lists, so only those are scanned and the
+     * larger lists are probed for the candidates they produced. Only the best (page + 1) * size hits
+     * are kept, in a bounded heap, instead of sorting every match.
+     */
+    public ProductSearchResponse search(String query, int page, int size) {
+        long start = System.nanoTime();
+        if (page < 0 || size < 1 || ((long) page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new RuntimeException("Invalid page/size: (page + 1) * size must be at most " + MAX_RESULT_WINDOW);
+        }
+        String normalized = query == null ? "" : query.toLowerCase(Locale.ROOT).trim();
+        long[] queryGrams = distinct(queryGrams(normalized));
+
+        if (queryGrams.length == 0) {
+            return new ProductSearchResponse(query, page, size, 0, List.of(), (System.nanoTime() - start) / 1000);
+        }
+
+        long[][] lists = new long[queryGrams.length][];
+        for (int i = 0; i < queryGrams.length; i++) {
+            lists[i] = postings.getOrDefault(queryGrams[i], NO_POSTINGS);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        int minMatches = (int) Math.ceil(queryGrams.length * MIN_GRAM_MATCH);
+        int scanned = lists.length - minMatches + 1;
+
+        // productId -> accumulated score and matched gram count
+        ScoreTable scores = new ScoreTable(64);
+        for (int i = 0; i < scanned; i++) {
+            for (long entry : lists[i]) {
+                scores.add(entry >>> 3, weight(entry));
+            }
+        }
+        for (int i = scanned; i < lists.length; i++) {
+            matchCandidates(scores, lists[i], minMatches - (lists.length - i));
+        }
+
+        // Worst kept hit at the head, so a better one replaces it
+        int window = (page + 1) * size;
+        PriorityQueue<ProductSearchResponse.Hit> best = new PriorityQueue<>(Math.min(window, 1024), RANKING.reversed());
+        int totalHits = 0;
+        for (int slot = 0; slot < scores.capacity(); slot++) {
+            if (!scores.used(slot) || scores.matches(slot) < minMatches) {
+                continue;
+            }
+            IndexedProduct document = documents.get(scores.key(slot));
+            if (document == null) {
+                continue;
+            }
+            totalHits++;
+            int score = scores.score(slot);
+            if (document.nameLower().contains(normalized)) {
+                score += EXACT_NAME_BONUS * queryGrams.length;
+            }
+            if (best.size() == window) {
+                if (!ranksAbove(score, document.productId(), best.peek())) {
+                    continue;
+                }
+                best.poll();
+            }
+            best.add(new ProductSearchResponse.Hit(document.productId(), document.sku(), document.name(), score));
+        }
+
+        ProductSearchResponse.Hit[] ranked = new ProductSearchResponse.Hit[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll();
+        }
+        int from = Math.min(page * size, ranked.length);
+        return new ProductSearchResponse(query, page, size, totalHits,
+            new ArrayList<>(Arrays.asList(ranked).subList(from, ranked.length)), (System.nanoTime() - start) / 1000);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // ── Scoring ─────────────────────────────────────────────────────────
+
+    private static int weight(long entry) {
+        int mask = (int) (entry & 7);
+        return ((mask & FIELD_SKU) != 0 ? WEIGHT_SKU : 0)
+            + ((mask & FIELD_NAME) != 0 ? WEIGHT_NAME : 0)
+            + ((mask & FIELD_DESCRIPTION) != 0 ? WEIGHT_DESCRIPTION : 0);
+    }
+
+    /**
+     * Count one larger posting list for the candidates that can still reach minMatches
+     * (those with at least needed matches so far): binary search per candidate while there are few of them,
+     * otherwise one pass over the list
+     */
+    private static void matchCandidates(ScoreTable scores, long[] list, int needed) {
+        if (list.length == 0) {
+            return;
+        }
+        int probeCost = 64 - Long.numberOfLeadingZeros(list.length);
+        if ((long) scores.count() * probeCost < list.length) {
+            for (int slot = 0; slot < scores.capacity(); slot++) {
+                if (!scores.used(slot) || scores.matches(slot) < needed) {
+                    continue;
+                }
+                int pos = Arrays.binarySearch(list, scores.key(slot) << 3);
+                int at = pos >= 0 ? pos : -pos - 1;
+                if (at < list.length && list[at] >>> 3 == scores.key(slot)) {
+                    scores.addAt(slot, weight(list[at]));
+                }
+            }
+        } else {
+            for (long entry : list) {
+                int slot = scores.find(entry >>> 3);
+                if (slot >= 0 && scores.matches(slot) >= needed) {
+                    scores.addAt(slot, weight(entry));
+                }
+            }
+        }
+    }
+
+    private static boolean ranksAbove(int score, long productId, ProductSearchResponse.Hit hit) {
+        return score != hit.getScore() ? score > hit.getScore() : productId < hit.getProductId();
+    }
+
+    // ── Postings maintenance ────────────────────────────────────────────
+
+    private void addPosting(long gram, long encoded) {
+        postings.compute(gram, (key, list) -> {
+            if (list == null) {
+                return new long[]{encoded};
+            }
+            int pos = Arrays.binarySearch(list, encoded);
+            if (pos >= 0) {
+                return list;
+            }
+            int insertAt = -pos - 1;
+            long[] copy = new long[list.length + 1];
+            System.arraycopy(list, 0, copy, 0, insertAt);
+            copy[insertAt] = encoded;
+            System.arraycopy(list, insertAt, copy, insertAt + 1, list.length - insertAt);
+            return copy;
+        });
+    }
+
+    private void removePostings(IndexedProduct document) {
+        for (int i = 0; i < document.grams().length; i++) {
+            long encoded = encode(document.productId(), document.masks()[i]);
+            postings.computeIfPresent(document.grams()[i], (key, list) -> {
+                int pos = Arrays.binarySearch(list, encoded);
+                if (pos < 0) {
+                    return list;
+                }
+                if (list.length == 1) {
+                    return null;
+                }
+                long[] copy = new long[list.length - 1];
+                System.arraycopy(list, 0, copy, 0, pos);
+                System.arraycopy(list, pos + 1, copy, pos, list.length - pos - 1);
+                return copy;
+            });
+        }
+    }
+
+    // ── Tokenizing ──────────────────────────────────────────────────────
+
+    private static IndexedProduct toDocument(Long productId, String sku, String name, String description) {
+        Map<Long, Integer> gramMasks = new HashMap<>();
+        collectGrams(sku, FIELD_SKU, gramMasks);
+        collectGrams(name, FIELD_NAME, gramMasks);
+        collectGrams(description, FIELD_DESCRIPTION, gramMasks);
+
+        long[] grams = new long[gramMasks.size()];
+        byte[] masks = new byte[gramMasks.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : gramMasks.entrySet()) {
+            grams[i] = entry.getKey();
+            masks[i] = entry.getValue().byteValue();
+            i++;
+        }
+        return new IndexedProduct(productId, sku, name, description,
+            name == null ? "" : name.toLowerCase(Locale.ROOT), grams, masks);
+    }
+
+    private static void collectGrams(String text, int field, Map<Long, Integer> gramMasks) {
+        if (text == null) {
+            return;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                gramMasks.merge(gram(padded, i), field, (a, b) -> a | b);
+            }
+        }
+    }
+
+    /**
+     * Query words are padded at the front only, so a trailing partial word still matches as a prefix
+     */
+    private static long[] queryGrams(String query) {
+        List<Long> grams = new ArrayList<>();
+        for (String word : query.split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(gram(padded, i));
+            }
+        }
+        return grams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long[] distinct(long[] grams) {
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static long gram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    private static long encode(long productId, int mask) {
+        return (productId << 3) | mask;
+    }
+
+    /**
+     * Indexed form of a product
+     */
+    record IndexedProduct(long productId, String sku, String name, String description,
+                          String nameLower, long[] grams, byte[] masks) {
+
+        boolean sameText(IndexedProduct other) {
+            return Objects.equals(sku, other.sku)
+                && Objects.equals(name, other.name)
+                && Objects.equals(description, other.description);
+        }
+    }
+
+    /**
+     * Open-addressing productId -> (score, matches) table - avoids boxing on the scoring loop
+     */
+    static final class ScoreTable {
+        private long[] keys;
+        private int[] scores;
+        private int[] matches;
+        private boolean[] used;
+        private int count;
+
+        ScoreTable(int initialCapacity) {
+            allocate(Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1);
+        }
+
+        void add(long key, int score) {
+            if (count * 2 >= keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = (int) (mix(key) & mask);
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = key;
+                count++;
+            }
+            scores[slot] += score;
+            matches[slot]++;
+        }
+
+        /**
+         * Slot holding key, or -1
+         */
+        int find(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (mix(key) & mask);
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        void addAt(int slot, int score) {
+            scores[slot] += score;
+            matches[slot]++;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        boolean used(int slot) {
+            return used[slot];
+        }
+
+        long key(int slot) {
+            return keys[slot];
+        }
+
+        int score(int slot) {
+            return scores[slot];
+        }
+
+        int matches(int slot) {
+            return matches[slot];
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldScores = scores;
+            int[] oldMatches = matches;
+            boolean[] oldUsed = used;
+            allocate(oldKeys.length * 2);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (!oldUsed[i]) {
+                    continue;
+                }
+                int slot = (int) (mix(oldKeys[i]) & mask);
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                scores[slot] = oldScores[i];
+                matches[slot] = oldMatches[i];
+                count++;
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            scores = new int[capacity];
+            matches = new int[capacity];
+            used = new boolean[capacity];
+            count = 0;
+        }
+
+        private static long mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 32);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Product Search Listener - JPA entity listener that keeps ProductSearchIndex current
+ * Catches every product insert, update and delete, whichever code path made it
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/service/ProductSearchListener.java
+ */
+@Component
+public class ProductSearchListener {
+
+    // Resolved lazily - the listener is created while the EntityManagerFactory is still starting
+    private final ObjectProvider<ProductSearchIndex> searchIndex;
+
+    public ProductSearchListener(ObjectProvider<ProductSearchIndex> searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Product product) {
+        searchIndex.getObject().onProductChanged(product);
+    }
+
+    @PostRemove
+    public void onRemove(Product product) {
+        searchIndex.getObject().onProductRemoved(product.getId());
+    }
+}
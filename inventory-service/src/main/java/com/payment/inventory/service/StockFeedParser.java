@@ -0,0 +1,207 @@
+package com.payment.inventory.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stock Feed Parser - Streams a warehouse stock file without materializing it
+ *
+ * Reads the file through a FileChannel into one reusable buffer and scans raw bytes:
+ * - csv:    sku,quantity[,anything else]   (a non-numeric first line is treated as a header)
+ * - ndjson: {"sku":"LAPTOP-001","quantity":42}   one object per line
+ * Only the SKU becomes a String; quantities are parsed straight from the bytes.
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/service/StockFeedParser.java
+ */
+public final class StockFeedParser {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] SKU_KEY = "\"sku\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] QUANTITY_KEY = "\"quantity\"".getBytes(StandardCharsets.US_ASCII);
+
+    public enum Format { CSV, NDJSON }
+
+    /**
+     * Receives one parsed record at a time
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(String sku, int quantity);
+    }
+
+    private StockFeedParser() {
+    }
+
+    /**
+     * Parse the whole file, returning the number of malformed lines skipped
+     */
+    public static long parse(Path path, Format format, RecordHandler handler) throws IOException {
+        return parse(path, format, handler, BUFFER_SIZE);
+    }
+
+    /**
+     * Parse with a given buffer size (tests use small buffers to cut lines across reads)
+     */
+    static long parse(Path path, Format format, RecordHandler handler, int bufferSize) throws IOException {
+        long malformed = 0;
+        long lineNumber = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        byte[] bytes = buffer.array();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(buffer) < 0;
+                int limit = buffer.position();
+                int lineStart = 0;
+
+                for (int i = 0; i < limit; i++) {
+                    if (bytes[i] == '\n') {
+                        if (!parseLine(bytes, lineStart, i, format, ++lineNumber, handler)) {
+                            malformed++;
+                        }
+                        lineStart = i + 1;
+                    }
+                }
+
+                if (eof) {
+                    // Last line without a trailing newline
+                    if (lineStart < limit && !parseLine(bytes, lineStart, limit, format, ++lineNumber, handler)) {
+                        malformed++;
+                    }
+                } else {
+                    if (lineStart == 0 && limit == bytes.length) {
+                        throw new IOException("Line " + (lineNumber + 1) + " is longer than " + bufferSize + " bytes");
+                    }
+                    // Keep the partial line for the next read
+                    buffer.position(lineStart);
+                    buffer.limit(limit);
+                    buffer.compact();
+                }
+            }
+        }
+        return malformed;
+    }
+
+    /**
+     * Returns false for a malformed line; blank lines and the CSV header count as well-formed
+     */
+    private static boolean parseLine(byte[] bytes, int start, int end, Format format, long lineNumber,
+                                     RecordHandler handler) {
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        if (end <= start) {
+            return true;
+        }
+        return format == Format.CSV
+            ? parseCsv(bytes, start, end, lineNumber, handler)
+            : parseJson(bytes, start, end, handler);
+    }
+
+    private static boolean parseCsv(byte[] bytes, int start, int end, long lineNumber, RecordHandler handler) {
+        int comma = indexOf(bytes, start, end, (byte) ',');
+        if (comma < 0) {
+            return false;
+        }
+        int quantityEnd = indexOf(bytes, comma + 1, end, (byte) ',');
+        long quantity = parseInt(bytes, comma + 1, quantityEnd < 0 ? end : quantityEnd);
+        if (quantity < 0) {
+            return lineNumber == 1; // Header row
+        }
+        String sku = string(bytes, start, comma);
+        if (sku.isEmpty()) {
+            return false;
+        }
+        handler.onRecord(sku, (int) quantity);
+        return true;
+    }
+
+    private static boolean parseJson(byte[] bytes, int start, int end, RecordHandler handler) {
+        int skuKey = indexOf(bytes, start, end, SKU_KEY);
+        int quantityKey = indexOf(bytes, start, end, QUANTITY_KEY);
+        if (skuKey < 0 || quantityKey < 0) {
+            return false;
+        }
+
+        int skuStart = indexOf(bytes, skuKey + SKU_KEY.length, end, (byte) '"');
+        int skuEnd = skuStart < 0 ? -1 : indexOf(bytes, skuStart + 1, end, (byte) '"');
+        if (skuEnd < 0) {
+            return false;
+        }
+
+        int colon = indexOf(bytes, quantityKey + QUANTITY_KEY.length, end, (byte) ':');
+        if (colon < 0) {
+            return false;
+        }
+        int digitsStart = colon + 1;
+        while (digitsStart < end && bytes[digitsStart] == ' ') {
+            digitsStart++;
+        }
+        int digitsEnd = digitsStart;
+        while (digitsEnd < end && bytes[digitsEnd] >= '0' && bytes[digitsEnd] <= '9') {
+            digitsEnd++;
+        }
+        long quantity = parseInt(bytes, digitsStart, digitsEnd);
+        if (quantity < 0) {
+            return false;
+        }
+
+        handler.onRecord(string(bytes, skuStart + 1, skuEnd), (int) quantity);
+        return true;
+    }
+
+    /**
+     * Non-negative int from ASCII digits (surrounding spaces allowed), or -1 if invalid
+     */
+    private static long parseInt(byte[] bytes, int start, int end) {
+        while (start < end && bytes[start] == ' ') {
+            start++;
+        }
+        while (end > start && bytes[end - 1] == ' ') {
+            end--;
+        }
+        if (start == end || end - start > 10) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value > Integer.MAX_VALUE ? -1 : value;
+    }
+
+    private static String string(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8).trim();
+    }
+
+    private static int indexOf(byte[] bytes, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] bytes, int start, int end, byte[] value) {
+        outer:
+        for (int i = start; i <= end - value.length; i++) {
+            for (int j = 0; j < value.length; j++) {
+                if (bytes[i + j] != value[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
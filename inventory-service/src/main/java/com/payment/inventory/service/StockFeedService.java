@@ -0,0 +1,135 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.dto.StockFeedResult;
+import com.payment.inventory.event.InventoryEvent;
+import com.payment.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stock Feed Service - Ingests full stock counts sent by warehouses
+ *
+ * The feed gives the counted available quantity per SKU. It is streamed with StockFeedParser and
+ * applied in chunks: one SKU lookup query per chunk, then the differences go to the StockLedger
+ * as RESTOCK / ADJUSTMENT movements in JDBC batches. At the end the ledger tail is folded into
+ * products and one STOCK_ADJUSTED event is published per product with a net change.
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/service/StockFeedService.java
+ */
+@Service
+@Slf4j
+public class StockFeedService {
+
+    private final ProductRepository productRepository;
+    private final StockLedger stockLedger;
+    private final EventPublisher eventPublisher;
+
+    @Value("${inventory.stock-feed.directory:/data/stock-feeds}")
+    private String feedDirectory;
+
+    @Value("${inventory.stock-feed.chunk-size:5000}")
+    private int chunkSize;
+
+    public StockFeedService(ProductRepository productRepository, StockLedger stockLedger,
+                            EventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.stockLedger = stockLedger;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Ingest one feed file from the feed directory
+     */
+    public StockFeedResult ingest(String fileName, StockFeedParser.Format format) {
+        Path directory = Paths.get(feedDirectory).toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new RuntimeException("Stock feed not found in " + directory + ": " + fileName);
+        }
+
+        log.info("📥 Ingesting stock feed {} ({})", file, format);
+        long start = System.currentTimeMillis();
+        FeedRun run = new FeedRun();
+
+        try {
+            run.malformed = StockFeedParser.parse(file, format, run::add);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read stock feed " + fileName + ": " + e.getMessage(), e);
+        }
+        run.applyChunk();
+
+        // Fold the feed's movements into products now, then announce one net change per product
+        stockLedger.snapshotNow();
+        run.netChanges.forEach((productId, netChange) -> {
+            if (netChange != 0) {
+                InventoryEvent event = InventoryEvent.stockAdjusted(productId, stockLedger.getAvailable(productId), netChange);
+                eventPublisher.publishEvent("inventory-events", String.valueOf(productId), event);
+            }
+        });
+
+        StockFeedResult result = StockFeedResult.builder()
+            .file(fileName)
+            .format(format.name())
+            .records(run.records)
+            .malformedLines(run.malformed)
+            .unknownSkus(run.unknownSkus)
+            .movementsWritten(run.movements)
+            .productsChanged((int) run.netChanges.values().stream().filter(change -> change != 0).count())
+            .durationMs(System.currentTimeMillis() - start)
+            .build();
+
+        log.info("✅ Stock feed ingested: {} records, {} movements, {} products changed, {} unknown SKUs, {} malformed lines in {} ms",
+            result.getRecords(), result.getMovementsWritten(), result.getProductsChanged(),
+            result.getUnknownSkus(), result.getMalformedLines(), result.getDurationMs());
+        return result;
+    }
+
+    /**
+     * State of one ingestion - the current chunk plus running totals
+     */
+    private class FeedRun {
+        private final Map<String, Integer> chunk = new LinkedHashMap<>();
+        private final Map<Long, Integer> netChanges = new HashMap<>();
+        private long records;
+        private long malformed;
+        private long unknownSkus;
+        private long movements;
+
+        void add(String sku, int quantity) {
+            records++;
+            chunk.put(sku, quantity); // Later lines for the same SKU win
+            if (chunk.size() >= chunkSize) {
+                applyChunk();
+            }
+        }
+
+        void applyChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Integer> targets = new HashMap<>();
+            for (Object[] row : productRepository.findIdsBySkuIn(chunk.keySet())) {
+                targets.put((Long) row[1], chunk.get((String) row[0]));
+            }
+            unknownSkus += chunk.size() - targets.size();
+
+            StockLedger.FeedChanges changes = stockLedger.setAvailable(targets);
+            movements += changes.movements();
+            changes.netChanges().forEach((productId, delta) -> netChanges.merge(productId, delta, Integer::sum));
+
+            log.debug("📥 Stock feed chunk applied: {} SKUs, {} changed, {} movements", chunk.size(),
+                changes.netChanges().size(), changes.movements());
+            chunk.clear();
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.model.MovementType;
+import com.payment.inventory.model.Product;
+import com.payment.inventory.model.StockMovement;
+import com.payment.inventory.model.Warehouse;
+import com.payment.inventory.repository.ProductRepository;
+import com.payment.inventory.repository.StockMovementRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stock Ledger - Event-sourced inventory quantities
+ *
+ * Every reserve / unreserve / sale / restock is an append-only row in stock_movements
+ * instead of an UPDATE of the product row:
+ * - Current levels live in memory (snapshot + tail) and are checked / changed atomically per product
+ * - Movements are queued and inserted by one writer thread in JDBC batches (group commit):
+ *   callers wait until their batch is durable, concurrent callers share one round trip
+ * - A caller that times out cancels its movements if the writer has not picked them up yet
+ *   (the writer skips them and the levels are reverted); otherwise it waits for the write in progress
+ * - A periodic snapshot folds the tail into products.available_quantity / reserved_quantity
+ *   and advances products.last_movement_id, so startup never replays more than one interval
+ * - Available stock is also tracked per warehouse: a reservation is split by WarehouseAllocator
+ *   into one RESERVE movement per warehouse, which is the persisted allocation decision
+ *
+ * Level array layout: [available, reserved, availableAtWarehouse0, availableAtWarehouse1, ...]
+ *
+ * Assumes a single inventory-service instance owns the stock (the in-memory levels are authoritative).
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/service/StockLedger.java
+ */
+@Component
+@Slf4j
+public class StockLedger {
+
+    private static final String INSERT_MOVEMENT =
+        "INSERT INTO stock_movements (product_id, movement_type, available_delta, reserved_delta, "
+            + "warehouse_id, order_id, correlation_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FOLD_TAIL_INTO_SNAPSHOT =
+        "WITH tail AS ("
+            + " SELECT m.product_id, SUM(m.available_delta) AS available_delta,"
+            + "        SUM(m.reserved_delta) AS reserved_delta, MAX(m.id) AS last_id"
+            + " FROM stock_movements m JOIN products p ON p.id = m.product_id"
+            + " WHERE m.id > COALESCE(p.last_movement_id, 0)"
+            + " GROUP BY m.product_id)"
+            + " UPDATE products p SET"
+            + "   available_quantity = p.available_quantity + tail.available_delta,"
+            + "   reserved_quantity = p.reserved_quantity + tail.reserved_delta,"
+            + "   last_movement_id = tail.last_id,"
+            + "   version = COALESCE(p.version, 0) + 1,"
+            + "   updated_at = now()"
+            + " FROM tail WHERE p.id = tail.product_id";
+
+    private static final String FOLD_TAIL_INTO_WAREHOUSE_SNAPSHOT =
+        "WITH tail AS ("
+            + " SELECT m.product_id, m.warehouse_id, SUM(m.available_delta) AS available_delta, MAX(m.id) AS last_id"
+            + " FROM stock_movements m JOIN warehouse_stock ws"
+            + "   ON ws.product_id = m.product_id AND ws.warehouse_id = m.warehouse_id"
+            + " WHERE m.id > COALESCE(ws.last_movement_id, 0)"
+            + " GROUP BY m.product_id, m.warehouse_id)"
+            + " UPDATE warehouse_stock ws SET"
+            + "   available_quantity = ws.available_quantity + tail.available_delta,"
+            + "   last_movement_id = tail.last_id"
+            + " FROM tail WHERE ws.product_id = tail.product_id AND ws.warehouse_id = tail.warehouse_id";
+
+    private static final int AVAILABLE = 0;
+    private static final int RESERVED = 1;
+    private static final int NO_WAREHOUSE = -1;
+
+    // Claim states of one caller's movements - the writer and a timed-out caller race to move them off QUEUED
+    private static final int QUEUED = 0;
+    private static final int WRITING = 1;
+    private static final int CANCELLED = 2;
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LowStockIndex lowStockIndex;
+    private final StockLevelPublisher stockLevelPublisher;
+    private final WarehouseAllocator warehouseAllocator;
+    private final StockMovementRepository stockMovementRepository;
+
+    // productId -> current level; the array is the lock for that product
+    private final ConcurrentHashMap<Long, int[]> levels = new ConcurrentHashMap<>();
+
+    private final LinkedBlockingQueue<PendingMovement> pending = new LinkedBlockingQueue<>();
+
+    // One thread does all inserts and snapshots, so a snapshot never races a batch
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-ledger-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${inventory.ledger.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${inventory.ledger.snapshot-interval-ms:5000}")
+    private long snapshotIntervalMs;
+
+    @Value("${inventory.ledger.write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+
+    public StockLedger(ProductRepository productRepository, JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate, LowStockIndex lowStockIndex,
+                       StockLevelPublisher stockLevelPublisher, WarehouseAllocator warehouseAllocator,
+                       StockMovementRepository stockMovementRepository) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.lowStockIndex = lowStockIndex;
+        this.stockLevelPublisher = stockLevelPublisher;
+        this.warehouseAllocator = warehouseAllocator;
+        this.stockMovementRepository = stockMovementRepository;
+    }
+
+    /**
+     * Load current levels and start the writer - runs before the other ApplicationReady listeners
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        long start = System.currentTimeMillis();
+
+        // Build complete levels off to the side so reservations never see a half-loaded product
+        Map<Long, int[]> loaded = new HashMap<>();
+        for (Object[] row : productRepository.findAllStockLevels()) {
+            loaded.put((Long) row[0], newLevel(((Number) row[1]).intValue(), ((Number) row[2]).intValue()));
+        }
+        warehouseAllocator.forEachWarehouseLevel((productId, warehouseIndex, available) -> {
+            int[] level = loaded.get(productId);
+            if (level != null) {
+                level[2 + warehouseIndex] = available;
+            }
+        });
+        loaded.values().forEach(this::assignRemainderToDefaultWarehouse);
+
+        // Products touched before startup finished were loaded on demand - keep those
+        loaded.forEach(levels::putIfAbsent);
+
+        // Republish every level so the compacted product-stock topic is complete after a restart
+        levels.forEach((productId, level) -> stockLevelPublisher.onLevelChanged(productId, level[AVAILABLE], level[RESERVED]));
+
+        writer.scheduleWithFixedDelay(this::snapshot, snapshotIntervalMs, snapshotIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("📒 Stock ledger loaded: {} products across {} warehouses in {} ms (snapshot every {} ms)",
+            levels.size(), warehouseAllocator.warehouseCount(), System.currentTimeMillis() - start, snapshotIntervalMs);
+    }
+
+    /**
+     * Move stock from available to reserved, allocated across warehouses nearest the customer
+     * Returns the allocations, or an empty list (and records nothing) if there is not enough stock
+     */
+    public List<WarehouseAllocator.Allocation> reserve(Long productId, int quantity, Long orderId,
+                                                       String correlationId, Long customerId) {
+        int zone = warehouseAllocator.zoneOf(customerId);
+        int[] level = level(productId);
+        List<PendingMovement> movements = new ArrayList<>();
+        List<WarehouseAllocator.Allocation> allocations = new ArrayList<>();
+        AtomicInteger claim = new AtomicInteger(QUEUED);
+
+        // Allocate-and-apply under the product lock, then release it before waiting on the database
+        synchronized (level) {
+            int[] split = level[AVAILABLE] >= quantity ? warehouseAllocator.allocate(level, quantity, zone) : null;
+            if (split == null) {
+                return List.of();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < split.length; i++) {
+                if (split[i] > 0) {
+                    movements.add(enqueue(productId, level, MovementType.RESERVE, -split[i], split[i], i,
+                        orderId, correlationId, now, claim));
+                    Warehouse warehouse = warehouseAllocator.warehouse(i);
+                    allocations.add(new WarehouseAllocator.Allocation(warehouse.getId(), warehouse.getCode(), split[i]));
+                }
+            }
+        }
+
+        await(movements, "RESERVE", productId);
+        return allocations;
+    }
+
+    /**
+     * Move stock from reserved back to available (compensation), returning it to the
+     * warehouses the reservation was allocated from
+     */
+    public void unreserve(Long productId, int quantity, Long orderId, String correlationId) {
+        int[] returned = new int[warehouseAllocator.warehouseCount()];
+        int remaining = quantity;
+        for (StockMovement reservation : stockMovementRepository
+                .findByCorrelationIdAndProductIdAndMovementType(correlationId, productId, MovementType.RESERVE)) {
+            int take = Math.min(remaining, reservation.getReservedDelta());
+            returned[warehouseAllocator.indexOf(reservation.getWarehouseId())] += take;
+            remaining -= take;
+        }
+        returned[0] += remaining; // Reservations from before warehouses existed go back to the default
+
+        int[] level = level(productId);
+        List<PendingMovement> movements = new ArrayList<>();
+        AtomicInteger claim = new AtomicInteger(QUEUED);
+        synchronized (level) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < returned.length; i++) {
+                if (returned[i] > 0) {
+                    movements.add(enqueue(productId, level, MovementType.UNRESERVE, returned[i], -returned[i], i,
+                        orderId, correlationId, now, claim));
+                }
+            }
+        }
+        await(movements, "UNRESERVE", productId);
+    }
+
+    /**
+     * Remove reserved stock for a completed sale
+     */
+    public void sell(Long productId, int quantity, Long orderId, String correlationId) {
+        append(productId, MovementType.SALE, 0, -quantity, NO_WAREHOUSE, orderId, correlationId);
+    }
+
+    /**
+     * Fold the tail into the products table now instead of waiting for the next interval
+     */
+    public void snapshotNow() {
+        try {
+            writer.submit(this::snapshot).get();
+        } catch (Exception e) {
+            throw new RuntimeException("Stock snapshot failed", e);
+        }
+    }
+
+    /**
+     * Set absolute available quantities (stock feed counts) - RESTOCK / ADJUSTMENT movements for each
+     * product whose level differs, all queued at once so the writer packs them into full batches.
+     * The feed counts per SKU, so a difference is spread across warehouses by on-hand stock
+     * (WarehouseAllocator.spread), one movement per warehouse it touches.
+     * Returns productId -> net change for the products that changed, and the number of movements written
+     */
+    public FeedChanges setAvailable(Map<Long, Integer> targetAvailable) {
+        Map<Long, Integer> changes = new HashMap<>();
+        List<PendingMovement> movements = new ArrayList<>();
+        AtomicInteger claim = new AtomicInteger(QUEUED);
+        LocalDateTime now = LocalDateTime.now();
+
+        targetAvailable.forEach((productId, target) -> {
+            int[] level = level(productId);
+            synchronized (level) {
+                int delta = target - level[AVAILABLE];
+                if (delta == 0) {
+                    return;
+                }
+                MovementType type = delta > 0 ? MovementType.RESTOCK : MovementType.ADJUSTMENT;
+                int[] split = warehouseAllocator.spread(level, delta);
+                for (int i = 0; i < split.length; i++) {
+                    if (split[i] != 0) {
+                        movements.add(enqueue(productId, level, type, split[i], 0, i, null, null, now, claim));
+                    }
+                }
+                changes.put(productId, delta);
+            }
+        });
+
+        await(movements, "stock feed", null);
+        return new FeedChanges(changes, movements.size());
+    }
+
+    /**
+     * Current available quantity (snapshot + tail)
+     */
+    public int getAvailable(Long productId) {
+        int[] level = level(productId);
+        synchronized (level) {
+            return level[AVAILABLE];
+        }
+    }
+
+    /**
+     * Current available quantity per warehouse code
+     */
+    public Map<String, Integer> getWarehouseLevels(Long productId) {
+        int[] level = level(productId);
+        Map<String, Integer> byWarehouse = new LinkedHashMap<>();
+        synchronized (level) {
+            for (int i = 0; i < warehouseAllocator.warehouseCount(); i++) {
+                byWarehouse.put(warehouseAllocator.warehouse(i).getCode(), level[2 + i]);
+            }
+        }
+        return byWarehouse;
+    }
+
+    /**
+     * Overwrite a product's snapshot quantities with the current ledger levels (for API responses)
+     */
+    public Product withCurrentLevels(Product product) {
+        int[] level = level(product.getId());
+        synchronized (level) {
+            product.setAvailableQuantity(level[AVAILABLE]);
+            product.setReservedQuantity(level[RESERVED]);
+        }
+        return product;
+    }
+
+    // ── Append path ─────────────────────────────────────────────────────
+
+    private void append(Long productId, MovementType type, int availableDelta, int reservedDelta,
+                        int warehouseIndex, Long orderId, String correlationId) {
+        int[] level = level(productId);
+        PendingMovement movement;
+        synchronized (level) {
+            movement = enqueue(productId, level, type, availableDelta, reservedDelta, warehouseIndex,
+                orderId, correlationId, LocalDateTime.now(), new AtomicInteger(QUEUED));
+        }
+        await(List.of(movement), type.name(), productId);
+    }
+
+    /**
+     * Apply a movement to the in-memory level and queue it for the writer - caller holds the level lock
+     */
+    private PendingMovement enqueue(Long productId, int[] level, MovementType type, int availableDelta,
+                                    int reservedDelta, int warehouseIndex, Long orderId, String correlationId,
+                                    LocalDateTime createdAt, AtomicInteger claim) {
+        level[AVAILABLE] += availableDelta;
+        level[RESERVED] += reservedDelta;
+        Long warehouseId = null;
+        if (warehouseIndex != NO_WAREHOUSE) {
+            level[2 + warehouseIndex] += availableDelta;
+            warehouseId = warehouseAllocator.warehouse(warehouseIndex).getId();
+        }
+        PendingMovement movement = new PendingMovement(productId, type, availableDelta, reservedDelta,
+            warehouseIndex, warehouseId, orderId, correlationId, createdAt, claim, new CompletableFuture<>());
+        pending.add(movement);
+        return movement;
+    }
+
+    /**
+     * Wake the writer and wait until every movement is durable
+     *
+     * The movements share one claim. On timeout they are cancelled and reverted if the writer has not
+     * taken any of them yet; once it has, they are being written and the caller waits for the outcome,
+     * so a failed call never leaves stock moved behind it.
+     */
+    private void await(List<PendingMovement> movements, String description, Long productId) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        writer.execute(this::flush);
+        CompletableFuture<Void> durable =
+            CompletableFuture.allOf(movements.stream().map(PendingMovement::durable).toArray(CompletableFuture[]::new));
+        String failure = "Failed to record " + description + " movements"
+            + (productId != null ? " for product " + productId : "");
+        try {
+            durable.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (movements.get(0).claim().compareAndSet(QUEUED, CANCELLED)) {
+                movements.forEach(this::revert);
+                throw new RuntimeException(failure + ": not written within " + writeTimeoutMs + " ms, cancelled", e);
+            }
+            log.warn("⏳ {} movements are being written after {} ms - waiting for the outcome", description, writeTimeoutMs);
+            try {
+                durable.join();
+            } catch (Exception writeFailure) {
+                throw new RuntimeException(failure, writeFailure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(failure + ": interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(failure, e.getCause());
+        }
+    }
+
+    /**
+     * Write everything queued so far in one batch (runs on the writer thread)
+     */
+    private void flush() {
+        List<PendingMovement> drained = new ArrayList<>();
+        List<PendingMovement> batch = new ArrayList<>();
+        while (pending.drainTo(drained, maxBatchSize) > 0) {
+            for (PendingMovement m : drained) {
+                // Later movements of an already taken claim are still written; cancelled ones are skipped
+                if (m.claim().compareAndSet(QUEUED, WRITING) || m.claim().get() == WRITING) {
+                    batch.add(m);
+                }
+            }
+            drained.clear();
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_MOVEMENT, batch, batch.size(), (ps, m) -> {
+                        ps.setLong(1, m.productId());
+                        ps.setString(2, m.type().name());
+                        ps.setInt(3, m.availableDelta());
+                        ps.setInt(4, m.reservedDelta());
+                        ps.setObject(5, m.warehouseId());
+                        ps.setObject(6, m.orderId());
+                        ps.setString(7, m.correlationId());
+                        ps.setTimestamp(8, Timestamp.valueOf(m.createdAt()));
+                    }));
+
+                Set<Long> changedProducts = new HashSet<>();
+                for (PendingMovement m : batch) {
+                    m.durable().complete(null);
+                    changedProducts.add(m.productId());
+                }
+                for (Long productId : changedProducts) {
+                    int[] level = level(productId);
+                    int available;
+                    int reserved;
+                    synchronized (level) {
+                        available = level[AVAILABLE];
+                        reserved = level[RESERVED];
+                    }
+                    lowStockIndex.onStockChanged(productId, available);
+                    stockLevelPublisher.onLevelChanged(productId, available, reserved);
+                }
+                log.debug("📒 Ledger batch written: {} movements", batch.size());
+            } catch (Exception e) {
+                log.error("❌ Ledger batch of {} movements failed: {}", batch.size(), e.getMessage());
+                for (PendingMovement m : batch) {
+                    revert(m);
+                    m.durable().completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void revert(PendingMovement movement) {
+        int[] level = level(movement.productId());
+        synchronized (level) {
+            level[AVAILABLE] -= movement.availableDelta();
+            level[RESERVED] -= movement.reservedDelta();
+            if (movement.warehouseIndex() != NO_WAREHOUSE) {
+                level[2 + movement.warehouseIndex()] -= movement.availableDelta();
+            }
+        }
+    }
+
+    /**
+     * Fold the ledger tail into the products and warehouse_stock tables (runs on the writer thread)
+     */
+    private void snapshot() {
+        try {
+            long start = System.currentTimeMillis();
+            int[] updated = new int[2];
+            transactionTemplate.executeWithoutResult(status -> {
+                updated[0] = jdbcTemplate.update(FOLD_TAIL_INTO_SNAPSHOT);
+                updated[1] = jdbcTemplate.update(FOLD_TAIL_INTO_WAREHOUSE_SNAPSHOT);
+            });
+            if (updated[0] > 0) {
+                log.debug("📸 Stock snapshot: {} products, {} warehouse rows updated in {} ms",
+                    updated[0], updated[1], System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            log.error("❌ Stock snapshot failed: {}", e.getMessage());
+        }
+    }
+
+    private int[] level(Long productId) {
+        return levels.computeIfAbsent(productId, id -> {
+            List<Object[]> rows = productRepository.findStockLevel(id);
+            if (rows.isEmpty()) {
+                throw new RuntimeException("Product not found: " + id);
+            }
+            int[] level = newLevel(((Number) rows.get(0)[1]).intValue(), ((Number) rows.get(0)[2]).intValue());
+            warehouseAllocator.forEachWarehouseLevel(id, (ignored, warehouseIndex, available) ->
+                level[2 + warehouseIndex] = available);
+            assignRemainderToDefaultWarehouse(level);
+            return level;
+        });
+    }
+
+    private int[] newLevel(int available, int reserved) {
+        int[] level = new int[2 + warehouseAllocator.warehouseCount()];
+        level[AVAILABLE] = available;
+        level[RESERVED] = reserved;
+        return level;
+    }
+
+    /**
+     * The default warehouse holds whatever available stock no other warehouse holds
+     */
+    private void assignRemainderToDefaultWarehouse(int[] level) {
+        int attributed = 0;
+        for (int i = 3; i < level.length; i++) {
+            attributed += level[i];
+        }
+        level[2] = level[AVAILABLE] - attributed;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.execute(this::flush);
+        writer.execute(this::snapshot);
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Outcome of setAvailable - net change per changed product and the movements written for them
+     */
+    public record FeedChanges(Map<Long, Integer> netChanges, int movements) {
+    }
+
+    /**
+     * A movement waiting for the writer thread
+     */
+    record PendingMovement(Long productId, MovementType type, int availableDelta, int reservedDelta,
+                           int warehouseIndex, Long warehouseId, Long orderId, String correlationId,
+                           LocalDateTime createdAt, AtomicInteger claim, CompletableFuture<Void> durable) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.event.StockLevelSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock Level Publisher - Streams stock levels to the log-compacted product-stock topic
+ *
+ * The ledger reports every durable level change here; only the latest level per product is kept,
+ * and a scheduled task publishes whatever changed since the last run. A product reserved a
+ * thousand times in one interval produces one record, keyed by productId.
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/service/StockLevelPublisher.java
+ */
+@Component
+@EnableScheduling
+@Slf4j
+public class StockLevelPublisher {
+
+    static final String TOPIC = "product-stock";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    // productId -> latest {available, reserved} not yet published
+    private final ConcurrentHashMap<Long, int[]> changed = new ConcurrentHashMap<>();
+
+    public StockLevelPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Record the latest level of a product (replaces any unpublished earlier level)
+     */
+    public void onLevelChanged(Long productId, int availableQuantity, int reservedQuantity) {
+        changed.put(productId, new int[]{availableQuantity, reservedQuantity});
+    }
+
+    /**
+     * Publish at most one record per changed product
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock-stream.interval-ms:1000}")
+    public void publishChanges() {
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int published = 0;
+        for (Long productId : changed.keySet()) {
+            int[] level = changed.remove(productId);
+            if (level == null) {
+                continue;
+            }
+            kafkaTemplate.send(TOPIC, String.valueOf(productId),
+                new StockLevelSnapshot(productId, level[0], level[1], now));
+            published++;
+        }
+
+        log.debug("📡 Published {} stock levels to {}", published, TOPIC);
+    }
+}
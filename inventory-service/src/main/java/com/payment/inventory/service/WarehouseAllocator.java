@@ -0,0 +1,269 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.model.Warehouse;
+import com.payment.inventory.repository.WarehouseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warehouse Allocator - Decides which warehouses fill a reservation
+ *
+ * Warehouses are loaded once (seeded on first use) and addressed by index, so a product's
+ * per-warehouse levels are plain ints inside the StockLedger level array. Allocation order:
+ * - nearest warehouse to the customer's zone first
+ * - among equally near warehouses, the one with the most stock
+ * - split across warehouses when no single one can fill the quantity
+ *
+ * The first warehouse is the default: it holds all stock not attributed to another warehouse.
+ * Stock feed corrections, which do not name a warehouse, are spread by on-hand stock.
+ *
+ * Location: inventory-service/src/main/java/com/payment/inventory/service/WarehouseAllocator.java
+ */
+@Component
+@Slf4j
+public class WarehouseAllocator {
+
+    private static final String DISTRIBUTE_EXISTING_STOCK =
+        "INSERT INTO warehouse_stock (warehouse_id, product_id, available_quantity, last_movement_id)"
+            + " SELECT w.id, p.id,"
+            + "   (p.available_quantity + COALESCE((SELECT SUM(m.available_delta) FROM stock_movements m"
+            + "     WHERE m.product_id = p.id AND m.id > COALESCE(p.last_movement_id, 0)), 0)) / ?,"
+            + "   (SELECT MAX(id) FROM stock_movements)"
+            + " FROM products p CROSS JOIN warehouses w WHERE w.id <> ?";
+
+    private static final String CURRENT_WAREHOUSE_LEVELS =
+        "SELECT ws.product_id, ws.warehouse_id, ws.available_quantity"
+            + " + COALESCE((SELECT SUM(m.available_delta) FROM stock_movements m"
+            + "   WHERE m.product_id = ws.product_id AND m.warehouse_id = ws.warehouse_id"
+            + "   AND m.id > COALESCE(ws.last_movement_id, 0)), 0)"
+            + " FROM warehouse_stock ws";
+
+    private final WarehouseRepository warehouseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Warehouse[] warehouses;
+    private volatile int[] zones;
+    private volatile int zoneCount;
+    private volatile Map<Long, Integer> indexById;
+
+    public WarehouseAllocator(WarehouseRepository warehouseRepository, JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate) {
+        this.warehouseRepository = warehouseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * A quantity taken from one warehouse
+     */
+    public record Allocation(Long warehouseId, String warehouseCode, int quantity) {
+    }
+
+    /**
+     * Pick warehouses for a reservation
+     *
+     * @param level    StockLedger level array (slot 2 + i = available at warehouse i); caller holds its lock
+     * @param quantity units to reserve
+     * @param zone     customer zone
+     * @return units per warehouse index, or null if the warehouses together cannot fill the quantity
+     */
+    public int[] allocate(int[] level, int quantity, int zone) {
+        int count = warehouseCount();
+        int[] candidates = new int[count];
+        int candidateCount = 0;
+        long total = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (level[2 + i] > 0) {
+                candidates[candidateCount++] = i;
+                total += level[2 + i];
+            }
+        }
+        if (total < quantity) {
+            return null;
+        }
+
+        // Insertion sort - there are only a handful of warehouses
+        for (int i = 1; i < candidateCount; i++) {
+            int current = candidates[i];
+            int j = i - 1;
+            while (j >= 0 && isBetter(current, candidates[j], level, zone)) {
+                candidates[j + 1] = candidates[j];
+                j--;
+            }
+            candidates[j + 1] = current;
+        }
+
+        int[] split = new int[count];
+        int remaining = quantity;
+        for (int i = 0; i < candidateCount && remaining > 0; i++) {
+            int take = Math.min(remaining, level[2 + candidates[i]]);
+            split[candidates[i]] = take;
+            remaining -= take;
+        }
+        return split;
+    }
+
+    /**
+     * Split a stock count correction (feeds count per SKU, not per warehouse) across warehouses
+     * in proportion to their on-hand stock
+     *
+     * A decrease never takes a warehouse below zero; whatever the warehouses together cannot cover
+     * (and any increase when nothing is on hand) is booked to the default warehouse.
+     *
+     * @param level StockLedger level array (slot 2 + i = available at warehouse i); caller holds its lock
+     * @param delta net change of available stock
+     * @return units per warehouse index, summing to delta
+     */
+    public int[] spread(int[] level, int delta) {
+        int count = warehouseCount();
+        int[] split = new int[count];
+        long onHand = 0;
+        for (int i = 0; i < count; i++) {
+            onHand += Math.max(0, level[2 + i]);
+        }
+        if (onHand == 0) {
+            split[0] = delta;
+            return split;
+        }
+
+        int sign = delta < 0 ? -1 : 1;
+        long wanted = Math.abs((long) delta);
+        long remaining = wanted;
+        for (int i = 0; i < count; i++) {
+            long stock = Math.max(0, level[2 + i]);
+            long share = wanted * stock / onHand;
+            if (sign < 0) {
+                share = Math.min(share, stock);
+            }
+            split[i] = (int) (sign * share);
+            remaining -= share;
+        }
+
+        // Rounding leftovers: one unit at a time to warehouses that still have stock to give, then the default
+        for (int i = 0; i < count && remaining > 0; i++) {
+            if (sign > 0 ? level[2 + i] > 0 : level[2 + i] + split[i] > 0) {
+                int take = sign > 0 ? 1 : (int) Math.min(remaining, level[2 + i] + split[i]);
+                split[i] += sign * take;
+                remaining -= take;
+            }
+        }
+        split[0] += (int) (sign * remaining);
+        return split;
+    }
+
+    private boolean isBetter(int a, int b, int[] level, int zone) {
+        int distanceA = Math.abs(zones[a] - zone);
+        int distanceB = Math.abs(zones[b] - zone);
+        if (distanceA != distanceB) {
+            return distanceA < distanceB;
+        }
+        return level[2 + a] > level[2 + b];
+    }
+
+    /**
+     * Customer zone - derived from the customer ID until orders carry a shipping address
+     */
+    public int zoneOf(Long customerId) {
+        load();
+        return customerId == null ? 0 : (int) Math.floorMod(customerId, (long) zoneCount);
+    }
+
+    public int warehouseCount() {
+        return load().length;
+    }
+
+    public Warehouse warehouse(int index) {
+        return load()[index];
+    }
+
+    public Long defaultWarehouseId() {
+        return load()[0].getId();
+    }
+
+    /**
+     * Index of a warehouse in the level array, or 0 (default) for an unknown / null ID
+     */
+    public int indexOf(Long warehouseId) {
+        load();
+        return warehouseId == null ? 0 : indexById.getOrDefault(warehouseId, 0);
+    }
+
+    /**
+     * Current (snapshot + tail) level of every attributed (product, warehouse) pair
+     */
+    public void forEachWarehouseLevel(WarehouseLevelHandler handler) {
+        load();
+        jdbcTemplate.query(CURRENT_WAREHOUSE_LEVELS, rs -> {
+            handler.onLevel(rs.getLong(1), indexOf(rs.getLong(2)), rs.getInt(3));
+        });
+    }
+
+    /**
+     * Current level of every attributed warehouse for one product
+     */
+    public void forEachWarehouseLevel(Long productId, WarehouseLevelHandler handler) {
+        load();
+        jdbcTemplate.query(CURRENT_WAREHOUSE_LEVELS + " WHERE ws.product_id = ?", rs -> {
+            handler.onLevel(rs.getLong(1), indexOf(rs.getLong(2)), rs.getInt(3));
+        }, productId);
+    }
+
+    @FunctionalInterface
+    public interface WarehouseLevelHandler {
+        void onLevel(long productId, int warehouseIndex, int available);
+    }
+
+    /**
+     * Load warehouses once; on first start seed three zones and split existing stock evenly across them
+     */
+    private Warehouse[] load() {
+        Warehouse[] loaded = warehouses;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (this) {
+            if (warehouses == null) {
+                List<Warehouse> list = warehouseRepository.findAllByOrderByIdAsc();
+                if (list.isEmpty()) {
+                    list = seed();
+                }
+
+                Map<Long, Integer> byId = new HashMap<>();
+                int[] zoneOf = new int[list.size()];
+                int maxZone = 0;
+                for (int i = 0; i < list.size(); i++) {
+                    byId.put(list.get(i).getId(), i);
+                    zoneOf[i] = list.get(i).getZone();
+                    maxZone = Math.max(maxZone, zoneOf[i]);
+                }
+                indexById = byId;
+                zones = zoneOf;
+                zoneCount = maxZone + 1;
+                warehouses = list.toArray(new Warehouse[0]);
+                log.info("🏬 Loaded {} warehouses (default: {})", list.size(), list.get(0).getCode());
+            }
+            return warehouses;
+        }
+    }
+
+    private List<Warehouse> seed() {
+        return transactionTemplate.execute(status -> {
+            List<Warehouse> seeded = warehouseRepository.saveAll(List.of(
+                Warehouse.builder().code("WH-EAST").name("East Coast Fulfillment Center").zone(0).build(),
+                Warehouse.builder().code("WH-CENTRAL").name("Central Distribution Hub").zone(1).build(),
+                Warehouse.builder().code("WH-WEST").name("West Coast Fulfillment Center").zone(2).build()
+            ));
+            int rows = jdbcTemplate.update(DISTRIBUTE_EXISTING_STOCK, seeded.size(), seeded.get(0).getId());
+            log.info("🏬 Seeded {} warehouses, {} warehouse stock rows", seeded.size(), rows);
+            return seeded;
+        });
+    }
+}
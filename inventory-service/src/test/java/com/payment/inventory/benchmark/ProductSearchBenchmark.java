@@ -0,0 +1,100 @@
+package com.payment.inventory.benchmark;
+
+import com.payment.inventory.dto.ProductSearchResponse;
+import com.payment.inventory.repository.ProductRepository;
+import com.payment.inventory.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product Search Benchmark - Latency of one ranked search page over a synthetic catalog
+ *
+ * Products are named like SyntheticDataGenerator's ("Dell Pro Laptop 123"). Queries range from
+ * one common word ("laptop", ~1/14 of the catalog) to several words, so both the candidate scan
+ * and the probing of larger posting lists are exercised; "page" shows the cost of deep pages.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.payment.inventory.benchmark.ProductSearchBenchmark
+ *
+ * Location: inventory-service/src/test/java/com/payment/inventory/benchmark/ProductSearchBenchmark.java
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final String[] CATEGORIES = {
+        "Laptop", "Phone", "Tablet", "Watch", "Headphones", "Mouse", "Keyboard",
+        "Monitor", "Camera", "Speaker", "Charger", "Router", "Drive", "Printer"
+    };
+    private static final String[] BRANDS = {
+        "Dell", "Apple", "Samsung", "Sony", "Logitech", "Keychron", "LG",
+        "Canon", "Sonos", "Anker", "Asus", "Lenovo", "Bose", "Netgear"
+    };
+    private static final String[] ADJECTIVES = {
+        "Pro", "Air", "Max", "Mini", "Ultra", "Lite", "Plus", "Wireless", "Compact", "Gaming"
+    };
+
+    @Param({"100000"})
+    private int products;
+
+    @Param({"laptop", "dell gaming laptop", "wireless headphones sony"})
+    private String query;
+
+    @Param({"0", "49"})
+    private int page;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> rows = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            rows.add(new Object[] {id, String.format("SKU-%08d", id), brand + " " + adjective + " " + category + " " + id,
+                adjective + " " + category.toLowerCase() + " by " + brand});
+        }
+
+        // Only findAllSearchFields is called, by rebuild()
+        ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(
+            ProductRepository.class.getClassLoader(), new Class<?>[] {ProductRepository.class},
+            (proxy, method, args) -> rows);
+        index = new ProductSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public ProductSearchResponse search() {
+        return index.search(query, page, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ProductSearchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
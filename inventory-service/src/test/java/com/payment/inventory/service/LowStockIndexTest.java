@@ -0,0 +1,108 @@
+package com.payment.inventory.service;
+
+import com.payment.common.id.IdGenerator;
+import com.payment.inventory.event.InventoryEvent;
+import com.payment.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Low Stock Index Tests - Downward threshold crossings and the sorted low-stock walk
+ *
+ * Location: inventory-service/src/test/java/com/payment/inventory/service/LowStockIndexTest.java
+ */
+class LowStockIndexTest {
+
+    private static final int THRESHOLD = 10;
+
+    private ProductRepository productRepository;
+    private EventPublisher eventPublisher;
+    private LowStockIndex index;
+
+    @BeforeAll
+    static void configureIdNode() {
+        IdGenerator.configure(2); // LOW_STOCK events carry an event ID
+    }
+
+    @BeforeEach
+    void createIndex() {
+        productRepository = mock(ProductRepository.class);
+        eventPublisher = mock(EventPublisher.class);
+        index = new LowStockIndex(productRepository, eventPublisher);
+        ReflectionTestUtils.setField(index, "threshold", THRESHOLD);
+    }
+
+    @Test
+    void crossingBelowTheThresholdPublishesOncePerDrop() {
+        index.update(1L, 20);
+        index.update(1L, THRESHOLD);
+        verify(eventPublisher, never()).publishEvent(anyString(), anyString(), any());
+
+        index.update(1L, 9);
+        index.update(1L, 3);
+        index.update(1L, 0);
+        assertEquals(List.of(1L), lowStockEvents(1));
+
+        index.update(1L, 15);
+        index.update(1L, 2);
+        assertEquals(List.of(1L, 1L), lowStockEvents(2));
+    }
+
+    @Test
+    void productFirstSeenAfterStartupFiresItsFirstCrossing() {
+        when(productRepository.findAllStockLevels()).thenReturn(List.<Object[]>of(new Object[]{1L, 50L, 0L}));
+        index.rebuild();
+
+        index.update(2L, 4);
+        assertEquals(List.of(2L), lowStockEvents(1));
+
+        index.update(3L, 30);
+        index.update(3L, 5);
+        index.update(1L, 8);
+        assertEquals(List.of(2L, 3L, 1L), lowStockEvents(3));
+    }
+
+    @Test
+    void lowStockWalkIsOrderedByQuantityThenProductAndFollowsUpdates() {
+        when(productRepository.findAllStockLevels()).thenReturn(List.of(
+            new Object[]{1L, 5L, 0L}, new Object[]{2L, 40L, 0L}, new Object[]{3L, 2L, 0L},
+            new Object[]{4L, 5L, 0L}, new Object[]{5L, 9L, 0L}));
+        index.rebuild();
+
+        assertEquals(List.of(3L, 1L, 4L, 5L), index.findLowStockProductIds(THRESHOLD, 10));
+        assertEquals(List.of(3L, 1L), index.findLowStockProductIds(THRESHOLD, 2));
+        assertEquals(List.of(3L), index.findLowStockProductIds(5, 10));
+
+        index.update(3L, 12);
+        index.update(2L, 1);
+        assertEquals(List.of(2L, 1L, 4L, 5L), index.findLowStockProductIds(THRESHOLD, 10));
+        assertEquals(List.of(2L, 1L, 4L, 5L, 3L), index.findLowStockProductIds(13, 10));
+    }
+
+    /**
+     * Product IDs of the LOW_STOCK events published so far (expecting exactly that many)
+     */
+    private List<Long> lowStockEvents(int expected) {
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(expected)).publishEvent(any(), anyString(), events.capture());
+        return events.getAllValues().stream()
+            .map(InventoryEvent.class::cast)
+            .peek(event -> assertEquals("LOW_STOCK", event.getEventType()))
+            .map(InventoryEvent::getProductId)
+            .toList();
+    }
+}
@@ -0,0 +1,194 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.dto.ProductSearchResponse;
+import com.payment.inventory.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Product Search Index Tests - Scanned / probed posting lists against scoring each product alone,
+ * top-k paging, the result window bound and the score table
+ *
+ * Location: inventory-service/src/test/java/com/payment/inventory/service/ProductSearchIndexTest.java
+ */
+class ProductSearchIndexTest {
+
+    private static final String[] COMMON = {
+        "wireless", "mouse", "keyboard", "usb", "cable", "charger", "laptop", "stand", "monitor", "black"
+    };
+    private static final String[] RARE = {"zephyr", "quasar", "obsidian", "kumquat", "vortex"};
+    private static final int PRODUCTS = 600;
+
+    private final List<Product> products = new ArrayList<>();
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void indexCorpus() {
+        SplittableRandom random = new SplittableRandom(3);
+        index = new ProductSearchIndex(null);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            String name = words(random, 2) + (random.nextInt(20) == 0 ? " " + RARE[random.nextInt(RARE.length)] : "");
+            Product product = product(id, "SKU-" + id, name, words(random, 4));
+            products.add(product);
+            index.index(product);
+        }
+    }
+
+    @Test
+    void splitListsFindTheSameHitsAsScoringEachProductAlone() {
+        SplittableRandom random = new SplittableRandom(8);
+        List<String> queries = new ArrayList<>(List.of(
+            // Rare word first: few candidates, so the common lists are probed by binary search
+            "zephyr mouse", "quasar usb cable", "obsidian keyboard black", "kumquat",
+            // Only common words: candidates are dense, so the remaining lists are walked in one pass
+            "wireless mouse", "usb cable charger", "laptop stand monitor black",
+            // Typos, prefixes and SKUs
+            "wireles mause", "keyb", "sku-42", "SKU-1", "zzz", ""));
+        for (int i = 0; i < 40; i++) {
+            String query = words(random, 1 + random.nextInt(3));
+            queries.add(random.nextInt(3) == 0 ? RARE[random.nextInt(RARE.length)] + " " + query : query);
+        }
+
+        for (String query : queries) {
+            List<ProductSearchResponse.Hit> expected = scoredAlone(query);
+            ProductSearchResponse response = index.search(query, 0, ProductSearchIndex.MAX_RESULT_WINDOW);
+            assertEquals(expected.size(), response.getTotalHits(), query);
+            assertEquals(expected, response.getHits(), query);
+        }
+    }
+
+    @Test
+    void pagesWalkTheSameRanking() {
+        String query = "wireless keyboard";
+        ProductSearchResponse all = index.search(query, 0, 1_000);
+        assertTrue(all.getTotalHits() > 50, "corpus should give a deep result list");
+
+        List<ProductSearchResponse.Hit> paged = new ArrayList<>();
+        int size = 7;
+        for (int page = 0; page * size < all.getTotalHits(); page++) {
+            ProductSearchResponse response = index.search(query, page, size);
+            assertEquals(all.getTotalHits(), response.getTotalHits());
+            assertTrue(response.getHits().size() <= size);
+            paged.addAll(response.getHits());
+        }
+        assertEquals(all.getHits(), paged);
+
+        int pastTheEnd = all.getTotalHits() / size + 1;
+        assertEquals(List.of(), index.search(query, pastTheEnd, size).getHits());
+    }
+
+    @Test
+    void pagesMayNotReachBeyondTheResultWindow() {
+        int window = ProductSearchIndex.MAX_RESULT_WINDOW;
+        assertEquals(PRODUCTS, index.search("sku", 0, window).getHits().size());
+        assertEquals(0, index.search("sku", 1, window / 2).getHits().size());
+
+        assertThrows(RuntimeException.class, () -> index.search("sku", 0, window + 1));
+        assertThrows(RuntimeException.class, () -> index.search("sku", 1, window / 2 + 1));
+        assertThrows(RuntimeException.class, () -> index.search("sku", Integer.MAX_VALUE, 2));
+        assertThrows(RuntimeException.class, () -> index.search("sku", -1, 10));
+        assertThrows(RuntimeException.class, () -> index.search("sku", 0, 0));
+    }
+
+    @Test
+    void skuAndNameOutrankDescription() {
+        ProductSearchIndex small = new ProductSearchIndex(null);
+        small.index(product(1L, "X-1", "Travel adapter", "pairs with any nebula lamp"));
+        small.index(product(2L, "NEBULA-2", "Desk light", null));
+        small.index(product(3L, "X-3", "Nebula lamp", null));
+
+        // Name with the exact phrase, then the sku word, then both words only in the description
+        List<ProductSearchResponse.Hit> hits = small.search("nebula lamp", 0, 10).getHits();
+        assertEquals(List.of(3L, 2L, 1L), hits.stream().map(ProductSearchResponse.Hit::getProductId).toList());
+    }
+
+    @Test
+    void renamesAndRemovalsLeaveNoStalePostings() {
+        Product product = products.get(0);
+        product.setName("Aardvark Xylophone");
+        product.setDescription(null);
+        index.index(product);
+        assertEquals(List.of(product.getId()), ids(index.search("aardvark xylophone", 0, 10)));
+
+        product.setName("Plain thing");
+        index.index(product);
+        assertFalse(ids(index.search("aardvark xylophone", 0, 10_000)).contains(product.getId()));
+        assertEquals(List.of(product.getId()), ids(index.search("plain thing", 0, 10)));
+
+        index.remove(product.getId());
+        assertEquals(List.of(), ids(index.search("plain thing", 0, 10)));
+        assertEquals(PRODUCTS - 1, index.size());
+    }
+
+    @Test
+    void scoreTableKeepsScoresAcrossGrowth() {
+        ProductSearchIndex.ScoreTable table = new ProductSearchIndex.ScoreTable(4);
+        for (long key = 1; key <= 5_000; key++) {
+            table.add(key * 7919, 1);
+        }
+        for (long key = 1; key <= 5_000; key += 2) {
+            table.add(key * 7919, 2);
+        }
+        assertEquals(5_000, table.count());
+        assertTrue(table.capacity() >= 2 * table.count());
+
+        for (long key = 1; key <= 5_000; key++) {
+            int slot = table.find(key * 7919);
+            assertTrue(slot >= 0);
+            assertEquals(key * 7919, table.key(slot));
+            assertEquals(key % 2 == 1 ? 3 : 1, table.score(slot));
+            assertEquals(key % 2 == 1 ? 2 : 1, table.matches(slot));
+        }
+        assertEquals(-1, table.find(0));
+        assertEquals(-1, table.find(7919 * 5_001L));
+
+        int slot = table.find(7919);
+        table.addAt(slot, 4);
+        assertEquals(7, table.score(slot));
+        assertEquals(3, table.matches(slot));
+        assertEquals(5_000, table.count());
+    }
+
+    /**
+     * Reference ranking: each product searched in an index holding only that product, so every
+     * posting list has at most one entry and nothing is skipped
+     */
+    private List<ProductSearchResponse.Hit> scoredAlone(String query) {
+        List<ProductSearchResponse.Hit> hits = new ArrayList<>();
+        for (Product product : products) {
+            ProductSearchIndex alone = new ProductSearchIndex(null);
+            alone.index(product);
+            hits.addAll(alone.search(query, 0, 1).getHits());
+        }
+        hits.sort(Comparator.comparingInt(ProductSearchResponse.Hit::getScore).reversed()
+            .thenComparingLong(ProductSearchResponse.Hit::getProductId));
+        return hits;
+    }
+
+    private static List<Long> ids(ProductSearchResponse response) {
+        return response.getHits().stream().map(ProductSearchResponse.Hit::getProductId).toList();
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(COMMON[random.nextInt(COMMON.length)]);
+        }
+        return text.toString();
+    }
+
+    private static Product product(Long id, String sku, String name, String description) {
+        return Product.builder().id(id).sku(sku).name(name).description(description)
+            .availableQuantity(0).reservedQuantity(0).build();
+    }
+}
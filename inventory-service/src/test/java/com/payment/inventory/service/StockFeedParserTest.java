@@ -0,0 +1,122 @@
+package com.payment.inventory.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Stock Feed Parser Tests - CSV header and CRLF handling, NDJSON records and lines cut across buffer reads
+ *
+ * Location: inventory-service/src/test/java/com/payment/inventory/service/StockFeedParserTest.java
+ */
+class StockFeedParserTest {
+
+    @TempDir
+    Path directory;
+
+    record Line(String sku, int quantity) {
+    }
+
+    @Test
+    void csvSkipsTheHeaderAndHandlesCrlfAndExtraColumns() throws IOException {
+        List<Line> records = new ArrayList<>();
+        long malformed = parse("sku,quantity\r\nLAPTOP-001,42\r\n\r\n MOUSE-7 , 7 ,WH-EAST\r\nCABLE-3,0", StockFeedParser.Format.CSV, records);
+
+        assertEquals(0, malformed);
+        assertEquals(List.of(new Line("LAPTOP-001", 42), new Line("MOUSE-7", 7), new Line("CABLE-3", 0)), records);
+    }
+
+    @Test
+    void csvHeaderIsOnlyAcceptedOnTheFirstLine() throws IOException {
+        List<Line> records = new ArrayList<>();
+        long malformed = parse("A-1,1\nsku,quantity\nB-2,2\n", StockFeedParser.Format.CSV, records);
+
+        assertEquals(1, malformed);
+        assertEquals(List.of(new Line("A-1", 1), new Line("B-2", 2)), records);
+    }
+
+    @Test
+    void csvMalformedLinesAreCountedAndSkipped() throws IOException {
+        List<Line> records = new ArrayList<>();
+        long malformed = parse("A-1,1\nno-comma\n,5\nC-3,-1\nD-4,99999999999\nE-5,2147483648\nF-6,2147483647\n",
+            StockFeedParser.Format.CSV, records);
+
+        assertEquals(5, malformed);
+        assertEquals(List.of(new Line("A-1", 1), new Line("F-6", Integer.MAX_VALUE)), records);
+    }
+
+    @Test
+    void ndjsonReadsSkuAndQuantityInAnyOrder() throws IOException {
+        List<Line> records = new ArrayList<>();
+        long malformed = parse("{\"sku\":\"LAPTOP-001\",\"quantity\":42}\r\n"
+                + "{\"quantity\": 7, \"sku\": \"MOUSE-7\", \"warehouse\": \"WH-EAST\"}\n"
+                + "\n"
+                + "{\"sku\":\"CABLE-3\"}\n"
+                + "{\"sku\":\"HUB-4\",\"quantity\":-1}\n"
+                + "{\"sku\":\"DOCK-5\",\"quantity\":3}",
+            StockFeedParser.Format.NDJSON, records);
+
+        assertEquals(2, malformed);
+        assertEquals(List.of(new Line("LAPTOP-001", 42), new Line("MOUSE-7", 7), new Line("DOCK-5", 3)), records);
+    }
+
+    @Test
+    void linesCutAcrossBufferReadsParseWhole() throws IOException {
+        SplittableRandom random = new SplittableRandom(5);
+        StringBuilder csv = new StringBuilder("sku,quantity\r\n");
+        StringBuilder ndjson = new StringBuilder();
+        List<Line> expected = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Line line = new Line("S" + i, random.nextInt(0, 100_000));
+            expected.add(line);
+            String newline = random.nextBoolean() ? "\r\n" : "\n";
+            csv.append(line.sku()).append(',').append(line.quantity()).append(newline);
+            ndjson.append("{\"sku\":\"").append(line.sku()).append("\",\"quantity\":").append(line.quantity()).append('}').append(newline);
+        }
+
+        // Small, odd buffer sizes put every offset of a line (including between \r and \n) on a read boundary
+        for (int bufferSize : new int[]{16, 17, 31, 64}) {
+            List<Line> records = new ArrayList<>();
+            assertEquals(0, parse(csv.toString(), StockFeedParser.Format.CSV, records, bufferSize));
+            assertEquals(expected, records, "csv, buffer " + bufferSize);
+        }
+        for (int bufferSize : new int[]{41, 50, 127}) {
+            List<Line> records = new ArrayList<>();
+            assertEquals(0, parse(ndjson.toString(), StockFeedParser.Format.NDJSON, records, bufferSize));
+            assertEquals(expected, records, "ndjson, buffer " + bufferSize);
+        }
+    }
+
+    @Test
+    void lineLongerThanTheBufferIsRejected() throws IOException {
+        List<Line> records = new ArrayList<>();
+        IOException e = assertThrows(IOException.class,
+            () -> parse("A-1,1\nA-VERY-LONG-SKU-NAME,2\n", StockFeedParser.Format.CSV, records, 16));
+        assertEquals("Line 2 is longer than 16 bytes", e.getMessage());
+        assertEquals(List.of(new Line("A-1", 1)), records);
+    }
+
+    private long parse(String content, StockFeedParser.Format format, List<Line> records) throws IOException {
+        return StockFeedParser.parse(write(content), format, (sku, quantity) -> records.add(new Line(sku, quantity)));
+    }
+
+    private long parse(String content, StockFeedParser.Format format, List<Line> records, int bufferSize)
+            throws IOException {
+        return StockFeedParser.parse(write(content), format, (sku, quantity) -> records.add(new Line(sku, quantity)),
+            bufferSize);
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(Files.createTempFile(directory, "feed", ".txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
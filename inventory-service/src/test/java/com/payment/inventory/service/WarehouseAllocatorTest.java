@@ -0,0 +1,127 @@
+package com.payment.inventory.service;
+
+import com.payment.inventory.model.Warehouse;
+import com.payment.inventory.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Warehouse Allocator Tests - Nearest-first split allocation and proportional spreading of feed corrections
+ *
+ * Location: inventory-service/src/test/java/com/payment/inventory/service/WarehouseAllocatorTest.java
+ */
+class WarehouseAllocatorTest {
+
+    private WarehouseAllocator allocator;
+
+    @BeforeEach
+    void loadThreeZones() {
+        WarehouseRepository repository = mock(WarehouseRepository.class);
+        when(repository.findAllByOrderByIdAsc()).thenReturn(List.of(
+            Warehouse.builder().id(10L).code("WH-EAST").zone(0).build(),
+            Warehouse.builder().id(20L).code("WH-CENTRAL").zone(1).build(),
+            Warehouse.builder().id(30L).code("WH-WEST").zone(2).build()));
+        allocator = new WarehouseAllocator(repository, null, null);
+    }
+
+    @Test
+    void nearestWarehouseFillsTheWholeQuantityWhenItCan() {
+        assertArrayEquals(new int[]{0, 0, 3}, allocator.allocate(level(5, 5, 5), 3, 2));
+        assertArrayEquals(new int[]{3, 0, 0}, allocator.allocate(level(5, 5, 5), 3, 0));
+    }
+
+    @Test
+    void equallyNearWarehousesAreTakenByMostStock() {
+        // Zone 1: central is nearest, east and west are both one zone away
+        assertArrayEquals(new int[]{0, 5, 2}, allocator.allocate(level(2, 5, 4), 7, 1));
+        assertArrayEquals(new int[]{1, 5, 4}, allocator.allocate(level(2, 5, 4), 10, 1));
+    }
+
+    @Test
+    void splitSkipsEmptyWarehousesAndFailsWhenTheTotalIsShort() {
+        assertArrayEquals(new int[]{4, 0, 0}, allocator.allocate(level(6, 0, -2), 4, 2));
+        assertArrayEquals(new int[]{2, 3, 0}, allocator.allocate(level(2, 3, 0), 5, 2));
+        assertNull(allocator.allocate(level(2, 3, 0), 6, 1));
+        assertNull(allocator.allocate(level(0, 0, 0), 1, 0));
+    }
+
+    @Test
+    void increaseIsSpreadByOnHandStock() {
+        assertArrayEquals(new int[]{1, 2, 3}, allocator.spread(level(10, 20, 30), 6));
+        assertArrayEquals(new int[]{0, 0, 7}, allocator.spread(level(0, 0, 9), 7));
+    }
+
+    @Test
+    void increaseRoundingLeftoversGoOneUnitAtATimeToStockedWarehouses() {
+        assertArrayEquals(new int[]{1, 1, 0}, allocator.spread(level(1, 1, 1), 2));
+        assertArrayEquals(new int[]{0, 1, 1}, allocator.spread(level(0, 1, 1), 2));
+        assertArrayEquals(new int[]{3, 0, 2}, allocator.spread(level(1, 0, 1), 5));
+    }
+
+    @Test
+    void increaseWithNothingOnHandGoesToTheDefaultWarehouse() {
+        assertArrayEquals(new int[]{8, 0, 0}, allocator.spread(level(0, 0, 0), 8));
+        assertArrayEquals(new int[]{8, 0, 0}, allocator.spread(level(0, -3, 0), 8));
+    }
+
+    @Test
+    void decreaseNeverTakesAWarehouseBelowZero() {
+        assertArrayEquals(new int[]{-1, -2, -3}, allocator.spread(level(10, 20, 30), -6));
+        assertArrayEquals(new int[]{-2, -1, -1}, allocator.spread(level(3, 3, 3), -4));
+        // More than is on hand: the warehouses are emptied and the default takes the rest
+        assertArrayEquals(new int[]{-3, 0, -2}, allocator.spread(level(1, 0, 2), -5));
+    }
+
+    @Test
+    void spreadAlwaysSumsToTheDelta() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int run = 0; run < 20_000; run++) {
+            int[] level = level(random.nextInt(-2, 50), random.nextInt(-2, 50), random.nextInt(-2, 50));
+            int delta = random.nextInt(-200, 200);
+            int[] split = allocator.spread(level, delta);
+
+            assertEquals(delta, Arrays.stream(split).sum(), () -> Arrays.toString(level) + " " + delta);
+            for (int i = 1; i < split.length; i++) {
+                if (delta < 0) {
+                    assertTrue(split[i] <= 0 && level[2 + i] + split[i] >= Math.min(0, level[2 + i]),
+                        Arrays.toString(level) + " " + delta + " -> " + Arrays.toString(split));
+                } else {
+                    assertTrue(split[i] >= 0 && (split[i] == 0 || level[2 + i] > 0),
+                        Arrays.toString(level) + " " + delta + " -> " + Arrays.toString(split));
+                }
+            }
+        }
+    }
+
+    @Test
+    void customersMapOntoTheWarehouseZones() {
+        assertEquals(0, allocator.zoneOf(null));
+        assertEquals(1, allocator.zoneOf(4L));
+        assertEquals(2, allocator.zoneOf(-1L));
+        assertEquals(2, allocator.indexOf(30L));
+        assertEquals(0, allocator.indexOf(99L));
+    }
+
+    /**
+     * StockLedger level array with the given per-warehouse available stock
+     */
+    private static int[] level(int... warehouses) {
+        int[] level = new int[2 + warehouses.length];
+        for (int i = 0; i < warehouses.length; i++) {
+            level[2 + i] = warehouses[i];
+            level[0] += warehouses[i];
+        }
+        return level;
+    }
+}
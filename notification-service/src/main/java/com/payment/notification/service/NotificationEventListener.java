@@ -1,5 +1,6 @@
 package com.payment.notification.service;
 
+import com.payment.common.logging.EventLog;
 import com.payment.order.event.OrderEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -22,17 +23,14 @@ public class NotificationEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handleOrderEvent(OrderEvent orderEvent) {
-        log.info("=====================================");
-        log.info("📧 NOTIFICATION SERVICE - Order Event");
-        log.info("=====================================");
-        log.info("Event Type: {}", orderEvent.getEventType());
-        log.info("Correlation ID: {}", orderEvent.getCorrelationId());
-        log.info("Order ID: {}", orderEvent.getOrderId());
-        
+        long start = System.nanoTime();
+
         // Simulate sending notification based on event type
-        String notification = formatNotification(orderEvent);
-        log.info("📨 Sending Notification: {}", notification);
-        log.info("=====================================\n");
+        if (log.isDebugEnabled()) {
+            log.debug("📨 Sending Notification: {}", formatNotification(orderEvent));
+        }
+        EventLog.handled(log, orderEvent.getEventType(), orderEvent.getOrderId(), orderEvent.getCorrelationId(),
+            "notified", start);
         
         // TODO: In next phase, we'll store these notifications in database
     }
@@ -46,8 +44,7 @@ public class NotificationEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handleInventoryEvent(Object inventoryEvent) {
-        log.info("📧 NOTIFICATION SERVICE - Inventory Event Received");
-        log.info("Event: {}", inventoryEvent);
+        log.debug("📧 Inventory event received: {}", inventoryEvent);
         // TODO: Add proper handling once InventoryEvent is implemented
     }
 
@@ -60,8 +57,7 @@ public class NotificationEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handlePaymentEvent(Object paymentEvent) {
-        log.info("📧 NOTIFICATION SERVICE - Payment Event Received");
-        log.info("Event: {}", paymentEvent);
+        log.debug("📧 Payment event received: {}", paymentEvent);
         // TODO: Add proper handling once PaymentEvent is implemented
     }
 
@@ -74,8 +70,7 @@ public class NotificationEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handleShippingEvent(Object shippingEvent) {
-        log.info("📧 NOTIFICATION SERVICE - Shipping Event Received");
-        log.info("Event: {}", shippingEvent);
+        log.debug("📧 Shipping event received: {}", shippingEvent);
         // TODO: Add proper handling once ShipmentEvent is implemented
     }
 
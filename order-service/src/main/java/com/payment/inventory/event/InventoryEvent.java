@@ -1,10 +1,14 @@
 package com.payment.inventory.event;
 
 import com.payment.common.event.BaseEvent;
+import com.payment.common.money.Money;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Event published by Inventory Service
  * Indicates whether inventory was successfully reserved or failed
@@ -19,6 +23,9 @@ public class InventoryEvent extends BaseEvent {
     private Integer quantity;
     private boolean success;
     private String message;
+    private List<WarehouseAllocation> allocations; // Where a reservation was taken from (INVENTORY_RESERVED)
+    private Long customerId; // Order context for payment (INVENTORY_RESERVED)
+    private Money totalAmount;
     
     public InventoryEvent(String correlationId, String eventType, Long orderId, 
                           Long productId, Integer quantity, boolean success, String message) {
@@ -44,6 +51,22 @@ public class InventoryEvent extends BaseEvent {
         );
     }
     
+    public static InventoryEvent reserved(String correlationId, Long orderId, Long productId, 
+                                          Integer quantity, List<WarehouseAllocation> allocations) {
+        InventoryEvent event = reserved(correlationId, orderId, productId, quantity);
+        event.setAllocations(allocations);
+        return event;
+    }
+    
+    public static InventoryEvent reserved(String correlationId, Long orderId, Long productId, 
+                                          Integer quantity, List<WarehouseAllocation> allocations,
+                                          Long customerId, Money totalAmount) {
+        InventoryEvent event = reserved(correlationId, orderId, productId, quantity, allocations);
+        event.setCustomerId(customerId);
+        event.setTotalAmount(totalAmount);
+        return event;
+    }
+    
     public static InventoryEvent failed(String correlationId, Long orderId, 
                                         Long productId, Integer quantity, String reason) {
         return new InventoryEvent(
@@ -69,4 +92,16 @@ public class InventoryEvent extends BaseEvent {
             "Inventory unreserved (compensation)"
         );
     }
-}
\ No newline at end of file
+    
+    /**
+     * Quantity taken from one warehouse
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WarehouseAllocation {
+        private Long warehouseId;
+        private String warehouseCode;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,254 @@
+package com.payment.order.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Synthetic Data Generator - Streams historical orders and order items into PostgreSQL using COPY
+ * Used for scale testing (indexes, pagination, caches) at realistic data sizes
+ *
+ * Enable with: datagen.enabled=true (see application.yml for the distribution settings)
+ *
+ * Distributions:
+ * - Customers: heavy-customer-ratio of customers place heavy-customer-order-share of all orders (long histories)
+ * - Products: hot-sku-ratio of products receive hot-sku-item-share of all order items
+ * - Outcomes and items: derived from (seed, orderId) so payment-service and shipping-service generate
+ *   matching rows (payment amounts are the order totals)
+ *
+ * Location: order-service/src/main/java/com/payment/order/config/SyntheticDataGenerator.java
+ */
+@Component
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private final DataSource dataSource;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.flush-bytes:1048576}")
+    private int flushBytes;
+
+    @Value("${datagen.orders:5000000}")
+    private long orderCount;
+
+    @Value("${datagen.first-order-id:1000001}")
+    private long firstOrderId;
+
+    @Value("${datagen.history-days:365}")
+    private int historyDays;
+
+    @Value("${datagen.customers:200000}")
+    private long customerCount;
+
+    @Value("${datagen.heavy-customer-ratio:0.01}")
+    private double heavyCustomerRatio;
+
+    @Value("${datagen.heavy-customer-order-share:0.3}")
+    private double heavyCustomerOrderShare;
+
+    @Value("${datagen.products:1000000}")
+    private long productCount;
+
+    @Value("${datagen.first-product-id:1001}")
+    private long firstProductId;
+
+    @Value("${datagen.hot-sku-ratio:0.01}")
+    private double hotSkuRatio;
+
+    @Value("${datagen.hot-sku-item-share:0.6}")
+    private double hotSkuItemShare;
+
+    @Value("${datagen.max-items-per-order:5}")
+    private int maxItemsPerOrder;
+
+    @Value("${datagen.inventory-failure-ratio:0.03}")
+    private double inventoryFailureRatio;
+
+    @Value("${datagen.payment-failure-ratio:0.07}")
+    private double paymentFailureRatio;
+
+    public SyntheticDataGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("🏭 Generating {} synthetic orders starting at ID {}...", orderCount, firstOrderId);
+        long start = System.currentTimeMillis();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long heavyCustomers = Math.max(1, (long) (customerCount * heavyCustomerRatio));
+        LocalDateTime historyStart = LocalDateTime.now().minusDays(historyDays);
+        long historySeconds = historyDays * 86_400L;
+
+        // Two passes over one connection: orders first, then their items. Each COPY commits when it
+        // ends, so every order is committed before the order_items foreign key checks it. Items come
+        // from the order's own random stream (orderRandom), so pass 2 draws exactly the items pass 1 priced.
+        try (Connection connection = dataSource.getConnection()) {
+            long firstItemId = nextId(connection, "order_items");
+
+            try (CopyStreamWriter orders = new CopyStreamWriter(
+                    connection.unwrap(PGConnection.class).getCopyAPI(),
+                    "orders",
+                    "id, customer_id, correlation_id, status, total_amount, failure_reason, created_at, updated_at",
+                    flushBytes)) {
+
+                for (long i = 0; i < orderCount; i++) {
+                    long orderId = firstOrderId + i;
+                    long customerId = random.nextDouble() < heavyCustomerOrderShare
+                        ? 1 + random.nextLong(heavyCustomers)
+                        : 1 + heavyCustomers + random.nextLong(Math.max(1, customerCount - heavyCustomers));
+                    long totalCents = drawItems(orderRandom(seed, orderId), (productId, quantity, unitCents) -> { });
+
+                    // Orders are time-ordered by ID, like real traffic
+                    LocalDateTime createdAt = historyStart.plusSeconds(historySeconds * i / orderCount);
+                    double outcome = outcomeRoll(seed, orderId);
+                    String status;
+                    String failureReason = null;
+                    if (outcome < inventoryFailureRatio) {
+                        status = "FAILED";
+                        failureReason = "Inventory reservation failed: Insufficient stock";
+                    } else if (outcome < inventoryFailureRatio + paymentFailureRatio) {
+                        status = "FAILED";
+                        failureReason = "Payment failed: Payment declined by payment gateway";
+                    } else {
+                        status = "COMPLETED";
+                    }
+
+                    orders.row(
+                        orderId,
+                        customerId,
+                        correlationId(orderId),
+                        status,
+                        BigDecimal.valueOf(totalCents, 2),
+                        failureReason,
+                        createdAt,
+                        createdAt.plusMinutes(5)
+                    );
+
+                    if ((i + 1) % 1_000_000 == 0) {
+                        log.info("   ... {} orders streamed", i + 1);
+                    }
+                }
+            }
+            resetSequence(connection, "orders");
+
+            long items;
+            try (CopyStreamWriter orderItems = new CopyStreamWriter(
+                    connection.unwrap(PGConnection.class).getCopyAPI(),
+                    "order_items",
+                    "id, order_id, product_id, quantity, price",
+                    flushBytes)) {
+
+                for (long i = 0; i < orderCount; i++) {
+                    long orderId = firstOrderId + i;
+                    drawItems(orderRandom(seed, orderId), (productId, quantity, unitCents) -> orderItems.row(
+                        firstItemId + orderItems.getRows(), orderId, productId, quantity, BigDecimal.valueOf(unitCents, 2)));
+
+                    if ((i + 1) % 1_000_000 == 0) {
+                        log.info("   ... items of {} orders streamed", i + 1);
+                    }
+                }
+                items = orderItems.getRows();
+            }
+            resetSequence(connection, "order_items");
+
+            log.info("✅ Synthetic orders generated: {} orders, {} items in {} ms",
+                orderCount, items, System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Receives each generated order item
+     */
+    private interface ItemSink {
+        void item(long productId, int quantity, long unitCents) throws SQLException;
+    }
+
+    /**
+     * Draw one order's items and return the order total in cents
+     * Must match payment-service SyntheticDataGenerator.orderTotalCents
+     */
+    private long drawItems(SplittableRandom random, ItemSink sink) throws SQLException {
+        long hotSkus = Math.max(1, (long) (productCount * hotSkuRatio));
+        long totalCents = 0;
+        int itemCount = 1 + random.nextInt(maxItemsPerOrder);
+        for (int n = 0; n < itemCount; n++) {
+            long productId = random.nextDouble() < hotSkuItemShare
+                ? firstProductId + random.nextLong(hotSkus)
+                : firstProductId + random.nextLong(productCount);
+            int quantity = 1 + random.nextInt(3);
+            long unitCents = unitPriceCents(productId);
+            totalCents += unitCents * quantity;
+            sink.item(productId, quantity, unitCents);
+        }
+        return totalCents;
+    }
+
+    /**
+     * Deterministic correlation ID so other services can generate matching rows
+     */
+    static String correlationId(long orderId) {
+        return UUID.nameUUIDFromBytes(("order-" + orderId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Deterministic [0, 1) roll per order (SplitMix64 finalizer) - shared with payment and shipping generators
+     */
+    static double outcomeRoll(long seed, long orderId) {
+        return (mix(seed, orderId) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * The order's own random stream for its items - shared with the payment generator, which
+     * re-derives each order's total from it
+     */
+    static SplittableRandom orderRandom(long seed, long orderId) {
+        return new SplittableRandom(mix(seed ^ 0x5DEECE66DL, orderId));
+    }
+
+    private static long mix(long seed, long orderId) {
+        long z = seed + orderId * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Stable unit price per product ($5.00 - $2004.99)
+     */
+    private static long unitPriceCents(long productId) {
+        return 500 + Math.floorMod(productId * 0x9E3779B97F4A7C15L, 200_000L);
+    }
+
+    private static long nextId(Connection connection, String table) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void resetSequence(Connection connection, String table) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), (SELECT MAX(id) FROM " + table + "))");
+        }
+    }
+}
@@ -1,17 +1,17 @@
 package com.payment.order.controller;
 
+import com.payment.common.id.IdGenerator;
+import com.payment.common.money.Money;
 import com.payment.order.event.OrderEvent;
 import com.payment.order.service.EventPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Test controller to manually publish events
@@ -36,12 +36,12 @@ public class EventTestController {
         log.info("Test endpoint called: Publishing ORDER_CREATED event");
         
         // Generate correlation ID for tracking
-        String correlationId = UUID.randomUUID().toString();
+        String correlationId = IdGenerator.nextString();
         
         // Create sample order items
         List<OrderEvent.OrderItemEvent> items = new ArrayList<>();
-        items.add(new OrderEvent.OrderItemEvent(1L, 2, new BigDecimal("29.99")));
-        items.add(new OrderEvent.OrderItemEvent(2L, 1, new BigDecimal("49.99")));
+        items.add(new OrderEvent.OrderItemEvent(1L, 2, Money.parse("29.99")));
+        items.add(new OrderEvent.OrderItemEvent(2L, 1, Money.parse("49.99")));
         
         // Create ORDER_CREATED event
         OrderEvent orderEvent = new OrderEvent(
@@ -49,7 +49,7 @@ public class EventTestController {
             "ORDER_CREATED",
             12345L, // orderId
             67890L, // customerId
-            new BigDecimal("109.97"), // totalAmount
+            Money.parse("109.97"), // totalAmount
             "PENDING",
             items
         );
@@ -78,19 +78,19 @@ public class EventTestController {
     public ResponseEntity<Map<String, Object>> publishMultipleEvents() {
         log.info("Publishing multiple test events...");
         
-        String correlationId = UUID.randomUUID().toString();
+        String correlationId = IdGenerator.nextString();
         
         // Publish 5 sample events
         for (int i = 1; i <= 5; i++) {
             List<OrderEvent.OrderItemEvent> items = new ArrayList<>();
-            items.add(new OrderEvent.OrderItemEvent((long) i, 1, new BigDecimal("19.99")));
+            items.add(new OrderEvent.OrderItemEvent((long) i, 1, Money.parse("19.99")));
             
             OrderEvent orderEvent = new OrderEvent(
                 correlationId + "-" + i,
                 "ORDER_CREATED",
                 (long) (12345 + i),
                 67890L,
-                new BigDecimal("19.99"),
+                Money.parse("19.99"),
                 "PENDING",
                 items
             );
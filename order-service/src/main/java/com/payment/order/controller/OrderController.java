@@ -45,11 +45,11 @@ public class OrderController {
      */
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        log.info("📝 API: Create order request received for customer: {}", request.getCustomerId());
+        log.debug("📝 API: Create order request received for customer: {}", request.getCustomerId());
         
         OrderResponse response = orderService.createOrder(request);
         
-        log.info("✅ API: Order created successfully with ID: {}", response.getOrderId());
+        log.debug("✅ API: Order created successfully with ID: {}", response.getOrderId());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -60,7 +60,7 @@ public class OrderController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
-        log.info("📖 API: Get order request for ID: {}", id);
+        log.debug("📖 API: Get order request for ID: {}", id);
         
         OrderResponse response = orderService.getOrderById(id);
         
@@ -74,7 +74,7 @@ public class OrderController {
      */
     @GetMapping("/correlation/{correlationId}")
     public ResponseEntity<OrderResponse> getOrderByCorrelationId(@PathVariable String correlationId) {
-        log.info("📖 API: Get order request for correlationId: {}", correlationId);
+        log.debug("📖 API: Get order request for correlationId: {}", correlationId);
         
         OrderResponse response = orderService.getOrderByCorrelationId(correlationId);
         
@@ -88,11 +88,11 @@ public class OrderController {
      */
     @GetMapping("/customer/{customerId}")
     public ResponseEntity<List<OrderResponse>> getOrdersByCustomerId(@PathVariable Long customerId) {
-        log.info("📖 API: Get orders request for customer: {}", customerId);
+        log.debug("📖 API: Get orders request for customer: {}", customerId);
         
         List<OrderResponse> responses = orderService.getOrdersByCustomerId(customerId);
         
-        log.info("✅ API: Found {} orders for customer: {}", responses.size(), customerId);
+        log.debug("✅ API: Found {} orders for customer: {}", responses.size(), customerId);
         return ResponseEntity.ok(responses);
     }
 
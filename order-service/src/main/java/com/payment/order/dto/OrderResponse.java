@@ -1,12 +1,12 @@
 package com.payment.order.dto;
 
+import com.payment.common.money.Money;
 import com.payment.order.model.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,7 +25,7 @@ public class OrderResponse {
     private Long customerId;
     private String correlationId;
     private OrderStatus status;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private List<OrderItemResponse> items;
     private String failureReason;
     private LocalDateTime createdAt;
@@ -42,7 +42,7 @@ public class OrderResponse {
         private Long itemId;
         private Long productId;
         private Integer quantity;
-        private BigDecimal price;
-        private BigDecimal subtotal;
+        private Money price;
+        private Money subtotal;
     }
 }
\ No newline at end of file
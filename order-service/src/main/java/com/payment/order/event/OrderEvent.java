@@ -1,10 +1,10 @@
 package com.payment.order.event;
 
 import com.payment.common.event.BaseEvent;
+import com.payment.common.money.Money;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -18,12 +18,12 @@ public class OrderEvent extends BaseEvent {
     
     private Long orderId;
     private Long customerId;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private String orderStatus;
     private List<OrderItemEvent> items;
     
     public OrderEvent(String correlationId, String eventType, Long orderId, 
-                      Long customerId, BigDecimal totalAmount, String orderStatus,
+                      Long customerId, Money totalAmount, String orderStatus,
                       List<OrderItemEvent> items) {
         super(correlationId, eventType, "order-service");
         this.orderId = orderId;
@@ -41,9 +41,9 @@ public class OrderEvent extends BaseEvent {
     public static class OrderItemEvent {
         private Long productId;
         private Integer quantity;
-        private BigDecimal price;
+        private Money price;
         
-        public OrderItemEvent(Long productId, Integer quantity, BigDecimal price) {
+        public OrderItemEvent(Long productId, Integer quantity, Money price) {
             this.productId = productId;
             this.quantity = quantity;
             this.price = price;
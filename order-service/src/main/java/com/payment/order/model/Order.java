@@ -1,5 +1,6 @@
 package com.payment.order.model;
 
+import com.payment.common.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,7 +9,6 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,7 +41,7 @@ public class Order {
     private OrderStatus status;
 
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount;
+    private Money totalAmount;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
@@ -64,10 +64,12 @@ public class Order {
         item.setOrder(this);
     }
 
-    // Helper method to calculate total
+    // Helper method to calculate total (one long sum - no per-item allocation)
     public void calculateTotal() {
-        this.totalAmount = items.stream()
-            .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long totalMinor = 0;
+        for (OrderItem item : items) {
+            totalMinor = Math.addExact(totalMinor, item.getSubtotalMinor());
+        }
+        this.totalAmount = Money.ofMinor(totalMinor);
     }
 }
\ No newline at end of file
@@ -1,14 +1,13 @@
 package com.payment.order.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.payment.common.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 /**
  * OrderItem Entity - Represents an item in an order
  * 
@@ -38,12 +37,19 @@ public class OrderItem {
     private Integer quantity;
 
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal price; // Price per unit at time of order
+    private Money price; // Price per unit at time of order
 
     /**
      * Calculate subtotal for this item
      */
-    public BigDecimal getSubtotal() {
-        return price.multiply(BigDecimal.valueOf(quantity));
+    public Money getSubtotal() {
+        return price.times(quantity);
+    }
+
+    /**
+     * Subtotal in minor units (no allocation)
+     */
+    public long getSubtotalMinor() {
+        return Math.multiplyExact(price.getMinorUnits(), (long) quantity);
     }
 }
\ No newline at end of file
@@ -27,13 +27,13 @@ public class EventPublisher {
      * @param event - Event object to publish
      */
     public void publishEvent(String topic, String key, Object event) {
-        log.info("Publishing event to topic: {} with key: {}", topic, key);
+        log.debug("Publishing event to topic: {} with key: {}", topic, key);
         
         CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, key, event);
         
         future.whenComplete((result, ex) -> {
             if (ex == null) {
-                log.info("✓ Event published successfully to topic: {} | Partition: {} | Offset: {}", 
+                log.debug("✓ Event published successfully to topic: {} | Partition: {} | Offset: {}", 
                     topic, 
                     result.getRecordMetadata().partition(), 
                     result.getRecordMetadata().offset());
@@ -49,9 +49,9 @@ public class EventPublisher {
      */
     public void publishEventSync(String topic, String key, Object event) {
         try {
-            log.info("Publishing event synchronously to topic: {} with key: {}", topic, key);
+            log.debug("Publishing event synchronously to topic: {} with key: {}", topic, key);
             SendResult<String, Object> result = kafkaTemplate.send(topic, key, event).get();
-            log.info("✓ Event published successfully to topic: {} | Partition: {} | Offset: {}", 
+            log.debug("✓ Event published successfully to topic: {} | Partition: {} | Offset: {}", 
                 topic, 
                 result.getRecordMetadata().partition(), 
                 result.getRecordMetadata().offset());
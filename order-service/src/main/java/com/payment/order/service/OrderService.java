@@ -1,5 +1,8 @@
 package com.payment.order.service;
 
+import com.payment.common.id.IdGenerator;
+import com.payment.common.logging.EventLog;
+import com.payment.common.money.Money;
 import com.payment.order.dto.CreateOrderRequest;
 import com.payment.order.dto.OrderResponse;
 import com.payment.order.event.OrderEvent;
@@ -12,7 +15,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -37,10 +39,11 @@ public class OrderService {
      */
     @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
-        log.info("Creating new order for customer: {}", request.getCustomerId());
+        long start = System.nanoTime();
+        log.debug("Creating new order for customer: {}", request.getCustomerId());
 
         // Generate unique correlation ID for Saga tracking
-        String correlationId = UUID.randomUUID().toString();
+        String correlationId = IdGenerator.nextString();
 
         // Build Order entity
         Order order = Order.builder()
@@ -54,7 +57,7 @@ public class OrderService {
             OrderItem item = OrderItem.builder()
                 .productId(itemRequest.getProductId())
                 .quantity(itemRequest.getQuantity())
-                .price(itemRequest.getPrice())
+                .price(Money.of(itemRequest.getPrice()))
                 .build();
             order.addItem(item);
         });
@@ -64,12 +67,12 @@ public class OrderService {
 
         // Save to database
         Order savedOrder = orderRepository.save(order);
-        log.info("Order created with ID: {} and correlationId: {}", savedOrder.getId(), correlationId);
+        log.debug("Order created with ID: {} and correlationId: {}", savedOrder.getId(), correlationId);
 
         // Publish ORDER_CREATED event to Kafka
         OrderEvent orderEvent = buildOrderEvent(savedOrder, "ORDER_CREATED");
         eventPublisher.publishEvent("order-events", correlationId, orderEvent);
-        log.info("ORDER_CREATED event published for order: {}", savedOrder.getId());
+        EventLog.handled(log, "ORDER_CREATED", savedOrder.getId(), correlationId, savedOrder.getStatus().name(), start);
 
         return mapToResponse(savedOrder);
     }
@@ -79,7 +82,7 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long orderId) {
-        log.info("Fetching order with ID: {}", orderId);
+        log.debug("Fetching order with ID: {}", orderId);
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
         return mapToResponse(order);
@@ -90,7 +93,7 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public OrderResponse getOrderByCorrelationId(String correlationId) {
-        log.info("Fetching order with correlationId: {}", correlationId);
+        log.debug("Fetching order with correlationId: {}", correlationId);
         Order order = orderRepository.findByCorrelationId(correlationId)
             .orElseThrow(() -> new RuntimeException("Order not found with correlationId: " + correlationId));
         return mapToResponse(order);
@@ -101,7 +104,7 @@ public class OrderService {
      */
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByCustomerId(Long customerId) {
-        log.info("Fetching orders for customer: {}", customerId);
+        log.debug("Fetching orders for customer: {}", customerId);
         return orderRepository.findByCustomerId(customerId)
             .stream()
             .map(this::mapToResponse)
@@ -113,12 +116,17 @@ public class OrderService {
      */
     @Transactional
     public void updateOrderStatus(String correlationId, OrderStatus newStatus, String failureReason) {
-        log.info("Updating order status for correlationId: {} to {}", correlationId, newStatus);
+        log.debug("Updating order status for correlationId: {} to {}", correlationId, newStatus);
         
         Order order = orderRepository.findByCorrelationId(correlationId)
             .orElseThrow(() -> new RuntimeException("Order not found with correlationId: " + correlationId));
 
         OrderStatus oldStatus = order.getStatus();
+        if (oldStatus.isFinalState()) {
+            // e.g. INVENTORY_RESERVED arriving after payment already blocked the order early
+            log.warn("⚠️ Order {} is already {} - Ignoring transition to {}", order.getId(), oldStatus, newStatus);
+            return;
+        }
         order.setStatus(newStatus);
 
         if (failureReason != null) {
@@ -126,14 +134,14 @@ public class OrderService {
         }
 
         orderRepository.save(order);
-        log.info("Order {} status updated from {} to {}", order.getId(), oldStatus, newStatus);
+        log.debug("Order {} status updated from {} to {}", order.getId(), oldStatus, newStatus);
 
         // Publish status change event if final state
         if (newStatus.isFinalState()) {
             String eventType = newStatus == OrderStatus.COMPLETED ? "ORDER_COMPLETED" : "ORDER_FAILED";
             OrderEvent event = buildOrderEvent(order, eventType);
             eventPublisher.publishEvent("order-events", correlationId, event);
-            log.info("{} event published for order: {}", eventType, order.getId());
+            log.debug("{} event published for order: {}", eventType, order.getId());
         }
     }
 
@@ -1,5 +1,6 @@
 package com.payment.order.service;
 
+import com.payment.common.logging.EventLog;
 import com.payment.inventory.event.InventoryEvent;
 import com.payment.payment.event.PaymentEvent;
 import com.payment.shipping.event.ShipmentEvent;
@@ -35,27 +36,21 @@ public class SagaEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handleInventoryEvent(InventoryEvent event) {
-        log.info("═══════════════════════════════════════════════════");
-        log.info("🎭 SAGA: Inventory Event Received");
-        log.info("═══════════════════════════════════════════════════");
-        log.info("Event Type: {}", event.getEventType());
-        log.info("Correlation ID: {}", event.getCorrelationId());
-        log.info("Order ID: {}", event.getOrderId());
-        log.info("Success: {}", event.isSuccess());
-        log.info("Message: {}", event.getMessage());
-        log.info("───────────────────────────────────────────────────");
+        long start = System.nanoTime();
+        String outcome = "ignored";
 
         try {
             switch (event.getEventType()) {
                 case "INVENTORY_RESERVED" -> {
-                    log.info("✅ Inventory reserved successfully");
+                    log.debug("✅ Inventory reserved successfully");
                     orderService.updateOrderStatus(
                         event.getCorrelationId(),
                         OrderStatus.INVENTORY_RESERVED,
                         null
                     );
-                    log.info("📊 Order status updated to INVENTORY_RESERVED");
-                    log.info("⏭️  Next: Waiting for payment processing...");
+                    outcome = OrderStatus.INVENTORY_RESERVED.name();
+                    log.debug("📊 Order status updated to INVENTORY_RESERVED");
+                    log.debug("⏭️  Next: Waiting for payment processing...");
                 }
                 case "INVENTORY_FAILED" -> {
                     log.warn("❌ Inventory reservation failed: {}", event.getMessage());
@@ -64,16 +59,20 @@ public class SagaEventListener {
                         OrderStatus.FAILED,
                         "Inventory reservation failed: " + event.getMessage()
                     );
-                    log.info("📊 Order status updated to FAILED");
-                    log.info("🛑 Order processing stopped - insufficient inventory");
+                    outcome = OrderStatus.FAILED.name();
+                    log.debug("📊 Order status updated to FAILED");
+                    log.debug("🛑 Order processing stopped - insufficient inventory");
                 }
+                case "LOW_STOCK", "STOCK_ADJUSTED" ->
+                    log.debug("Skipping product-level {} event for product {}", event.getEventType(), event.getProductId());
                 default -> log.warn("⚠️ Unknown inventory event type: {}", event.getEventType());
             }
         } catch (Exception e) {
+            outcome = "error";
             log.error("❌ Error handling inventory event: {}", e.getMessage(), e);
         }
 
-        log.info("═══════════════════════════════════════════════════\n");
+        EventLog.handled(log, event.getEventType(), event.getOrderId(), event.getCorrelationId(), outcome, start);
     }
 
     /**
@@ -86,32 +85,21 @@ public class SagaEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handlePaymentEvent(PaymentEvent event) {
-        log.info("═══════════════════════════════════════════════════");
-        log.info("🎭 SAGA: Payment Event Received");
-        log.info("═══════════════════════════════════════════════════");
-        log.info("Event Type: {}", event.getEventType());
-        log.info("Correlation ID: {}", event.getCorrelationId());
-        log.info("Order ID: {}", event.getOrderId());
-        log.info("Payment ID: {}", event.getPaymentId());
-        log.info("Amount: ${}", event.getAmount());
-        log.info("Success: {}", event.isSuccess());
-        log.info("Message: {}", event.getMessage());
-        if (event.getRiskScore() != null) {
-            log.info("Risk Score: {}", event.getRiskScore());
-        }
-        log.info("───────────────────────────────────────────────────");
+        long start = System.nanoTime();
+        String outcome = "ignored";
 
         try {
             switch (event.getEventType()) {
                 case "PAYMENT_PROCESSED" -> {
-                    log.info("✅ Payment processed successfully");
+                    log.debug("✅ Payment processed successfully");
                     orderService.updateOrderStatus(
                         event.getCorrelationId(),
                         OrderStatus.PAYMENT_PROCESSED,
                         null
                     );
-                    log.info("📊 Order status updated to PAYMENT_PROCESSED");
-                    log.info("⏭️  Next: Waiting for shipment creation...");
+                    outcome = OrderStatus.PAYMENT_PROCESSED.name();
+                    log.debug("📊 Order status updated to PAYMENT_PROCESSED");
+                    log.debug("⏭️  Next: Waiting for shipment creation...");
                 }
                 case "PAYMENT_FAILED" -> {
                     log.warn("❌ Payment processing failed: {}", event.getMessage());
@@ -121,8 +109,8 @@ public class SagaEventListener {
                         OrderStatus.COMPENSATING,
                         "Payment failed: " + event.getMessage()
                     );
-                    log.info("📊 Order status updated to COMPENSATING");
-                    log.info("🔄 Compensation: Will unreserve inventory");
+                    log.debug("📊 Order status updated to COMPENSATING");
+                    log.debug("🔄 Compensation: Will unreserve inventory");
                     
                     // TODO: Publish COMPENSATION_REQUIRED event for inventory service
                     // For now, this is handled manually or we'll implement it next
@@ -133,14 +121,16 @@ public class SagaEventListener {
                         OrderStatus.FAILED,
                         "Payment failed: " + event.getMessage()
                     );
+                    outcome = OrderStatus.FAILED.name();
                 }
                 default -> log.warn("⚠️ Unknown payment event type: {}", event.getEventType());
             }
         } catch (Exception e) {
+            outcome = "error";
             log.error("❌ Error handling payment event: {}", e.getMessage(), e);
         }
 
-        log.info("═══════════════════════════════════════════════════\n");
+        EventLog.handled(log, event.getEventType(), event.getOrderId(), event.getCorrelationId(), outcome, start);
     }
 
     /**
@@ -153,30 +143,23 @@ public class SagaEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handleShippingEvent(ShipmentEvent event) {
-        log.info("═══════════════════════════════════════════════════");
-        log.info("🎭 SAGA: Shipping Event Received");
-        log.info("═══════════════════════════════════════════════════");
-        log.info("Event Type: {}", event.getEventType());
-        log.info("Correlation ID: {}", event.getCorrelationId());
-        log.info("Order ID: {}", event.getOrderId());
-        log.info("Shipment ID: {}", event.getShipmentId());
-        log.info("Tracking Number: {}", event.getTrackingNumber());
-        log.info("Status: {}", event.getShipmentStatus());
-        log.info("───────────────────────────────────────────────────");
+        long start = System.nanoTime();
+        String outcome = "ignored";
 
         try {
             switch (event.getEventType()) {
                 case "SHIPMENT_CREATED" -> {
-                    log.info("✅ Shipment created successfully");
+                    log.debug("✅ Shipment created successfully");
                     orderService.updateOrderStatus(
                         event.getCorrelationId(),
                         OrderStatus.SHIPPED,
                         null
                     );
-                    log.info("📊 Order status updated to SHIPPED");
+                    outcome = OrderStatus.SHIPPED.name();
+                    log.debug("📊 Order status updated to SHIPPED");
                 }
                 case "SHIPMENT_UPDATED" -> {
-                    log.info("📦 Shipment status updated: {}", event.getShipmentStatus());
+                    log.debug("📦 Shipment status updated: {}", event.getShipmentStatus());
                     
                     // If shipment is delivered, mark order as completed
                     if ("DELIVERED".equals(event.getShipmentStatus())) {
@@ -185,16 +168,18 @@ public class SagaEventListener {
                             OrderStatus.COMPLETED,
                             null
                         );
-                        log.info("🎉 Order status updated to COMPLETED");
-                        log.info("✨ Order journey finished successfully!");
+                        outcome = OrderStatus.COMPLETED.name();
+                        log.debug("🎉 Order status updated to COMPLETED");
+                        log.debug("✨ Order journey finished successfully!");
                     }
                 }
                 default -> log.warn("⚠️ Unknown shipping event type: {}", event.getEventType());
             }
         } catch (Exception e) {
+            outcome = "error";
             log.error("❌ Error handling shipping event: {}", e.getMessage(), e);
         }
 
-        log.info("═══════════════════════════════════════════════════\n");
+        EventLog.handled(log, event.getEventType(), event.getOrderId(), event.getCorrelationId(), outcome, start);
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.payment.payment.config;
+
+import com.payment.payment.service.AimdConcurrencyLimiter;
+import com.payment.payment.service.GatewayCircuitBreaker;
+import com.payment.payment.service.GatewayBatcher;
+import com.payment.payment.service.GatewayEndpoint;
+import com.payment.payment.service.GatewayRouter;
+import com.payment.payment.service.GatewaySimulator;
+import com.payment.payment.service.HedgingPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway Configuration - Builds one GatewayEndpoint per configured payment gateway
+ *
+ * payment.gateway.endpoints lists the gateway names. Each gateway's simulator, limiter and circuit breaker
+ * settings default to payment.gateway.simulator.* / limiter.* / circuit-breaker.* and can be overridden
+ * per gateway under payment.gateway.endpoint.<name>.* (plus weight, default 1; idempotent-keys,
+ * default true - whether the gateway deduplicates by idempotency key, which hedging requires; and
+ * batch-authorization, default true - whether it accepts batches, which micro-batching requires).
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/config/GatewayConfig.java
+ */
+@Configuration
+public class GatewayConfig {
+
+    private static final String PREFIX = "payment.gateway.";
+
+    @Value("${payment.gateway.endpoints:default}")
+    private List<String> endpointNames;
+
+    @Value("${payment.gateway.routing.ewma-alpha:0.1}")
+    private double ewmaAlpha;
+
+    @Value("${payment.gateway.routing.decay:PT10S}")
+    private Duration decay;
+
+    @Value("${payment.gateway.routing.error-penalty:10}")
+    private double errorPenalty;
+
+    @Bean(destroyMethod = "shutdown")
+    public GatewayRouter gatewayRouter(Environment environment) {
+        List<GatewayEndpoint> endpoints = new ArrayList<>();
+        for (String name : endpointNames) {
+            Settings settings = new Settings(environment, name.trim());
+            endpoints.add(new GatewayEndpoint(
+                settings.name,
+                settings.get("weight", Double.class, 1.0),
+                new GatewaySimulator(
+                    settings.name,
+                    settings.get("simulator", "latency-median", Duration.class, Duration.ofMillis(120)),
+                    settings.get("simulator", "latency-sigma", Double.class, 0.8),
+                    settings.get("simulator", "max-latency", Duration.class, Duration.ofSeconds(30)),
+                    settings.get("simulator", "decline-rate", Double.class, 0.10),
+                    settings.get("simulator", "error-rate", Double.class, 0.005),
+                    settings.get("simulator", "hang-rate", Double.class, 0.001),
+                    settings.get("simulator", "burst-probability", Double.class, 0.0005),
+                    settings.get("simulator", "burst-duration", Duration.class, Duration.ofSeconds(5)),
+                    settings.get("simulator", "burst-error-rate", Double.class, 0.5),
+                    settings.get("simulator", "burst-latency-factor", Double.class, 4.0),
+                    settings.get("simulator", "rate-limit-per-second", Double.class, 1000.0),
+                    settings.get("simulator", "batch-item-latency", Duration.class, Duration.ofNanos(500_000)),
+                    settings.get("simulator", "remembered-keys", Integer.class, 100_000)),
+                new AimdConcurrencyLimiter(
+                    settings.name,
+                    settings.get("limiter", "initial-limit", Integer.class, 20),
+                    settings.get("limiter", "min-limit", Integer.class, 4),
+                    settings.get("limiter", "max-limit", Integer.class, 256),
+                    settings.get("limiter", "backoff-ratio", Double.class, 0.9),
+                    settings.get("limiter", "latency-threshold", Duration.class, Duration.ofSeconds(1)).toNanos()),
+                new GatewayCircuitBreaker(
+                    settings.name,
+                    settings.get("circuit-breaker", "window-size", Integer.class, 100),
+                    settings.get("circuit-breaker", "minimum-calls", Integer.class, 20),
+                    settings.get("circuit-breaker", "failure-rate-threshold", Double.class, 0.5),
+                    settings.get("circuit-breaker", "open-duration", Duration.class, Duration.ofSeconds(10)).toNanos(),
+                    settings.get("circuit-breaker", "half-open-probes", Integer.class, 5)),
+                hedgingPolicy(settings),
+                batcher(settings),
+                ewmaAlpha,
+                decay.toNanos(),
+                errorPenalty));
+        }
+        return new GatewayRouter(endpoints);
+    }
+
+    /**
+     * Hedged requests only for gateways that deduplicate by idempotency key
+     */
+    private HedgingPolicy hedgingPolicy(Settings settings) {
+        if (!settings.environment().getProperty(PREFIX + "hedging.enabled", Boolean.class, true)
+                || !settings.get("idempotent-keys", Boolean.class, true)) {
+            return null;
+        }
+        return new HedgingPolicy(
+            settings.get("hedging", "quantile", Double.class, 0.95),
+            settings.get("hedging", "min-samples", Integer.class, 100),
+            settings.get("hedging", "latency-window", Integer.class, 1000),
+            settings.get("hedging", "min-delay", Duration.class, Duration.ofMillis(20)).toNanos(),
+            settings.get("hedging", "budget-ratio", Double.class, 0.05));
+    }
+
+    /**
+     * Micro-batching only for gateways that accept batch authorization
+     */
+    private GatewayBatcher batcher(Settings settings) {
+        if (!settings.environment().getProperty(PREFIX + "batching.enabled", Boolean.class, true)
+                || !settings.get("batch-authorization", Boolean.class, true)) {
+            return null;
+        }
+        return new GatewayBatcher(
+            settings.get("batching", "max-batch-size", Integer.class, 50),
+            settings.get("batching", "max-wait", Duration.class, Duration.ofMillis(5)).toNanos(),
+            settings.get("batching", "min-in-flight", Integer.class, 16));
+    }
+
+    /**
+     * Per-gateway setting, falling back to the shared one, then the default
+     */
+    private record Settings(Environment environment, String name) {
+
+        <T> T get(String key, Class<T> type, T defaultValue) {
+            return environment.getProperty(PREFIX + "endpoint." + name + "." + key, type, defaultValue);
+        }
+
+        <T> T get(String group, String key, Class<T> type, T defaultValue) {
+            T shared = environment.getProperty(PREFIX + group + "." + key, type, defaultValue);
+            return environment.getProperty(PREFIX + "endpoint." + name + "." + key, type, shared);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.payment.payment.config;
+
+import com.payment.common.id.IdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ID Node Configuration - Gives IdGenerator this instance's node (id.node) before any ID is issued
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/config/IdNodeConfig.java
+ */
+@Configuration
+@Slf4j
+public class IdNodeConfig {
+
+    public IdNodeConfig(@Value("${id.node}") long node) {
+        IdGenerator.configure(node);
+        log.info("🆔 ID generator node: {}", node);
+    }
+}
@@ -0,0 +1,69 @@
+package com.payment.payment.config;
+
+import com.payment.payment.service.EmbeddedIdempotencyStore;
+import com.payment.payment.service.IdempotencyStore;
+import com.payment.payment.service.RedisIdempotencyStore;
+import com.payment.payment.service.TieredIdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Idempotency Store Configuration - Picks the backend behind IdempotencyService
+ *
+ * payment.idempotency.backend: redis (default) | embedded | tiered
+ * The embedded store settings live under payment.idempotency.embedded.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/config/IdempotencyStoreConfig.java
+ */
+@Configuration
+public class IdempotencyStoreConfig {
+
+    private static final String BACKEND = "payment.idempotency.backend";
+
+    @Value("${payment.idempotency.embedded.directory:./data/idempotency}")
+    private String directory;
+
+    @Value("${payment.idempotency.embedded.segment-duration:PT1H}")
+    private Duration segmentDuration;
+
+    @Value("${payment.idempotency.embedded.retention:PT48H}")
+    private Duration retention;
+
+    @Value("${payment.idempotency.embedded.segment-records:1048576}")
+    private int segmentRecords;
+
+    @Value("${payment.idempotency.embedded.initial-index-capacity:65536}")
+    private int initialIndexCapacity;
+
+    @Value("${payment.idempotency.embedded.sync-writes:false}")
+    private boolean syncWrites;
+
+    @Bean
+    @ConditionalOnProperty(name = BACKEND, havingValue = "redis", matchIfMissing = true)
+    public IdempotencyStore redisIdempotencyStore(StringRedisTemplate redisTemplate) {
+        return new RedisIdempotencyStore(redisTemplate);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = BACKEND, havingValue = "embedded")
+    public IdempotencyStore embeddedIdempotencyStore() {
+        return embeddedStore();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = BACKEND, havingValue = "tiered")
+    public IdempotencyStore tieredIdempotencyStore(StringRedisTemplate redisTemplate) {
+        return new TieredIdempotencyStore(embeddedStore(), new RedisIdempotencyStore(redisTemplate));
+    }
+
+    private EmbeddedIdempotencyStore embeddedStore() {
+        return new EmbeddedIdempotencyStore(Path.of(directory), segmentDuration, retention,
+            segmentRecords, initialIndexCapacity, syncWrites);
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 @Configuration
 @EnableKafka
@@ -27,8 +28,24 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${payment.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
+        // Payments consume inventory-events
+        return new DefaultKafkaConsumerFactory<>(consumerProps("com.payment.inventory.event.InventoryEvent"));
+    }
+
+    /**
+     * Consumer factory for order-events (fraud pre-scoring on ORDER_CREATED)
+     */
+    @Bean
+    public ConsumerFactory<String, Object> orderEventConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps("com.payment.order.event.OrderEvent"));
+    }
+
+    private Map<String, Object> consumerProps(String defaultType) {
         Map<String, Object> configProps = new HashMap<>();
         
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
@@ -43,8 +60,8 @@ public class KafkaConsumerConfig {
         // 2. Define the Delegate Deserializer (JsonDeserializer)
         configProps.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
         
-        // 3. Point to the CONCRETE class (OrderEvent) instead of BaseEvent
-        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.payment.order.event.OrderEvent");
+        // 3. Point to the CONCRETE class of the topic's events instead of BaseEvent
+        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, defaultType);
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "com.payment.*");
         
         // 4. Ignore type headers to avoid package mismatch issues across services
@@ -55,7 +72,7 @@ public class KafkaConsumerConfig {
         configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1);
         configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 500);
         
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return configProps;
     }
 
     @Bean
@@ -72,4 +89,38 @@ public class KafkaConsumerConfig {
         
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Batch listener factory - hands the listener a whole poll (up to payment.batch.max-poll-records)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = 
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3);
+        factory.setBatchListener(true);
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxPollRecords);
+        factory.getContainerProperties().setKafkaConsumerProperties(overrides);
+
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(1000L, 3)));
+        
+        return factory;
+    }
+
+    /**
+     * Listener factory for order-events
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> orderEventKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = 
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(orderEventConsumerFactory());
+        factory.setConcurrency(3);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(1000L, 3)));
+        
+        return factory;
+    }
+}
@@ -0,0 +1,210 @@
+package com.payment.payment.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Synthetic Data Generator - Streams historical payments into PostgreSQL using COPY
+ * Used for scale testing (indexes, pagination, caches) at realistic data sizes
+ *
+ * Enable with: datagen.enabled=true (see application.yml for the distribution settings)
+ *
+ * Uses the same seed, order ID range and outcome roll as the order-service generator,
+ * so payments line up with the generated orders (orders that failed inventory get no payment).
+ * Each amount is the order's total, re-derived from the same per-order item stream and prices.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/config/SyntheticDataGenerator.java
+ */
+@Component
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private final DataSource dataSource;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.flush-bytes:1048576}")
+    private int flushBytes;
+
+    @Value("${datagen.orders:5000000}")
+    private long orderCount;
+
+    @Value("${datagen.first-order-id:1000001}")
+    private long firstOrderId;
+
+    @Value("${datagen.history-days:365}")
+    private int historyDays;
+
+    @Value("${datagen.inventory-failure-ratio:0.03}")
+    private double inventoryFailureRatio;
+
+    @Value("${datagen.payment-failure-ratio:0.07}")
+    private double paymentFailureRatio;
+
+    @Value("${datagen.fraud-share-of-failures:0.3}")
+    private double fraudShareOfFailures;
+
+    @Value("${datagen.products:1000000}")
+    private long productCount;
+
+    @Value("${datagen.first-product-id:1001}")
+    private long firstProductId;
+
+    @Value("${datagen.hot-sku-ratio:0.01}")
+    private double hotSkuRatio;
+
+    @Value("${datagen.hot-sku-item-share:0.6}")
+    private double hotSkuItemShare;
+
+    @Value("${datagen.max-items-per-order:5}")
+    private int maxItemsPerOrder;
+
+    public SyntheticDataGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("🏭 Generating synthetic payments for {} orders starting at ID {}...", orderCount, firstOrderId);
+        long start = System.currentTimeMillis();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime historyStart = LocalDateTime.now().minusDays(historyDays);
+        long historySeconds = historyDays * 86_400L;
+
+        try (Connection connection = dataSource.getConnection()) {
+            long paymentId = nextId(connection, "payments");
+
+            try (CopyStreamWriter payments = new CopyStreamWriter(
+                    connection.unwrap(PGConnection.class).getCopyAPI(),
+                    "payments",
+                    "id, order_id, correlation_id, amount, payment_method, status, risk_score, "
+                        + "failure_reason, transaction_id, idempotency_key, created_at, updated_at",
+                    flushBytes)) {
+
+                for (long i = 0; i < orderCount; i++) {
+                    long orderId = firstOrderId + i;
+                    double outcome = outcomeRoll(seed, orderId);
+                    if (outcome < inventoryFailureRatio) {
+                        continue; // Order never reached payment
+                    }
+
+                    long amountCents = orderTotalCents(orderId);
+                    int riskScore = random.nextInt(80);
+                    String status = "COMPLETED";
+                    String failureReason = null;
+                    String transactionId = "TXN-SYN-" + orderId;
+
+                    if (outcome < inventoryFailureRatio + paymentFailureRatio) {
+                        transactionId = null;
+                        if (random.nextDouble() < fraudShareOfFailures) {
+                            status = "FRAUD_DETECTED";
+                            riskScore = 80 + random.nextInt(21);
+                            failureReason = "Transaction blocked due to high fraud risk (score: " + riskScore + ")";
+                        } else {
+                            status = "FAILED";
+                            failureReason = "Payment declined by payment gateway";
+                        }
+                    }
+
+                    LocalDateTime createdAt = historyStart.plusSeconds(historySeconds * i / orderCount).plusSeconds(2);
+                    payments.row(
+                        paymentId++,
+                        orderId,
+                        correlationId(orderId),
+                        BigDecimal.valueOf(amountCents, 2),
+                        "CREDIT_CARD",
+                        status,
+                        riskScore,
+                        failureReason,
+                        transactionId,
+                        null,
+                        createdAt,
+                        createdAt
+                    );
+
+                    if ((i + 1) % 1_000_000 == 0) {
+                        log.info("   ... {} orders scanned", i + 1);
+                    }
+                }
+
+                log.info("✅ Synthetic payments generated: {} payments in {} ms",
+                    payments.getRows(), System.currentTimeMillis() - start);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('payments', 'id'), (SELECT MAX(id) FROM payments))");
+            }
+        }
+    }
+
+    /**
+     * Must match order-service SyntheticDataGenerator.correlationId
+     */
+    static String correlationId(long orderId) {
+        return UUID.nameUUIDFromBytes(("order-" + orderId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Must match order-service SyntheticDataGenerator.outcomeRoll
+     */
+    static double outcomeRoll(long seed, long orderId) {
+        return (mix(seed, orderId) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Order total in cents - must match order-service SyntheticDataGenerator.drawItems / orderRandom
+     */
+    private long orderTotalCents(long orderId) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ 0x5DEECE66DL, orderId));
+        long hotSkus = Math.max(1, (long) (productCount * hotSkuRatio));
+        long totalCents = 0;
+        int itemCount = 1 + random.nextInt(maxItemsPerOrder);
+        for (int n = 0; n < itemCount; n++) {
+            long productId = random.nextDouble() < hotSkuItemShare
+                ? firstProductId + random.nextLong(hotSkus)
+                : firstProductId + random.nextLong(productCount);
+            int quantity = 1 + random.nextInt(3);
+            totalCents += unitPriceCents(productId) * quantity;
+        }
+        return totalCents;
+    }
+
+    /**
+     * Must match order-service SyntheticDataGenerator.unitPriceCents
+     */
+    private static long unitPriceCents(long productId) {
+        return 500 + Math.floorMod(productId * 0x9E3779B97F4A7C15L, 200_000L);
+    }
+
+    private static long mix(long seed, long orderId) {
+        long z = seed + orderId * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long nextId(Connection connection, String table) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package com.payment.payment.event;
 
 import com.payment.common.event.BaseEvent;
+import com.payment.common.money.Money;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import java.math.BigDecimal;
 
 /**
  * Event published by Payment Service
@@ -17,14 +17,15 @@ public class PaymentEvent extends BaseEvent {
     
     private Long orderId;
     private Long paymentId;
-    private BigDecimal amount;
+    private Money amount;
     private String paymentMethod;
     private boolean success;
     private String message;
     private Integer riskScore; // Fraud detection score (0-100)
+    private boolean retryable; // PAYMENT_FAILED before the gateway processed it - the order can be retried
     
     public PaymentEvent(String correlationId, String eventType, Long orderId, 
-                        Long paymentId, BigDecimal amount, String paymentMethod,
+                        Long paymentId, Money amount, String paymentMethod,
                         boolean success, String message, Integer riskScore) {
         super(correlationId, eventType, "payment-service");
         this.orderId = orderId;
@@ -38,7 +39,7 @@ public class PaymentEvent extends BaseEvent {
     
     // Factory methods for convenience
     public static PaymentEvent processed(String correlationId, Long orderId, 
-                                         Long paymentId, BigDecimal amount, 
+                                         Long paymentId, Money amount, 
                                          String paymentMethod, Integer riskScore) {
         return new PaymentEvent(
             correlationId,
@@ -54,7 +55,7 @@ public class PaymentEvent extends BaseEvent {
     }
     
     public static PaymentEvent failed(String correlationId, Long orderId, 
-                                      BigDecimal amount, String reason) {
+                                      Money amount, String reason) {
         return new PaymentEvent(
             correlationId,
             "PAYMENT_FAILED",
@@ -68,8 +69,15 @@ public class PaymentEvent extends BaseEvent {
         );
     }
     
+    public static PaymentEvent failed(String correlationId, Long orderId, 
+                                      Money amount, String reason, boolean retryable) {
+        PaymentEvent event = failed(correlationId, orderId, amount, reason);
+        event.setRetryable(retryable);
+        return event;
+    }
+    
     public static PaymentEvent fraudDetected(String correlationId, Long orderId, 
-                                             BigDecimal amount, Integer riskScore) {
+                                             Money amount, Integer riskScore) {
         return new PaymentEvent(
             correlationId,
             "PAYMENT_FAILED",
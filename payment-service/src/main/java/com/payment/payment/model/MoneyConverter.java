@@ -0,0 +1,27 @@
+package com.payment.payment.model;
+
+import com.payment.common.money.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Money Converter - Stores Money attributes in their existing NUMERIC(10, 2) columns
+ * Applied to every Money attribute; amounts read back are in the default currency
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/model/MoneyConverter.java
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return Money.of(amount);
+    }
+}
@@ -1,5 +1,6 @@
 package com.payment.payment.model;
 
+import com.payment.common.money.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,7 +9,6 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -35,7 +35,7 @@ public class Payment {
     private String correlationId;
 
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     @Column(length = 50)
     private String paymentMethod; // CREDIT_CARD, DEBIT_CARD, PAYPAL, etc.
@@ -47,6 +47,8 @@ public class Payment {
     @Column(nullable = false)
     private Integer riskScore; // 0-100, fraud detection score
 
+    private Boolean fraudReview; // Decided on the fallback (amount-only) risk score and awaiting re-review
+
     @Column(length = 500)
     private String failureReason;
 
@@ -56,6 +58,9 @@ public class Payment {
     @Column(length = 50)
     private String idempotencyKey; // Key used for Redis deduplication
 
+    @Column(length = 50)
+    private String gateway; // Gateway endpoint the payment was sent to
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -3,9 +3,11 @@ package com.payment.payment.repository;
 import com.payment.payment.model.Payment;
 import com.payment.payment.model.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,4 +49,40 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      * Check if payment exists by correlation ID
      */
     boolean existsByCorrelationId(String correlationId);
-}
\ No newline at end of file
+
+    /**
+     * Find PENDING payments not touched since the cutoff (oldest first)
+     */
+    List<Payment> findTop100ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(PaymentStatus status, LocalDateTime cutoff);
+
+    /**
+     * Take over a stale PENDING payment for recovery - 0 if another instance touched it first
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.updatedAt = :now WHERE p.id = :id"
+        + " AND p.status = com.payment.payment.model.PaymentStatus.PENDING AND p.updatedAt = :seen")
+    int touchPending(Long id, LocalDateTime seen, LocalDateTime now);
+
+    /**
+     * Move a PENDING payment to its outcome - 0 if it was already resolved
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.transactionId = :transactionId,"
+        + " p.failureReason = :failureReason, p.updatedAt = :now"
+        + " WHERE p.id = :id AND p.status = com.payment.payment.model.PaymentStatus.PENDING")
+    int finishPending(Long id, PaymentStatus status, String transactionId, String failureReason, LocalDateTime now);
+
+    /**
+     * Remove a PENDING payment the gateway never processed - 0 if it was already resolved
+     */
+    @Modifying
+    @Query("DELETE FROM Payment p WHERE p.id = :id AND p.status = com.payment.payment.model.PaymentStatus.PENDING")
+    int deletePending(Long id);
+
+    /**
+     * Store the full risk score of a payment decided on its fallback score; review = still needs a review
+     */
+    @Modifying
+    @Query("UPDATE Payment p SET p.riskScore = :riskScore, p.fraudReview = :review, p.updatedAt = :now WHERE p.id = :id")
+    int recordFraudReview(Long id, Integer riskScore, Boolean review, LocalDateTime now);
+}
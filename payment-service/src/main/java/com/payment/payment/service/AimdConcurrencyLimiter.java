@@ -0,0 +1,93 @@
+package com.payment.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AIMD Concurrency Limiter - Finds how many concurrent requests a gateway can take
+ *
+ * Additive increase, multiplicative decrease (the AIMD limit of Netflix concurrency-limits):
+ * - a fast answer while at least half the limit is in use raises the limit by one
+ * - a slow answer (over latency-threshold), a timeout or a rate-limit rejection multiplies it by backoff-ratio
+ * Requests beyond the limit are rejected instead of queued, so the gateway is kept at its real capacity.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/AimdConcurrencyLimiter.java
+ */
+@Slf4j
+public class AimdConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private double limit;
+    private int inFlight;
+
+    public AimdConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                  double backoffRatio, long latencyThresholdNanos) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Take a slot; false when the limit is reached. Every acquired slot must be returned through
+     * exactly one of onSuccess / onDropped / onIgnored.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * The gateway answered after rttNanos
+     */
+    public synchronized void onSuccess(long rttNanos) {
+        boolean busy = inFlight * 2 >= limit;
+        inFlight--;
+        if (rttNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (busy && limit < maxLimit) {
+            limit = Math.min(maxLimit, limit + 1);
+            log.debug("📈 Gateway {} concurrency limit raised to {}", name, (int) limit);
+        }
+    }
+
+    /**
+     * The gateway is overloaded (timeout or rate limit)
+     */
+    public synchronized void onDropped() {
+        inFlight--;
+        decrease();
+    }
+
+    /**
+     * The request says nothing about capacity (error, or never sent)
+     */
+    public synchronized void onIgnored() {
+        inFlight--;
+    }
+
+    private void decrease() {
+        double lowered = Math.max(minLimit, limit * backoffRatio);
+        if ((int) lowered < (int) limit) {
+            log.debug("📉 Gateway {} concurrency limit lowered to {}", name, (int) lowered);
+        }
+        limit = lowered;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,418 @@
+package com.payment.payment.service;
+
+import com.payment.payment.service.IdempotencyService.ClaimState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Embedded Idempotency Store - Claims and outcomes in memory-mapped files, no network hop
+ *
+ * Disk layout (payment.idempotency.embedded.directory):
+ * - Append-only segment files "<window start epoch second>-<seq>.seg", one per segment-duration
+ *   window (a full segment rolls over to the next seq)
+ * - 16-byte header (magic, version, window start), then fixed 16-byte records:
+ *   orderId (8) | epoch second (4, unsigned) | state (1) | unused (2) | checksum (1)
+ * - The checksum byte is written last and is never 0: an all-zero slot marks the end of the log,
+ *   a torn record fails the check and recovery stops there; a segment whose header never reached
+ *   the file holds no records and is deleted
+ *
+ * Memory: an off-heap open-addressing index orderId -> (second, state), rebuilt from the segments
+ * on startup. The newest record for an order wins.
+ *
+ * TTL: whole segment files are deleted once their window is older than the retention. Index
+ * entries older than the retention read as absent and are dropped when the index is rehashed.
+ *
+ * Writes land in the page cache through the mapping, so they survive a process crash;
+ * sync-writes also forces every record to disk (survives power loss, one fsync per write).
+ * Single node only - the files are not shared between payment-service instances.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/EmbeddedIdempotencyStore.java
+ */
+@Slf4j
+public class EmbeddedIdempotencyStore implements IdempotencyStore, AutoCloseable {
+
+    private static final int MAGIC = 0x49444D31; // "IDM1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 16;
+    private static final String SUFFIX = ".seg";
+
+    private static final byte IN_FLIGHT = 'I';
+    private static final byte COMPLETED = 'C';
+    private static final byte FAILED = 'F';
+    private static final byte RELEASED = 'R';
+
+    private final Path directory;
+    private final long segmentSeconds;
+    private final long retentionSeconds;
+    private final int segmentBytes;
+    private final boolean syncWrites;
+    private final OffHeapIndex index;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private MappedByteBuffer active;
+    private int activePosition;
+
+    /**
+     * A segment file: window start + sequence within the window
+     */
+    private record Segment(long windowStart, int seq, Path path) {
+    }
+
+    public EmbeddedIdempotencyStore(Path directory, Duration segmentDuration, Duration retention,
+                                    int segmentRecords, int initialIndexCapacity, boolean syncWrites) {
+        this.directory = directory;
+        this.segmentSeconds = segmentDuration.toSeconds();
+        this.retentionSeconds = retention.toSeconds();
+        this.segmentBytes = HEADER_BYTES + segmentRecords * RECORD_BYTES;
+        this.syncWrites = syncWrites;
+        this.index = new OffHeapIndex(initialIndexCapacity);
+
+        try {
+            Files.createDirectories(directory);
+            recover(Instant.now().getEpochSecond());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open idempotency store at " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized ClaimState claim(long orderId, long nowSeconds, long inFlightTtlSeconds) {
+        long value = index.get(orderId);
+        if (isLive(value, nowSeconds)
+            && (state(value) != IN_FLIGHT || second(value) + inFlightTtlSeconds > nowSeconds)) {
+            return toClaimState(state(value));
+        }
+        write(orderId, IN_FLIGHT, nowSeconds);
+        return ClaimState.CLAIMED;
+    }
+
+    @Override
+    public synchronized void finish(long orderId, ClaimState state, long nowSeconds) {
+        write(orderId, state == ClaimState.COMPLETED ? COMPLETED : FAILED, nowSeconds);
+    }
+
+    @Override
+    public synchronized void release(long orderId, long nowSeconds) {
+        if (isLive(index.get(orderId), nowSeconds)) {
+            write(orderId, RELEASED, nowSeconds);
+        }
+    }
+
+    @Override
+    public synchronized boolean contains(long orderId, long nowSeconds) {
+        return isLive(index.get(orderId), nowSeconds);
+    }
+
+    /**
+     * COMPLETED / FAILED if the order has a live final outcome, otherwise null
+     */
+    public synchronized ClaimState finalState(long orderId, long nowSeconds) {
+        long value = index.get(orderId);
+        return isLive(value, nowSeconds) && state(value) != IN_FLIGHT ? toClaimState(state(value)) : null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (active != null) {
+            active.force();
+            active = null;
+        }
+        index.free();
+    }
+
+    private void write(long orderId, byte state, long nowSeconds) {
+        if (active == null || activePosition + RECORD_BYTES > segmentBytes
+            || windowStart(nowSeconds) != segments.getLast().windowStart()) {
+            roll(nowSeconds);
+        }
+
+        int second = (int) nowSeconds;
+        active.putLong(activePosition, orderId);
+        active.putInt(activePosition + 8, second);
+        active.put(activePosition + 12, state);
+        active.put(activePosition + 15, checksum(orderId, second, state));
+        if (syncWrites) {
+            active.force(activePosition, RECORD_BYTES);
+        }
+        activePosition += RECORD_BYTES;
+
+        index.put(orderId, pack(second, state), nowSeconds - retentionSeconds);
+    }
+
+    /**
+     * Start a new segment (new window, or the current one is full) and drop expired ones
+     */
+    private void roll(long nowSeconds) {
+        long window = windowStart(nowSeconds);
+        Segment last = segments.peekLast();
+        int seq = last != null && last.windowStart() == window ? last.seq() + 1 : 0;
+        Segment segment = new Segment(window, seq, directory.resolve(window + "-" + seq + SUFFIX));
+
+        if (active != null) {
+            active.force();
+        }
+        try (FileChannel channel = FileChannel.open(segment.path(),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create idempotency segment " + segment.path(), e);
+        }
+        active.putInt(0, MAGIC);
+        active.putInt(4, VERSION);
+        active.putLong(8, window);
+        active.force(0, HEADER_BYTES);
+        activePosition = HEADER_BYTES;
+        segments.addLast(segment);
+
+        dropExpired(nowSeconds);
+        log.debug("🗂️ Opened idempotency segment {}", segment.path().getFileName());
+    }
+
+    private void dropExpired(long nowSeconds) {
+        while (segments.size() > 1 && isExpired(segments.peekFirst(), nowSeconds)) {
+            Segment expired = segments.removeFirst();
+            try {
+                Files.deleteIfExists(expired.path());
+                log.debug("🗑️ Deleted expired idempotency segment {}", expired.path().getFileName());
+            } catch (IOException e) {
+                log.warn("⚠️ Could not delete idempotency segment {}: {}", expired.path(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean isExpired(Segment segment, long nowSeconds) {
+        return segment.windowStart() + segmentSeconds + retentionSeconds <= nowSeconds;
+    }
+
+    /**
+     * Replay every live segment into the index; keep appending to the newest one if it is still current
+     */
+    private void recover(long nowSeconds) throws IOException {
+        List<Segment> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                String[] parts = name.substring(0, name.length() - SUFFIX.length()).split("-");
+                if (parts.length == 2) {
+                    found.add(new Segment(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), path));
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(Segment::windowStart).thenComparingInt(Segment::seq));
+
+        long records = 0;
+        int endOfLast = -1;
+        MappedByteBuffer lastBuffer = null;
+        for (Segment segment : found) {
+            if (isExpired(segment, nowSeconds)) {
+                Files.deleteIfExists(segment.path());
+                continue;
+            }
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(segment.path(),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            }
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                // A crash between creating a segment and forcing its header leaves it without one; records are
+                // only written after the header, so there is nothing to replay. Deleting it frees its name for roll().
+                log.warn("⚠️ Deleting idempotency segment {} without a valid header", segment.path().getFileName());
+                Files.delete(segment.path());
+                continue;
+            }
+            int end = replay(segment, buffer, nowSeconds);
+            records += (end - HEADER_BYTES) / RECORD_BYTES;
+            segments.addLast(segment);
+            lastBuffer = buffer;
+            endOfLast = end;
+        }
+
+        Segment last = segments.peekLast();
+        if (last != null && last.windowStart() == windowStart(nowSeconds)
+            && lastBuffer.capacity() == segmentBytes && endOfLast + RECORD_BYTES <= segmentBytes) {
+            active = lastBuffer;
+            activePosition = endOfLast;
+        }
+        log.info("🗂️ Idempotency store recovered {} records from {} segments in {}",
+            records, segments.size(), directory);
+    }
+
+    /**
+     * @return byte offset after the last intact record
+     */
+    private int replay(Segment segment, ByteBuffer buffer, long nowSeconds) {
+        long expiredBefore = nowSeconds - retentionSeconds;
+        int position = HEADER_BYTES;
+        while (position + RECORD_BYTES <= buffer.capacity()) {
+            byte check = buffer.get(position + 15);
+            if (check == 0) {
+                break;
+            }
+            long orderId = buffer.getLong(position);
+            int second = buffer.getInt(position + 8);
+            byte state = buffer.get(position + 12);
+            if (check != checksum(orderId, second, state)) {
+                log.warn("⚠️ Torn record at offset {} in idempotency segment {} - truncating",
+                    position, segment.path().getFileName());
+                buffer.put(position + 15, (byte) 0);
+                break;
+            }
+            if (Integer.toUnsignedLong(second) >= expiredBefore) {
+                index.put(orderId, pack(second, state), expiredBefore);
+            }
+            position += RECORD_BYTES;
+        }
+        return position;
+    }
+
+    private long windowStart(long nowSeconds) {
+        return nowSeconds - Math.floorMod(nowSeconds, segmentSeconds);
+    }
+
+    private boolean isLive(long value, long nowSeconds) {
+        return value != 0 && state(value) != RELEASED && second(value) + retentionSeconds > nowSeconds;
+    }
+
+    private static long pack(int second, byte state) {
+        return Integer.toUnsignedLong(second) << 8 | (state & 0xFF);
+    }
+
+    private static long second(long value) {
+        return value >>> 8;
+    }
+
+    private static byte state(long value) {
+        return (byte) value;
+    }
+
+    private static ClaimState toClaimState(byte state) {
+        return switch (state) {
+            case COMPLETED -> ClaimState.COMPLETED;
+            case FAILED -> ClaimState.FAILED;
+            default -> ClaimState.IN_FLIGHT;
+        };
+    }
+
+    private static byte checksum(long orderId, int second, byte state) {
+        long h = orderId * 0x9E3779B97F4A7C15L ^ Integer.toUnsignedLong(second) * 0xC2B2AE3D27D4EB4FL ^ state;
+        h ^= h >>> 32;
+        h ^= h >>> 16;
+        h ^= h >>> 8;
+        byte check = (byte) h;
+        return check == 0 ? 1 : check;
+    }
+
+    /**
+     * Open-addressing hash table (linear probing) in a direct buffer: 16-byte slots of key | value.
+     * Value 0 marks an empty slot (packed values always carry a non-zero state byte).
+     */
+    private static final class OffHeapIndex {
+
+        private static final int SLOT_BYTES = 16;
+        private static final double MAX_LOAD = 0.6;
+
+        private final int minCapacity;
+        private ByteBuffer table;
+        private int capacity;
+        private int size;
+
+        OffHeapIndex(int initialCapacity) {
+            this.minCapacity = Integer.highestOneBit(Math.max(16, initialCapacity - 1)) << 1;
+            allocate(minCapacity);
+        }
+
+        long get(long key) {
+            int mask = capacity - 1;
+            for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask) {
+                int offset = slot * SLOT_BYTES;
+                long value = table.getLong(offset + 8);
+                if (value == 0 || table.getLong(offset) == key) {
+                    return value;
+                }
+            }
+        }
+
+        void put(long key, long value, long expiredBefore) {
+            if (size + 1 > capacity * MAX_LOAD) {
+                rehash(expiredBefore);
+            }
+            int mask = capacity - 1;
+            for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask) {
+                int offset = slot * SLOT_BYTES;
+                long existing = table.getLong(offset + 8);
+                if (existing == 0) {
+                    table.putLong(offset, key);
+                    table.putLong(offset + 8, value);
+                    size++;
+                    return;
+                }
+                if (table.getLong(offset) == key) {
+                    table.putLong(offset + 8, value);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Copy live entries (not released, not expired) into a table sized for ~4x their count
+         */
+        private void rehash(long expiredBefore) {
+            ByteBuffer old = table;
+            int oldCapacity = capacity;
+            int live = 0;
+            for (int slot = 0; slot < oldCapacity; slot++) {
+                if (keep(old.getLong(slot * SLOT_BYTES + 8), expiredBefore)) {
+                    live++;
+                }
+            }
+
+            allocate(Math.max(minCapacity, Integer.highestOneBit(Math.max(1, live * 4 - 1)) << 1));
+            for (int slot = 0; slot < oldCapacity; slot++) {
+                int offset = slot * SLOT_BYTES;
+                long value = old.getLong(offset + 8);
+                if (keep(value, expiredBefore)) {
+                    put(old.getLong(offset), value, expiredBefore);
+                }
+            }
+        }
+
+        private static boolean keep(long value, long expiredBefore) {
+            return value != 0 && state(value) != RELEASED && second(value) >= expiredBefore;
+        }
+
+        private void allocate(int newCapacity) {
+            table = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES);
+            capacity = newCapacity;
+            size = 0;
+        }
+
+        void free() {
+            allocate(16);
+        }
+
+        private static long mix(long key) {
+            key ^= key >>> 33;
+            key *= 0xFF51AFD7ED558CCDL;
+            key ^= key >>> 33;
+            key *= 0xC4CEB3F99FE1A87FL;
+            key ^= key >>> 33;
+            return key;
+        }
+    }
+}
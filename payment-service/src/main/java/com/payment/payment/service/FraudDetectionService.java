@@ -1,16 +1,38 @@
 package com.payment.payment.service;
 
+import com.payment.common.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.util.Random;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Fraud Detection Service - Calculates risk score for payments
  * 
  * Location: payment-service/src/main/java/com/payment/payment/service/FraudDetectionService.java
  * 
+ * Payments are scored under a deadline (payment.fraud.deadline.timeout; one deadline per batch poll): if
+ * full scoring is late, or the scoring pool is saturated, the payment gets a fallback score from the
+ * amount-only rules and is flagged for re-review; the full score, once it lands, settles the review (review()).
+ * Metrics: payment.fraud.scoring{result=on-time|fallback-late|fallback-overloaded} and
+ * payment.fraud.review{result=confirmed|flagged}
+ *
  * NOTE: This is a SIMPLIFIED simulation for demonstration.
  * Real fraud detection would use machine learning models, historical data, etc.
  */
@@ -18,69 +40,367 @@ import java.util.Random;
 @Slf4j
 public class FraudDetectionService {
 
-    private final Random random = new Random();
+    // Batch payments per scoring task - chunks of one poll are scored in parallel
+    private static final int SCORING_CHUNK = 64;
 
-    // Risk thresholds
-    private static final int LOW_RISK_THRESHOLD = 30;
-    private static final int MEDIUM_RISK_THRESHOLD = 60;
-    private static final int HIGH_RISK_THRESHOLD = 80;
+    // score() runs on listener and scoring threads; each fills its own vector
+    private final ThreadLocal<long[]> featureVector = ThreadLocal.withInitial(() -> new long[FraudFeature.COUNT]);
+    private final VelocityTracker velocityTracker;
+    private final FraudRuleEngine fraudRuleEngine;
+    private final FraudModelScorer fraudModelScorer;
+    private final FraudPreScoreCache preScoreCache;
+    private final long deadlineNanos;
+    private final ThreadPoolExecutor scoringExecutor;
+    private final Counter onTime;
+    private final Counter fallbackLate;
+    private final Counter fallbackOverloaded;
+    private final Counter reviewConfirmed;
+    private final Counter reviewFlagged;
+
+    /**
+     * A payment's risk score
+     *
+     * @param riskScore - Score the payment is decided on
+     * @param degraded  - True if riskScore is the amount-only fallback
+     * @param fullScore - The full score still being computed (degraded only; null if it was never started)
+     */
+    public record FraudScore(int riskScore, boolean degraded, CompletableFuture<Integer> fullScore) {
+
+        static FraudScore of(int riskScore) {
+            return new FraudScore(riskScore, false, null);
+        }
+    }
+
+    public FraudDetectionService(VelocityTracker velocityTracker, FraudRuleEngine fraudRuleEngine,
+                                 FraudModelScorer fraudModelScorer, FraudPreScoreCache preScoreCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payment.fraud.deadline.timeout:PT0.05S}") Duration deadline,
+                                 @Value("${payment.fraud.deadline.threads:4}") int scoringThreads,
+                                 @Value("${payment.fraud.deadline.queue-size:256}") int queueSize) {
+        this.velocityTracker = velocityTracker;
+        this.fraudRuleEngine = fraudRuleEngine;
+        this.fraudModelScorer = fraudModelScorer;
+        this.preScoreCache = preScoreCache;
+        this.deadlineNanos = deadline.toNanos();
+
+        // Bounded queue - when scoring falls far behind, payments fall back at once instead of queueing
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scoringExecutor = new ThreadPoolExecutor(scoringThreads, scoringThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "fraud-scoring-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        this.onTime = scoringCounter(meterRegistry, "on-time");
+        this.fallbackLate = scoringCounter(meterRegistry, "fallback-late");
+        this.fallbackOverloaded = scoringCounter(meterRegistry, "fallback-overloaded");
+        this.reviewConfirmed = reviewCounter(meterRegistry, "confirmed");
+        this.reviewFlagged = reviewCounter(meterRegistry, "flagged");
+    }
+
+    private static Counter scoringCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("payment.fraud.scoring")
+            .description("Payments scored within the deadline, or given the amount-only fallback score")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Counter reviewCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("payment.fraud.review")
+            .description("Re-reviews of fallback-scored payments: confirmed, or flagged because the full score disagrees")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
 
     /**
      * Calculate risk score for a payment (0-100)
      * Higher score = higher risk
      * 
      * Factors considered (simplified):
-     * - Transaction amount
-     * - Random variation (simulates other factors)
+     * - Weighted rules from fraud-rules.yml over amount, customer velocity (payments and spend over
+     *   the last minute / hour / day, this payment included), customer and time of day
+     * - The fraud model's probability over the same features
+     *   (the built-in baseline until a trained model is deployed)
+     * A score pre-computed when the order was created is used as-is (the payment is not counted twice)
+     */
+    public int calculateRiskScore(Money amount, Long customerId, Long orderId) {
+        int preScored = orderId == null ? FraudPreScoreCache.MISS : preScoreCache.take(orderId);
+        if (preScored >= 0) {
+            log.debug("⚡ Using risk score pre-computed at order creation: {}/100", preScored);
+            return preScored;
+        }
+        return score(amount, customerId, orderId, preScored == FraudPreScoreCache.MISS);
+    }
+
+    /**
+     * Calculate risk score for a payment within the scoring deadline
+     * A late (or never started) full score is replaced by the amount-only fallback; the caller
+     * re-reviews the payment with review() once fullScore completes
+     */
+    public FraudScore calculateRiskScoreWithin(Money amount, Long customerId, Long orderId) {
+        int preScored = orderId == null ? FraudPreScoreCache.MISS : preScoreCache.take(orderId);
+        if (preScored >= 0) {
+            log.debug("⚡ Using risk score pre-computed at order creation: {}/100", preScored);
+            return FraudScore.of(preScored);
+        }
+        boolean recordVelocity = preScored == FraudPreScoreCache.MISS;
+
+        CompletableFuture<Integer> fullScore;
+        try {
+            fullScore = CompletableFuture.supplyAsync(() -> score(amount, customerId, orderId, recordVelocity),
+                scoringExecutor);
+        } catch (RejectedExecutionException e) {
+            fallbackOverloaded.increment();
+            int fallback = fallbackScore(amount);
+            log.warn("⏱️ Fraud scoring saturated - Order {} gets amount-only score {} and is flagged for review",
+                orderId, fallback);
+            return new FraudScore(fallback, true, null);
+        }
+
+        try {
+            int riskScore = fullScore.get(deadlineNanos, TimeUnit.NANOSECONDS);
+            onTime.increment();
+            return FraudScore.of(riskScore);
+        } catch (TimeoutException e) {
+            fallbackLate.increment();
+            int fallback = fallbackScore(amount);
+            log.warn("⏱️ Fraud scoring missed its {} ms deadline - Order {} gets amount-only score {} and is flagged for review",
+                deadlineNanos / 1_000_000, orderId, fallback);
+            return new FraudScore(fallback, true, fullScore);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Fraud scoring failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while scoring fraud risk", e);
+        }
+    }
+
+    /**
+     * Amount-only risk score - no velocity lookup, no model
+     */
+    public int fallbackScore(Money amount) {
+        return Math.min(fraudRuleEngine.rules().scoreAmountOnly(amount.getMinorUnits()), 100);
+    }
+
+    /**
+     * Re-review a payment decided on its fallback score, now that the full score is known
+     *
+     * @return true if the payment still needs a review: the full score would have decided differently
+     *         (blocked where the fallback let it through, or the other way round)
      */
-    public int calculateRiskScore(BigDecimal amount, Long customerId, Long orderId) {
-        log.info("🔍 Calculating fraud risk score...");
-        log.info("Amount: ${}, Customer: {}, Order: {}", amount, customerId, orderId);
-
-        int riskScore = 0;
-
-        // Factor 1: Transaction amount
-        // Higher amounts = higher risk
-        if (amount.compareTo(new BigDecimal("5000")) > 0) {
-            riskScore += 50;
-            log.info("⚠️ High amount transaction (>${}) - Adding 50 risk points", 5000);
-        } else if (amount.compareTo(new BigDecimal("1000")) > 0) {
-            riskScore += 30;
-            log.info("⚠️ Medium amount transaction (>${}) - Adding 30 risk points", 1000);
-        } else if (amount.compareTo(new BigDecimal("500")) > 0) {
-            riskScore += 15;
-            log.info("⚠️ Moderate amount transaction (>${}) - Adding 15 risk points", 500);
+    public boolean review(Long orderId, int fallbackScore, int fullScore) {
+        int blockThreshold = fraudRuleEngine.rules().getBlockThreshold();
+        boolean disagrees = (fullScore >= blockThreshold) != (fallbackScore >= blockThreshold);
+        if (disagrees) {
+            reviewFlagged.increment();
+            log.warn("🚩 Fraud re-review for order {}: full score {} vs fallback {} - Decision would differ, keeping flag",
+                orderId, fullScore, fallbackScore);
         } else {
-            riskScore += 5;
-            log.info("✓ Low amount transaction - Adding 5 risk points");
+            reviewConfirmed.increment();
+            log.debug("✅ Fraud re-review for order {}: full score {} confirms fallback {}", orderId, fullScore, fallbackScore);
+        }
+        return disagrees;
+    }
+
+    /**
+     * Score an order speculatively on ORDER_CREATED, while inventory is still being reserved;
+     * the score is cached for the payment that follows INVENTORY_RESERVED
+     * Returns -1 without scoring if the payment got there first (it has already scored the order)
+     */
+    public int preScore(Long orderId, Money amount, Long customerId) {
+        if (!preScoreCache.beginPreScore(orderId)) {
+            return -1;
+        }
+        int riskScore;
+        try {
+            riskScore = score(amount, customerId, orderId, true);
+        } catch (RuntimeException e) {
+            preScoreCache.abandonPreScore(orderId);
+            throw e;
+        }
+        preScoreCache.put(orderId, riskScore);
+        return riskScore;
+    }
+
+    /**
+     * @param recordVelocity - false when another scoring of the same order records it
+     */
+    private int score(Money amount, Long customerId, Long orderId, boolean recordVelocity) {
+        log.debug("🔍 Calculating fraud risk score...");
+        log.debug("Amount: ${}, Customer: {}, Order: {}", amount, customerId, orderId);
+
+        long[] features = featureVector.get();
+        fillFeatures(features, amount, customerId, Instant.now().getEpochSecond(), recordVelocity);
+
+        // Factor 1: Rules
+        FraudRules rules = fraudRuleEngine.rules();
+        int riskScore = rules.score(features);
+        if (log.isDebugEnabled()) {
+            log.debug("Matched fraud rules: {}", rules.matchedRules(features));
         }
+        log.debug("Rule risk points: {}", riskScore);
 
-        // Factor 2: Random variation (simulates velocity checks, location, device fingerprinting, etc.)
-        int randomFactor = random.nextInt(40); // 0-39
-        riskScore += randomFactor;
-        log.info("Random risk factor: +{} points", randomFactor);
+        // Factor 2: Model
+        int modelPoints = fraudModelScorer.points(features);
+        riskScore += modelPoints;
+        log.debug("Model risk points: +{}", modelPoints);
 
         // Ensure score stays within 0-100
         riskScore = Math.min(riskScore, 100);
 
-        log.info("📊 Final Risk Score: {}/100", riskScore);
-        log.info(getRiskLevel(riskScore));
+        if (log.isDebugEnabled()) {
+            log.debug("📊 Final Risk Score: {}/100 - {}", riskScore, getRiskLevel(riskScore));
+        }
 
         return riskScore;
     }
 
+    /**
+     * Calculate risk scores for a batch of payments within one scoring deadline for the whole batch
+     * (same factors as calculateRiskScore; pre-computed scores are used as-is). Payments are scored in
+     * chunks on the scoring pool, the model scoring each chunk in one pass; the payments of a chunk that
+     * misses the deadline, or finds the pool saturated, get the amount-only fallback as in
+     * calculateRiskScoreWithin
+     */
+    public FraudScore[] calculateRiskScoresWithin(List<Long> orderIds, List<Money> amounts, List<Long> customerIds) {
+        long deadline = System.nanoTime() + deadlineNanos;
+        int count = amounts.size();
+        FraudScore[] scores = new FraudScore[count];
+        int[] pending = new int[count];
+        boolean[] recordVelocity = new boolean[count];
+        int pendingCount = 0;
+        for (int i = 0; i < count; i++) {
+            int preScored = preScoreCache.take(orderIds.get(i));
+            if (preScored >= 0) {
+                scores[i] = FraudScore.of(preScored);
+            } else {
+                recordVelocity[pendingCount] = preScored == FraudPreScoreCache.MISS;
+                pending[pendingCount++] = i;
+            }
+        }
+        if (pendingCount == 0) {
+            log.debug("⚡ Used {} pre-computed risk scores", count);
+            return scores;
+        }
+
+        long now = Instant.now().getEpochSecond();
+        List<CompletableFuture<int[]>> chunks = new ArrayList<>();
+        for (int from = 0; from < pendingCount; from += SCORING_CHUNK) {
+            int[] rows = Arrays.copyOfRange(pending, from, Math.min(from + SCORING_CHUNK, pendingCount));
+            boolean[] record = Arrays.copyOfRange(recordVelocity, from, from + rows.length);
+            try {
+                chunks.add(CompletableFuture.supplyAsync(
+                    () -> scoreAll(rows, record, amounts, customerIds, now), scoringExecutor));
+            } catch (RejectedExecutionException e) {
+                chunks.add(null);
+            }
+        }
+
+        int late = 0;
+        int overloaded = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            CompletableFuture<int[]> chunk = chunks.get(c);
+            int from = c * SCORING_CHUNK;
+            int size = Math.min(SCORING_CHUNK, pendingCount - from);
+            if (chunk == null) {
+                overloaded += size;
+                for (int k = 0; k < size; k++) {
+                    int row = pending[from + k];
+                    scores[row] = new FraudScore(fallbackScore(amounts.get(row)), true, null);
+                }
+                continue;
+            }
+            try {
+                int[] chunkScores = chunk.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                for (int k = 0; k < size; k++) {
+                    scores[pending[from + k]] = FraudScore.of(chunkScores[k]);
+                }
+            } catch (TimeoutException e) {
+                late += size;
+                for (int k = 0; k < size; k++) {
+                    int row = pending[from + k];
+                    int index = k;
+                    scores[row] = new FraudScore(fallbackScore(amounts.get(row)), true,
+                        chunk.thenApply(chunkScores -> chunkScores[index]));
+                }
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Fraud scoring failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while scoring fraud risk", e);
+            }
+        }
+
+        onTime.increment(pendingCount - late - overloaded);
+        fallbackLate.increment(late);
+        fallbackOverloaded.increment(overloaded);
+        if (late + overloaded > 0) {
+            log.warn("⏱️ Fraud scoring missed its {} ms deadline for {} of {} payments ({} saturated) - "
+                + "Amount-only scores, flagged for review", deadlineNanos / 1_000_000, late + overloaded, count, overloaded);
+        }
+        log.debug("📊 Scored {} payments (rules + model), {} pre-computed", pendingCount, count - pendingCount);
+        return scores;
+    }
+
+    /**
+     * Full scores for some rows of a batch (rules + the model over all of them in one pass)
+     */
+    private int[] scoreAll(int[] rows, boolean[] recordVelocity, List<Money> amounts, List<Long> customerIds, long now) {
+        long[][] features = new long[rows.length][FraudFeature.COUNT];
+        for (int j = 0; j < rows.length; j++) {
+            fillFeatures(features[j], amounts.get(rows[j]), customerIds.get(rows[j]), now, recordVelocity[j]);
+        }
+
+        int[] modelPoints = new int[rows.length];
+        fraudModelScorer.pointsAll(features, rows.length, modelPoints);
+
+        FraudRules rules = fraudRuleEngine.rules();
+        int[] riskScores = new int[rows.length];
+        for (int j = 0; j < rows.length; j++) {
+            riskScores[j] = Math.min(rules.score(features[j]) + modelPoints[j], 100);
+        }
+        return riskScores;
+    }
+
+    /**
+     * Fill a fixed-layout feature vector (FraudFeature order) in place; records the payment in the
+     * velocity windows unless told not to. Nothing is allocated, so the single-payment path reuses one
+     * vector per thread
+     */
+    private void fillFeatures(long[] features, Money amount, Long customerId, long now, boolean recordVelocity) {
+        Arrays.fill(features, 0L);
+        features[FraudFeature.AMOUNT.ordinal()] = amount.getMinorUnits();
+
+        // Velocity - every attempt counts once, declined or not
+        if (customerId != null) {
+            if (recordVelocity) {
+                velocityTracker.recordInto(customerId, features[FraudFeature.AMOUNT.ordinal()], now, features);
+            } else {
+                velocityTracker.getInto(customerId, now, features);
+            }
+            features[FraudFeature.CUSTOMER_ID.ordinal()] = customerId;
+        }
+
+        long secondOfDay = Math.floorMod(now, 86_400L);
+        long epochDay = Math.floorDiv(now, 86_400L);
+        features[FraudFeature.HOUR_OF_DAY.ordinal()] = secondOfDay / 3600;
+        features[FraudFeature.DAY_OF_WEEK.ordinal()] = Math.floorMod(epochDay + 3, 7) + 1; // 1970-01-01 was a Thursday
+    }
+
     /**
      * Determine if transaction should be blocked based on risk score
      */
     public boolean shouldBlockTransaction(int riskScore) {
-        boolean shouldBlock = riskScore >= HIGH_RISK_THRESHOLD;
+        int blockThreshold = fraudRuleEngine.rules().getBlockThreshold();
+        boolean shouldBlock = riskScore >= blockThreshold;
         
         if (shouldBlock) {
             log.warn("🚫 Transaction BLOCKED - Risk score {} exceeds threshold {}", 
-                riskScore, HIGH_RISK_THRESHOLD);
+                riskScore, blockThreshold);
         } else {
-            log.info("✅ Transaction APPROVED - Risk score {} below threshold {}", 
-                riskScore, HIGH_RISK_THRESHOLD);
+            log.debug("✅ Transaction APPROVED - Risk score {} below threshold {}", 
+                riskScore, blockThreshold);
         }
         
         return shouldBlock;
@@ -90,38 +410,20 @@ public class FraudDetectionService {
      * Get risk level description
      */
     public String getRiskLevel(int riskScore) {
-        if (riskScore < LOW_RISK_THRESHOLD) {
+        FraudRules rules = fraudRuleEngine.rules();
+        if (riskScore < rules.getLowThreshold()) {
             return "🟢 Risk Level: LOW (" + riskScore + "/100)";
-        } else if (riskScore < MEDIUM_RISK_THRESHOLD) {
+        } else if (riskScore < rules.getMediumThreshold()) {
             return "🟡 Risk Level: MEDIUM (" + riskScore + "/100)";
-        } else if (riskScore < HIGH_RISK_THRESHOLD) {
+        } else if (riskScore < rules.getBlockThreshold()) {
             return "🟠 Risk Level: HIGH (" + riskScore + "/100) - Requires review";
         } else {
             return "🔴 Risk Level: CRITICAL (" + riskScore + "/100) - BLOCKED";
         }
     }
 
-    /**
-     * Simulate payment gateway processing
-     * Returns true if payment successful, false if declined
-     */
-    public boolean simulatePaymentProcessing() {
-        // 90% success rate (10% random payment failures)
-        boolean success = random.nextInt(100) < 90;
-        
-        if (success) {
-            log.info("💳 Payment gateway response: APPROVED");
-        } else {
-            log.warn("❌ Payment gateway response: DECLINED");
-        }
-        
-        return success;
-    }
-
-    /**
-     * Generate mock transaction ID
-     */
-    public String generateTransactionId() {
-        return "TXN-" + System.currentTimeMillis() + "-" + random.nextInt(10000);
+    @PreDestroy
+    public void shutdown() {
+        scoringExecutor.shutdownNow();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.payment.payment.service;
+
+/**
+ * Fraud Feature - An input a fraud rule can test, with its name in fraud-rules.yml
+ *
+ * Values are longs; money is in cents (rule values are written in dollars and scaled on load).
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/FraudFeature.java
+ */
+public enum FraudFeature {
+
+    AMOUNT("amount", 2),
+    PAYMENTS_LAST_MINUTE("payments-last-minute", 0),
+    PAYMENTS_LAST_HOUR("payments-last-hour", 0),
+    PAYMENTS_LAST_DAY("payments-last-day", 0),
+    AMOUNT_LAST_MINUTE("amount-last-minute", 2),
+    AMOUNT_LAST_HOUR("amount-last-hour", 2),
+    AMOUNT_LAST_DAY("amount-last-day", 2),
+    CUSTOMER_ID("customer-id", 0),
+    HOUR_OF_DAY("hour-of-day", 0),   // 0-23, UTC
+    DAY_OF_WEEK("day-of-week", 0);   // 1 (Monday) - 7 (Sunday), UTC
+
+    public static final int COUNT = values().length;
+
+    private final String key;
+    private final int decimals;
+
+    FraudFeature(String key, int decimals) {
+        this.key = key;
+        this.decimals = decimals;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Decimal places a rule value is shifted by (2 for money: dollars -> cents)
+     */
+    public int getDecimals() {
+        return decimals;
+    }
+
+    public static FraudFeature fromKey(String key) {
+        for (FraudFeature feature : values()) {
+            if (feature.key.equals(key)) {
+                return feature;
+            }
+        }
+        throw new IllegalArgumentException("Unknown fraud feature: " + key);
+    }
+}
@@ -0,0 +1,213 @@
+package com.payment.payment.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Fraud Model - A pre-trained fraud model (logistic regression or gradient-boosted trees)
+ *
+ * Input is the fixed-layout feature vector indexed by FraudFeature ordinal (money in cents);
+ * output is the fraud probability. Trained offline; this class only loads and evaluates
+ * (FraudModelWriter writes the format, including the built-in baseline model).
+ *
+ * File format (big-endian), read through a read-only memory mapping into primitive arrays:
+ *   int    magic "PFM1"
+ *   int    version (1)
+ *   int    type: 1 = logistic regression, 2 = gradient-boosted trees
+ *   int    feature count (must equal FraudFeature.COUNT)
+ *   double bias (log-odds)
+ *   type 1: double[feature count] weights
+ *   type 2: int tree count, int node count, int[tree count] root node,
+ *           then per node: int feature (-1 = leaf), double threshold (leaf: value), int left, int right
+ *           (x[feature] < threshold goes left; children must come after their parent)
+ *   int    CRC32 of everything before it
+ *
+ * In memory a tree node is three adjacent ints (feature, left, right) plus its threshold, so a walk
+ * touches one int array and one double array. predict() allocates nothing; predictAll() walks the
+ * trees tree-by-tree across the batch, keeping each tree hot in cache.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/FraudModel.java
+ */
+public final class FraudModel {
+
+    public static final int MAGIC = 0x50464D31; // "PFM1"
+    public static final int VERSION = 1;
+    public static final int LOGISTIC_REGRESSION = 1;
+    public static final int GRADIENT_BOOSTED_TREES = 2;
+
+    private final int type;
+    private final double bias;
+    private final double[] weights;   // logistic regression
+
+    private final int[] treeRoot;     // gradient-boosted trees
+    private final int[] nodes;        // per node: feature (-1 = leaf), left, right
+    private final double[] nodeValue; // split threshold, or leaf value
+
+    private FraudModel(int type, double bias, double[] weights, int[] treeRoot, int[] nodes, double[] nodeValue) {
+        this.type = type;
+        this.bias = bias;
+        this.weights = weights;
+        this.treeRoot = treeRoot;
+        this.nodes = nodes;
+        this.nodeValue = nodeValue;
+    }
+
+    /**
+     * Fraud probability (0-1) for one feature vector
+     */
+    public double predict(long[] features) {
+        return sigmoid(type == LOGISTIC_REGRESSION ? linear(features) : trees(features));
+    }
+
+    /**
+     * Fraud probability for the first count feature vectors
+     */
+    public void predictAll(long[][] features, int count, double[] probabilities) {
+        if (type == LOGISTIC_REGRESSION) {
+            for (int i = 0; i < count; i++) {
+                probabilities[i] = sigmoid(linear(features[i]));
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            probabilities[i] = bias;
+        }
+        for (int root : treeRoot) {
+            for (int i = 0; i < count; i++) {
+                probabilities[i] += leaf(root, features[i]);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            probabilities[i] = sigmoid(probabilities[i]);
+        }
+    }
+
+    private double linear(long[] features) {
+        double z = bias;
+        for (int f = 0; f < weights.length; f++) {
+            z += weights[f] * features[f];
+        }
+        return z;
+    }
+
+    private double trees(long[] features) {
+        double z = bias;
+        for (int root : treeRoot) {
+            z += leaf(root, features);
+        }
+        return z;
+    }
+
+    private double leaf(int root, long[] features) {
+        int node = root;
+        int feature;
+        while ((feature = nodes[node * 3]) >= 0) {
+            node = features[feature] < nodeValue[node] ? nodes[node * 3 + 1] : nodes[node * 3 + 2];
+        }
+        return nodeValue[node];
+    }
+
+    private static double sigmoid(double z) {
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    public String describe() {
+        return type == LOGISTIC_REGRESSION
+            ? "logistic regression over " + weights.length + " features"
+            : treeRoot.length + " trees / " + nodeValue.length + " nodes";
+    }
+
+    /**
+     * Map and parse a model file
+     *
+     * @throws IllegalArgumentException if the file is not a valid model (bad magic, checksum, layout)
+     */
+    public static FraudModel load(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return parse(buffer, path.toString());
+    }
+
+    /**
+     * Parse a model in the file format from a buffer (position 0 to capacity)
+     *
+     * @param source - where the bytes came from, for error messages
+     * @throws IllegalArgumentException if the bytes are not a valid model (bad magic, checksum, layout)
+     */
+    public static FraudModel parse(ByteBuffer buffer, String source) {
+        if (buffer.capacity() < 28) {
+            throw new IllegalArgumentException("Model file too short: " + source);
+        }
+
+        int bodyLength = buffer.capacity() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, bodyLength));
+        if ((int) crc.getValue() != buffer.getInt(bodyLength)) {
+            throw new IllegalArgumentException("Model file checksum mismatch (partially written?): " + source);
+        }
+
+        ByteBuffer in = buffer.slice(0, bodyLength);
+        if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " fraud model: " + source);
+        }
+        int type = in.getInt();
+        int featureCount = in.getInt();
+        if (featureCount != FraudFeature.COUNT) {
+            throw new IllegalArgumentException("Model expects " + featureCount + " features, scorer provides "
+                + FraudFeature.COUNT + ": " + source);
+        }
+        double bias = in.getDouble();
+
+        if (type == LOGISTIC_REGRESSION) {
+            double[] weights = new double[featureCount];
+            in.asDoubleBuffer().get(weights);
+            return new FraudModel(type, bias, weights, null, null, null);
+        }
+        if (type != GRADIENT_BOOSTED_TREES) {
+            throw new IllegalArgumentException("Unknown model type " + type + ": " + source);
+        }
+
+        int treeCount = in.getInt();
+        int nodeCount = in.getInt();
+        int[] treeRoot = new int[treeCount];
+        int[] nodes = new int[nodeCount * 3];
+        double[] nodeValue = new double[nodeCount];
+        for (int t = 0; t < treeCount; t++) {
+            treeRoot[t] = checkNode(in.getInt(), -1, nodeCount, source);
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            int feature = in.getInt();
+            nodeValue[n] = in.getDouble();
+            int left = in.getInt();
+            int right = in.getInt();
+            if (feature >= featureCount) {
+                throw new IllegalArgumentException("Node " + n + " splits on unknown feature " + feature);
+            }
+            if (feature >= 0) {
+                checkNode(left, n, nodeCount, source);
+                checkNode(right, n, nodeCount, source);
+            }
+            nodes[n * 3] = Math.max(feature, -1);
+            nodes[n * 3 + 1] = left;
+            nodes[n * 3 + 2] = right;
+        }
+        return new FraudModel(type, bias, null, treeRoot, nodes, nodeValue);
+    }
+
+    /**
+     * Children must point forward, so a walk always ends at a leaf
+     */
+    private static int checkNode(int node, int parent, int nodeCount, String source) {
+        if (node <= parent || node >= nodeCount) {
+            throw new IllegalArgumentException("Invalid tree node reference " + node + " from " + parent + ": " + source);
+        }
+        return node;
+    }
+}
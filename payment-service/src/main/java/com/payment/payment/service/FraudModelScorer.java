@@ -0,0 +1,88 @@
+package com.payment.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Fraud Model Scorer - Turns the deployed fraud model's probability into risk points
+ *
+ * - payment.fraud.model.path: model file (see FraudModel for the format); until a file is deployed
+ *   the built-in baseline model scores (FraudModelWriter, which can also write it out as a starting file)
+ * - The file is checked every reload-interval-ms; a new model is loaded off to the side and swapped
+ *   in with one volatile write. Deploy by writing a temp file and renaming it over the old one -
+ *   a half-written file fails its checksum and the previous model stays in force
+ * - points = round(probability x max-points)
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/FraudModelScorer.java
+ */
+@Component
+@Slf4j
+public class FraudModelScorer {
+
+    private final Path path;
+    private final int maxPoints;
+    private volatile FraudModel model;
+    private FileTime loadedModified;
+
+    public FraudModelScorer(@Value("${payment.fraud.model.path:./models/fraud-model.bin}") String path,
+                            @Value("${payment.fraud.model.max-points:40}") int maxPoints) {
+        this.path = Path.of(path);
+        this.maxPoints = maxPoints;
+        reloadIfChanged();
+        if (model == null) {
+            model = FraudModel.parse(ByteBuffer.wrap(FraudModelWriter.baseline()), "baseline");
+            log.warn("⚠️ No fraud model at {} - scoring with the built-in baseline ({}) until one is deployed",
+                path, model.describe());
+        }
+    }
+
+    /**
+     * Risk points for one payment
+     */
+    public int points(long[] features) {
+        return toPoints(model.predict(features));
+    }
+
+    /**
+     * Risk points for the first count payments (one model for the whole batch)
+     */
+    public void pointsAll(long[][] features, int count, int[] points) {
+        FraudModel current = model;
+        double[] probabilities = new double[count];
+        current.predictAll(features, count, probabilities);
+        for (int i = 0; i < count; i++) {
+            points[i] = toPoints(probabilities[i]);
+        }
+    }
+
+    private int toPoints(double probability) {
+        return (int) Math.round(probability * maxPoints);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.fraud.model.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        try {
+            if (!Files.isRegularFile(path)) {
+                return;
+            }
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(loadedModified)) {
+                return;
+            }
+            loadedModified = modified;
+            FraudModel loaded = FraudModel.load(path);
+            model = loaded;
+            log.info("🧠 Loaded fraud model from {} ({})", path, loaded.describe());
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ Fraud model at {} not loaded, keeping the previous one: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.payment.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Fraud Model Writer - Writes models in the FraudModel file format, and holds the baseline model
+ *
+ * The baseline is a hand-weighted logistic regression over amount and customer velocity, used until
+ * an offline-trained model is deployed (probability ~0.04 for a one-off $100 payment, ~0.5 at $5,000,
+ * ~0.96 at $10,000, rising with bursts of payments or spend). It is the default model, not a trained one.
+ *
+ * Write the baseline as a starting file for payment.fraud.model.path:
+ *   mvn compile exec:java -Dexec.mainClass=com.payment.payment.service.FraudModelWriter
+ *     -Dexec.args=./models/fraud-model.bin
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/FraudModelWriter.java
+ */
+@Slf4j
+public final class FraudModelWriter {
+
+    private static final double BASELINE_BIAS = -4.0;
+
+    private FraudModelWriter() {
+    }
+
+    /**
+     * Baseline weights, per unit of each feature (money in cents)
+     */
+    private static double[] baselineWeights() {
+        double[] weights = new double[FraudFeature.COUNT];
+        weights[FraudFeature.AMOUNT.ordinal()] = 4e-6;                // +1 log-odds per $2,500
+        weights[FraudFeature.PAYMENTS_LAST_MINUTE.ordinal()] = 0.6;
+        weights[FraudFeature.PAYMENTS_LAST_HOUR.ordinal()] = 0.08;
+        weights[FraudFeature.PAYMENTS_LAST_DAY.ordinal()] = 0.01;
+        weights[FraudFeature.AMOUNT_LAST_MINUTE.ordinal()] = 2e-6;    // +1 per $5,000 in a minute
+        weights[FraudFeature.AMOUNT_LAST_HOUR.ordinal()] = 5e-7;
+        weights[FraudFeature.AMOUNT_LAST_DAY.ordinal()] = 1e-7;
+        return weights;
+    }
+
+    public static byte[] baseline() {
+        return logisticRegression(BASELINE_BIAS, baselineWeights());
+    }
+
+    /**
+     * A logistic regression model file
+     */
+    public static byte[] logisticRegression(double bias, double[] weights) {
+        if (weights.length != FraudFeature.COUNT) {
+            throw new IllegalArgumentException("Expected " + FraudFeature.COUNT + " weights, got " + weights.length);
+        }
+        ByteBuffer out = ByteBuffer.allocate(24 + 8 * weights.length + 4);
+        out.putInt(FraudModel.MAGIC).putInt(FraudModel.VERSION).putInt(FraudModel.LOGISTIC_REGRESSION)
+            .putInt(weights.length).putDouble(bias);
+        for (double weight : weights) {
+            out.putDouble(weight);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return out.array();
+    }
+
+    /**
+     * Deploy model bytes: write a temp file next to the target, then rename it over the target,
+     * so a scorer watching the path never reads a half-written model
+     */
+    public static void write(Path target, byte[] model) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, model);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path target = Path.of(args.length > 0 ? args[0] : "./models/fraud-model.bin");
+        write(target, baseline());
+        log.info("🧠 Wrote baseline fraud model to {}", target.toAbsolutePath());
+    }
+}
@@ -0,0 +1,110 @@
+package com.payment.payment.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fraud Pre-Score Cache - Risk scores computed on ORDER_CREATED, waiting for INVENTORY_RESERVED
+ *
+ * Bounded (oldest entries dropped beyond cache-size) and time-limited (ttl); an entry is removed
+ * when it is used, so each pre-score is consumed by exactly one payment attempt.
+ *
+ * It also decides who counts an order in the customer's velocity - scoring records the payment, so an
+ * order must be scored with recording only once. Pre-scoring starts only if the payment has not been
+ * scored yet (beginPreScore); a payment that arrives while pre-scoring runs scores without recording
+ * (take returns IN_PROGRESS); a payment that arrives first leaves a marker so a late pre-score is skipped.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/FraudPreScoreCache.java
+ */
+@Component
+public class FraudPreScoreCache {
+
+    /**
+     * take(): no pre-score - score the payment and record it
+     */
+    public static final int MISS = -1;
+
+    /**
+     * take(): pre-scoring is running and records the order - score the payment without recording it
+     */
+    public static final int IN_PROGRESS = -2;
+
+    private static final int SCORED_AT_PAYMENT = -3;
+
+    // riskScore >= 0, IN_PROGRESS or SCORED_AT_PAYMENT
+    private record Entry(int riskScore, long expiresAtMillis) {
+    }
+
+    private final long ttlMillis;
+    private final Map<Long, Entry> scores;
+
+    public FraudPreScoreCache(@Value("${payment.fraud.prescore.cache-size:100000}") int cacheSize,
+                              @Value("${payment.fraud.prescore.ttl:PT10M}") Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+        this.scores = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Claim an order for pre-scoring - false if it is already being scored or its payment was scored first
+     */
+    public boolean beginPreScore(Long orderId) {
+        long now = System.currentTimeMillis();
+        synchronized (scores) {
+            Entry entry = scores.get(orderId);
+            if (entry != null && entry.expiresAtMillis() >= now) {
+                return false;
+            }
+            scores.put(orderId, new Entry(IN_PROGRESS, now + ttlMillis));
+            return true;
+        }
+    }
+
+    /**
+     * Drop a pre-score claim whose scoring failed, so the payment scores (and records) the order itself
+     */
+    public void abandonPreScore(Long orderId) {
+        synchronized (scores) {
+            Entry entry = scores.get(orderId);
+            if (entry != null && entry.riskScore() == IN_PROGRESS) {
+                scores.remove(orderId);
+            }
+        }
+    }
+
+    public void put(Long orderId, int riskScore) {
+        synchronized (scores) {
+            scores.put(orderId, new Entry(riskScore, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * For a payment: remove and return the pre-computed score, IN_PROGRESS while pre-scoring runs,
+     * or MISS (none, or expired) - then the order is marked so a later pre-score is skipped
+     */
+    public int take(Long orderId) {
+        long now = System.currentTimeMillis();
+        synchronized (scores) {
+            Entry entry = scores.get(orderId);
+            if (entry != null && entry.expiresAtMillis() >= now) {
+                if (entry.riskScore() >= 0) {
+                    scores.remove(orderId);
+                    return entry.riskScore();
+                }
+                if (entry.riskScore() == IN_PROGRESS) {
+                    return IN_PROGRESS;
+                }
+            }
+            scores.put(orderId, new Entry(SCORED_AT_PAYMENT, now + ttlMillis));
+            return MISS;
+        }
+    }
+}
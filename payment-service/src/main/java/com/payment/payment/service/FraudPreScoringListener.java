@@ -0,0 +1,76 @@
+package com.payment.payment.service;
+
+import com.payment.common.logging.EventLog;
+import com.payment.order.event.OrderEvent;
+import com.payment.payment.event.PaymentEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fraud Pre-Scoring Listener - Scores orders while inventory is being reserved
+ *
+ * Consumes ORDER_CREATED in parallel with inventory-service, so fraud scoring is off the
+ * payment's critical path: when INVENTORY_RESERVED arrives the score is already cached.
+ * Orders that are certain to be blocked fail right away (payment.fraud.prescore.block-early).
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/FraudPreScoringListener.java
+ */
+@Service
+@ConditionalOnProperty(name = "payment.fraud.prescore.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class FraudPreScoringListener {
+
+    private final FraudDetectionService fraudDetectionService;
+    private final PaymentService paymentService;
+    private final boolean blockEarly;
+
+    public FraudPreScoringListener(FraudDetectionService fraudDetectionService, PaymentService paymentService,
+                                   @Value("${payment.fraud.prescore.block-early:true}") boolean blockEarly) {
+        this.fraudDetectionService = fraudDetectionService;
+        this.paymentService = paymentService;
+        this.blockEarly = blockEarly;
+    }
+
+    @KafkaListener(
+        topics = "order-events",
+        groupId = "payment-service-prescore-group",
+        containerFactory = "orderEventKafkaListenerContainerFactory"
+    )
+    public void handleOrderEvent(OrderEvent event) {
+        if (!"ORDER_CREATED".equals(event.getEventType())) {
+            return;
+        }
+        if (event.getOrderId() == null || event.getTotalAmount() == null) {
+            log.warn("⚠️ ORDER_CREATED without order ID / total - Skipping pre-scoring");
+            return;
+        }
+
+        long start = System.nanoTime();
+        String outcome;
+        try {
+            log.debug("⚡ Pre-scoring order {} while inventory is reserved", event.getOrderId());
+            int riskScore = fraudDetectionService.preScore(
+                event.getOrderId(), event.getTotalAmount(), event.getCustomerId());
+
+            if (riskScore < 0) {
+                // The payment scored the order first, nothing left to do
+                outcome = "skipped";
+            } else if (blockEarly && fraudDetectionService.shouldBlockTransaction(riskScore)) {
+                // null: the payment already claimed the order
+                PaymentEvent blocked = paymentService.blockBeforeReservation(
+                    event.getOrderId(), event.getTotalAmount(), event.getCorrelationId(), riskScore);
+                outcome = blocked != null ? "FRAUD_DETECTED" : "skipped";
+            } else {
+                outcome = "PRE_SCORED";
+            }
+        } catch (Exception e) {
+            // Pre-scoring is an optimization - the payment scores the order itself on a miss
+            outcome = "error";
+            log.error("❌ Error pre-scoring order {}: {}", event.getOrderId(), e.getMessage(), e);
+        }
+        EventLog.handled(log, event.getEventType(), event.getOrderId(), event.getCorrelationId(), outcome, start);
+    }
+}
@@ -0,0 +1,75 @@
+package com.payment.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fraud Rule Engine - Loads the fraud rule file and keeps the compiled rules current
+ *
+ * - payment.fraud.rules.location: classpath:fraud-rules.yml by default; use file:/path to edit live
+ * - File locations are checked every reload-interval-ms; a changed file is compiled off to the side
+ *   and swapped in with one volatile write, so scoring never waits and never sees a half-loaded set
+ * - A file that fails to compile is logged and the previous rules stay in force
+ *   (at startup it fails fast instead)
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/FraudRuleEngine.java
+ */
+@Component
+@EnableScheduling
+@Slf4j
+public class FraudRuleEngine {
+
+    private final Resource resource;
+    private volatile FraudRules rules;
+    private long lastModified;
+
+    public FraudRuleEngine(ResourceLoader resourceLoader,
+                           @Value("${payment.fraud.rules.location:classpath:fraud-rules.yml}") String location) {
+        this.resource = resourceLoader.getResource(location);
+        try {
+            this.lastModified = resource.isFile() ? resource.lastModified() : 0;
+            this.rules = FraudRules.parse(read(resource));
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Failed to load fraud rules from " + location, e);
+        }
+        log.info("📜 Loaded {} fraud rules from {}", rules.size(), location);
+    }
+
+    /**
+     * Current compiled rules - read once per scoring so one payment sees one rule set
+     */
+    public FraudRules rules() {
+        return rules;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.fraud.rules.reload-interval-ms:5000}")
+    public void reloadIfChanged() {
+        if (!resource.isFile()) {
+            return;
+        }
+        try {
+            long modified = resource.lastModified();
+            if (modified == lastModified) {
+                return;
+            }
+            lastModified = modified;
+            FraudRules reloaded = FraudRules.parse(read(resource));
+            rules = reloaded;
+            log.info("🔄 Reloaded {} fraud rules from {}", reloaded.size(), resource.getDescription());
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ Fraud rules not reloaded, keeping the previous {} rules: {}", rules.size(), e.getMessage());
+        }
+    }
+
+    private static String read(Resource resource) throws IOException {
+        return resource.getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,293 @@
+package com.payment.payment.service;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fraud Rules - A compiled, immutable set of weighted fraud rules
+ *
+ * Rule file format (YAML):
+ *   thresholds: { low: 30, medium: 60, block: 80 }
+ *   rules:
+ *     - name: medium-amount
+ *       points: 30
+ *       when:
+ *         amount: { gt: 1000, lte: 5000 }     # every condition must hold
+ *         hour-of-day: { in: [0, 1, 2, 3] }
+ * Operators: gt, gte, lt, lte, eq, ne, in. Features: see FraudFeature.
+ *
+ * Compilation flattens all rules into parallel primitive arrays, so score() is one pass over them
+ * with no allocation and no virtual calls:
+ * - every comparison becomes an inclusive interval [lower, lower + span] (ne = negated interval),
+ *   tested with a single unsigned compare instead of a switch on the operator
+ * - a rule stops at its first failing condition
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/FraudRules.java
+ */
+public final class FraudRules {
+
+    private static final byte GT = 0;
+    private static final byte GTE = 1;
+    private static final byte LT = 2;
+    private static final byte LTE = 3;
+    private static final byte EQ = 4;
+    private static final byte NE = 5;
+    private static final byte IN = 6;
+    private static final List<String> OPERATORS = List.of("gt", "gte", "lt", "lte", "eq", "ne", "in");
+
+    private final String[] ruleNames;
+    private final int[] rulePoints;
+    private final int[] ruleEnd; // exclusive end of each rule's conditions
+    private final int[] conditionFeature;
+    private final long[] conditionLower;
+    private final long[] conditionSpan;     // upper - lower, compared unsigned
+    private final boolean[] conditionNegated;
+    private final long[][] conditionSet;    // sorted values for IN, otherwise null
+    private final boolean[] ruleAmountOnly; // every condition is on the amount
+
+    private final int lowThreshold;
+    private final int mediumThreshold;
+    private final int blockThreshold;
+
+    private FraudRules(String[] ruleNames, int[] rulePoints, int[] ruleEnd, int[] conditionFeature,
+                       long[] conditionLower, long[] conditionSpan, boolean[] conditionNegated,
+                       long[][] conditionSet, int lowThreshold, int mediumThreshold, int blockThreshold) {
+        this.ruleNames = ruleNames;
+        this.rulePoints = rulePoints;
+        this.ruleEnd = ruleEnd;
+        this.conditionFeature = conditionFeature;
+        this.conditionLower = conditionLower;
+        this.conditionSpan = conditionSpan;
+        this.conditionNegated = conditionNegated;
+        this.conditionSet = conditionSet;
+        this.lowThreshold = lowThreshold;
+        this.mediumThreshold = mediumThreshold;
+        this.blockThreshold = blockThreshold;
+
+        this.ruleAmountOnly = new boolean[rulePoints.length];
+        int start = 0;
+        for (int rule = 0; rule < rulePoints.length; rule++) {
+            boolean amountOnly = ruleEnd[rule] > start;
+            for (int c = start; c < ruleEnd[rule]; c++) {
+                amountOnly &= conditionFeature[c] == FraudFeature.AMOUNT.ordinal();
+            }
+            ruleAmountOnly[rule] = amountOnly;
+            start = ruleEnd[rule];
+        }
+    }
+
+    /**
+     * Sum of the points of every rule whose conditions all hold
+     *
+     * @param features feature values indexed by FraudFeature ordinal
+     */
+    public int score(long[] features) {
+        int score = 0;
+        int start = 0;
+        for (int rule = 0; rule < rulePoints.length; rule++) {
+            int end = ruleEnd[rule];
+            if (matches(start, end, features)) {
+                score += rulePoints[rule];
+            }
+            start = end;
+        }
+        return score;
+    }
+
+    /**
+     * Sum of the points of the matching rules that look at the amount alone - a cheap fallback
+     * score that needs no velocity lookup
+     *
+     * @param amountCents payment amount in cents
+     */
+    public int scoreAmountOnly(long amountCents) {
+        long[] features = new long[FraudFeature.COUNT];
+        features[FraudFeature.AMOUNT.ordinal()] = amountCents;
+        int score = 0;
+        int start = 0;
+        for (int rule = 0; rule < rulePoints.length; rule++) {
+            if (ruleAmountOnly[rule] && matches(start, ruleEnd[rule], features)) {
+                score += rulePoints[rule];
+            }
+            start = ruleEnd[rule];
+        }
+        return score;
+    }
+
+    /**
+     * Names of the matching rules (for logging - allocates)
+     */
+    public List<String> matchedRules(long[] features) {
+        List<String> matched = new ArrayList<>();
+        int start = 0;
+        for (int rule = 0; rule < rulePoints.length; rule++) {
+            if (matches(start, ruleEnd[rule], features)) {
+                matched.add(ruleNames[rule] + " (+" + rulePoints[rule] + ")");
+            }
+            start = ruleEnd[rule];
+        }
+        return matched;
+    }
+
+    private boolean matches(int from, int to, long[] features) {
+        for (int c = from; c < to; c++) {
+            if (!holds(c, features)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean holds(int c, long[] features) {
+        long value = features[conditionFeature[c]];
+        long[] set = conditionSet[c];
+        if (set != null) {
+            return Arrays.binarySearch(set, value) >= 0;
+        }
+        return Long.compareUnsigned(value - conditionLower[c], conditionSpan[c]) <= 0 != conditionNegated[c];
+    }
+
+    public int size() {
+        return rulePoints.length;
+    }
+
+    public int getLowThreshold() {
+        return lowThreshold;
+    }
+
+    public int getMediumThreshold() {
+        return mediumThreshold;
+    }
+
+    public int getBlockThreshold() {
+        return blockThreshold;
+    }
+
+    /**
+     * Parse and compile a rule file
+     *
+     * @throws IllegalArgumentException if the file is malformed (unknown feature / operator, missing fields,
+     *                                  a value with more decimals than its feature)
+     */
+    @SuppressWarnings("unchecked")
+    public static FraudRules parse(String yaml) {
+        Object loaded = new Yaml(new SafeConstructor(new LoaderOptions())).load(yaml);
+        if (!(loaded instanceof Map<?, ?> root)) {
+            throw new IllegalArgumentException("Fraud rules must be a YAML mapping");
+        }
+
+        Map<String, Object> thresholds = (Map<String, Object>) root.get("thresholds");
+        if (thresholds == null) {
+            throw new IllegalArgumentException("Fraud rules have no thresholds");
+        }
+        List<Map<String, Object>> rules = (List<Map<String, Object>>) root.get("rules");
+        if (rules == null) {
+            rules = List.of();
+        }
+
+        int conditionCount = 0;
+        for (Map<String, Object> rule : rules) {
+            for (Object operators : when(rule).values()) {
+                conditionCount += ((Map<?, ?>) operators).size();
+            }
+        }
+
+        String[] ruleNames = new String[rules.size()];
+        int[] rulePoints = new int[rules.size()];
+        int[] ruleEnd = new int[rules.size()];
+        int[] conditionFeature = new int[conditionCount];
+        long[] conditionLower = new long[conditionCount];
+        long[] conditionSpan = new long[conditionCount];
+        boolean[] conditionNegated = new boolean[conditionCount];
+        long[][] conditionSet = new long[conditionCount][];
+
+        int c = 0;
+        for (int r = 0; r < rules.size(); r++) {
+            Map<String, Object> rule = rules.get(r);
+            String name = String.valueOf(rule.getOrDefault("name", "rule-" + (r + 1)));
+            Object points = rule.get("points");
+            if (!(points instanceof Number)) {
+                throw new IllegalArgumentException("Fraud rule " + name + " has no numeric points");
+            }
+            ruleNames[r] = name;
+            rulePoints[r] = ((Number) points).intValue();
+
+            for (Map.Entry<String, Object> condition : when(rule).entrySet()) {
+                FraudFeature feature = FraudFeature.fromKey(condition.getKey());
+                for (Map.Entry<String, Object> operator : ((Map<String, Object>) condition.getValue()).entrySet()) {
+                    int op = OPERATORS.indexOf(operator.getKey());
+                    if (op < 0) {
+                        throw new IllegalArgumentException(
+                            "Fraud rule " + name + ": unknown operator " + operator.getKey());
+                    }
+                    conditionFeature[c] = feature.ordinal();
+                    if (op == IN) {
+                        conditionSet[c] = ((Collection<Object>) operator.getValue()).stream()
+                            .mapToLong(value -> scale(value, feature, name))
+                            .sorted()
+                            .toArray();
+                    } else {
+                        long operand = scale(operator.getValue(), feature, name);
+                        long lower = switch (op) {
+                            case GT -> operand + 1;
+                            case LT, LTE -> Long.MIN_VALUE;
+                            default -> operand;
+                        };
+                        long upper = switch (op) {
+                            case GT, GTE -> Long.MAX_VALUE;
+                            case LT -> operand - 1;
+                            default -> operand;
+                        };
+                        conditionLower[c] = lower;
+                        conditionSpan[c] = upper - lower;
+                        conditionNegated[c] = op == NE;
+                    }
+                    c++;
+                }
+            }
+            ruleEnd[r] = c;
+        }
+
+        return new FraudRules(ruleNames, rulePoints, ruleEnd, conditionFeature, conditionLower,
+            conditionSpan, conditionNegated, conditionSet,
+            threshold(thresholds, "low"), threshold(thresholds, "medium"), threshold(thresholds, "block"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> when(Map<String, Object> rule) {
+        Object when = rule.get("when");
+        return when == null ? Map.of() : (Map<String, Object>) when;
+    }
+
+    private static long scale(Object value, FraudFeature feature, String ruleName) {
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Fraud rule " + ruleName + ": " + feature.getKey()
+                + " needs a numeric value, got " + value);
+        }
+        try {
+            // Exact or rejected: 0.005 on a 2-decimal feature must not silently become 0
+            return new BigDecimal(value.toString()).setScale(feature.getDecimals(), RoundingMode.UNNECESSARY)
+                .unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Fraud rule " + ruleName + ": " + feature.getKey() + " value " + value
+                + " needs at most " + feature.getDecimals() + " decimals and must fit in a long", e);
+        }
+    }
+
+    private static int threshold(Map<String, Object> thresholds, String name) {
+        Object value = thresholds.get(name);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException("Fraud rules have no numeric " + name + " threshold");
+        }
+        return ((Number) value).intValue();
+    }
+}
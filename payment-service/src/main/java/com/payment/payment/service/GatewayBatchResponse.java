@@ -0,0 +1,40 @@
+package com.payment.payment.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Payment gateway batch authorization response
+ *
+ * status says how the batch request itself went - what the client's concurrency limiter and circuit
+ * breaker learn from; results hold one answer per payment, in request order. A declined payment in a
+ * processed batch is that payment's answer, not a sign of gateway trouble.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/GatewayBatchResponse.java
+ */
+public record GatewayBatchResponse(Status status, List<GatewayResponse> results) {
+
+    public enum Status {
+        PROCESSED,     // The gateway processed the batch - each result is that payment's own answer
+        ERROR,         // Gateway error (5xx) for the whole batch
+        TIMEOUT,       // No answer within payment.gateway.timeout
+        RATE_LIMITED   // Rejected by the gateway's rate limit (429)
+    }
+
+    public static GatewayBatchResponse processed(List<GatewayResponse> results) {
+        return new GatewayBatchResponse(Status.PROCESSED, results);
+    }
+
+    /**
+     * The whole batch failed with one answer - ERROR, TIMEOUT or RATE_LIMITED - given to every payment
+     */
+    public static GatewayBatchResponse failed(int count, GatewayResponse failure) {
+        Status status = switch (failure.outcome()) {
+            case ERROR -> Status.ERROR;
+            case TIMEOUT -> Status.TIMEOUT;
+            case RATE_LIMITED -> Status.RATE_LIMITED;
+            default -> throw new IllegalArgumentException("Not a batch failure: " + failure.outcome());
+        };
+        return new GatewayBatchResponse(status, Collections.nCopies(count, failure));
+    }
+}
@@ -0,0 +1,104 @@
+package com.payment.payment.service;
+
+import com.payment.common.money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Gateway Batcher - Collects authorizations for one gateway into micro-batches
+ *
+ * A batch is sent when it reaches max-batch-size or max-wait after its first payment, whichever
+ * comes first. Batching only pays off under load, so a payment joins a batch only while the gateway
+ * already has at least min-in-flight requests outstanding (or a batch is being collected);
+ * at low load every payment is sent on its own and pays no batching delay.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/GatewayBatcher.java
+ */
+public class GatewayBatcher {
+
+    /**
+     * One payment waiting in a batch; response completes when the batch is answered
+     */
+    public record Item(Long orderId, Money amount, String idempotencyKey,
+                       CompletableFuture<GatewayResponse> response) {
+    }
+
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final int minInFlight;
+
+    private List<Item> pending = new ArrayList<>();
+    private long batchNumber;
+
+    public GatewayBatcher(int maxBatchSize, long maxWaitNanos, int minInFlight) {
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWaitNanos;
+        this.minInFlight = minInFlight;
+    }
+
+    /**
+     * Should the next payment be batched, given the gateway's outstanding requests?
+     */
+    public boolean shouldBatch(int inFlight) {
+        if (inFlight >= minInFlight) {
+            return true;
+        }
+        synchronized (this) {
+            return !pending.isEmpty();
+        }
+    }
+
+    /**
+     * Add a payment to the current batch
+     *
+     * @param scheduler - Runs the max-wait flush
+     * @param sender    - Sends a full or due batch (called outside the batcher's lock)
+     * @return completes with this payment's answer
+     */
+    public CompletableFuture<GatewayResponse> add(Long orderId, Money amount, String idempotencyKey,
+                                                  ScheduledExecutorService scheduler, Consumer<List<Item>> sender) {
+        Item item = new Item(orderId, amount, idempotencyKey, new CompletableFuture<>());
+        List<Item> full = null;
+        long started = -1;
+        synchronized (this) {
+            pending.add(item);
+            if (pending.size() >= maxBatchSize) {
+                full = drain();
+            } else if (pending.size() == 1) {
+                started = batchNumber;
+            }
+        }
+
+        if (full != null) {
+            sender.accept(full);
+        } else if (started >= 0) {
+            long batch = started;
+            scheduler.schedule(() -> {
+                List<Item> due = drain(batch);
+                if (due != null) {
+                    sender.accept(due);
+                }
+            }, maxWaitNanos, TimeUnit.NANOSECONDS);
+        }
+        return item.response();
+    }
+
+    private synchronized List<Item> drain() {
+        List<Item> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        batchNumber++;
+        return batch;
+    }
+
+    /**
+     * Drain the given batch if it is still being collected (it may have been sent full already)
+     */
+    private synchronized List<Item> drain(long batch) {
+        return batch == batchNumber && !pending.isEmpty() ? drain() : null;
+    }
+}
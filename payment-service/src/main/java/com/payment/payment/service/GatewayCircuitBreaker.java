@@ -0,0 +1,147 @@
+package com.payment.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gateway Circuit Breaker - Stops calling a gateway that is failing
+ *
+ * - CLOSED: calls go through; the last window-size results are kept, and once at least minimum-calls
+ *   are in the window and the failure rate reaches failure-rate-threshold the breaker opens
+ * - OPEN: calls are rejected immediately for open-duration
+ * - HALF_OPEN: half-open-probes trial calls go through; all succeeding closes the breaker,
+ *   any failing opens it again
+ *
+ * A permit carries the generation it was issued in (bumped on every state change), and a result only
+ * counts in the generation of its permit: a late answer to a call sent while CLOSED is not a trial result,
+ * and one sent before the last trial round cannot close or reopen the breaker.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/GatewayCircuitBreaker.java
+ */
+@Slf4j
+public class GatewayCircuitBreaker {
+
+    /**
+     * tryAcquire(): the call may not go through
+     */
+    public static final long NO_PERMIT = -1;
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public GatewayCircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                                 long openNanos, int halfOpenProbes) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * May a call go through? Returns the permit to report its result with (onResult), or NO_PERMIT
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return NO_PERMIT;
+            }
+            transition(State.HALF_OPEN);
+            probesStarted = 0;
+            probesSucceeded = 0;
+            log.info("🔌 Gateway {} circuit HALF_OPEN - Sending {} trial requests", name, halfOpenProbes);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return NO_PERMIT;
+            }
+            probesStarted++;
+        }
+        return generation;
+    }
+
+    /**
+     * Result of a permitted call - ignored if the breaker has changed state since the permit was issued
+     */
+    public synchronized void onResult(long permit, boolean success) {
+        if (permit != generation) {
+            return; // A late answer to a call sent before the last state change
+        }
+        switch (state) {
+            case CLOSED -> {
+                if (windowCount == window.length) {
+                    if (!window[windowPosition]) {
+                        windowFailures--;
+                    }
+                } else {
+                    windowCount++;
+                }
+                window[windowPosition] = success;
+                if (!success) {
+                    windowFailures++;
+                }
+                windowPosition = (windowPosition + 1) % window.length;
+
+                if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+                    open("failure rate " + (100 * windowFailures / windowCount) + "%");
+                }
+            }
+            case HALF_OPEN -> {
+                if (!success) {
+                    open("trial request failed");
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    transition(State.CLOSED);
+                    windowPosition = 0;
+                    windowCount = 0;
+                    windowFailures = 0;
+                    log.info("✅ Gateway {} circuit CLOSED - Trial requests succeeded", name);
+                }
+            }
+            case OPEN -> {
+                // Unreachable: opening bumps the generation, so no permit of an OPEN generation exists
+            }
+        }
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+
+    private void open(String reason) {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+        log.warn("🔌 Gateway {} circuit OPEN for {} ms - {}", name, openNanos / 1_000_000, reason);
+    }
+
+    /**
+     * Open and still within open-duration - calls would be rejected
+     */
+    public synchronized boolean isRejecting() {
+        return state == State.OPEN && System.nanoTime() - openedAt < openNanos;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
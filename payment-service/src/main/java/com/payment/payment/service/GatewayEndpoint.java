@@ -0,0 +1,127 @@
+package com.payment.payment.service;
+
+/**
+ * Gateway Endpoint - One payment gateway (acquirer) with its own protection and health statistics
+ *
+ * Each endpoint has its own concurrency limiter and circuit breaker, and keeps exponentially weighted
+ * moving averages (EWMA) of answer latency and failure rate (errors, timeouts, 429s). The averages
+ * fade towards zero while an endpoint gets no traffic (decay), so a gateway that was avoided after
+ * degrading is tried again later.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/GatewayEndpoint.java
+ */
+public class GatewayEndpoint {
+
+    private static final double LATENCY_FLOOR_NANOS = 1_000_000; // 1 ms
+
+    private final String name;
+    private final double weight;
+    private final GatewaySimulator gateway;
+    private final AimdConcurrencyLimiter limiter;
+    private final GatewayCircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
+    private final GatewayBatcher batcher;
+    private final double alpha;
+    private final double decayNanos;
+    private final double errorPenalty;
+
+    private double latencyEwmaNanos;
+    private double failureEwma;
+    private long lastSampleNanos = System.nanoTime();
+    private boolean sampled;
+
+    public GatewayEndpoint(String name, double weight, GatewaySimulator gateway, AimdConcurrencyLimiter limiter,
+                           GatewayCircuitBreaker circuitBreaker, HedgingPolicy hedgingPolicy, GatewayBatcher batcher,
+                           double alpha, long decayNanos, double errorPenalty) {
+        this.name = name;
+        this.weight = weight;
+        this.gateway = gateway;
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgingPolicy = hedgingPolicy;
+        this.batcher = batcher;
+        this.alpha = alpha;
+        this.decayNanos = decayNanos;
+        this.errorPenalty = errorPenalty;
+    }
+
+    /**
+     * Record an answer (or timeout) from this gateway
+     */
+    public synchronized void record(boolean failed, long rttNanos) {
+        long now = System.nanoTime();
+        if (sampled) {
+            latencyEwmaNanos += alpha * (rttNanos - latencyEwmaNanos);
+            failureEwma += alpha * ((failed ? 1 : 0) - failureEwma);
+        } else {
+            latencyEwmaNanos = rttNanos;
+            failureEwma = failed ? 1 : 0;
+            sampled = true;
+        }
+        lastSampleNanos = now;
+    }
+
+    /**
+     * Expected cost of sending one more request here - lower is better:
+     * latency x (outstanding requests + 1) x failure penalty / weight
+     */
+    public double cost() {
+        double latency;
+        double failures;
+        synchronized (this) {
+            double decay = Math.exp(-(System.nanoTime() - lastSampleNanos) / decayNanos);
+            latency = latencyEwmaNanos * decay;
+            failures = failureEwma * decay;
+        }
+        return (latency + LATENCY_FLOOR_NANOS) * (limiter.getInFlight() + 1) * (1 + errorPenalty * failures) / weight;
+    }
+
+    /**
+     * Would a request be accepted right now (circuit not open, below the concurrency limit)?
+     */
+    public boolean isAvailable() {
+        return !circuitBreaker.isRejecting() && limiter.getInFlight() < limiter.getLimit();
+    }
+
+    public synchronized double getLatencyEwmaMillis() {
+        return latencyEwmaNanos / 1_000_000;
+    }
+
+    public synchronized double getFailureEwma() {
+        return failureEwma;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public GatewaySimulator getGateway() {
+        return gateway;
+    }
+
+    public AimdConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    public GatewayCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Hedging policy, or null if this gateway does not deduplicate by idempotency key
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Micro-batcher, or null if this gateway does not accept batch authorization
+     */
+    public GatewayBatcher getBatcher() {
+        return batcher;
+    }
+}
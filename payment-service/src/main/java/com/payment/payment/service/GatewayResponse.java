@@ -0,0 +1,68 @@
+package com.payment.payment.service;
+
+/**
+ * Payment gateway authorization response
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/GatewayResponse.java
+ */
+public record GatewayResponse(Outcome outcome, String transactionId, String message) {
+
+    public enum Outcome {
+        APPROVED,      // Charged - transactionId is set
+        DECLINED,      // Card declined (a final answer)
+        ERROR,         // Gateway error (5xx)
+        TIMEOUT,       // No answer within payment.gateway.timeout
+        RATE_LIMITED,  // Rejected by the gateway's rate limit (429)
+        REJECTED       // Not sent - circuit open or concurrency limit reached
+    }
+
+    public static GatewayResponse approved(String transactionId) {
+        return new GatewayResponse(Outcome.APPROVED, transactionId, "Approved");
+    }
+
+    public static GatewayResponse declined() {
+        return new GatewayResponse(Outcome.DECLINED, null, "Payment declined by payment gateway");
+    }
+
+    public static GatewayResponse error(String message) {
+        return new GatewayResponse(Outcome.ERROR, null, "Payment gateway error: " + message);
+    }
+
+    public static GatewayResponse timeout(long timeoutMillis) {
+        return new GatewayResponse(Outcome.TIMEOUT, null, "Payment gateway timed out after " + timeoutMillis + " ms");
+    }
+
+    /**
+     * A client-side error after the request may have been sent - the outcome is unknown, as for a timeout
+     */
+    public static GatewayResponse unknown(Throwable e) {
+        return new GatewayResponse(Outcome.TIMEOUT, null, "Payment gateway outcome unknown: " + e.getMessage());
+    }
+
+    public static GatewayResponse notReceived() {
+        return new GatewayResponse(Outcome.ERROR, null, "Payment never reached the payment gateway");
+    }
+
+    public static GatewayResponse rateLimited() {
+        return new GatewayResponse(Outcome.RATE_LIMITED, null, "Payment gateway rate limit exceeded");
+    }
+
+    public static GatewayResponse circuitOpen() {
+        return new GatewayResponse(Outcome.REJECTED, null, "Payment gateway unavailable (circuit open) - retry later");
+    }
+
+    public static GatewayResponse limitReached() {
+        return new GatewayResponse(Outcome.REJECTED, null, "Payment gateway at capacity - retry later");
+    }
+
+    public boolean isApproved() {
+        return outcome == Outcome.APPROVED;
+    }
+
+    /**
+     * The gateway did not process the request, so the same payment can safely be tried again
+     */
+    public boolean isRetryable() {
+        return outcome == Outcome.REJECTED || outcome == Outcome.RATE_LIMITED;
+    }
+}
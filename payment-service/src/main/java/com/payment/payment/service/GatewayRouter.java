@@ -0,0 +1,81 @@
+package com.payment.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gateway Router - Picks the gateway endpoint for each payment
+ *
+ * Power of two choices: two distinct endpoints are drawn at random from the available ones
+ * (circuit not open, below their concurrency limit) and the one with the lower cost wins
+ * (GatewayEndpoint.cost - latency EWMA x outstanding requests x failure penalty / weight).
+ * This steers load away from a degrading gateway within a few requests, without the herd
+ * behaviour of always picking the single best endpoint.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/GatewayRouter.java
+ */
+@Slf4j
+public class GatewayRouter {
+
+    private final List<GatewayEndpoint> endpoints;
+    private final Map<String, GatewayEndpoint> byName = new LinkedHashMap<>();
+
+    public GatewayRouter(List<GatewayEndpoint> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one payment gateway endpoint is required");
+        }
+        this.endpoints = List.copyOf(endpoints);
+        for (GatewayEndpoint endpoint : endpoints) {
+            byName.put(endpoint.getName(), endpoint);
+        }
+        log.info("💳 Routing payments across {} gateways: {}", endpoints.size(), byName.keySet());
+    }
+
+    /**
+     * Choose the endpoint for the next payment
+     */
+    public GatewayEndpoint choose() {
+        List<GatewayEndpoint> candidates = new ArrayList<>(endpoints.size());
+        for (GatewayEndpoint endpoint : endpoints) {
+            if (endpoint.isAvailable()) {
+                candidates.add(endpoint);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = endpoints; // All saturated or open - the client will reject the request
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        GatewayEndpoint a = candidates.get(first);
+        GatewayEndpoint b = candidates.get(second);
+        return a.cost() <= b.cost() ? a : b;
+    }
+
+    /**
+     * Endpoint by name, or null if it is no longer configured
+     */
+    public GatewayEndpoint endpoint(String name) {
+        return name == null ? null : byName.get(name);
+    }
+
+    public List<GatewayEndpoint> endpoints() {
+        return endpoints;
+    }
+
+    public void shutdown() {
+        endpoints.forEach(endpoint -> endpoint.getGateway().shutdown());
+    }
+}
@@ -0,0 +1,254 @@
+package com.payment.payment.service;
+
+import com.payment.common.id.IdGenerator;
+import com.payment.common.money.Money;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway Simulator - Stands in for an external payment gateway (one per configured endpoint)
+ *
+ * Behaves like a real acquirer under load rather than answering instantly:
+ * - latency is lognormal (median latency-median, spread latency-sigma), so there is a long tail
+ * - a few requests never get an answer (hang-rate) - the client's timeout has to catch them
+ * - random 5xx errors (error-rate), plus error bursts: occasionally (burst-probability per request)
+ *   the gateway degrades for burst-duration, with burst-error-rate errors and latency x burst-latency-factor
+ * - a token-bucket rate limit (rate-limit-per-second); excess requests are rejected immediately
+ * - decline-rate of the answered requests are declined
+ *
+ * authorizeAll() takes a batch of authorizations in one request: one rate-limit permit, one network
+ * round trip and one hang / 5xx draw for the whole batch, plus batch-item-latency of processing per payment;
+ * the answer has a batch-level status (GatewayBatchResponse) and each payment is approved or declined on its own.
+ *
+ * Like a real gateway it deduplicates by idempotency key: a repeated request gets the original
+ * answer, and status() reports what happened to a key (the last remembered-keys are kept).
+ * A hung request was still processed - only its answer is lost.
+ *
+ * Responses are delivered by a scheduler after the simulated latency, so no thread waits on a request.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/GatewaySimulator.java
+ */
+@Slf4j
+public class GatewaySimulator {
+
+    private final String name;
+    private final double medianMillis;
+    private final double sigma;
+    private final long maxLatencyMillis;
+    private final double declineRate;
+    private final double errorRate;
+    private final double hangRate;
+    private final double burstProbability;
+    private final long burstDurationNanos;
+    private final double burstErrorRate;
+    private final double burstLatencyFactor;
+    private final double rateLimitPerSecond;
+    private final double batchItemMillis;
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, GatewayResponse> processed;
+
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+    private volatile long burstUntilNanos = System.nanoTime();
+
+    public GatewaySimulator(String name, Duration latencyMedian, double sigma, Duration maxLatency,
+                            double declineRate, double errorRate, double hangRate,
+                            double burstProbability, Duration burstDuration, double burstErrorRate,
+                            double burstLatencyFactor, double rateLimitPerSecond, Duration batchItemLatency,
+                            int rememberedKeys) {
+        this.name = name;
+        this.medianMillis = latencyMedian.toNanos() / 1_000_000.0;
+        this.sigma = sigma;
+        this.maxLatencyMillis = maxLatency.toMillis();
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+        this.burstProbability = burstProbability;
+        this.burstDurationNanos = burstDuration.toNanos();
+        this.burstErrorRate = burstErrorRate;
+        this.burstLatencyFactor = burstLatencyFactor;
+        this.rateLimitPerSecond = rateLimitPerSecond;
+        this.tokens = rateLimitPerSecond;
+        this.batchItemMillis = batchItemLatency.toNanos() / 1_000_000.0;
+        this.processed = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GatewayResponse> eldest) {
+                return size() > rememberedKeys;
+            }
+        };
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-simulator-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Send an authorization request
+     *
+     * @param idempotencyKey - The caller's key for this charge
+     * @param amount         - Amount to authorize
+     * @return completes with the response after the simulated latency (never, for a hung request)
+     */
+    public CompletableFuture<GatewayResponse> authorize(String idempotencyKey, Money amount) {
+        if (!tryAcquirePermit()) {
+            return CompletableFuture.completedFuture(GatewayResponse.rateLimited());
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean degraded = inBurst(random);
+        long latencyMillis = latency(random, degraded);
+
+        GatewayResponse outcome = process(random, degraded, idempotencyKey);
+
+        CompletableFuture<GatewayResponse> response = new CompletableFuture<>();
+        if (random.nextDouble() < hangRate) {
+            return response;
+        }
+        scheduler.schedule(() -> response.complete(outcome), latencyMillis, TimeUnit.MILLISECONDS);
+        return response;
+    }
+
+    /**
+     * Send a batch of authorization requests in one call
+     *
+     * @param idempotencyKeys - The caller's key for each charge
+     * @param amounts         - Amount to authorize for each charge
+     * @return completes with the batch status and one response per charge, in order, after the simulated
+     *         latency (never, for a hung request)
+     */
+    public CompletableFuture<GatewayBatchResponse> authorizeAll(List<String> idempotencyKeys, List<Money> amounts) {
+        int count = idempotencyKeys.size();
+        if (!tryAcquirePermit()) {
+            return CompletableFuture.completedFuture(GatewayBatchResponse.failed(count, GatewayResponse.rateLimited()));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean degraded = inBurst(random);
+        long latencyMillis = latency(random, degraded) + (long) (count * batchItemMillis);
+
+        GatewayBatchResponse answer;
+        if (random.nextDouble() < (degraded ? burstErrorRate : errorRate)) {
+            answer = GatewayBatchResponse.failed(count,
+                GatewayResponse.error(degraded ? "503 Service Unavailable" : "500 Internal Server Error"));
+        } else {
+            List<GatewayResponse> outcomes = new ArrayList<>(count);
+            for (String idempotencyKey : idempotencyKeys) {
+                GatewayResponse outcome = remembered(idempotencyKey);
+                outcomes.add(outcome != null ? outcome : decide(random, idempotencyKey));
+            }
+            answer = GatewayBatchResponse.processed(outcomes);
+        }
+
+        CompletableFuture<GatewayBatchResponse> response = new CompletableFuture<>();
+        if (random.nextDouble() < hangRate) {
+            return response;
+        }
+        scheduler.schedule(() -> response.complete(answer), latencyMillis, TimeUnit.MILLISECONDS);
+        return response;
+    }
+
+    /**
+     * Answer for one charge: the remembered one for a repeated key, else a 5xx, decline or approval
+     */
+    private GatewayResponse process(ThreadLocalRandom random, boolean degraded, String idempotencyKey) {
+        GatewayResponse outcome = remembered(idempotencyKey);
+        if (outcome != null) {
+            return outcome;
+        }
+        if (random.nextDouble() < (degraded ? burstErrorRate : errorRate)) {
+            return GatewayResponse.error(degraded ? "503 Service Unavailable" : "500 Internal Server Error");
+        }
+        return decide(random, idempotencyKey);
+    }
+
+    private GatewayResponse decide(ThreadLocalRandom random, String idempotencyKey) {
+        GatewayResponse outcome = random.nextDouble() < declineRate
+            ? GatewayResponse.declined()
+            : GatewayResponse.approved("TXN-" + IdGenerator.nextString());
+        remember(idempotencyKey, outcome);
+        return outcome;
+    }
+
+    /**
+     * Look up what happened to an idempotency key
+     *
+     * @return completes with the original answer, or null if the gateway never processed the key
+     */
+    public CompletableFuture<GatewayResponse> status(String idempotencyKey) {
+        GatewayResponse outcome = remembered(idempotencyKey);
+        CompletableFuture<GatewayResponse> response = new CompletableFuture<>();
+        scheduler.schedule(() -> response.complete(outcome),
+            latency(ThreadLocalRandom.current(), false), TimeUnit.MILLISECONDS);
+        return response;
+    }
+
+    private long latency(ThreadLocalRandom random, boolean degraded) {
+        double latency = medianMillis * Math.exp(sigma * random.nextGaussian());
+        if (degraded) {
+            latency *= burstLatencyFactor;
+        }
+        return Math.min((long) latency, maxLatencyMillis);
+    }
+
+    private GatewayResponse remembered(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        synchronized (processed) {
+            return processed.get(idempotencyKey);
+        }
+    }
+
+    private void remember(String idempotencyKey, GatewayResponse outcome) {
+        if (idempotencyKey == null) {
+            return;
+        }
+        synchronized (processed) {
+            processed.put(idempotencyKey, outcome);
+        }
+    }
+
+    private boolean inBurst(ThreadLocalRandom random) {
+        long now = System.nanoTime();
+        if (now - burstUntilNanos < 0) {
+            return true;
+        }
+        if (random.nextDouble() < burstProbability) {
+            burstUntilNanos = now + burstDurationNanos;
+            log.warn("🌩️ Gateway simulator {}: error burst for {} ms", name, burstDurationNanos / 1_000_000);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Token bucket - refills continuously at rate-limit-per-second, holds at most one second of tokens
+     */
+    private synchronized boolean tryAcquirePermit() {
+        long now = System.nanoTime();
+        tokens = Math.min(rateLimitPerSecond, tokens + (now - lastRefillNanos) * rateLimitPerSecond / 1e9);
+        lastRefillNanos = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,82 @@
+package com.payment.payment.service;
+
+import java.util.Arrays;
+
+/**
+ * Hedging Policy - When a gateway request gets a second (hedged) copy
+ *
+ * Only for gateways that deduplicate by idempotency key, so the copy can never charge twice.
+ * - delay: the observed latency quantile (p95 by default) of the gateway's recent answers,
+ *   at least min-delay; no hedging until min-samples answers have been seen
+ * - budget: every request earns budget-ratio of a hedge token and a hedge spends a whole one,
+ *   so hedges add at most budget-ratio extra load (bursts of up to MAX_TOKENS)
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/HedgingPolicy.java
+ */
+public class HedgingPolicy {
+
+    private static final double MAX_TOKENS = 10;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final double quantile;
+    private final int minSamples;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+
+    private final long[] samples;
+    private int sampleCount;
+    private int samplePosition;
+    private int sinceRecompute;
+    private long delayNanos = -1;
+    private double tokens;
+
+    public HedgingPolicy(double quantile, int minSamples, int windowSize, long minDelayNanos, double budgetRatio) {
+        this.quantile = quantile;
+        this.minSamples = Math.min(minSamples, windowSize);
+        this.minDelayNanos = minDelayNanos;
+        this.budgetRatio = budgetRatio;
+        this.samples = new long[windowSize];
+    }
+
+    /**
+     * Latency of an answered request
+     */
+    public synchronized void recordLatency(long rttNanos) {
+        samples[samplePosition] = rttNanos;
+        samplePosition = (samplePosition + 1) % samples.length;
+        if (sampleCount < samples.length) {
+            sampleCount++;
+        }
+        if (++sinceRecompute >= RECOMPUTE_EVERY && sampleCount >= minSamples) {
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            delayNanos = Math.max(minDelayNanos, sorted[(int) (quantile * (sampleCount - 1))]);
+            sinceRecompute = 0;
+        }
+    }
+
+    /**
+     * A primary request was sent - earns budget
+     */
+    public synchronized void onRequest() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    /**
+     * How long to wait before hedging, or -1 while there are too few samples
+     */
+    public synchronized long delayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     * Spend a hedge token; false when the budget is used up
+     */
+    public synchronized boolean tryAcquireHedge() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
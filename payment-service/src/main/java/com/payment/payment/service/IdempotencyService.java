@@ -1,76 +1,218 @@
 package com.payment.payment.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Idempotency Service - Prevents duplicate payment processing
- * Uses Redis to track processed payments
- * 
+ * Tracks payment claims in the configured IdempotencyStore (Redis by default)
+ *
+ * Each order is claimed atomically before processing, so two consumers can never
+ * both charge the same order:
+ * - IN_FLIGHT  - claimed, being processed (a claim older than in-flight-ttl can be taken over)
+ * - COMPLETED  - payment succeeded
+ * - FAILED     - payment declined or blocked for fraud (a final outcome, not retried)
+ * Final states are also kept in a small local near-cache, so redelivered events skip the store.
+ *
  * Location: payment-service/src/main/java/com/payment/payment/service/IdempotencyService.java
  */
 @Service
 @Slf4j
 public class IdempotencyService {
 
-    private final StringRedisTemplate redisTemplate;
-    
-    private static final String KEY_PREFIX = "payment:processed:";
-    private static final Duration TTL = Duration.ofHours(24); // 24 hours
+    /**
+     * Result of a claim attempt
+     */
+    public enum ClaimState {
+        CLAIMED,    // This caller owns the order now
+        IN_FLIGHT,  // Another consumer is processing it
+        COMPLETED,  // Already paid
+        FAILED      // Already declined / blocked
+    }
 
-    public IdempotencyService(StringRedisTemplate redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    private final IdempotencyStore store;
+    private final Duration inFlightTtl;
+    private final Map<Long, ClaimState> nearCache;
+
+    public IdempotencyService(IdempotencyStore store,
+                              @Value("${payment.idempotency.in-flight-ttl:PT5M}") Duration inFlightTtl,
+                              @Value("${payment.idempotency.near-cache-size:10000}") int nearCacheSize) {
+        this.store = store;
+        this.inFlightTtl = inFlightTtl;
+        this.nearCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ClaimState> eldest) {
+                return size() > nearCacheSize;
+            }
+        };
     }
 
     /**
-     * Check if payment has already been processed
-     * 
-     * @param orderId - Order ID to check
-     * @return true if already processed, false otherwise
+     * Atomically claim an order for processing
+     * One store round trip for a new order, none for a recently finished one
+     *
+     * @param orderId - Order ID to claim
+     * @return CLAIMED if the caller may process the payment, otherwise the existing state
      */
-    public boolean isAlreadyProcessed(Long orderId) {
-        String key = KEY_PREFIX + orderId;
-        Boolean exists = redisTemplate.hasKey(key);
-        
-        if (Boolean.TRUE.equals(exists)) {
-            log.warn("⚠️ DUPLICATE DETECTED: Payment for order {} already processed", orderId);
-            return true;
+    public ClaimState claim(Long orderId) {
+        ClaimState cached = nearCacheGet(orderId);
+        if (cached != null) {
+            log.warn("⚠️ DUPLICATE DETECTED (near-cache): Payment for order {} already {}", orderId, cached);
+            return cached;
+        }
+
+        ClaimState existing = store.claim(orderId, Instant.now().getEpochSecond(), inFlightTtl.toSeconds());
+        if (existing == ClaimState.CLAIMED) {
+            log.debug("✓ Claimed payment for order {} (first time processing)", orderId);
+            return existing;
         }
-        
-        log.info("✓ First time processing payment for order {}", orderId);
-        return false;
+
+        if (existing != ClaimState.IN_FLIGHT) {
+            nearCachePut(orderId, existing);
+        }
+        log.warn("⚠️ DUPLICATE DETECTED: Payment for order {} already {}", orderId, existing);
+        return existing;
+    }
+
+    /**
+     * Claim a batch of orders with one store round trip; near-cache hits skip the store
+     *
+     * @param orderIds - Order IDs to claim
+     * @return one state per order, in order
+     */
+    public ClaimState[] claimAll(long[] orderIds) {
+        ClaimState[] states = new ClaimState[orderIds.length];
+        int misses = 0;
+        for (int i = 0; i < orderIds.length; i++) {
+            states[i] = nearCacheGet(orderIds[i]);
+            if (states[i] == null) {
+                misses++;
+            }
+        }
+
+        if (misses > 0) {
+            long[] missedIds = new long[misses];
+            for (int i = 0, j = 0; i < orderIds.length; i++) {
+                if (states[i] == null) {
+                    missedIds[j++] = orderIds[i];
+                }
+            }
+            ClaimState[] stored = store.claimAll(missedIds, Instant.now().getEpochSecond(), inFlightTtl.toSeconds());
+            for (int i = 0, j = 0; i < orderIds.length; i++) {
+                if (states[i] == null) {
+                    states[i] = stored[j++];
+                    if (states[i] == ClaimState.COMPLETED || states[i] == ClaimState.FAILED) {
+                        nearCachePut(orderIds[i], states[i]);
+                    }
+                }
+            }
+        }
+
+        log.debug("✓ Claimed batch of {} payments ({} store lookups)", orderIds.length, misses);
+        return states;
+    }
+
+    /**
+     * Record a batch of outcomes with one store round trip - call only after the payment rows are committed
+     */
+    public void recordOutcomes(long[] orderIds, ClaimState[] states) {
+        if (orderIds.length == 0) {
+            return;
+        }
+        store.finishAll(orderIds, states, Instant.now().getEpochSecond());
+        for (int i = 0; i < orderIds.length; i++) {
+            nearCachePut(orderIds[i], states[i]);
+        }
+        log.debug("✅ Recorded {} payment outcomes", orderIds.length);
+    }
+
+    /**
+     * Mark a claimed payment as completed (after the surrounding transaction commits)
+     */
+    public void markCompleted(Long orderId) {
+        finish(orderId, ClaimState.COMPLETED);
+    }
+
+    /**
+     * Mark a claimed payment as failed (after the surrounding transaction commits)
+     */
+    public void markFailed(Long orderId) {
+        finish(orderId, ClaimState.FAILED);
     }
 
     /**
-     * Mark payment as processed
-     * Sets a key in Redis with 24-hour TTL
-     * 
-     * @param orderId - Order ID to mark as processed
+     * Give up a claim without an outcome (processing error) so a redelivery can retry
      */
-    public void markAsProcessed(Long orderId) {
-        String key = KEY_PREFIX + orderId;
-        redisTemplate.opsForValue().set(key, "processed", TTL);
-        
-        log.info("✅ Marked payment for order {} as processed (TTL: 24 hours)", orderId);
+    public void release(Long orderId) {
+        store.release(orderId, Instant.now().getEpochSecond());
+        log.debug("🔓 Released payment claim for order {}", orderId);
     }
 
     /**
      * Check if payment was processed (for debugging)
      */
     public boolean checkProcessed(Long orderId) {
-        String key = KEY_PREFIX + orderId;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        return store.contains(orderId, Instant.now().getEpochSecond());
     }
 
     /**
      * Remove processed flag (for testing/compensation)
      */
     public void removeProcessedFlag(Long orderId) {
-        String key = KEY_PREFIX + orderId;
-        redisTemplate.delete(key);
-        log.info("🗑️ Removed processed flag for order {}", orderId);
+        release(orderId);
+        nearCacheRemove(orderId);
+        log.debug("🗑️ Removed processed flag for order {}", orderId);
+    }
+
+    /**
+     * Record the outcome once the payment row is committed; a rollback releases the claim instead
+     */
+    private void finish(Long orderId, ClaimState state) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        recordOutcome(orderId, state);
+                    } else {
+                        release(orderId);
+                    }
+                }
+            });
+        } else {
+            recordOutcome(orderId, state);
+        }
+    }
+
+    private void recordOutcome(Long orderId, ClaimState state) {
+        store.finish(orderId, state, Instant.now().getEpochSecond());
+        nearCachePut(orderId, state);
+        log.debug("✅ Marked payment for order {} as {}", orderId, state);
+    }
+
+    private ClaimState nearCacheGet(Long orderId) {
+        synchronized (nearCache) {
+            return nearCache.get(orderId);
+        }
+    }
+
+    private void nearCachePut(Long orderId, ClaimState state) {
+        synchronized (nearCache) {
+            nearCache.put(orderId, state);
+        }
+    }
+
+    private void nearCacheRemove(Long orderId) {
+        synchronized (nearCache) {
+            nearCache.remove(orderId);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.payment.payment.service;
+
+import com.payment.payment.service.IdempotencyService.ClaimState;
+
+/**
+ * Idempotency Store - Backend that records payment claims and outcomes
+ *
+ * Selected with payment.idempotency.backend:
+ * - redis     - RedisIdempotencyStore, shared by every payment-service instance (default)
+ * - embedded  - EmbeddedIdempotencyStore, memory-mapped files on local disk (single node, no Redis)
+ * - tiered    - TieredIdempotencyStore, embedded L1 in front of Redis, falls back to L1 when Redis is down
+ *
+ * Implementations must make claim() atomic: two callers can never both get CLAIMED for one order.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/IdempotencyStore.java
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claim an order unless it is already finished or claimed by someone else
+     *
+     * @param orderId            order to claim
+     * @param nowSeconds         current epoch second
+     * @param inFlightTtlSeconds an IN_FLIGHT claim older than this can be taken over
+     * @return CLAIMED, or the existing state
+     */
+    ClaimState claim(long orderId, long nowSeconds, long inFlightTtlSeconds);
+
+    /**
+     * Record the final outcome (COMPLETED or FAILED) of a claimed order
+     */
+    void finish(long orderId, ClaimState state, long nowSeconds);
+
+    /**
+     * Claim several orders at once (backends with a network hop override this with one round trip)
+     *
+     * @return one state per order, in order
+     */
+    default ClaimState[] claimAll(long[] orderIds, long nowSeconds, long inFlightTtlSeconds) {
+        ClaimState[] states = new ClaimState[orderIds.length];
+        for (int i = 0; i < orderIds.length; i++) {
+            states[i] = claim(orderIds[i], nowSeconds, inFlightTtlSeconds);
+        }
+        return states;
+    }
+
+    /**
+     * Record several outcomes at once
+     */
+    default void finishAll(long[] orderIds, ClaimState[] states, long nowSeconds) {
+        for (int i = 0; i < orderIds.length; i++) {
+            finish(orderIds[i], states[i], nowSeconds);
+        }
+    }
+
+    /**
+     * Drop any claim or outcome so the order can be claimed again
+     */
+    void release(long orderId, long nowSeconds);
+
+    /**
+     * Whether the order has a live claim or outcome
+     */
+    boolean contains(long orderId, long nowSeconds);
+}
@@ -0,0 +1,66 @@
+package com.payment.payment.service;
+
+import com.payment.inventory.event.InventoryEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payment Service Batch Listener - Processes a whole poll of inventory events at once
+ * Replaces PaymentEventListener when payment.batch.enabled=true
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/PaymentBatchListener.java
+ */
+@Service
+@ConditionalOnProperty(name = "payment.batch.enabled", havingValue = "true")
+@Slf4j
+public class PaymentBatchListener {
+
+    private final PaymentBatchProcessor paymentBatchProcessor;
+
+    public PaymentBatchListener(PaymentBatchProcessor paymentBatchProcessor) {
+        this.paymentBatchProcessor = paymentBatchProcessor;
+    }
+
+    /**
+     * Listen to inventory-events topic in batches
+     * Pays the order total for every successful INVENTORY_RESERVED event in the poll
+     */
+    @KafkaListener(
+        topics = "inventory-events",
+        groupId = "payment-service-group",
+        containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void handleInventoryEvents(List<InventoryEvent> events) {
+        List<PaymentBatchProcessor.PaymentRequest> requests = new ArrayList<>(events.size());
+        for (InventoryEvent event : events) {
+            if (!"INVENTORY_RESERVED".equals(event.getEventType()) || !event.isSuccess()) {
+                continue;
+            }
+            if (event.getTotalAmount() == null) {
+                log.warn("⚠️ Event for order {} has no order total (published by an older inventory-service) - Skipping",
+                    event.getOrderId());
+                continue;
+            }
+            requests.add(new PaymentBatchProcessor.PaymentRequest(
+                event.getOrderId(),
+                event.getTotalAmount(),
+                event.getCustomerId(),
+                event.getCorrelationId()
+            ));
+        }
+
+        log.info("💳 PAYMENT SERVICE - {} inventory events received, {} payments to process",
+            events.size(), requests.size());
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        // Errors go to the container's error handler, so the poll is retried instead of committed
+        paymentBatchProcessor.processBatch(requests);
+    }
+}
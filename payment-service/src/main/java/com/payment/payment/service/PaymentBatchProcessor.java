@@ -0,0 +1,436 @@
+package com.payment.payment.service;
+
+import com.payment.common.money.Money;
+import com.payment.payment.event.PaymentEvent;
+import com.payment.payment.model.Payment;
+import com.payment.payment.model.PaymentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Payment Batch Processor - Processes a whole poll of payment requests at once
+ *
+ * Same outcome per payment as PaymentService.processPayment, with the per-payment round trips batched:
+ * - all idempotency claims in one pipelined store round trip
+ * - fraud scoring for the batch under one deadline per poll (payments not scored in time get the
+ *   amount-only fallback and are flagged for review, as in the single-payment path), then every payment
+ *   recorded (PENDING, or blocked for fraud) in one JDBC batch insert; an order that already has a row
+ *   (a redelivery) keeps it
+ * - gateway calls for the PENDING payments in parallel, with no connection held
+ * - all answers stored with one batch update, outcomes recorded in one store round trip, events published
+ * Every charge attempt has a committed PENDING row first, so a crash at any point leaves it to
+ * PaymentRecoveryService, as does a gateway timeout. A request the gateway never processed
+ * (rejected or rate limited) has its row deleted and its claim released.
+ *
+ * If scoring or the insert fails, nothing has reached the gateway: every claim is released and each
+ * payment gets a PAYMENT_FAILED event, as the single-payment path does for a processing error.
+ * Once payments are sent, no error publishes PAYMENT_FAILED - a payment may have been charged.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/PaymentBatchProcessor.java
+ */
+@Service
+@Slf4j
+public class PaymentBatchProcessor {
+
+    private static final String INSERT_PAYMENT =
+        "INSERT INTO payments (order_id, correlation_id, amount, payment_method, status, risk_score,"
+            + " fraud_review, failure_reason, transaction_id, idempotency_key, gateway, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+            + " ON CONFLICT (correlation_id) DO NOTHING";
+
+    private static final String SELECT_PAYMENTS =
+        "SELECT id, order_id, correlation_id, amount, payment_method, status, risk_score, fraud_review, failure_reason,"
+            + " transaction_id, idempotency_key, gateway, created_at, updated_at"
+            + " FROM payments WHERE correlation_id = ANY (?)";
+
+    private static final String FINISH_PENDING =
+        "UPDATE payments SET status = ?, transaction_id = ?, failure_reason = ?, updated_at = ?"
+            + " WHERE id = ? AND status = 'PENDING'";
+
+    private static final String DELETE_PENDING = "DELETE FROM payments WHERE id = ? AND status = 'PENDING'";
+
+    private final IdempotencyService idempotencyService;
+    private final FraudDetectionService fraudDetectionService;
+    private final PaymentService paymentService;
+    private final EventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentGatewayClient gatewayClient;
+
+    public PaymentBatchProcessor(IdempotencyService idempotencyService,
+                                 FraudDetectionService fraudDetectionService,
+                                 PaymentService paymentService,
+                                 EventPublisher eventPublisher,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 PaymentGatewayClient gatewayClient) {
+        this.idempotencyService = idempotencyService;
+        this.fraudDetectionService = fraudDetectionService;
+        this.paymentService = paymentService;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.gatewayClient = gatewayClient;
+    }
+
+    /**
+     * One payment to process
+     */
+    public record PaymentRequest(Long orderId, Money amount, Long customerId, String correlationId) {
+    }
+
+    /**
+     * Process a batch of payment requests
+     *
+     * @return number of payments processed (duplicates and in-flight orders are skipped)
+     */
+    public int processBatch(List<PaymentRequest> requests) {
+        long start = System.nanoTime();
+
+        // Step 1: Claim every order in one round trip
+        long[] orderIds = requests.stream().mapToLong(PaymentRequest::orderId).toArray();
+        IdempotencyService.ClaimState[] claims = idempotencyService.claimAll(orderIds);
+
+        List<PaymentRequest> claimed = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (claims[i] == IdempotencyService.ClaimState.CLAIMED) {
+                claimed.add(requests.get(i));
+            } else {
+                log.warn("⚠️ Payment for order {} already {} - Skipping", orderIds[i], claims[i]);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // Step 2: Fraud scoring under one deadline for the poll (late payments get the amount-only
+        // fallback and are flagged for review), then record every payment (PENDING or blocked) in one JDBC batch
+        // Nothing has been sent yet, so a failure here releases every claim
+        List<Payment> payments;
+        FraudDetectionService.FraudScore[] fraudScores;
+        try {
+            fraudScores = fraudDetectionService.calculateRiskScoresWithin(
+                claimed.stream().map(PaymentRequest::orderId).toList(),
+                claimed.stream().map(PaymentRequest::amount).toList(),
+                claimed.stream().map(PaymentRequest::customerId).toList());
+
+            List<Payment> scored = new ArrayList<>(claimed.size());
+            for (int i = 0; i < claimed.size(); i++) {
+                PaymentRequest request = claimed.get(i);
+                int riskScore = fraudScores[i].riskScore();
+                Payment payment = Payment.builder()
+                    .orderId(request.orderId())
+                    .correlationId(request.correlationId())
+                    .amount(request.amount())
+                    .paymentMethod("CREDIT_CARD") // Simulated
+                    .status(PaymentStatus.PENDING)
+                    .riskScore(riskScore)
+                    .idempotencyKey("pay-" + request.orderId())
+                    .fraudReview(fraudScores[i].degraded() ? Boolean.TRUE : null)
+                    .build();
+                if (fraudDetectionService.shouldBlockTransaction(riskScore)) {
+                    payment.setStatus(PaymentStatus.FRAUD_DETECTED);
+                    payment.setFailureReason("Transaction blocked due to high fraud risk (score: " + riskScore + ")");
+                } else {
+                    payment.setGateway(gatewayClient.route());
+                }
+                scored.add(payment);
+            }
+            payments = transactionTemplate.execute(status -> insertAll(scored));
+        } catch (Exception e) {
+            failAll(claimed, e);
+            return 0;
+        }
+        for (int i = 0; i < payments.size(); i++) {
+            if (Boolean.TRUE.equals(payments.get(i).getFraudReview())) {
+                paymentService.reviewWhenScored(payments.get(i), fraudScores[i]);
+            }
+        }
+
+        // Step 3: PENDING payments go to the gateway concurrently (rows are committed, no connection held)
+        List<Payment> pending = new ArrayList<>(payments.size());
+        List<Payment> finished = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            if (payment.getStatus() == PaymentStatus.PENDING) {
+                pending.add(payment);
+            } else {
+                finished.add(payment); // Blocked for fraud, or already final before this batch
+            }
+        }
+        List<CompletableFuture<GatewayResponse>> gatewayResults = new ArrayList<>(pending.size());
+        for (Payment payment : pending) {
+            gatewayResults.add(authorize(payment));
+        }
+
+        // Step 4: Store the answers with one batch update - from here on a payment may have been charged,
+        // so errors never turn into PAYMENT_FAILED; anything not stored stays PENDING for recovery
+        List<Payment> answered = new ArrayList<>(pending.size());
+        List<GatewayResponse> answers = new ArrayList<>(pending.size());
+        List<Payment> notSent = new ArrayList<>();
+        List<GatewayResponse> notSentAnswers = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            GatewayResponse response = gatewayResults.get(i).join();
+            if (response.isRetryable()) {
+                notSent.add(pending.get(i));
+                notSentAnswers.add(response);
+            } else if (response.outcome() != GatewayResponse.Outcome.TIMEOUT) {
+                answered.add(pending.get(i));
+                answers.add(response);
+            }
+        }
+        boolean[] applied;
+        boolean[] deleted;
+        try {
+            boolean[][] results = transactionTemplate.execute(status ->
+                new boolean[][] {finishAll(answered, answers), deleteAll(notSent)});
+            applied = results[0];
+            deleted = results[1];
+        } catch (Exception e) {
+            log.error("❌ Could not store {} gateway answers - Left PENDING for recovery: {}",
+                answered.size() + notSent.size(), e.getMessage(), e);
+            applied = new boolean[answered.size()];
+            deleted = new boolean[notSent.size()];
+        }
+
+        // Step 5: Record outcomes (rows are committed), then publish events
+        for (int i = 0; i < answered.size(); i++) {
+            if (applied[i]) {
+                finished.add(answered.get(i));
+            }
+        }
+        long[] paidOrderIds = new long[finished.size()];
+        IdempotencyService.ClaimState[] outcomes = new IdempotencyService.ClaimState[finished.size()];
+        for (int i = 0; i < finished.size(); i++) {
+            paidOrderIds[i] = finished.get(i).getOrderId();
+            outcomes[i] = finished.get(i).getStatus() == PaymentStatus.COMPLETED
+                ? IdempotencyService.ClaimState.COMPLETED
+                : IdempotencyService.ClaimState.FAILED;
+        }
+        try {
+            idempotencyService.recordOutcomes(paidOrderIds, outcomes);
+        } catch (Exception e) {
+            // The rows are the record - a redelivery finds them and republishes their outcome
+            log.error("❌ Could not record {} payment outcomes: {}", finished.size(), e.getMessage(), e);
+        }
+
+        for (Payment payment : finished) {
+            eventPublisher.publishEvent("payment-events", payment.getCorrelationId(), toEvent(payment));
+        }
+        for (int i = 0; i < notSent.size(); i++) {
+            if (deleted[i]) {
+                // Never processed by the gateway - the order can be paid later
+                Payment payment = notSent.get(i);
+                idempotencyService.release(payment.getOrderId());
+                eventPublisher.publishEvent("payment-events", payment.getCorrelationId(), PaymentEvent.failed(
+                    payment.getCorrelationId(), payment.getOrderId(), payment.getAmount(),
+                    notSentAnswers.get(i).message(), true));
+            }
+        }
+        int unresolved = payments.size() - finished.size() - countTrue(deleted);
+        if (unresolved > 0) {
+            log.warn("⏳ {} payments without a stored gateway answer - Left PENDING for recovery", unresolved);
+        }
+
+        log.info("💳 Processed batch of {} payments ({} requested) in {} ms",
+            payments.size(), requests.size(), (System.nanoTime() - start) / 1_000_000);
+        return payments.size();
+    }
+
+    /**
+     * Processing error before anything reached the gateway - release the claims so a redelivery
+     * can claim the orders again, and fail each payment as the single-payment path does
+     */
+    private void failAll(List<PaymentRequest> claimed, Exception e) {
+        log.error("❌ Error processing payment batch of {}: {}", claimed.size(), e.getMessage(), e);
+        for (PaymentRequest request : claimed) {
+            idempotencyService.release(request.orderId());
+            eventPublisher.publishEvent("payment-events", request.correlationId(), PaymentEvent.failed(
+                request.correlationId(), request.orderId(), request.amount(),
+                "Payment processing error: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Send one payment; an error is an unknown outcome (the request may have reached the gateway)
+     */
+    private CompletableFuture<GatewayResponse> authorize(Payment payment) {
+        try {
+            return gatewayClient.authorize(payment.getGateway(), payment.getOrderId(), payment.getAmount(),
+                    payment.getIdempotencyKey())
+                .exceptionally(GatewayResponse::unknown);
+        } catch (Exception e) {
+            log.error("❌ Error sending payment for order {}: {}", payment.getOrderId(), e.getMessage(), e);
+            return CompletableFuture.completedFuture(GatewayResponse.unknown(e));
+        }
+    }
+
+    /**
+     * Insert the batch, skipping orders that already have a row (a redelivery after a crash),
+     * and return the stored row for each payment - an existing PENDING row is sent to the gateway
+     * again with its own idempotency key, as the single-payment path resumes it
+     */
+    private List<Payment> insertAll(List<Payment> payments) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Payment payment = payments.get(i);
+                ps.setLong(1, payment.getOrderId());
+                ps.setString(2, payment.getCorrelationId());
+                ps.setBigDecimal(3, payment.getAmount().toBigDecimal());
+                ps.setString(4, payment.getPaymentMethod());
+                ps.setString(5, payment.getStatus().name());
+                ps.setInt(6, payment.getRiskScore());
+                ps.setObject(7, payment.getFraudReview(), Types.BOOLEAN);
+                ps.setString(8, payment.getFailureReason());
+                ps.setString(9, payment.getTransactionId());
+                ps.setString(10, payment.getIdempotencyKey());
+                ps.setString(11, payment.getGateway());
+                ps.setObject(12, now);
+                ps.setObject(13, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return payments.size();
+            }
+        });
+
+        Map<String, Payment> rows = findAll(payments);
+        return payments.stream().map(payment -> rows.get(payment.getCorrelationId())).toList();
+    }
+
+    /**
+     * Move answered PENDING payments to their outcome with one batch update
+     *
+     * @return per payment, whether this batch stored the answer (false if it was resolved meanwhile)
+     */
+    private boolean[] finishAll(List<Payment> payments, List<GatewayResponse> answers) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < payments.size(); i++) {
+            Payment payment = payments.get(i);
+            GatewayResponse response = answers.get(i);
+            if (response.isApproved()) {
+                payment.setStatus(PaymentStatus.COMPLETED);
+                payment.setTransactionId(response.transactionId());
+            } else {
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setFailureReason(response.message());
+            }
+            payment.setUpdatedAt(now);
+        }
+        int[] counts = jdbcTemplate.batchUpdate(FINISH_PENDING, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Payment payment = payments.get(i);
+                ps.setString(1, payment.getStatus().name());
+                ps.setString(2, payment.getTransactionId());
+                ps.setString(3, payment.getFailureReason());
+                ps.setObject(4, now);
+                ps.setLong(5, payment.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return payments.size();
+            }
+        });
+        return applied(counts);
+    }
+
+    /**
+     * Forget PENDING payments the gateway never processed with one batch delete
+     *
+     * @return per payment, whether this batch deleted it (false if it was resolved meanwhile)
+     */
+    private boolean[] deleteAll(List<Payment> payments) {
+        int[] counts = jdbcTemplate.batchUpdate(DELETE_PENDING, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, payments.get(i).getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return payments.size();
+            }
+        });
+        return applied(counts);
+    }
+
+    private static boolean[] applied(int[] counts) {
+        boolean[] applied = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            applied[i] = counts[i] == 1;
+        }
+        return applied;
+    }
+
+    private static int countTrue(boolean[] values) {
+        int count = 0;
+        for (boolean value : values) {
+            if (value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Stored rows for the batch's payments, by correlation ID (one query)
+     */
+    private Map<String, Payment> findAll(List<Payment> payments) {
+        String[] correlationIds = payments.stream().map(Payment::getCorrelationId).toArray(String[]::new);
+        Map<String, Payment> rows = new HashMap<>(payments.size() * 2);
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_PAYMENTS);
+                ps.setArray(1, connection.createArrayOf("varchar", correlationIds));
+                return ps;
+            },
+            rs -> {
+                Payment row = Payment.builder()
+                    .id(rs.getLong("id"))
+                    .orderId(rs.getLong("order_id"))
+                    .correlationId(rs.getString("correlation_id"))
+                    .amount(Money.of(rs.getBigDecimal("amount")))
+                    .paymentMethod(rs.getString("payment_method"))
+                    .status(PaymentStatus.valueOf(rs.getString("status")))
+                    .riskScore(rs.getInt("risk_score"))
+                    .fraudReview(rs.getObject("fraud_review", Boolean.class))
+                    .failureReason(rs.getString("failure_reason"))
+                    .transactionId(rs.getString("transaction_id"))
+                    .idempotencyKey(rs.getString("idempotency_key"))
+                    .gateway(rs.getString("gateway"))
+                    .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                    .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                    .build();
+                rows.put(row.getCorrelationId(), row);
+            });
+        return rows;
+    }
+
+    private static PaymentEvent toEvent(Payment payment) {
+        return switch (payment.getStatus()) {
+            case COMPLETED -> PaymentEvent.processed(payment.getCorrelationId(), payment.getOrderId(),
+                payment.getId(), payment.getAmount(), payment.getPaymentMethod(), payment.getRiskScore());
+            case FRAUD_DETECTED -> PaymentEvent.fraudDetected(payment.getCorrelationId(), payment.getOrderId(),
+                payment.getAmount(), payment.getRiskScore());
+            default -> PaymentEvent.failed(payment.getCorrelationId(), payment.getOrderId(),
+                payment.getAmount(), payment.getFailureReason());
+        };
+    }
+}
@@ -1,16 +1,24 @@
 package com.payment.payment.service;
 
+import com.payment.common.logging.EventLog;
 import com.payment.inventory.event.InventoryEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Payment Service Event Listener - Processes inventory events
+ * One event at a time; PaymentBatchListener takes over when payment.batch.enabled=true
+ * The listener returns while the gateway call is outstanding; the offset is committed once the
+ * returned future completes, so a slow gateway does not hold up the consumer thread
  * 
  * Location: payment-service/src/main/java/com/payment/payment/service/PaymentEventListener.java
  */
 @Service
+@ConditionalOnProperty(name = "payment.batch.enabled", havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class PaymentEventListener {
 
@@ -29,50 +37,48 @@ public class PaymentEventListener {
         groupId = "payment-service-group",
         containerFactory = "kafkaListenerContainerFactory"
     )
-    public void handleInventoryEvent(InventoryEvent event) {
-        log.info("═══════════════════════════════════════════════════");
-        log.info("💳 PAYMENT SERVICE - Inventory Event Received");
-        log.info("═══════════════════════════════════════════════════");
-        log.info("Event Type: {}", event.getEventType());
-        log.info("Correlation ID: {}", event.getCorrelationId());
-        log.info("Order ID: {}", event.getOrderId());
-        log.info("Success: {}", event.isSuccess());
-        log.info("Message: {}", event.getMessage());
-        log.info("───────────────────────────────────────────────────");
+    public CompletableFuture<Void> handleInventoryEvent(InventoryEvent event) {
+        long start = System.nanoTime();
+        log.debug("💳 Inventory event {} for order {} (success: {}, message: {})",
+            event.getEventType(), event.getOrderId(), event.isSuccess(), event.getMessage());
 
         // Only process INVENTORY_RESERVED events
         if (!"INVENTORY_RESERVED".equals(event.getEventType())) {
-            log.info("⏭️  Skipping event type: {}", event.getEventType());
-            log.info("═══════════════════════════════════════════════════\n");
-            return;
+            log.debug("⏭️  Skipping event type: {}", event.getEventType());
+            return CompletableFuture.completedFuture(null);
         }
 
         if (!event.isSuccess()) {
             log.warn("⚠️ Inventory reservation failed - Skipping payment");
-            log.info("═══════════════════════════════════════════════════\n");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        try {
-            log.info("✅ Inventory successfully reserved - Processing payment...");
-            
-            // NOTE: In real implementation, we'd get amount and customerId from the order
-            // For now, using placeholder values
-            // TODO: Fetch order details from Order Service or include in event
-            
-            // Process payment
-            // This will trigger fraud detection, idempotency check, and payment gateway simulation
-            paymentService.processPayment(
-                event.getOrderId(),
-                java.math.BigDecimal.valueOf(100.00), // Placeholder - should come from order
-                12345L, // Placeholder customer ID
-                event.getCorrelationId()
-            );
-
-        } catch (Exception e) {
-            log.error("❌ Error handling inventory event: {}", e.getMessage(), e);
+        if (event.getTotalAmount() == null) {
+            log.warn("⚠️ Event has no order total (published by an older inventory-service) - Skipping payment");
+            return CompletableFuture.completedFuture(null);
         }
 
-        log.info("═══════════════════════════════════════════════════\n");
+        log.debug("✅ Inventory successfully reserved - Processing payment...");
+
+        // Process payment for the order total carried on the event
+        // This will trigger fraud detection, idempotency check, and payment gateway call
+        return paymentService.processPayment(
+                event.getOrderId(),
+                event.getTotalAmount(),
+                event.getCustomerId(),
+                event.getCorrelationId()
+            )
+            .handle((paymentEvent, e) -> {
+                String outcome;
+                if (e != null) {
+                    outcome = "error";
+                    log.error("❌ Error handling inventory event: {}", e.getMessage(), e);
+                } else {
+                    // null: another consumer has the order, or the payment was left PENDING for recovery
+                    outcome = paymentEvent != null ? paymentEvent.getEventType() : "pending";
+                }
+                EventLog.handled(log, event.getEventType(), event.getOrderId(), event.getCorrelationId(), outcome, start);
+                return null;
+            });
     }
-}
\ No newline at end of file
+}
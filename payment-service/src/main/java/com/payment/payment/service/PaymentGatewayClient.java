@@ -0,0 +1,409 @@
+package com.payment.payment.service;
+
+import com.payment.common.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Payment Gateway Client - Non-blocking calls to the payment gateways (GatewaySimulator per endpoint)
+ *
+ * route() picks a gateway per payment (GatewayRouter); the payment keeps that gateway, so a retry and the
+ * recovery status lookup reach the gateway that knows its idempotency key.
+ *
+ * authorize() returns as soon as the request is sent; the future always completes with a
+ * GatewayResponse (timeouts and errors become TIMEOUT / ERROR responses, never exceptions).
+ *
+ * Each gateway is protected by an adaptive concurrency limit (AimdConcurrencyLimiter) and a circuit
+ * breaker (GatewayCircuitBreaker); a request beyond the limit, or while the circuit is open, gets a
+ * retryable REJECTED response immediately instead of queueing until it times out.
+ *
+ * Under load, payments for a gateway that accepts batch authorization are collected into micro-batches
+ * (GatewayBatcher) and sent as one request; a batch takes one limiter slot and counts as one call for the
+ * circuit breaker. At low load each payment is sent on its own.
+ *
+ * Metrics, tagged by gateway: payment.gateway.concurrency.limit, payment.gateway.in.flight,
+ * payment.gateway.circuit.state (0 closed, 1 open, 2 half-open), payment.gateway.rejections{reason},
+ * payment.gateway.latency.ewma (ms), payment.gateway.failure.ewma, payment.gateway.hedges{result}
+ * and payment.gateway.batch.size
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/PaymentGatewayClient.java
+ */
+@Component
+@Slf4j
+public class PaymentGatewayClient {
+
+    private final GatewayRouter router;
+    private final long timeoutMillis;
+    private final Map<String, Counter> limitRejections = new ConcurrentHashMap<>();
+    private final Map<String, Counter> circuitRejections = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hedgesSent = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hedgesWon = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> batchSizes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler; // Hedge timers and batch flushes
+
+    public PaymentGatewayClient(GatewayRouter router,
+                                MeterRegistry meterRegistry,
+                                @Value("${payment.gateway.timeout:PT2S}") Duration timeout) {
+        this.router = router;
+        this.timeoutMillis = timeout.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (GatewayEndpoint endpoint : router.endpoints()) {
+            String gateway = endpoint.getName();
+            Gauge.builder("payment.gateway.concurrency.limit", endpoint.getLimiter(), AimdConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("gateway", gateway)
+                .register(meterRegistry);
+            Gauge.builder("payment.gateway.in.flight", endpoint.getLimiter(), AimdConcurrencyLimiter::getInFlight)
+                .description("Gateway requests awaiting an answer")
+                .tag("gateway", gateway)
+                .register(meterRegistry);
+            Gauge.builder("payment.gateway.circuit.state", endpoint.getCircuitBreaker(),
+                    breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .tag("gateway", gateway)
+                .register(meterRegistry);
+            Gauge.builder("payment.gateway.latency.ewma", endpoint, GatewayEndpoint::getLatencyEwmaMillis)
+                .description("Moving average of answer latency (ms)")
+                .tag("gateway", gateway)
+                .register(meterRegistry);
+            Gauge.builder("payment.gateway.failure.ewma", endpoint, GatewayEndpoint::getFailureEwma)
+                .description("Moving average of errors, timeouts and 429s")
+                .tag("gateway", gateway)
+                .register(meterRegistry);
+            limitRejections.put(gateway, Counter.builder("payment.gateway.rejections")
+                .tag("gateway", gateway)
+                .tag("reason", "concurrency-limit")
+                .register(meterRegistry));
+            circuitRejections.put(gateway, Counter.builder("payment.gateway.rejections")
+                .tag("gateway", gateway)
+                .tag("reason", "circuit-open")
+                .register(meterRegistry));
+            hedgesSent.put(gateway, Counter.builder("payment.gateway.hedges")
+                .tag("gateway", gateway)
+                .tag("result", "sent")
+                .register(meterRegistry));
+            hedgesWon.put(gateway, Counter.builder("payment.gateway.hedges")
+                .tag("gateway", gateway)
+                .tag("result", "won")
+                .register(meterRegistry));
+            batchSizes.put(gateway, DistributionSummary.builder("payment.gateway.batch.size")
+                .description("Payments per batch authorization call")
+                .tag("gateway", gateway)
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Pick the gateway for a new payment
+     */
+    public String route() {
+        return router.choose().getName();
+    }
+
+    /**
+     * Authorize a payment
+     *
+     * When the gateway deduplicates by idempotency key and the answer takes longer than its observed p95,
+     * a hedged copy with the same key is sent (within the hedging budget); the first decisive answer wins.
+     * Both copies name the same charge, so the gateway authorizes it once and the slower answer is ignored.
+     * Batched payments are not hedged - batching only happens under load, where hedges would add to it.
+     *
+     * @param gateway        - Gateway chosen by route() (another is chosen if it is no longer configured)
+     * @param orderId        - Order being paid (for logging)
+     * @param amount         - Amount to authorize
+     * @param idempotencyKey - Key that makes a repeated request for the same charge safe
+     */
+    public CompletableFuture<GatewayResponse> authorize(String gateway, Long orderId, Money amount,
+                                                        String idempotencyKey) {
+        GatewayEndpoint endpoint = router.endpoint(gateway);
+        if (endpoint == null) {
+            endpoint = router.choose();
+        }
+
+        GatewayBatcher batcher = endpoint.getBatcher();
+        if (batcher != null && batcher.shouldBatch(endpoint.getLimiter().getInFlight())) {
+            GatewayEndpoint target = endpoint;
+            return batcher.add(orderId, amount, idempotencyKey, scheduler, batch -> sendBatch(target, batch));
+        }
+
+        CompletableFuture<GatewayResponse> primary = send(endpoint, orderId, amount, idempotencyKey);
+        HedgingPolicy hedging = endpoint.getHedgingPolicy();
+        if (hedging == null || idempotencyKey == null || primary.isDone()) {
+            return primary;
+        }
+        hedging.onRequest();
+        long delayNanos = hedging.delayNanos();
+        if (delayNanos < 0) {
+            return primary;
+        }
+        return hedged(endpoint, hedging, primary, delayNanos, orderId, amount, idempotencyKey);
+    }
+
+    private CompletableFuture<GatewayResponse> hedged(GatewayEndpoint endpoint, HedgingPolicy hedging,
+                                                      CompletableFuture<GatewayResponse> primary, long delayNanos,
+                                                      Long orderId, Money amount, String idempotencyKey) {
+        CompletableFuture<GatewayResponse> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        AtomicReference<GatewayResponse> primaryAnswer = new AtomicReference<>();
+
+        BiConsumer<GatewayResponse, Boolean> onAnswer = (response, isHedge) -> {
+            if (isDecisive(response)) {
+                if (result.complete(response)) {
+                    if (isHedge) {
+                        hedgesWon.get(endpoint.getName()).increment();
+                    }
+                } else {
+                    checkSameCharge(result.join(), response, orderId);
+                }
+            } else if (!isHedge) {
+                primaryAnswer.set(response);
+            }
+            // Neither copy settled it - the primary's failure stands (a timeout may still have charged)
+            if (outstanding.decrementAndGet() == 0) {
+                result.complete(primaryAnswer.get());
+            }
+        };
+        primary.thenAccept(response -> onAnswer.accept(response, false));
+
+        ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+            if (result.isDone() || !hedging.tryAcquireHedge()) {
+                return;
+            }
+            // Join only while the primary is still outstanding
+            if (outstanding.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) {
+                return;
+            }
+            hedgesSent.get(endpoint.getName()).increment();
+            log.debug("🪂 Hedging gateway request for order {} after {} ms", orderId, delayNanos / 1_000_000);
+            send(endpoint, orderId, amount, idempotencyKey).thenAccept(response -> onAnswer.accept(response, true));
+        }, delayNanos, TimeUnit.NANOSECONDS);
+
+        // Cancel the hedge if the primary answers first
+        result.whenComplete((response, e) -> hedge.cancel(false));
+        return result;
+    }
+
+    /**
+     * An answer that settles the payment - anything else lets the other copy decide
+     */
+    private static boolean isDecisive(GatewayResponse response) {
+        return response.outcome() == GatewayResponse.Outcome.APPROVED
+            || response.outcome() == GatewayResponse.Outcome.DECLINED;
+    }
+
+    /**
+     * Both copies must name the same charge - a different transaction ID would mean the gateway charged twice
+     */
+    private static void checkSameCharge(GatewayResponse winner, GatewayResponse loser, Long orderId) {
+        if (winner.isApproved() && loser.isApproved() && !Objects.equals(winner.transactionId(), loser.transactionId())) {
+            log.error("❌ Hedged requests for order {} were authorized twice ({} and {}) - Void {}",
+                orderId, winner.transactionId(), loser.transactionId(), loser.transactionId());
+        }
+    }
+
+    /**
+     * One request to one gateway, through its concurrency limiter and circuit breaker
+     */
+    private CompletableFuture<GatewayResponse> send(GatewayEndpoint endpoint, Long orderId, Money amount,
+                                                    String idempotencyKey) {
+        Admission admission = admit(endpoint, "payment for order " + orderId);
+        if (admission.rejection() != null) {
+            return CompletableFuture.completedFuture(admission.rejection());
+        }
+        long permit = admission.circuitPermit();
+
+        long start = System.nanoTime();
+        CompletableFuture<GatewayResponse> response;
+        try {
+            response = endpoint.getGateway().authorize(idempotencyKey, amount);
+        } catch (RuntimeException e) {
+            endpoint.getLimiter().onIgnored();
+            endpoint.getCircuitBreaker().onResult(permit, false);
+            return CompletableFuture.completedFuture(GatewayResponse.error(e.getMessage()));
+        }
+
+        return response
+            .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .exceptionally(this::failure)
+            .whenComplete((result, e) -> {
+                long rttNanos = System.nanoTime() - start;
+                recordAnswer(endpoint, permit, signalOf(result.outcome()), rttNanos);
+                if (endpoint.getHedgingPolicy() != null && isDecisive(result)) {
+                    endpoint.getHedgingPolicy().recordLatency(rttNanos);
+                }
+                log.debug("💳 Gateway {} answered {} for order {} in {} ms",
+                    endpoint.getName(), result.outcome(), orderId, rttNanos / 1_000_000);
+            });
+    }
+
+    /**
+     * One batch authorization request; each payment's future completes with its own answer
+     * (all with the same REJECTED / ERROR / TIMEOUT / RATE_LIMITED when the batch as a whole fails).
+     * The limiter and circuit breaker learn from the batch status, never from the payments' answers
+     */
+    private void sendBatch(GatewayEndpoint endpoint, List<GatewayBatcher.Item> batch) {
+        Admission admission = admit(endpoint, "batch of " + batch.size() + " payments");
+        if (admission.rejection() != null) {
+            batch.forEach(item -> item.response().complete(admission.rejection()));
+            return;
+        }
+        long permit = admission.circuitPermit();
+        batchSizes.get(endpoint.getName()).record(batch.size());
+
+        long start = System.nanoTime();
+        CompletableFuture<GatewayBatchResponse> response;
+        try {
+            response = endpoint.getGateway().authorizeAll(
+                batch.stream().map(GatewayBatcher.Item::idempotencyKey).toList(),
+                batch.stream().map(GatewayBatcher.Item::amount).toList());
+        } catch (RuntimeException e) {
+            endpoint.getLimiter().onIgnored();
+            endpoint.getCircuitBreaker().onResult(permit, false);
+            GatewayResponse error = GatewayResponse.error(e.getMessage());
+            batch.forEach(item -> item.response().complete(error));
+            return;
+        }
+
+        response
+            .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .exceptionally(e -> GatewayBatchResponse.failed(batch.size(), failure(e)))
+            .thenAccept(answer -> {
+                long rttNanos = System.nanoTime() - start;
+                recordAnswer(endpoint, permit, signalOf(answer.status()), rttNanos);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).response().complete(answer.results().get(i));
+                }
+                log.debug("💳 Gateway {} answered a batch of {} payments {} in {} ms",
+                    endpoint.getName(), batch.size(), answer.status(), rttNanos / 1_000_000);
+            });
+    }
+
+    /**
+     * A request let through (circuitPermit to report its result with), or the REJECTED response to give the caller
+     */
+    private record Admission(long circuitPermit, GatewayResponse rejection) {
+    }
+
+    /**
+     * Take a limiter slot and a circuit breaker permit
+     */
+    private Admission admit(GatewayEndpoint endpoint, String description) {
+        AimdConcurrencyLimiter limiter = endpoint.getLimiter();
+        if (!limiter.tryAcquire()) {
+            limitRejections.get(endpoint.getName()).increment();
+            log.warn("🚦 Gateway {} at its concurrency limit ({}) - Rejecting {}",
+                endpoint.getName(), limiter.getLimit(), description);
+            return new Admission(GatewayCircuitBreaker.NO_PERMIT, GatewayResponse.limitReached());
+        }
+        long permit = endpoint.getCircuitBreaker().tryAcquire();
+        if (permit == GatewayCircuitBreaker.NO_PERMIT) {
+            limiter.onIgnored();
+            circuitRejections.get(endpoint.getName()).increment();
+            log.warn("🔌 Gateway {} circuit open - Rejecting {}", endpoint.getName(), description);
+            return new Admission(permit, GatewayResponse.circuitOpen());
+        }
+        return new Admission(permit, null);
+    }
+
+    /**
+     * What a request's answer says about the gateway's health
+     */
+    private enum Signal {
+        ANSWERED,    // Processed (approved or declined)
+        OVERLOADED,  // 429 - back off, but the gateway is up
+        FAILED,      // 5xx
+        TIMED_OUT
+    }
+
+    private static Signal signalOf(GatewayResponse.Outcome outcome) {
+        return switch (outcome) {
+            case TIMEOUT -> Signal.TIMED_OUT;
+            case RATE_LIMITED -> Signal.OVERLOADED;
+            case ERROR -> Signal.FAILED;
+            default -> Signal.ANSWERED;
+        };
+    }
+
+    private static Signal signalOf(GatewayBatchResponse.Status status) {
+        return switch (status) {
+            case PROCESSED -> Signal.ANSWERED;
+            case RATE_LIMITED -> Signal.OVERLOADED;
+            case ERROR -> Signal.FAILED;
+            case TIMEOUT -> Signal.TIMED_OUT;
+        };
+    }
+
+    /**
+     * Feed an answer (or timeout) to the gateway's limiter, circuit breaker and routing statistics
+     */
+    private void recordAnswer(GatewayEndpoint endpoint, long circuitPermit, Signal signal, long rttNanos) {
+        AimdConcurrencyLimiter limiter = endpoint.getLimiter();
+        switch (signal) {
+            case TIMED_OUT, OVERLOADED -> limiter.onDropped();
+            case FAILED -> limiter.onIgnored();
+            case ANSWERED -> limiter.onSuccess(rttNanos);
+        }
+        boolean failed = signal == Signal.FAILED || signal == Signal.TIMED_OUT;
+        endpoint.getCircuitBreaker().onResult(circuitPermit, !failed);
+        endpoint.record(signal != Signal.ANSWERED, rttNanos);
+    }
+
+    private GatewayResponse failure(Throwable e) {
+        return e instanceof TimeoutException || e.getCause() instanceof TimeoutException
+            ? GatewayResponse.timeout(timeoutMillis)
+            : GatewayResponse.error(e.getMessage());
+    }
+
+    /**
+     * Ask the gateway what happened to an earlier request (used to resolve payments left PENDING)
+     * When the gateway is unknown (payments recorded before routing), every gateway is asked
+     *
+     * @return the original answer, empty if the gateway never received the request;
+     *         completes exceptionally if the lookup itself times out
+     */
+    public CompletableFuture<Optional<GatewayResponse>> status(String gateway, String idempotencyKey) {
+        GatewayEndpoint endpoint = router.endpoint(gateway);
+        List<GatewayEndpoint> asked = endpoint != null ? List.of(endpoint) : router.endpoints();
+
+        List<CompletableFuture<GatewayResponse>> lookups = asked.stream()
+            .map(target -> target.getGateway().status(idempotencyKey).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS))
+            .toList();
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]))
+            .thenApply(done -> lookups.stream()
+                .map(CompletableFuture::join)
+                .filter(Objects::nonNull)
+                .findFirst());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
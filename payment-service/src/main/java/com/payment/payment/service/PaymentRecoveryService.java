@@ -0,0 +1,93 @@
+package com.payment.payment.service;
+
+import com.payment.payment.model.Payment;
+import com.payment.payment.model.PaymentStatus;
+import com.payment.payment.repository.PaymentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Payment Recovery Service - Resolves payments left PENDING
+ *
+ * A payment stays PENDING when the consumer crashed between recording it and storing the gateway's
+ * answer, or when the gateway did not answer in time. Once a PENDING row is older than stale-after,
+ * the sweep asks the gateway what happened to its idempotency key and stores that outcome:
+ * - the gateway's original answer (approved / declined), or
+ * - FAILED if the gateway never received the request
+ * and publishes the payment event the saga is waiting for.
+ *
+ * Instances take over a row by bumping its updatedAt, so each stale row is resolved by one instance;
+ * a row whose lookup fails is retried after another stale-after.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/PaymentRecoveryService.java
+ */
+@Component
+@ConditionalOnProperty(name = "payment.recovery.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PaymentRecoveryService {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final PaymentGatewayClient gatewayClient;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration staleAfter;
+
+    public PaymentRecoveryService(PaymentRepository paymentRepository, PaymentService paymentService,
+                                  PaymentGatewayClient gatewayClient, TransactionTemplate transactionTemplate,
+                                  @Value("${payment.recovery.stale-after:PT1M}") Duration staleAfter) {
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.gatewayClient = gatewayClient;
+        this.transactionTemplate = transactionTemplate;
+        this.staleAfter = staleAfter;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.recovery.interval-ms:30000}",
+               initialDelayString = "${payment.recovery.interval-ms:30000}")
+    public void recoverPendingPayments() {
+        List<Payment> stale = paymentRepository.findTop100ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+            PaymentStatus.PENDING, LocalDateTime.now().minus(staleAfter));
+        if (stale.isEmpty()) {
+            return;
+        }
+        log.info("🩹 Found {} stale PENDING payments", stale.size());
+
+        int resolved = 0;
+        for (Payment payment : stale) {
+            try {
+                if (recover(payment)) {
+                    resolved++;
+                }
+            } catch (Exception e) {
+                log.error("❌ Could not recover payment {} for order {}: {}",
+                    payment.getId(), payment.getOrderId(), e.getMessage());
+            }
+        }
+        log.info("🩹 Resolved {} of {} stale PENDING payments", resolved, stale.size());
+    }
+
+    private boolean recover(Payment payment) {
+        int taken = transactionTemplate.execute(status ->
+            paymentRepository.touchPending(payment.getId(), payment.getUpdatedAt(), LocalDateTime.now()));
+        if (taken == 0) {
+            return false; // Resolved meanwhile, or another instance has it
+        }
+
+        // No transaction is open while the gateway is asked
+        Optional<GatewayResponse> original = gatewayClient.status(payment.getGateway(), payment.getIdempotencyKey()).join();
+        GatewayResponse response = original.orElseGet(GatewayResponse::notReceived);
+        log.info("🩹 Gateway {} status for order {} ({}): {}",
+            payment.getGateway(), payment.getOrderId(), payment.getIdempotencyKey(), response.outcome());
+
+        return paymentService.resolvePending(payment, response) != null;
+    }
+}
@@ -1,15 +1,25 @@
 package com.payment.payment.service;
 
+import com.payment.common.money.Money;
 import com.payment.payment.event.PaymentEvent;
 import com.payment.payment.model.Payment;
 import com.payment.payment.model.PaymentStatus;
 import com.payment.payment.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Payment Service - Business logic for payment processing
@@ -24,136 +34,303 @@ public class PaymentService {
     private final IdempotencyService idempotencyService;
     private final FraudDetectionService fraudDetectionService;
     private final EventPublisher eventPublisher;
+    private final PaymentGatewayClient gatewayClient;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService completionExecutor;
 
     public PaymentService(
             PaymentRepository paymentRepository,
             IdempotencyService idempotencyService,
             FraudDetectionService fraudDetectionService,
-            EventPublisher eventPublisher) {
+            EventPublisher eventPublisher,
+            PaymentGatewayClient gatewayClient,
+            TransactionTemplate transactionTemplate,
+            @Value("${payment.gateway.completion-threads:8}") int completionThreads) {
         this.paymentRepository = paymentRepository;
         this.idempotencyService = idempotencyService;
         this.fraudDetectionService = fraudDetectionService;
         this.eventPublisher = eventPublisher;
+        this.gatewayClient = gatewayClient;
+        this.transactionTemplate = transactionTemplate;
+
+        // Stores gateway answers - the gateway's own threads never touch the database
+        AtomicInteger threadCount = new AtomicInteger();
+        this.completionExecutor = Executors.newFixedThreadPool(completionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "payment-completion-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
      * Process payment for an order
-     * Includes idempotency check, fraud detection, and payment processing
+     * Includes idempotency claim, fraud detection, and payment processing
+     *
+     * Returns once the gateway request is sent; the future completes with the published event after
+     * the gateway answers and the payment is stored (with null when another consumer is already
+     * processing the same order, or the payment is left PENDING for recovery).
+     * Two short transactions - record PENDING, then store the outcome - and no connection is held
+     * while waiting for the gateway.
      */
-    @Transactional
-    public PaymentEvent processPayment(
+    public CompletableFuture<PaymentEvent> processPayment(
             Long orderId,
-            BigDecimal amount,
+            Money amount,
             Long customerId,
             String correlationId) {
         
-        log.info("═══════════════════════════════════════════════════");
-        log.info("💳 Processing payment for order: {}", orderId);
-        log.info("Amount: ${}, Customer: {}", amount, customerId);
-        log.info("Correlation ID: {}", correlationId);
-        log.info("═══════════════════════════════════════════════════");
+        log.debug("💳 Processing payment for order {}: ${}, customer {}", orderId, amount, customerId);
 
+        // Step 1: Idempotency claim (atomic - only one consumer gets CLAIMED)
+        log.debug("Step 1: Claiming order for payment...");
         try {
-            // Step 1: Idempotency check
-            log.info("Step 1: Checking idempotency...");
-            if (idempotencyService.isAlreadyProcessed(orderId)) {
+            IdempotencyService.ClaimState claim = idempotencyService.claim(orderId);
+            if (claim == IdempotencyService.ClaimState.IN_FLIGHT) {
+                log.warn("⚠️ Payment for order {} is already being processed - Skipping", orderId);
+                return CompletableFuture.completedFuture(null);
+            }
+            if (claim != IdempotencyService.ClaimState.CLAIMED) {
                 log.warn("⚠️ Duplicate payment request detected - Returning cached result");
                 
                 // Find existing payment
                 Payment existingPayment = paymentRepository.findByOrderId(orderId)
                     .orElseThrow(() -> new RuntimeException("Payment record not found"));
                 
-                return buildPaymentEvent(existingPayment);
+                return CompletableFuture.completedFuture(buildPaymentEvent(existingPayment));
             }
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(processingError(orderId, amount, correlationId, false, e));
+        }
+
+        try {
+            // Step 2: Fraud detection (under a deadline - a late score falls back to amount-only rules)
+            log.debug("Step 2: Running fraud detection...");
+            FraudDetectionService.FraudScore fraudScore =
+                fraudDetectionService.calculateRiskScoreWithin(amount, customerId, orderId);
+            int riskScore = fraudScore.riskScore();
 
-            // Step 2: Create payment record
-            log.info("Step 2: Creating payment record...");
             Payment payment = Payment.builder()
                 .orderId(orderId)
                 .correlationId(correlationId)
                 .amount(amount)
                 .paymentMethod("CREDIT_CARD") // Simulated
                 .status(PaymentStatus.PENDING)
-                .riskScore(0)
+                .riskScore(riskScore)
+                .idempotencyKey("pay-" + orderId)
+                .fraudReview(fraudScore.degraded() ? Boolean.TRUE : null)
                 .build();
 
-            // Step 3: Fraud detection
-            log.info("Step 3: Running fraud detection...");
-            int riskScore = fraudDetectionService.calculateRiskScore(amount, customerId, orderId);
-            payment.setRiskScore(riskScore);
-
             // Check if transaction should be blocked
             if (fraudDetectionService.shouldBlockTransaction(riskScore)) {
                 log.warn("🚫 FRAUD DETECTED - Blocking transaction");
                 payment.setStatus(PaymentStatus.FRAUD_DETECTED);
                 payment.setFailureReason("Transaction blocked due to high fraud risk (score: " + riskScore + ")");
                 
-                paymentRepository.save(payment);
+                transactionTemplate.executeWithoutResult(status -> {
+                    paymentRepository.save(payment);
+                    idempotencyService.markFailed(orderId);
+                });
+                reviewWhenScored(payment, fraudScore);
                 
                 // Publish PAYMENT_FAILED event
                 PaymentEvent event = PaymentEvent.fraudDetected(correlationId, orderId, amount, riskScore);
                 eventPublisher.publishEvent("payment-events", correlationId, event);
                 
-                return event;
+                return CompletableFuture.completedFuture(event);
             }
 
-            // Step 4: Process payment (simulate payment gateway)
-            log.info("Step 4: Processing payment with gateway...");
-            boolean paymentSuccessful = fraudDetectionService.simulatePaymentProcessing();
-
-            if (paymentSuccessful) {
-                // Payment succeeded
-                String transactionId = fraudDetectionService.generateTransactionId();
-                payment.setStatus(PaymentStatus.COMPLETED);
-                payment.setTransactionId(transactionId);
-                
-                paymentRepository.save(payment);
-                
-                // Mark as processed in Redis
-                idempotencyService.markAsProcessed(orderId);
-                
-                log.info("✅ Payment processed successfully");
-                log.info("Transaction ID: {}", transactionId);
-                log.info("Risk Score: {}", riskScore);
-                
-                // Publish PAYMENT_PROCESSED event
-                PaymentEvent event = PaymentEvent.processed(
-                    correlationId, orderId, payment.getId(), amount, "CREDIT_CARD", riskScore
-                );
-                eventPublisher.publishEvent("payment-events", correlationId, event);
-                
-                return event;
-                
-            } else {
-                // Payment declined by gateway
-                payment.setStatus(PaymentStatus.FAILED);
-                payment.setFailureReason("Payment declined by payment gateway");
-                
-                paymentRepository.save(payment);
-                
-                log.warn("❌ Payment declined by gateway");
-                
-                // Publish PAYMENT_FAILED event
-                PaymentEvent event = PaymentEvent.failed(
-                    correlationId, orderId, amount, "Payment declined by payment gateway"
-                );
-                eventPublisher.publishEvent("payment-events", correlationId, event);
-                
-                return event;
+            // Step 3: Record the payment as PENDING (short transaction, committed before the gateway call)
+            log.debug("Step 3: Recording pending payment...");
+            payment.setGateway(gatewayClient.route());
+            Payment pending;
+            try {
+                pending = transactionTemplate.execute(status -> paymentRepository.save(payment));
+            } catch (DataIntegrityViolationException e) {
+                // A crashed consumer got this far before - carry on with its payment row
+                pending = paymentRepository.findByCorrelationId(correlationId)
+                    .orElseThrow(() -> new RuntimeException("Payment record not found"));
+                if (pending.getStatus() != PaymentStatus.PENDING) {
+                    log.warn("⚠️ Payment for order {} was already {} - Recording outcome", orderId, pending.getStatus());
+                    if (pending.getStatus() == PaymentStatus.COMPLETED) {
+                        idempotencyService.markCompleted(orderId);
+                    } else {
+                        idempotencyService.markFailed(orderId);
+                    }
+                    return CompletableFuture.completedFuture(buildPaymentEvent(pending));
+                }
+                log.debug("🔁 Resuming pending payment {} for order {}", pending.getId(), orderId);
             }
+            Payment stored = pending;
+            reviewWhenScored(stored, fraudScore);
+
+            // Step 4: Process payment with the gateway (non-blocking, no connection held)
+            log.debug("Step 4: Sending payment to gateway...");
+            return gatewayClient.authorize(stored.getGateway(), orderId, amount, stored.getIdempotencyKey())
+                .thenApplyAsync(response -> resolvePending(stored, response), completionExecutor)
+                .exceptionally(e -> {
+                    // The row stays PENDING - PaymentRecoveryService resolves it with the gateway
+                    log.error("❌ Error completing payment for order {} - Left PENDING for recovery: {}",
+                        orderId, e.getMessage(), e);
+                    return null;
+                });
 
         } catch (Exception e) {
-            log.error("❌ Error processing payment: {}", e.getMessage(), e);
+            return CompletableFuture.completedFuture(processingError(orderId, amount, correlationId, true, e));
+        }
+    }
+
+    /**
+     * Step 5: Store the gateway's answer for a PENDING payment (short transaction) and publish the outcome
+     * A TIMEOUT is not an answer - the gateway may have charged - so the payment stays PENDING until
+     * PaymentRecoveryService asks the gateway what happened. A request the gateway never processed
+     * (rejected or rate limited) leaves no payment behind and fails with a retryable event.
+     *
+     * @return the published event, or null if the payment stays PENDING or was already resolved
+     */
+    public PaymentEvent resolvePending(Payment payment, GatewayResponse response) {
+        Long orderId = payment.getOrderId();
+        String correlationId = payment.getCorrelationId();
+
+        if (response.outcome() == GatewayResponse.Outcome.TIMEOUT) {
+            log.warn("⏳ {} for order {} - Left PENDING for recovery", response.message(), orderId);
+            return null;
+        }
+
+        if (response.isRetryable()) {
+            // Never processed by the gateway - forget the attempt so the order can be paid later
+            int deleted = transactionTemplate.execute(status -> paymentRepository.deletePending(payment.getId()));
+            if (deleted == 0) {
+                log.debug("⏭️  Payment {} for order {} was already resolved", payment.getId(), orderId);
+                return null;
+            }
+            idempotencyService.release(orderId);
+            log.warn("🔁 Payment for order {} not sent: {}", orderId, response.message());
+
+            PaymentEvent event = PaymentEvent.failed(correlationId, orderId, payment.getAmount(), response.message(), true);
+            eventPublisher.publishEvent("payment-events", correlationId, event);
+            return event;
+        }
+
+        boolean approved = response.isApproved();
+        PaymentStatus outcome = approved ? PaymentStatus.COMPLETED : PaymentStatus.FAILED;
+        String failureReason = approved ? null : response.message();
+
+        int updated = transactionTemplate.execute(status -> {
+            int rows = paymentRepository.finishPending(
+                payment.getId(), outcome, response.transactionId(), failureReason, LocalDateTime.now());
+            if (rows == 1) {
+                // Record the outcome in the idempotency store (after commit)
+                if (approved) {
+                    idempotencyService.markCompleted(orderId);
+                } else {
+                    idempotencyService.markFailed(orderId);
+                }
+            }
+            return rows;
+        });
+        if (updated == 0) {
+            log.debug("⏭️  Payment {} for order {} was already resolved", payment.getId(), orderId);
+            return null;
+        }
+
+        PaymentEvent event;
+        if (approved) {
+            log.debug("✅ Payment processed for order {} (transaction {}, risk score {})",
+                orderId, response.transactionId(), payment.getRiskScore());
             
-            PaymentEvent event = PaymentEvent.failed(
-                correlationId, orderId, amount, "Payment processing error: " + e.getMessage()
+            // Publish PAYMENT_PROCESSED event
+            event = PaymentEvent.processed(
+                correlationId, orderId, payment.getId(), payment.getAmount(), "CREDIT_CARD", payment.getRiskScore()
             );
-            eventPublisher.publishEvent("payment-events", correlationId, event);
+        } else {
+            // Payment declined, or the gateway failed to process it
+            log.warn("❌ Payment for order {} not approved: {}", orderId, response.message());
             
-            return event;
-        } finally {
-            log.info("═══════════════════════════════════════════════════\n");
+            // Publish PAYMENT_FAILED event
+            event = PaymentEvent.failed(correlationId, orderId, payment.getAmount(), response.message());
+        }
+        eventPublisher.publishEvent("payment-events", correlationId, event);
+        return event;
+    }
+
+    /**
+     * Re-review a payment decided on its fallback risk score once the full score is in:
+     * store the full score and keep the review flag only if the full score would have decided differently
+     * Without a full score (scoring was saturated) the payment stays flagged
+     * Used by both the single-payment and the batch path
+     */
+    public void reviewWhenScored(Payment payment, FraudDetectionService.FraudScore fraudScore) {
+        if (!fraudScore.degraded() || fraudScore.fullScore() == null) {
+            return;
+        }
+        fraudScore.fullScore()
+            .thenAcceptAsync(fullScore -> {
+                boolean review = fraudDetectionService.review(payment.getOrderId(), fraudScore.riskScore(), fullScore);
+                transactionTemplate.executeWithoutResult(status -> paymentRepository.recordFraudReview(
+                    payment.getId(), fullScore, review, LocalDateTime.now()));
+            }, completionExecutor)
+            .exceptionally(e -> {
+                log.error("❌ Fraud re-review failed for order {} - Left flagged: {}",
+                    payment.getOrderId(), e.getMessage(), e);
+                return null;
+            });
+    }
+
+    /**
+     * Processing error - no outcome was stored, so release the claim and let a redelivery claim the order again
+     */
+    private PaymentEvent processingError(Long orderId, Money amount, String correlationId,
+                                         boolean claimed, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        log.error("❌ Error processing payment for order {}: {}", orderId, cause.getMessage(), cause);
+
+        if (claimed) {
+            idempotencyService.release(orderId);
         }
+        
+        PaymentEvent event = PaymentEvent.failed(
+            correlationId, orderId, amount, "Payment processing error: " + cause.getMessage()
+        );
+        eventPublisher.publishEvent("payment-events", correlationId, event);
+        return event;
+    }
+
+    /**
+     * Block an order before its inventory is reserved, when the risk score pre-computed on
+     * ORDER_CREATED is already past the block threshold
+     * The FAILED outcome makes the INVENTORY_RESERVED that follows a duplicate, so the order is never charged
+     * Returns null when the order is already claimed or paid
+     * PAYMENT_FAILED is published only after the FRAUD_DETECTED row has committed
+     */
+    public PaymentEvent blockBeforeReservation(Long orderId, Money amount, String correlationId, int riskScore) {
+        IdempotencyService.ClaimState claim = idempotencyService.claim(orderId);
+        if (claim != IdempotencyService.ClaimState.CLAIMED) {
+            log.debug("⏭️  Order {} already {} - Not blocking early", orderId, claim);
+            return null;
+        }
+
+        try {
+            log.debug("🚫 Blocking order {} before inventory reservation (risk score: {})", orderId, riskScore);
+            Payment payment = Payment.builder()
+                .orderId(orderId)
+                .correlationId(correlationId)
+                .amount(amount)
+                .paymentMethod("CREDIT_CARD") // Simulated
+                .status(PaymentStatus.FRAUD_DETECTED)
+                .riskScore(riskScore)
+                .failureReason("Transaction blocked due to high fraud risk (score: " + riskScore + ")")
+                .build();
+            transactionTemplate.executeWithoutResult(status -> {
+                paymentRepository.save(payment);
+                idempotencyService.markFailed(orderId);
+            });
+        } catch (RuntimeException e) {
+            idempotencyService.release(orderId);
+            throw e;
+        }
+
+        PaymentEvent event = PaymentEvent.fraudDetected(correlationId, orderId, amount, riskScore);
+        eventPublisher.publishEvent("payment-events", correlationId, event);
+        return event;
     }
 
     /**
@@ -195,4 +372,9 @@ public class PaymentService {
             );
         }
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void shutdown() {
+        completionExecutor.shutdown();
+    }
+}
@@ -0,0 +1,189 @@
+package com.payment.payment.service;
+
+import com.payment.payment.service.IdempotencyService.ClaimState;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis Idempotency Store - Claims and outcomes in compact daily Redis hashes
+ *
+ * Storage layout (instead of one key per payment):
+ * - Orders are grouped 128 per hash: key "pay:idem:{orderId / 128}:<epochDay>", field orderId % 128,
+ *   so each hash stays in Redis' compact listpack encoding
+ * - One-byte values: "C" / "F", or "I" + claim time (base36 seconds) while in flight
+ * - Buckets rotate daily (UTC) and expire after 49 hours; lookups check today's and yesterday's
+ *   bucket, so a marker lives between 24 and 48 hours
+ * - The {bucket} hash tag keeps both days' keys in one cluster slot for the Lua scripts
+ * - claimAll / finishAll pipeline one script call per order into a single round trip
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/RedisIdempotencyStore.java
+ */
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "pay:idem:{";
+    private static final int BUCKET_BITS = 7; // 128 orders per hash (hash-max-listpack-entries default)
+    private static final Duration BUCKET_TTL = Duration.ofHours(49);
+
+    private static final String COMPLETED = "C";
+    private static final String FAILED = "F";
+
+    /**
+     * KEYS: today, yesterday  ARGV: field, now (s), in-flight ttl (s), bucket ttl (s), in-flight value
+     * Returns "OK" when claimed, otherwise the existing value
+     */
+    private static final DefaultRedisScript<String> CLAIM = new DefaultRedisScript<>(
+        "for i = 2, 1, -1 do\n"
+            + "  local v = redis.call('HGET', KEYS[i], ARGV[1])\n"
+            + "  if v then\n"
+            + "    if string.sub(v, 1, 1) ~= 'I'"
+            + " or tonumber(string.sub(v, 2), 36) + tonumber(ARGV[3]) > tonumber(ARGV[2]) then\n"
+            + "      return v\n"
+            + "    end\n"
+            + "    redis.call('HDEL', KEYS[i], ARGV[1])\n"
+            + "  end\n"
+            + "end\n"
+            + "redis.call('HSET', KEYS[1], ARGV[1], ARGV[5])\n"
+            + "redis.call('EXPIRE', KEYS[1], ARGV[4], 'NX')\n"
+            + "return 'OK'",
+        String.class);
+
+    /**
+     * KEYS: today, yesterday  ARGV: field, value, bucket ttl (s)
+     * Overwrites the claim in whichever bucket holds it
+     */
+    private static final DefaultRedisScript<Long> FINISH = new DefaultRedisScript<>(
+        "if redis.call('HEXISTS', KEYS[2], ARGV[1]) == 1 then\n"
+            + "  return redis.call('HSET', KEYS[2], ARGV[1], ARGV[2])\n"
+            + "end\n"
+            + "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])\n"
+            + "redis.call('EXPIRE', KEYS[1], ARGV[3], 'NX')\n"
+            + "return 1",
+        Long.class);
+
+    /**
+     * KEYS: today, yesterday  ARGV: field
+     */
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+        "return redis.call('HDEL', KEYS[1], ARGV[1]) + redis.call('HDEL', KEYS[2], ARGV[1])",
+        Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public ClaimState claim(long orderId, long nowSeconds, long inFlightTtlSeconds) {
+        String result = redisTemplate.execute(CLAIM, keys(orderId, nowSeconds), field(orderId),
+            String.valueOf(nowSeconds), String.valueOf(inFlightTtlSeconds),
+            String.valueOf(BUCKET_TTL.toSeconds()), "I" + Long.toString(nowSeconds, 36));
+        return "OK".equals(result) ? ClaimState.CLAIMED : parse(result);
+    }
+
+    @Override
+    public void finish(long orderId, ClaimState state, long nowSeconds) {
+        redisTemplate.execute(FINISH, keys(orderId, nowSeconds), field(orderId),
+            state == ClaimState.COMPLETED ? COMPLETED : FAILED, String.valueOf(BUCKET_TTL.toSeconds()));
+    }
+
+    @Override
+    public ClaimState[] claimAll(long[] orderIds, long nowSeconds, long inFlightTtlSeconds) {
+        byte[] script = bytes(CLAIM.getScriptAsString());
+        byte[] now = bytes(String.valueOf(nowSeconds));
+        byte[] inFlightTtl = bytes(String.valueOf(inFlightTtlSeconds));
+        byte[] bucketTtl = bytes(String.valueOf(BUCKET_TTL.toSeconds()));
+        byte[] inFlight = bytes("I" + Long.toString(nowSeconds, 36));
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (long orderId : orderIds) {
+                List<String> keys = keys(orderId, nowSeconds);
+                eval(connection, script, ReturnType.VALUE, bytes(keys.get(0)), bytes(keys.get(1)),
+                    bytes(field(orderId)), now, inFlightTtl, bucketTtl, inFlight);
+            }
+            return null;
+        });
+
+        ClaimState[] states = new ClaimState[orderIds.length];
+        for (int i = 0; i < orderIds.length; i++) {
+            Object result = results.get(i);
+            states[i] = "OK".equals(result) ? ClaimState.CLAIMED : parse((String) result);
+        }
+        return states;
+    }
+
+    @Override
+    public void finishAll(long[] orderIds, ClaimState[] states, long nowSeconds) {
+        byte[] script = bytes(FINISH.getScriptAsString());
+        byte[] bucketTtl = bytes(String.valueOf(BUCKET_TTL.toSeconds()));
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < orderIds.length; i++) {
+                List<String> keys = keys(orderIds[i], nowSeconds);
+                eval(connection, script, ReturnType.INTEGER, bytes(keys.get(0)), bytes(keys.get(1)),
+                    bytes(field(orderIds[i])), bytes(states[i] == ClaimState.COMPLETED ? COMPLETED : FAILED),
+                    bucketTtl);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void release(long orderId, long nowSeconds) {
+        redisTemplate.execute(RELEASE, keys(orderId, nowSeconds), field(orderId));
+    }
+
+    @Override
+    public boolean contains(long orderId, long nowSeconds) {
+        List<String> keys = keys(orderId, nowSeconds);
+        String field = field(orderId);
+        return redisTemplate.opsForHash().hasKey(keys.get(0), field)
+            || redisTemplate.opsForHash().hasKey(keys.get(1), field);
+    }
+
+    /**
+     * EVAL with the script body - unlike EVALSHA it cannot fail with NOSCRIPT halfway through a pipeline
+     */
+    private static void eval(RedisConnection connection, byte[] script, ReturnType returnType,
+                             byte[] today, byte[] yesterday, byte[]... args) {
+        byte[][] keysAndArgs = new byte[args.length + 2][];
+        keysAndArgs[0] = today;
+        keysAndArgs[1] = yesterday;
+        System.arraycopy(args, 0, keysAndArgs, 2, args.length);
+        connection.scriptingCommands().eval(script, returnType, 2, keysAndArgs);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * [today's bucket, yesterday's bucket] for an order
+     */
+    static List<String> keys(long orderId, long epochSecond) {
+        long day = epochSecond / 86_400;
+        String prefix = KEY_PREFIX + (orderId >>> BUCKET_BITS) + "}:";
+        return List.of(prefix + day, prefix + (day - 1));
+    }
+
+    static String field(long orderId) {
+        return String.valueOf(orderId & ((1 << BUCKET_BITS) - 1));
+    }
+
+    /**
+     * A claim that vanished between checks is treated as in flight (the redelivery will claim it)
+     */
+    private static ClaimState parse(String value) {
+        if (value == null || value.startsWith("I")) {
+            return ClaimState.IN_FLIGHT;
+        }
+        return FAILED.equals(value) ? ClaimState.FAILED : ClaimState.COMPLETED;
+    }
+}
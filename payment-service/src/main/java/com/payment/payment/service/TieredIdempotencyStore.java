@@ -0,0 +1,152 @@
+package com.payment.payment.service;
+
+import com.payment.payment.service.IdempotencyService.ClaimState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Tiered Idempotency Store - Embedded store as a local L1 in front of Redis
+ *
+ * - Final outcomes are answered from L1 without a Redis round trip
+ * - Claims go to Redis (the only place that sees every instance) and are mirrored into L1
+ * - Outcomes and releases are written to both
+ * - When Redis is unreachable, claims fall back to L1: payments keep flowing, but duplicates are
+ *   only caught on this node until Redis is back
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/TieredIdempotencyStore.java
+ */
+@Slf4j
+public class TieredIdempotencyStore implements IdempotencyStore, AutoCloseable {
+
+    private final EmbeddedIdempotencyStore local;
+    private final RedisIdempotencyStore remote;
+
+    public TieredIdempotencyStore(EmbeddedIdempotencyStore local, RedisIdempotencyStore remote) {
+        this.local = local;
+        this.remote = remote;
+    }
+
+    @Override
+    public ClaimState claim(long orderId, long nowSeconds, long inFlightTtlSeconds) {
+        ClaimState finished = local.finalState(orderId, nowSeconds);
+        if (finished != null) {
+            return finished;
+        }
+
+        ClaimState state;
+        try {
+            state = remote.claim(orderId, nowSeconds, inFlightTtlSeconds);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Redis unavailable, claiming order {} in the local store: {}", orderId, e.getMessage());
+            return local.claim(orderId, nowSeconds, inFlightTtlSeconds);
+        }
+
+        if (state == ClaimState.CLAIMED) {
+            local.claim(orderId, nowSeconds, 0); // Redis owns the claim; any local in-flight entry is stale
+        } else if (state != ClaimState.IN_FLIGHT) {
+            local.finish(orderId, state, nowSeconds);
+        }
+        return state;
+    }
+
+    @Override
+    public ClaimState[] claimAll(long[] orderIds, long nowSeconds, long inFlightTtlSeconds) {
+        ClaimState[] states = new ClaimState[orderIds.length];
+        int misses = 0;
+        for (int i = 0; i < orderIds.length; i++) {
+            states[i] = local.finalState(orderIds[i], nowSeconds);
+            if (states[i] == null) {
+                misses++;
+            }
+        }
+        if (misses == 0) {
+            return states;
+        }
+
+        long[] remoteIds = new long[misses];
+        for (int i = 0, j = 0; i < orderIds.length; i++) {
+            if (states[i] == null) {
+                remoteIds[j++] = orderIds[i];
+            }
+        }
+
+        ClaimState[] remoteStates;
+        try {
+            remoteStates = remote.claimAll(remoteIds, nowSeconds, inFlightTtlSeconds);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Redis unavailable, claiming {} orders in the local store: {}", misses, e.getMessage());
+            remoteStates = local.claimAll(remoteIds, nowSeconds, inFlightTtlSeconds);
+            return merge(states, remoteStates);
+        }
+
+        for (int i = 0; i < remoteIds.length; i++) {
+            if (remoteStates[i] == ClaimState.CLAIMED) {
+                local.claim(remoteIds[i], nowSeconds, 0);
+            } else if (remoteStates[i] != ClaimState.IN_FLIGHT) {
+                local.finish(remoteIds[i], remoteStates[i], nowSeconds);
+            }
+        }
+        return merge(states, remoteStates);
+    }
+
+    /**
+     * Fill the L1 misses (null slots) with the remote results, in order
+     */
+    private static ClaimState[] merge(ClaimState[] states, ClaimState[] remoteStates) {
+        for (int i = 0, j = 0; i < states.length; i++) {
+            if (states[i] == null) {
+                states[i] = remoteStates[j++];
+            }
+        }
+        return states;
+    }
+
+    @Override
+    public void finishAll(long[] orderIds, ClaimState[] states, long nowSeconds) {
+        local.finishAll(orderIds, states, nowSeconds);
+        try {
+            remote.finishAll(orderIds, states, nowSeconds);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Redis unavailable, {} outcomes kept in the local store only: {}",
+                orderIds.length, e.getMessage());
+        }
+    }
+
+    @Override
+    public void finish(long orderId, ClaimState state, long nowSeconds) {
+        local.finish(orderId, state, nowSeconds);
+        try {
+            remote.finish(orderId, state, nowSeconds);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Redis unavailable, order {} outcome kept in the local store only: {}",
+                orderId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void release(long orderId, long nowSeconds) {
+        local.release(orderId, nowSeconds);
+        try {
+            remote.release(orderId, nowSeconds);
+        } catch (DataAccessException e) {
+            log.warn("⚠️ Redis unavailable, could not release claim for order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean contains(long orderId, long nowSeconds) {
+        if (local.contains(orderId, nowSeconds)) {
+            return true;
+        }
+        try {
+            return remote.contains(orderId, nowSeconds);
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        local.close();
+    }
+}
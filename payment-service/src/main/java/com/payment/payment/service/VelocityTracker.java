@@ -0,0 +1,303 @@
+package com.payment.payment.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Velocity Tracker - Per-customer payment count and amount over sliding windows
+ *
+ * Windows are ring buffers of fixed buckets, so a window slides one bucket at a time:
+ * - MINUTE: 12 x 5 s
+ * - HOUR:   12 x 5 min
+ * - DAY:    24 x 1 h
+ * Each window keeps running totals, so reading a customer's velocity is O(1)
+ * (advancing a ring clears at most its bucket count).
+ *
+ * Storage is primitive and preallocated: customers are spread over striped, lock-per-stripe tables
+ * keyed by the raw customerId (no boxing), ~700 bytes per tracked customer. When a stripe is full
+ * the least recently seen customer among a small sample is evicted, so memory stays bounded by
+ * payment.fraud.velocity.max-customers.
+ *
+ * Location: payment-service/src/main/java/com/payment/payment/service/VelocityTracker.java
+ */
+@Component
+@Slf4j
+public class VelocityTracker {
+
+    private static final int[] BUCKET_SECONDS = {5, 300, 3600};
+    private static final int[] BUCKET_COUNT = {12, 12, 24};
+    private static final int[] BUCKET_OFFSET = {0, 12, 24};
+    private static final int WINDOWS = 3;
+    private static final int BUCKETS_PER_CUSTOMER = 48;
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Totals over the last minute, hour and day (amounts in cents)
+     */
+    public record Velocity(int countLastMinute, long amountCentsLastMinute,
+                           int countLastHour, long amountCentsLastHour,
+                           int countLastDay, long amountCentsLastDay) {
+
+        static final Velocity NONE = new Velocity(0, 0, 0, 0, 0, 0);
+    }
+
+    public VelocityTracker(@Value("${payment.fraud.velocity.max-customers:50000}") int maxCustomers,
+                           @Value("${payment.fraud.velocity.stripes:64}") int stripeCount) {
+        int stripesPow2 = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[stripesPow2];
+        this.stripeMask = stripesPow2 - 1;
+        int perStripe = Math.max(EVICTION_SAMPLE, (maxCustomers + stripesPow2 - 1) / stripesPow2);
+        for (int i = 0; i < stripesPow2; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        log.info("📈 Velocity tracker: {} stripes x {} customers", stripesPow2, perStripe);
+    }
+
+    /**
+     * Record a payment attempt and return the customer's velocity including it
+     */
+    public Velocity record(long customerId, long amountCents, long nowSeconds) {
+        Stripe stripe = stripes[stripeOf(customerId)];
+        synchronized (stripe) {
+            int slot = stripe.slotFor(customerId, nowSeconds);
+            stripe.add(slot, amountCents, nowSeconds);
+            return stripe.velocity(slot, nowSeconds);
+        }
+    }
+
+    /**
+     * Record a payment attempt and write the customer's velocity including it into a fraud feature
+     * vector (FraudFeature layout) - the per-payment scoring path, which allocates nothing
+     */
+    public void recordInto(long customerId, long amountCents, long nowSeconds, long[] features) {
+        Stripe stripe = stripes[stripeOf(customerId)];
+        synchronized (stripe) {
+            int slot = stripe.slotFor(customerId, nowSeconds);
+            stripe.add(slot, amountCents, nowSeconds);
+            stripe.velocityInto(slot, nowSeconds, features);
+        }
+    }
+
+    /**
+     * Write the customer's current velocity into a fraud feature vector without recording anything
+     * (window fields stay as they are for an unknown customer)
+     */
+    public void getInto(long customerId, long nowSeconds, long[] features) {
+        Stripe stripe = stripes[stripeOf(customerId)];
+        synchronized (stripe) {
+            int slot = stripe.find(customerId);
+            if (slot >= 0) {
+                stripe.velocityInto(slot, nowSeconds, features);
+            }
+        }
+    }
+
+    /**
+     * Current velocity without recording anything
+     */
+    public Velocity get(long customerId, long nowSeconds) {
+        Stripe stripe = stripes[stripeOf(customerId)];
+        synchronized (stripe) {
+            int slot = stripe.find(customerId);
+            return slot < 0 ? Velocity.NONE : stripe.velocity(slot, nowSeconds);
+        }
+    }
+
+    /**
+     * Stripe from the high bits of the hash - the stripe's own index probes from the low bits, so
+     * taking both from the same bits would put every customer of a stripe on the same few index slots
+     */
+    int stripeOf(long customerId) {
+        return (int) (mix(customerId) >>> 32) & stripeMask;
+    }
+
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB3F99FE1A87FL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * One lock's worth of customers: an open-addressing index customerId -> slot, plus flat per-slot arrays
+     */
+    static final class Stripe {
+
+        private final int capacity;
+        private final long[] indexKeys;
+        private final int[] indexSlots; // slot + 1, 0 = empty
+        private final int indexMask;
+
+        private final long[] slotCustomer;
+        private final long[] lastSeen;
+        private final long[] head;          // per slot x window: bucket epoch of the newest bucket
+        private final int[] totalCount;     // per slot x window
+        private final long[] totalAmount;   // per slot x window
+        private final int[] bucketCount;    // per slot x 48
+        private final long[] bucketAmount;  // per slot x 48
+
+        private int used;
+        private int clockHand;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            int indexSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            this.indexKeys = new long[indexSize];
+            this.indexSlots = new int[indexSize];
+            this.indexMask = indexSize - 1;
+            this.slotCustomer = new long[capacity];
+            this.lastSeen = new long[capacity];
+            this.head = new long[capacity * WINDOWS];
+            this.totalCount = new int[capacity * WINDOWS];
+            this.totalAmount = new long[capacity * WINDOWS];
+            this.bucketCount = new int[capacity * BUCKETS_PER_CUSTOMER];
+            this.bucketAmount = new long[capacity * BUCKETS_PER_CUSTOMER];
+        }
+
+        int find(long customerId) {
+            for (int i = (int) mix(customerId) & indexMask; indexSlots[i] != 0; i = (i + 1) & indexMask) {
+                if (indexKeys[i] == customerId) {
+                    return indexSlots[i] - 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Existing slot, a free one, or the least recently seen of a sample (evicted and reset)
+         */
+        int slotFor(long customerId, long nowSeconds) {
+            int slot = find(customerId);
+            if (slot < 0) {
+                if (used < capacity) {
+                    slot = used++;
+                } else {
+                    slot = evictionVictim();
+                    removeFromIndex(slotCustomer[slot]);
+                }
+                reset(slot, customerId, nowSeconds);
+                insertIntoIndex(customerId, slot);
+            }
+            lastSeen[slot] = nowSeconds;
+            return slot;
+        }
+
+        void add(int slot, long amountCents, long nowSeconds) {
+            for (int w = 0; w < WINDOWS; w++) {
+                long epoch = nowSeconds / BUCKET_SECONDS[w];
+                advance(slot, w, epoch);
+                int bucket = slot * BUCKETS_PER_CUSTOMER + BUCKET_OFFSET[w] + (int) (epoch % BUCKET_COUNT[w]);
+                bucketCount[bucket]++;
+                bucketAmount[bucket] += amountCents;
+                totalCount[slot * WINDOWS + w]++;
+                totalAmount[slot * WINDOWS + w] += amountCents;
+            }
+        }
+
+        void velocityInto(int slot, long nowSeconds, long[] features) {
+            for (int w = 0; w < WINDOWS; w++) {
+                advance(slot, w, nowSeconds / BUCKET_SECONDS[w]);
+            }
+            int base = slot * WINDOWS;
+            features[FraudFeature.PAYMENTS_LAST_MINUTE.ordinal()] = totalCount[base];
+            features[FraudFeature.PAYMENTS_LAST_HOUR.ordinal()] = totalCount[base + 1];
+            features[FraudFeature.PAYMENTS_LAST_DAY.ordinal()] = totalCount[base + 2];
+            features[FraudFeature.AMOUNT_LAST_MINUTE.ordinal()] = totalAmount[base];
+            features[FraudFeature.AMOUNT_LAST_HOUR.ordinal()] = totalAmount[base + 1];
+            features[FraudFeature.AMOUNT_LAST_DAY.ordinal()] = totalAmount[base + 2];
+        }
+
+        Velocity velocity(int slot, long nowSeconds) {
+            for (int w = 0; w < WINDOWS; w++) {
+                advance(slot, w, nowSeconds / BUCKET_SECONDS[w]);
+            }
+            int base = slot * WINDOWS;
+            return new Velocity(
+                totalCount[base], totalAmount[base],
+                totalCount[base + 1], totalAmount[base + 1],
+                totalCount[base + 2], totalAmount[base + 2]);
+        }
+
+        /**
+         * Slide window w forward to the given bucket epoch, dropping buckets that fell out of it
+         */
+        void advance(int slot, int w, long epoch) {
+            int headIndex = slot * WINDOWS + w;
+            long current = head[headIndex];
+            if (epoch <= current) {
+                return;
+            }
+            long steps = Math.min(epoch - current, BUCKET_COUNT[w]);
+            int base = slot * BUCKETS_PER_CUSTOMER + BUCKET_OFFSET[w];
+            for (long s = 1; s <= steps; s++) {
+                int bucket = base + (int) ((current + s) % BUCKET_COUNT[w]);
+                totalCount[headIndex] -= bucketCount[bucket];
+                totalAmount[headIndex] -= bucketAmount[bucket];
+                bucketCount[bucket] = 0;
+                bucketAmount[bucket] = 0;
+            }
+            head[headIndex] = epoch;
+        }
+
+        private void reset(int slot, long customerId, long nowSeconds) {
+            slotCustomer[slot] = customerId;
+            for (int w = 0; w < WINDOWS; w++) {
+                head[slot * WINDOWS + w] = nowSeconds / BUCKET_SECONDS[w];
+                totalCount[slot * WINDOWS + w] = 0;
+                totalAmount[slot * WINDOWS + w] = 0;
+            }
+            int base = slot * BUCKETS_PER_CUSTOMER;
+            Arrays.fill(bucketCount, base, base + BUCKETS_PER_CUSTOMER, 0);
+            Arrays.fill(bucketAmount, base, base + BUCKETS_PER_CUSTOMER, 0L);
+        }
+
+        private int evictionVictim() {
+            int victim = clockHand;
+            for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                int candidate = (clockHand + i) % capacity;
+                if (lastSeen[candidate] < lastSeen[victim]) {
+                    victim = candidate;
+                }
+            }
+            clockHand = (clockHand + EVICTION_SAMPLE) % capacity;
+            return victim;
+        }
+
+        void insertIntoIndex(long customerId, int slot) {
+            int i = (int) mix(customerId) & indexMask;
+            while (indexSlots[i] != 0) {
+                i = (i + 1) & indexMask;
+            }
+            indexKeys[i] = customerId;
+            indexSlots[i] = slot + 1;
+        }
+
+        /**
+         * Linear-probing delete with backward shift (no tombstones)
+         */
+        void removeFromIndex(long customerId) {
+            int i = (int) mix(customerId) & indexMask;
+            while (indexKeys[i] != customerId || indexSlots[i] == 0) {
+                i = (i + 1) & indexMask;
+            }
+            for (int j = (i + 1) & indexMask; indexSlots[j] != 0; j = (j + 1) & indexMask) {
+                int home = (int) mix(indexKeys[j]) & indexMask;
+                boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+                if (movable) {
+                    indexKeys[i] = indexKeys[j];
+                    indexSlots[i] = indexSlots[j];
+                    i = j;
+                }
+            }
+            indexSlots[i] = 0;
+        }
+    }
+}
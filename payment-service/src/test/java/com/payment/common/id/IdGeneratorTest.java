@@ -0,0 +1,149 @@
+package com.payment.common.id;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ID Generator Tests - Monotonic IDs, sequence overflow into the next millisecond and base32 ordering
+ *
+ * Location: payment-service/src/test/java/com/payment/common/id/IdGeneratorTest.java
+ */
+class IdGeneratorTest {
+
+    private static final long NODE = 7;
+    private static final long T = 1_000_000;
+
+    @BeforeAll
+    static void configureNode() {
+        IdGenerator.configure(NODE);
+    }
+
+    @Test
+    void idsFromOneThreadStrictlyIncrease() {
+        long previous = IdGenerator.nextId();
+        for (int i = 0; i < 200_000; i++) {
+            long id = IdGenerator.nextId();
+            assertTrue(id > previous, "id " + id + " after " + previous);
+            assertEquals(NODE, IdGenerator.nodeOf(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsFromManyThreadsAreUnique() throws Exception {
+        int threads = 4;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<long[]>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = IdGenerator.nextId();
+                    }
+                    return ids;
+                });
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> result : executor.invokeAll(tasks)) {
+                for (long id : result.get()) {
+                    assertTrue(seen.add(id), "duplicate id " + id);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fullSequenceBorrowsTheNextMillisecond() {
+        long state = IdGenerator.advance(0, T);
+        for (int i = 1; i < 4096; i++) {
+            state = IdGenerator.advance(state, T);
+        }
+        assertEquals(T, millisOf(state));
+        assertEquals(4095, state & 4095);
+
+        state = IdGenerator.advance(state, T);
+        assertEquals(T + 1, millisOf(state));
+        assertEquals(0, state & 4095);
+
+        // The clock catching up to the borrowed millisecond continues its sequence
+        state = IdGenerator.advance(state, T + 1);
+        assertEquals(T + 1, millisOf(state));
+        assertEquals(1, state & 4095);
+
+        state = IdGenerator.advance(state, T + 2);
+        assertEquals(T + 2, millisOf(state));
+        assertEquals(0, state & 4095);
+    }
+
+    @Test
+    void clockSteppingBackKeepsCountingFromTheLastId() {
+        long state = IdGenerator.advance(IdGenerator.advance(0, T), T);
+        long stepped = IdGenerator.advance(state, T - 10_000);
+        assertEquals(state + 1, stepped);
+    }
+
+    @Test
+    void idCarriesTimestampNodeAndSequence() {
+        long state = IdGenerator.advance(0, T) + 5;
+        long id = IdGenerator.idOf(state, NODE);
+        assertEquals(NODE, IdGenerator.nodeOf(id));
+        assertEquals(5, id & 4095);
+        assertEquals(IdGenerator.timestampOf(0) + T, IdGenerator.timestampOf(id));
+    }
+
+    @Test
+    void base32StringsSortLikeTheIds() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long a = random.nextLong(Long.MAX_VALUE);
+            long b = random.nextInt(4) == 0 ? a + random.nextLong(64) : random.nextLong(Long.MAX_VALUE);
+            String encodedA = IdGenerator.encode(a);
+            String encodedB = IdGenerator.encode(b);
+            assertEquals(13, encodedA.length());
+            assertEquals(Integer.signum(Long.compare(a, b)), Integer.signum(encodedA.compareTo(encodedB)), a + " vs " + b);
+        }
+        assertEquals("0000000000000", IdGenerator.encode(0));
+        assertEquals("7ZZZZZZZZZZZZ", IdGenerator.encode(Long.MAX_VALUE));
+    }
+
+    @Test
+    void base32UsesTheCrockfordAlphabet() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            String encoded = IdGenerator.encode(random.nextLong(Long.MAX_VALUE));
+            assertTrue(encoded.matches("[0-9A-HJKMNP-TV-Z]{13}"), encoded);
+        }
+    }
+
+    @Test
+    void nodeMustBeInRangeAndCannotChangeOnceIdsAreIssued() {
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.configure(-1));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerator.configure(1024));
+
+        IdGenerator.nextId();
+        IdGenerator.configure(NODE);
+        assertThrows(IllegalStateException.class, () -> IdGenerator.configure(NODE + 1));
+    }
+
+    private static long millisOf(long state) {
+        return state >>> 12;
+    }
+}
@@ -0,0 +1,120 @@
+package com.payment.common.money;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Money Tests - Exact cents, overflow, currency checks and the JSON decimal form
+ *
+ * Location: payment-service/src/test/java/com/payment/common/money/MoneyTest.java
+ */
+class MoneyTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    record Line(String sku, Money price) {
+    }
+
+    @Test
+    void decimalAmountsBecomeExactCents() {
+        assertEquals(2999, Money.parse("29.99").getMinorUnits());
+        assertEquals(2990, Money.parse("29.9").getMinorUnits());
+        assertEquals(2999, Money.parse("29.9900").getMinorUnits());
+        assertEquals(-150, Money.of(new BigDecimal("-1.50")).getMinorUnits());
+        assertSame(Money.ZERO, Money.parse("0.000"));
+        assertNull(Money.of(null));
+    }
+
+    @Test
+    void fractionsOfACentAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("29.999"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("0.001"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1E-3")));
+    }
+
+    @Test
+    void amountsBeyondALongOfCentsAreRejected() {
+        assertEquals(Long.MAX_VALUE, Money.parse("92233720368547758.07").getMinorUnits());
+        assertEquals(Long.MIN_VALUE, Money.parse("-92233720368547758.08").getMinorUnits());
+
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("92233720368547758.08"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1E30")));
+    }
+
+    @Test
+    void arithmeticOverflowThrows() {
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+        Money min = Money.ofMinor(Long.MIN_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> min.minus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> min.times(-1));
+    }
+
+    @Test
+    void arithmeticAndComparisonStayInCents() {
+        Money price = Money.parse("29.99");
+        assertEquals(Money.parse("89.97"), price.times(3));
+        assertEquals(Money.parse("30.00"), price.plus(Money.parse("0.01")));
+        assertEquals(Money.parse("-0.01"), price.minus(Money.parse("30")));
+        assertSame(price, price.plus(Money.ZERO));
+        assertTrue(price.isGreaterThan(Money.parse("29.98")));
+        assertTrue(price.isLessThan(Money.parse("30")));
+        assertEquals(0, price.compareTo(Money.ofMinor(2999, "USD")));
+    }
+
+    @Test
+    void differentCurrenciesAreNeverMixed() {
+        Money dollars = Money.parse("10.00");
+        Money euros = Money.ofMinor(1000, "EUR");
+
+        assertThrows(IllegalArgumentException.class, () -> dollars.plus(euros));
+        assertThrows(IllegalArgumentException.class, () -> dollars.minus(euros));
+        assertThrows(IllegalArgumentException.class, () -> dollars.compareTo(euros));
+        assertThrows(IllegalArgumentException.class, () -> euros.isGreaterThan(dollars));
+        assertNotEquals(dollars, euros);
+        assertEquals(Money.ofMinor(2000, "EUR"), euros.plus(euros));
+    }
+
+    @Test
+    void currencyMustBeAThreeLetterCode() {
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100, null));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100, "EURO"));
+        assertSame(Money.ZERO, Money.ofMinor(0, Money.DEFAULT_CURRENCY));
+    }
+
+    @Test
+    void jsonIsAPlainDecimalAndRoundTrips() throws Exception {
+        Line line = new Line("SKU-1", Money.parse("29.9"));
+
+        String json = MAPPER.writeValueAsString(line);
+        assertEquals("{\"sku\":\"SKU-1\",\"price\":29.90}", json);
+        assertEquals(line, MAPPER.readValue(json, Line.class));
+
+        assertEquals(Money.parse("0.10"), MAPPER.readValue("{\"price\":0.1}", Line.class).price());
+        assertEquals(Money.parse("12"), MAPPER.readValue("{\"price\":12}", Line.class).price());
+        assertEquals(Money.parse("12.34"), MAPPER.readValue("{\"price\":\"12.34\"}", Line.class).price());
+        assertNull(MAPPER.readValue("{\"price\":null}", Line.class).price());
+    }
+
+    @Test
+    void jsonRejectsFractionsOfACent() {
+        JsonMappingException e = assertThrows(JsonMappingException.class,
+            () -> MAPPER.readValue("{\"price\":29.999}", Line.class));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+
+        assertThrows(JsonMappingException.class, () -> MAPPER.readValue("{\"price\":1e30}", Line.class));
+    }
+}
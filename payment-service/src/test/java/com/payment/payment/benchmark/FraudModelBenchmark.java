@@ -0,0 +1,146 @@
+package com.payment.payment.benchmark;
+
+import com.payment.payment.service.FraudFeature;
+import com.payment.payment.service.FraudModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Fraud Model Benchmark - Scoring latency of a logistic regression and a 200-tree (depth 6) GBT model
+ *
+ * Models are random but well-formed, written in the FraudModel file format and loaded through it.
+ * "single" scores one payment per call; "batch" scores 256 payments per call (reported per payment).
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.payment.payment.benchmark.FraudModelBenchmark
+ *
+ * Location: payment-service/src/test/java/com/payment/payment/benchmark/FraudModelBenchmark.java
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FraudModelBenchmark {
+
+    private static final int VECTORS = 1024;
+    private static final int BATCH = 256;
+    private static final int TREES = 200;
+    private static final int DEPTH = 6;
+
+    @Param({"linear", "trees"})
+    private String modelType;
+
+    private FraudModel model;
+    private long[][] features;
+    private double[] probabilities;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        Path file = Files.createTempFile("fraud-model", ".bin");
+        file.toFile().deleteOnExit();
+        Files.write(file, "linear".equals(modelType) ? linearModel(random) : treeModel(random));
+        model = FraudModel.load(file);
+
+        features = new long[VECTORS][FraudFeature.COUNT];
+        for (long[] vector : features) {
+            for (int f = 0; f < vector.length; f++) {
+                vector[f] = random.nextLong(1000);
+            }
+        }
+        probabilities = new double[BATCH];
+    }
+
+    @Benchmark
+    public double single() {
+        next = (next + 1) & (VECTORS - 1);
+        return model.predict(features[next]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double[] batch() {
+        next = (next + BATCH) & (VECTORS - 1);
+        long[][] window = new long[BATCH][];
+        System.arraycopy(features, next, window, 0, Math.min(BATCH, VECTORS - next));
+        System.arraycopy(features, 0, window, Math.min(BATCH, VECTORS - next), BATCH - Math.min(BATCH, VECTORS - next));
+        model.predictAll(window, BATCH, probabilities);
+        return probabilities;
+    }
+
+    private static byte[] linearModel(SplittableRandom random) {
+        ByteBuffer out = ByteBuffer.allocate(24 + 8 * FraudFeature.COUNT + 4);
+        header(out, FraudModel.LOGISTIC_REGRESSION, -3.0);
+        for (int f = 0; f < FraudFeature.COUNT; f++) {
+            out.putDouble(random.nextDouble(-0.002, 0.002));
+        }
+        return finish(out);
+    }
+
+    /**
+     * Complete binary trees in breadth-first order: node n has children 2n+1 / 2n+2 within its tree
+     */
+    private static byte[] treeModel(SplittableRandom random) {
+        int nodesPerTree = (1 << (DEPTH + 1)) - 1;
+        int internal = (1 << DEPTH) - 1;
+        int nodeCount = TREES * nodesPerTree;
+        ByteBuffer out = ByteBuffer.allocate(24 + 8 + 4 * TREES + 20 * nodeCount + 4);
+        header(out, FraudModel.GRADIENT_BOOSTED_TREES, -3.0);
+        out.putInt(TREES).putInt(nodeCount);
+        for (int t = 0; t < TREES; t++) {
+            out.putInt(t * nodesPerTree);
+        }
+        for (int t = 0; t < TREES; t++) {
+            int base = t * nodesPerTree;
+            for (int n = 0; n < nodesPerTree; n++) {
+                if (n < internal) {
+                    out.putInt(random.nextInt(FraudFeature.COUNT)).putDouble(random.nextInt(1000))
+                        .putInt(base + 2 * n + 1).putInt(base + 2 * n + 2);
+                } else {
+                    out.putInt(-1).putDouble(random.nextDouble(-0.05, 0.05)).putInt(0).putInt(0);
+                }
+            }
+        }
+        return finish(out);
+    }
+
+    private static void header(ByteBuffer out, int type, double bias) {
+        out.putInt(FraudModel.MAGIC).putInt(FraudModel.VERSION).putInt(type).putInt(FraudFeature.COUNT)
+            .putDouble(bias);
+    }
+
+    private static byte[] finish(ByteBuffer out) {
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return out.array();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FraudModelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.payment.payment.benchmark;
+
+import com.payment.payment.service.FraudFeature;
+import com.payment.payment.service.FraudRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fraud Rules Benchmark - Scoring cost of a compiled rule set with 10, 100 and 1000 rules
+ *
+ * Rules are generated with 1-3 random conditions each over random features; scoring cycles through
+ * 1024 pre-built feature vectors so branch prediction cannot memorise one payment.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.payment.payment.benchmark.FraudRulesBenchmark
+ *
+ * Location: payment-service/src/test/java/com/payment/payment/benchmark/FraudRulesBenchmark.java
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FraudRulesBenchmark {
+
+    private static final String[] OPERATORS = {"gt", "gte", "lt", "lte", "eq", "ne"};
+    private static final int VECTORS = 1024;
+
+    @Param({"10", "100", "1000"})
+    private int ruleCount;
+
+    private FraudRules rules;
+    private long[][] features;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder yaml = new StringBuilder("thresholds: { low: 30, medium: 60, block: 80 }\nrules:\n");
+        for (int r = 0; r < ruleCount; r++) {
+            yaml.append("  - name: rule-").append(r).append("\n    points: ").append(1 + random.nextInt(20))
+                .append("\n    when:\n");
+            int conditions = 1 + random.nextInt(3);
+            for (int c = 0; c < conditions; c++) {
+                // Distinct features per rule - YAML keys must be unique
+                FraudFeature feature = FraudFeature.values()[(r + c * 3) % FraudFeature.COUNT];
+                yaml.append("      ").append(feature.getKey()).append(": { ")
+                    .append(OPERATORS[random.nextInt(OPERATORS.length)]).append(": ")
+                    .append(random.nextInt(100)).append(" }\n");
+            }
+        }
+        rules = FraudRules.parse(yaml.toString());
+
+        features = new long[VECTORS][FraudFeature.COUNT];
+        for (long[] vector : features) {
+            for (int f = 0; f < vector.length; f++) {
+                vector[f] = FraudFeature.values()[f].getDecimals() == 2
+                    ? random.nextLong(20_000) : random.nextLong(120);
+            }
+        }
+    }
+
+    @Benchmark
+    public int score() {
+        next = (next + 1) & (VECTORS - 1);
+        return rules.score(features[next]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FraudRulesBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.payment.payment.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.payment.payment.service.IdempotencyService;
+import com.payment.payment.service.RedisIdempotencyStore;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Idempotency Layout Benchmark - Compares Redis memory and throughput of the idempotency layouts
+ *
+ * - legacy:    one key per payment, "payment:processed:<orderId>" = "processed" with a 24h TTL
+ *              (hasKey + set per payment)
+ * - bucketed:  IdempotencyService (claim + markCompleted against daily 128-order hashes)
+ *
+ * Reports bytes per payment (INFO used_memory delta) and ops/sec for each layout.
+ * Needs a Redis it may FLUSHDB - uses database 15 by default.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.payment.payment.benchmark.IdempotencyLayoutBenchmark
+ *        -Dexec.args="localhost 6379 200000"
+ *
+ * Location: payment-service/src/test/java/com/payment/payment/benchmark/IdempotencyLayoutBenchmark.java
+ */
+public class IdempotencyLayoutBenchmark {
+
+    private static final int DATABASE = 15;
+    private static final long FIRST_ORDER_ID = 1_000_001L;
+
+    public static void main(String[] args) {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+        int payments = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(host, port);
+        config.setDatabase(DATABASE);
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+
+        try {
+            System.out.printf("Idempotency layout benchmark: %,d payments against %s:%d (db %d)%n",
+                payments, host, port, DATABASE);
+
+            Result legacy = measure(redisTemplate, payments, () -> {
+                for (long orderId = FIRST_ORDER_ID; orderId < FIRST_ORDER_ID + payments; orderId++) {
+                    String key = "payment:processed:" + orderId;
+                    redisTemplate.hasKey(key);
+                    redisTemplate.opsForValue().set(key, "processed", Duration.ofHours(24));
+                }
+            });
+            print("legacy (key per payment)", legacy, payments);
+
+            // Near-cache off: every call goes to Redis
+            IdempotencyService service = new IdempotencyService(
+                new RedisIdempotencyStore(redisTemplate), Duration.ofMinutes(5), 0);
+            Result bucketed = measure(redisTemplate, payments, () -> {
+                for (long orderId = FIRST_ORDER_ID; orderId < FIRST_ORDER_ID + payments; orderId++) {
+                    service.claim(orderId);
+                    service.markCompleted(orderId);
+                }
+            });
+            print("bucketed (daily hashes)", bucketed, payments);
+
+            System.out.printf("Memory saved: %.1fx%n", (double) legacy.bytes() / Math.max(1, bucketed.bytes()));
+        } finally {
+            flush(redisTemplate);
+            connectionFactory.destroy();
+        }
+    }
+
+    private static Result measure(StringRedisTemplate redisTemplate, int payments, Runnable workload) {
+        flush(redisTemplate);
+        long memoryBefore = usedMemory(redisTemplate);
+        long start = System.nanoTime();
+        workload.run();
+        long elapsedNanos = System.nanoTime() - start;
+        return new Result(usedMemory(redisTemplate) - memoryBefore, elapsedNanos);
+    }
+
+    private static void print(String layout, Result result, int payments) {
+        System.out.printf("%-26s %8.1f bytes/payment  %,10.0f payments/sec%n",
+            layout, (double) result.bytes() / payments, payments / (result.elapsedNanos() / 1e9));
+    }
+
+    private static long usedMemory(StringRedisTemplate redisTemplate) {
+        Properties info = redisTemplate.execute((RedisConnection connection) ->
+            connection.serverCommands().info("memory"), true);
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+
+    private static void flush(StringRedisTemplate redisTemplate) {
+        redisTemplate.execute((RedisConnection connection) -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+    }
+
+    private record Result(long bytes, long elapsedNanos) {
+    }
+}
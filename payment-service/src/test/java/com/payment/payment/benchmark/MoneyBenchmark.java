@@ -0,0 +1,147 @@
+package com.payment.payment.benchmark;
+
+import com.payment.common.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Money Benchmark - BigDecimal vs Money (long minor units) for order totals and amount thresholds
+ *
+ * - total*: sum of price x quantity over an order's items, as Order.calculateTotal does
+ *   (BigDecimal stream as before, Money.times / plus, and the allocation-free minor-unit sum now used)
+ * - over*: how many of 1024 amounts are above a 5000.00 threshold, with the threshold built per check
+ *   (the old new BigDecimal("5000") pattern), as a BigDecimal constant, and as a minor-unit compare
+ * Runs with the GC profiler, so gc.alloc.rate.norm shows bytes allocated per operation.
+ *
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.payment.payment.benchmark.MoneyBenchmark
+ *
+ * Location: payment-service/src/test/java/com/payment/payment/benchmark/MoneyBenchmark.java
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int AMOUNTS = 1024;
+    private static final BigDecimal THRESHOLD = new BigDecimal("5000");
+    private static final Money MONEY_THRESHOLD = Money.parse("5000");
+
+    @Param({"3", "50"})
+    private int itemCount;
+
+    private BigDecimal[] decimalPrices;
+    private Money[] moneyPrices;
+    private int[] quantities;
+    private BigDecimal[] decimalAmounts;
+    private Money[] moneyAmounts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        decimalPrices = new BigDecimal[itemCount];
+        moneyPrices = new Money[itemCount];
+        quantities = new int[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            long cents = 100 + random.nextLong(50_000);
+            decimalPrices[i] = BigDecimal.valueOf(cents, 2);
+            moneyPrices[i] = Money.ofMinor(cents);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+
+        decimalAmounts = new BigDecimal[AMOUNTS];
+        moneyAmounts = new Money[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            long cents = random.nextLong(1_000_000);
+            decimalAmounts[i] = BigDecimal.valueOf(cents, 2);
+            moneyAmounts[i] = Money.ofMinor(cents);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal totalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itemCount; i++) {
+            total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money totalMoney() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < itemCount; i++) {
+            total = total.plus(moneyPrices[i].times(quantities[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money totalMinorUnits() {
+        long total = 0;
+        for (int i = 0; i < itemCount; i++) {
+            total = Math.addExact(total, Math.multiplyExact(moneyPrices[i].getMinorUnits(), (long) quantities[i]));
+        }
+        return Money.ofMinor(total);
+    }
+
+    @Benchmark
+    public int overThresholdBigDecimalPerCall() {
+        int count = 0;
+        for (BigDecimal amount : decimalAmounts) {
+            if (amount.compareTo(new BigDecimal("5000")) > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int overThresholdBigDecimal() {
+        int count = 0;
+        for (BigDecimal amount : decimalAmounts) {
+            if (amount.compareTo(THRESHOLD) > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int overThresholdMoney() {
+        int count = 0;
+        for (Money amount : moneyAmounts) {
+            if (amount.isGreaterThan(MONEY_THRESHOLD)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(MoneyBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.payment.payment.service;
+
+import com.payment.payment.service.IdempotencyService.ClaimState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Embedded Idempotency Store Tests - Recovery after a crash, including a segment whose header never reached the file
+ *
+ * Location: payment-service/src/test/java/com/payment/payment/service/EmbeddedIdempotencyStoreTest.java
+ */
+class EmbeddedIdempotencyStoreTest {
+
+    private static final Duration SEGMENT = Duration.ofDays(1);
+    private static final Duration RETENTION = Duration.ofDays(2);
+    private static final int SEGMENT_RECORDS = 4;
+    private static final int SEGMENT_BYTES = 16 + SEGMENT_RECORDS * 16;
+    private static final long TTL = 300;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void claimsSurviveAReopen() {
+        long now = now();
+        try (EmbeddedIdempotencyStore store = open()) {
+            assertEquals(ClaimState.CLAIMED, store.claim(1, now, TTL));
+            store.finish(1, ClaimState.COMPLETED, now);
+            assertEquals(ClaimState.CLAIMED, store.claim(2, now, TTL));
+        }
+        try (EmbeddedIdempotencyStore store = open()) {
+            assertEquals(ClaimState.COMPLETED, store.claim(1, now, TTL));
+            assertEquals(ClaimState.IN_FLIGHT, store.claim(2, now, TTL));
+            assertEquals(ClaimState.CLAIMED, store.claim(3, now, TTL));
+        }
+    }
+
+    @Test
+    void zeroHeaderSegmentOfTheCurrentWindowDoesNotBlockWrites() throws IOException {
+        long now = now();
+        Path torn = writeZeroSegment(now, 0);
+
+        try (EmbeddedIdempotencyStore store = open()) {
+            assertEquals(ClaimState.CLAIMED, store.claim(42, now, TTL));
+            store.finish(42, ClaimState.FAILED, now);
+            store.release(43, now);
+        }
+        try (EmbeddedIdempotencyStore store = open()) {
+            assertEquals(ClaimState.FAILED, store.claim(42, now, TTL));
+        }
+        assertEquals(SEGMENT_BYTES, Files.size(torn));
+    }
+
+    @Test
+    void zeroHeaderSegmentAfterAFullOneIsReplaced() throws IOException {
+        long now = now();
+        try (EmbeddedIdempotencyStore store = open()) {
+            for (long orderId = 1; orderId <= SEGMENT_RECORDS; orderId++) {
+                store.claim(orderId, now, TTL);
+            }
+        }
+        writeZeroSegment(now, 1);
+
+        try (EmbeddedIdempotencyStore store = open()) {
+            assertEquals(ClaimState.CLAIMED, store.claim(100, now, TTL));
+            for (long orderId = 1; orderId <= SEGMENT_RECORDS; orderId++) {
+                assertEquals(ClaimState.IN_FLIGHT, store.claim(orderId, now, TTL));
+            }
+        }
+        try (EmbeddedIdempotencyStore store = open()) {
+            assertEquals(ClaimState.IN_FLIGHT, store.claim(100, now, TTL));
+            assertFalse(store.contains(101, now));
+        }
+    }
+
+    private EmbeddedIdempotencyStore open() {
+        return new EmbeddedIdempotencyStore(directory, SEGMENT, RETENTION, SEGMENT_RECORDS, 64, false);
+    }
+
+    /**
+     * A segment as left by a crash right after roll() created and mapped it: the right size, all zeros
+     */
+    private Path writeZeroSegment(long now, int seq) throws IOException {
+        long window = now - Math.floorMod(now, SEGMENT.toSeconds());
+        return Files.write(directory.resolve(window + "-" + seq + ".seg"), new byte[SEGMENT_BYTES]);
+    }
+
+    private static long now() {
+        return Instant.now().getEpochSecond();
+    }
+}
@@ -0,0 +1,74 @@
+package com.payment.payment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fraud Rules Tests - Rule values are scaled exactly to the feature's decimals or rejected
+ *
+ * Location: payment-service/src/test/java/com/payment/payment/service/FraudRulesTest.java
+ */
+class FraudRulesTest {
+
+    private static final String THRESHOLDS = "thresholds: { low: 30, medium: 60, block: 80 }\n";
+
+    @Test
+    void amountBoundsAreExactCents() {
+        FraudRules rules = FraudRules.parse(THRESHOLDS
+            + "rules:\n"
+            + "  - { name: over-ten, points: 40, when: { amount: { gt: 10.5 } } }\n"
+            + "  - { name: small, points: 5, when: { amount: { in: [0.01, 1, 2.50] } } }\n");
+
+        assertEquals(0, rules.scoreAmountOnly(1050));
+        assertEquals(40, rules.scoreAmountOnly(1051));
+        assertEquals(5, rules.scoreAmountOnly(1));
+        assertEquals(5, rules.scoreAmountOnly(100));
+        assertEquals(5, rules.scoreAmountOnly(250));
+        assertEquals(0, rules.scoreAmountOnly(25));
+    }
+
+    @Test
+    void valuesFinerThanTheFeatureAreRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> FraudRules.parse(THRESHOLDS
+            + "rules:\n"
+            + "  - { name: tiny, points: 10, when: { amount: { lt: 0.005 } } }\n"));
+        assertTrue(e.getMessage().contains("tiny"), e.getMessage());
+        assertTrue(e.getMessage().contains("0.005"), e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> FraudRules.parse(THRESHOLDS
+            + "rules:\n"
+            + "  - { name: fraction, points: 10, when: { payments-last-hour: { gte: 2.5 } } }\n"));
+        assertThrows(IllegalArgumentException.class, () -> FraudRules.parse(THRESHOLDS
+            + "rules:\n"
+            + "  - { name: listed, points: 10, when: { amount: { in: [1, 1.001] } } }\n"));
+        assertThrows(IllegalArgumentException.class, () -> FraudRules.parse(THRESHOLDS
+            + "rules:\n"
+            + "  - { name: huge, points: 10, when: { amount: { gt: 100000000000000000000 } } }\n"));
+    }
+
+    @Test
+    void trailingZerosAreNotExtraDecimals() {
+        FraudRules rules = FraudRules.parse(THRESHOLDS
+            + "rules:\n"
+            + "  - { name: night, points: 20, when: { hour-of-day: { eq: 3.0 } } }\n");
+
+        long[] features = new long[FraudFeature.COUNT];
+        features[FraudFeature.HOUR_OF_DAY.ordinal()] = 3;
+        assertEquals(20, rules.score(features));
+    }
+
+    @Test
+    void shippedRulesCompile() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/fraud-rules.yml")) {
+            FraudRules rules = FraudRules.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            assertTrue(rules.size() > 0);
+        }
+    }
+}
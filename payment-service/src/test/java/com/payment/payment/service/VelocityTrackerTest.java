@@ -0,0 +1,167 @@
+package com.payment.payment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Velocity Tracker Tests - Stripe selection, the backward-shift index delete and ring advance
+ *
+ * Location: payment-service/src/test/java/com/payment/payment/service/VelocityTrackerTest.java
+ */
+class VelocityTrackerTest {
+
+    // Stripe(8) has a 16-entry index
+    private static final int CAPACITY = 8;
+    private static final int INDEX_MASK = 15;
+
+    @Test
+    void customersOfOneStripeSpreadOverItsIndex() {
+        VelocityTracker tracker = new VelocityTracker(50_000, 64);
+        Set<Integer> homes = new HashSet<>();
+        int found = 0;
+        for (long customerId = 1; found < 32; customerId++) {
+            if (tracker.stripeOf(customerId) == 0) {
+                homes.add(home(customerId));
+                found++;
+            }
+        }
+        assertTrue(homes.size() > 8, "index homes used by one stripe: " + homes);
+    }
+
+    @Test
+    void removeShiftsCollidingKeysBack() {
+        VelocityTracker.Stripe stripe = new VelocityTracker.Stripe(CAPACITY);
+        List<Long> sameHome = keysWithHome(3, 4);
+        for (int i = 0; i < sameHome.size(); i++) {
+            stripe.insertIntoIndex(sameHome.get(i), i);
+        }
+
+        stripe.removeFromIndex(sameHome.get(0));
+
+        assertEquals(-1, stripe.find(sameHome.get(0)));
+        for (int i = 1; i < sameHome.size(); i++) {
+            assertEquals(i, stripe.find(sameHome.get(i)));
+        }
+    }
+
+    @Test
+    void removeShiftsAcrossTheEndOfTheIndex() {
+        VelocityTracker.Stripe stripe = new VelocityTracker.Stripe(CAPACITY);
+        List<Long> lastSlot = keysWithHome(INDEX_MASK, 3); // occupy 15, 0, 1
+        long firstSlot = keysWithHome(0, 1).get(0);          // home 0, lands on 2
+        for (int i = 0; i < lastSlot.size(); i++) {
+            stripe.insertIntoIndex(lastSlot.get(i), i);
+        }
+        stripe.insertIntoIndex(firstSlot, 3);
+
+        stripe.removeFromIndex(lastSlot.get(1));
+
+        assertEquals(0, stripe.find(lastSlot.get(0)));
+        assertEquals(-1, stripe.find(lastSlot.get(1)));
+        assertEquals(2, stripe.find(lastSlot.get(2)));
+        assertEquals(3, stripe.find(firstSlot));
+    }
+
+    @Test
+    void randomInsertsAndRemovesMatchAMap() {
+        VelocityTracker.Stripe stripe = new VelocityTracker.Stripe(CAPACITY);
+        Map<Long, Integer> expected = new HashMap<>();
+        List<Integer> freeSlots = new ArrayList<>(List.of(0, 1, 2, 3, 4, 5, 6, 7));
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int step = 0; step < 100_000; step++) {
+            long customerId = random.nextLong(64); // few keys, so clusters and wrap-around are common
+            if (expected.containsKey(customerId)) {
+                stripe.removeFromIndex(customerId);
+                freeSlots.add(expected.remove(customerId));
+            } else if (!freeSlots.isEmpty()) {
+                int slot = freeSlots.remove(freeSlots.size() - 1);
+                stripe.insertIntoIndex(customerId, slot);
+                expected.put(customerId, slot);
+            }
+            for (long key = 0; key < 64; key++) {
+                assertEquals(expected.getOrDefault(key, -1), stripe.find(key), "key " + key + " at step " + step);
+            }
+        }
+    }
+
+    @Test
+    void minuteWindowDropsBucketsOlderThanSixtySeconds() {
+        VelocityTracker tracker = new VelocityTracker(1000, 4);
+        tracker.record(7, 100, 0);
+        tracker.record(7, 200, 30);
+        tracker.record(7, 400, 55);
+
+        VelocityTracker.Velocity atFiftyNine = tracker.get(7, 59);
+        assertEquals(3, atFiftyNine.countLastMinute());
+        assertEquals(700, atFiftyNine.amountCentsLastMinute());
+
+        VelocityTracker.Velocity atSixtyFive = tracker.get(7, 65);
+        assertEquals(2, atSixtyFive.countLastMinute());
+        assertEquals(600, atSixtyFive.amountCentsLastMinute());
+        assertEquals(3, atSixtyFive.countLastHour());
+        assertEquals(700, atSixtyFive.amountCentsLastDay());
+    }
+
+    @Test
+    void eachWindowEmptiesExactlyAtItsLength() {
+        VelocityTracker tracker = new VelocityTracker(1000, 4);
+        tracker.record(7, 100, 0);
+
+        assertEquals(1, tracker.get(7, 59).countLastMinute());
+        assertEquals(0, tracker.get(7, 60).countLastMinute());
+        assertEquals(1, tracker.get(7, 3599).countLastHour());
+        assertEquals(0, tracker.get(7, 3600).countLastHour());
+        assertEquals(1, tracker.get(7, 86_399).countLastDay());
+        assertEquals(0, tracker.get(7, 86_400).countLastDay());
+    }
+
+    @Test
+    void longGapClearsEveryBucketAndCountingStartsAgain() {
+        VelocityTracker tracker = new VelocityTracker(1000, 4);
+        for (long t = 0; t < 86_400; t += 600) {
+            tracker.record(7, 10, t);
+        }
+        long later = 30L * 86_400 + 17;
+
+        assertEquals(VelocityTracker.Velocity.NONE, tracker.get(7, later));
+
+        VelocityTracker.Velocity velocity = tracker.record(7, 25, later);
+        assertEquals(new VelocityTracker.Velocity(1, 25, 1, 25, 1, 25), velocity);
+    }
+
+    @Test
+    void lateRecordCountsWithoutMovingTheWindowBack() {
+        VelocityTracker tracker = new VelocityTracker(1000, 4);
+        tracker.record(7, 100, 100);
+        tracker.record(7, 50, 90);
+
+        assertEquals(2, tracker.get(7, 100).countLastMinute());
+        assertEquals(150, tracker.get(7, 100).amountCentsLastMinute());
+        assertEquals(0, tracker.get(7, 160).countLastMinute());
+    }
+
+    private static int home(long customerId) {
+        return (int) VelocityTracker.mix(customerId) & INDEX_MASK;
+    }
+
+    private static List<Long> keysWithHome(int home, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long customerId = 1; keys.size() < count; customerId++) {
+            if (home(customerId) == home) {
+                keys.add(customerId);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,73 @@
+package com.payment.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sampling Filter - Keeps 1 in N events per logger category
+ *
+ * Configured with samples="category=N,..." (logging.sampling), where a category is a logger name or
+ * package prefix; the longest matching category wins. WARN and ERROR are never sampled, and loggers
+ * without a category pass through. Runs on the logging thread before the async queue, so dropped
+ * events never reach it; one AtomicLong per category, no locks.
+ */
+public class SamplingFilter extends Filter<ILoggingEvent> {
+
+    private String[] categories = new String[0];
+    private long[] rates = new long[0];
+    private AtomicLong[] counters = new AtomicLong[0];
+
+    public void setSamples(String samples) {
+        List<String[]> parsed = new ArrayList<>();
+        if (samples != null) {
+            for (String entry : samples.split(",")) {
+                if (entry.isBlank()) {
+                    continue;
+                }
+                String[] parts = entry.split("=");
+                if (parts.length != 2 || Long.parseLong(parts[1].trim()) < 1) {
+                    throw new IllegalArgumentException("Sampling entry must be category=N with N >= 1, got " + entry);
+                }
+                parsed.add(new String[] {parts[0].trim(), parts[1].trim()});
+            }
+        }
+        parsed.sort(Comparator.comparingInt((String[] entry) -> entry[0].length()).reversed());
+
+        categories = new String[parsed.size()];
+        rates = new long[parsed.size()];
+        counters = new AtomicLong[parsed.size()];
+        for (int i = 0; i < parsed.size(); i++) {
+            categories[i] = parsed.get(i)[0];
+            rates[i] = Long.parseLong(parsed.get(i)[1]);
+            counters[i] = new AtomicLong();
+        }
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (categories.length == 0 || event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        String logger = event.getLoggerName();
+        for (int i = 0; i < categories.length; i++) {
+            if (matches(logger, categories[i])) {
+                return rates[i] == 1 || counters[i].getAndIncrement() % rates[i] == 0
+                    ? FilterReply.NEUTRAL
+                    : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private static boolean matches(String logger, String category) {
+        return logger.startsWith(category)
+            && (logger.length() == category.length() || logger.charAt(category.length()) == '.');
+    }
+}
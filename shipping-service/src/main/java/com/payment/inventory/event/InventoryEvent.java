@@ -0,0 +1,107 @@
+package com.payment.inventory.event;
+
+import com.payment.common.event.BaseEvent;
+import com.payment.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Event published by Inventory Service
+ * Indicates whether inventory was successfully reserved or failed
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class InventoryEvent extends BaseEvent {
+    
+    private Long orderId;
+    private Long productId;
+    private Integer quantity;
+    private boolean success;
+    private String message;
+    private List<WarehouseAllocation> allocations; // Where a reservation was taken from (INVENTORY_RESERVED)
+    private Long customerId; // Order context for payment (INVENTORY_RESERVED)
+    private Money totalAmount;
+    
+    public InventoryEvent(String correlationId, String eventType, Long orderId, 
+                          Long productId, Integer quantity, boolean success, String message) {
+        super(correlationId, eventType, "inventory-service");
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.success = success;
+        this.message = message;
+    }
+    
+    // Factory methods for common scenarios
+    public static InventoryEvent reserved(String correlationId, Long orderId, 
+                                          Long productId, Integer quantity) {
+        return new InventoryEvent(
+            correlationId, 
+            "INVENTORY_RESERVED", 
+            orderId, 
+            productId, 
+            quantity, 
+            true, 
+            "Inventory reserved successfully"
+        );
+    }
+    
+    public static InventoryEvent reserved(String correlationId, Long orderId, Long productId, 
+                                          Integer quantity, List<WarehouseAllocation> allocations) {
+        InventoryEvent event = reserved(correlationId, orderId, productId, quantity);
+        event.setAllocations(allocations);
+        return event;
+    }
+    
+    public static InventoryEvent reserved(String correlationId, Long orderId, Long productId, 
+                                          Integer quantity, List<WarehouseAllocation> allocations,
+                                          Long customerId, Money totalAmount) {
+        InventoryEvent event = reserved(correlationId, orderId, productId, quantity, allocations);
+        event.setCustomerId(customerId);
+        event.setTotalAmount(totalAmount);
+        return event;
+    }
+    
+    public static InventoryEvent failed(String correlationId, Long orderId, 
+                                        Long productId, Integer quantity, String reason) {
+        return new InventoryEvent(
+            correlationId, 
+            "INVENTORY_FAILED", 
+            orderId, 
+            productId, 
+            quantity, 
+            false, 
+            reason
+        );
+    }
+    
+    public static InventoryEvent unreserved(String correlationId, Long orderId, 
+                                            Long productId, Integer quantity) {
+        return new InventoryEvent(
+            correlationId, 
+            "INVENTORY_UNRESERVED", 
+            orderId, 
+            productId, 
+            quantity, 
+            true, 
+            "Inventory unreserved (compensation)"
+        );
+    }
+    
+    /**
+     * Quantity taken from one warehouse
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WarehouseAllocation {
+        private Long warehouseId;
+        private String warehouseCode;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,155 @@
+package com.payment.shipping.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Synthetic Data Generator - Streams historical shipments into PostgreSQL using COPY
+ * Used for scale testing (indexes, pagination, caches) at realistic data sizes
+ *
+ * Enable with: datagen.enabled=true (see application.yml for the distribution settings)
+ *
+ * Uses the same seed, order ID range and outcome roll as the order-service generator,
+ * so only orders whose payment succeeded get a shipment. The most recent
+ * in-progress-ratio of shipments are left in CREATED / IN_TRANSIT / OUT_FOR_DELIVERY.
+ *
+ * Location: shipping-service/src/main/java/com/payment/shipping/config/SyntheticDataGenerator.java
+ */
+@Component
+@ConditionalOnProperty(name = "datagen.enabled", havingValue = "true")
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String[] CARRIERS = {"FedEx", "UPS", "DHL", "USPS"};
+    private static final String[] IN_PROGRESS = {"CREATED", "IN_TRANSIT", "OUT_FOR_DELIVERY"};
+
+    private final DataSource dataSource;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.flush-bytes:1048576}")
+    private int flushBytes;
+
+    @Value("${datagen.orders:5000000}")
+    private long orderCount;
+
+    @Value("${datagen.first-order-id:1000001}")
+    private long firstOrderId;
+
+    @Value("${datagen.history-days:365}")
+    private int historyDays;
+
+    @Value("${datagen.inventory-failure-ratio:0.03}")
+    private double inventoryFailureRatio;
+
+    @Value("${datagen.payment-failure-ratio:0.07}")
+    private double paymentFailureRatio;
+
+    @Value("${datagen.in-progress-ratio:0.01}")
+    private double inProgressRatio;
+
+    public SyntheticDataGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("🏭 Generating synthetic shipments for {} orders starting at ID {}...", orderCount, firstOrderId);
+        long start = System.currentTimeMillis();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDateTime historyStart = LocalDateTime.now().minusDays(historyDays);
+        long historySeconds = historyDays * 86_400L;
+        long inProgressFrom = orderCount - (long) (orderCount * inProgressRatio);
+
+        try (Connection connection = dataSource.getConnection()) {
+            long shipmentId = nextId(connection, "shipments");
+
+            try (CopyStreamWriter shipments = new CopyStreamWriter(
+                    connection.unwrap(PGConnection.class).getCopyAPI(),
+                    "shipments",
+                    "id, order_id, correlation_id, tracking_number, status, carrier, shipping_address, "
+                        + "estimated_delivery, actual_delivery, created_at, updated_at",
+                    flushBytes)) {
+
+                for (long i = 0; i < orderCount; i++) {
+                    long orderId = firstOrderId + i;
+                    if (outcomeRoll(seed, orderId) < inventoryFailureRatio + paymentFailureRatio) {
+                        continue; // Order failed before shipping
+                    }
+
+                    LocalDateTime createdAt = historyStart.plusSeconds(historySeconds * i / orderCount).plusSeconds(5);
+                    LocalDateTime estimatedDelivery = createdAt.plusDays(3 + random.nextInt(3));
+                    boolean inProgress = i >= inProgressFrom;
+                    String status = inProgress ? IN_PROGRESS[random.nextInt(IN_PROGRESS.length)] : "DELIVERED";
+                    LocalDateTime actualDelivery = inProgress ? null : estimatedDelivery.plusHours(random.nextInt(48) - 24);
+
+                    shipments.row(
+                        shipmentId++,
+                        orderId,
+                        correlationId(orderId),
+                        String.format("TRK-SYN-%012d", orderId),
+                        status,
+                        CARRIERS[random.nextInt(CARRIERS.length)],
+                        (100 + random.nextInt(9900)) + " Main St, City, State " + (10000 + random.nextInt(89999)),
+                        estimatedDelivery,
+                        actualDelivery,
+                        createdAt,
+                        actualDelivery != null ? actualDelivery : createdAt
+                    );
+
+                    if ((i + 1) % 1_000_000 == 0) {
+                        log.info("   ... {} orders scanned", i + 1);
+                    }
+                }
+
+                log.info("✅ Synthetic shipments generated: {} shipments in {} ms",
+                    shipments.getRows(), System.currentTimeMillis() - start);
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('shipments', 'id'), (SELECT MAX(id) FROM shipments))");
+            }
+        }
+    }
+
+    /**
+     * Must match order-service SyntheticDataGenerator.correlationId
+     */
+    static String correlationId(long orderId) {
+        return UUID.nameUUIDFromBytes(("order-" + orderId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Must match order-service SyntheticDataGenerator.outcomeRoll
+     */
+    static double outcomeRoll(long seed, long orderId) {
+        long z = seed + orderId * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    private static long nextId(Connection connection, String table) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
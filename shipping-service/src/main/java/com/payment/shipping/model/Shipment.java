@@ -46,6 +46,9 @@ public class Shipment {
     @Column(length = 200)
     private String shippingAddress;
 
+    @Column(length = 200)
+    private String originWarehouses; // Warehouse codes the inventory was allocated from, e.g. "WH-EAST,WH-CENTRAL"
+
     private LocalDateTime estimatedDelivery;
 
     private LocalDateTime actualDelivery;
@@ -0,0 +1,44 @@
+package com.payment.shipping.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Shipment Allocation Entity - A warehouse an order's inventory was allocated from
+ * One row per (order, warehouse), recorded from INVENTORY_RESERVED whether or not the shipment exists
+ * yet; Shipment.originWarehouses is refreshed from these rows. Purged after the retention period.
+ * 
+ * Location: shipping-service/src/main/java/com/payment/shipping/model/ShipmentAllocation.java
+ */
+@Entity
+@Table(name = "shipment_allocations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_shipment_allocations", columnNames = {"correlationId", "warehouseCode"})
+}, indexes = {
+    @Index(name = "idx_shipment_allocations_created", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShipmentAllocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String correlationId;
+
+    @Column(nullable = false, length = 50)
+    private String warehouseCode;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
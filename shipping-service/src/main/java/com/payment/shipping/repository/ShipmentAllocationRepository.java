@@ -0,0 +1,34 @@
+package com.payment.shipping.repository;
+
+import com.payment.shipping.model.ShipmentAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for ShipmentAllocation entity
+ * 
+ * Location: shipping-service/src/main/java/com/payment/shipping/repository/ShipmentAllocationRepository.java
+ */
+@Repository
+public interface ShipmentAllocationRepository extends JpaRepository<ShipmentAllocation, Long> {
+
+    /**
+     * Record a warehouse for an order - 0 if it was already recorded (redelivered or split item)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO shipment_allocations (correlation_id, warehouse_code, created_at)"
+        + " VALUES (:correlationId, :warehouseCode, now())"
+        + " ON CONFLICT (correlation_id, warehouse_code) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(String correlationId, String warehouseCode);
+
+    /**
+     * Drop allocations past retention - their shipments have long been refreshed, or never came
+     */
+    @Modifying
+    @Query("DELETE FROM ShipmentAllocation a WHERE a.createdAt < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
@@ -3,6 +3,7 @@ package com.payment.shipping.repository;
 import com.payment.shipping.model.Shipment;
 import com.payment.shipping.model.ShipmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -47,4 +48,14 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
      * Check if shipment exists for order
      */
     boolean existsByOrderId(Long orderId);
+
+    /**
+     * Set a shipment's origin warehouses from its recorded allocations - 0 if the shipment does not exist yet
+     */
+    @Modifying
+    @Query(value = "UPDATE shipments s SET origin_warehouses ="
+        + " (SELECT string_agg(a.warehouse_code, ',' ORDER BY a.warehouse_code)"
+        + "  FROM shipment_allocations a WHERE a.correlation_id = s.correlation_id)"
+        + " WHERE s.correlation_id = :correlationId", nativeQuery = true)
+    int refreshOriginWarehouses(String correlationId);
 }
\ No newline at end of file
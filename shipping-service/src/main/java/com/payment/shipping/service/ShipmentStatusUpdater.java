@@ -2,10 +2,12 @@ package com.payment.shipping.service;
 
 import com.payment.shipping.model.Shipment;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,6 +23,9 @@ public class ShipmentStatusUpdater {
 
     private final ShippingService shippingService;
 
+    @Value("${shipping.allocations.retention-days:7}")
+    private int allocationRetentionDays;
+
     public ShipmentStatusUpdater(ShippingService shippingService) {
         this.shippingService = shippingService;
     }
@@ -39,30 +44,38 @@ public class ShipmentStatusUpdater {
                 return;
             }
 
-            log.info("╔═══════════════════════════════════════════════════╗");
-            log.info("║  🔄 SCHEDULED JOB: Updating Shipment Statuses    ║");
-            log.info("╚═══════════════════════════════════════════════════╝");
-            log.info("Found {} in-progress shipments", inProgressShipments.size());
+            long start = System.nanoTime();
 
             for (Shipment shipment : inProgressShipments) {
-                log.info("───────────────────────────────────────────────────");
-                log.info("Processing Shipment ID: {}", shipment.getId());
-                log.info("Current Status: {}", shipment.getStatus());
-                log.info("Tracking Number: {}", shipment.getTrackingNumber());
+                log.debug("Processing shipment {} ({}, {})",
+                    shipment.getId(), shipment.getStatus(), shipment.getTrackingNumber());
 
                 // Update status
                 shippingService.updateShipmentStatus(shipment.getId());
             }
 
-            log.info("╔═══════════════════════════════════════════════════╗");
-            log.info("║  ✅ Scheduled Job Complete                        ║");
-            log.info("╚═══════════════════════════════════════════════════╝\n");
-
+            log.info("🔄 Updated {} in-progress shipments in {} ms",
+                inProgressShipments.size(), (System.nanoTime() - start) / 1_000_000);
         } catch (Exception e) {
             log.error("❌ Error in scheduled shipment status update: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * Hourly: drop warehouse allocations past retention (orders that failed after reservation never ship)
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 60000)
+    public void purgeAllocations() {
+        try {
+            int purged = shippingService.purgeAllocations(LocalDateTime.now().minusDays(allocationRetentionDays));
+            if (purged > 0) {
+                log.info("🧹 Purged {} warehouse allocations older than {} days", purged, allocationRetentionDays);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error purging warehouse allocations: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * Initial delay before first execution
      * Gives time for services to start up
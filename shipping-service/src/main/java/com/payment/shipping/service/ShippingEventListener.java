@@ -1,5 +1,7 @@
 package com.payment.shipping.service;
 
+import com.payment.common.logging.EventLog;
+import com.payment.inventory.event.InventoryEvent;
 import com.payment.payment.event.PaymentEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -7,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 /**
  * Shipping Event Listener - Processes payment events
+ * Also records inventory allocations so shipments know their origin warehouses
  * 
  * Location: shipping-service/src/main/java/com/payment/shipping/service/ShippingEventListener.java
  */
@@ -30,40 +33,52 @@ public class ShippingEventListener {
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void handlePaymentEvent(PaymentEvent event) {
-        log.info("═══════════════════════════════════════════════════");
-        log.info("🚢 SHIPPING SERVICE - Payment Event Received");
-        log.info("═══════════════════════════════════════════════════");
-        log.info("Event Type: {}", event.getEventType());
-        log.info("Correlation ID: {}", event.getCorrelationId());
-        log.info("Order ID: {}", event.getOrderId());
-        log.info("Payment ID: {}", event.getPaymentId());
-        log.info("Amount: ${}", event.getAmount());
-        log.info("Success: {}", event.isSuccess());
-        log.info("───────────────────────────────────────────────────");
+        long start = System.nanoTime();
+        log.debug("🚢 Payment event {} for order {}: ${} (success: {})",
+            event.getEventType(), event.getOrderId(), event.getAmount(), event.isSuccess());
 
         // Only process PAYMENT_PROCESSED events
         if (!"PAYMENT_PROCESSED".equals(event.getEventType())) {
-            log.info("⏭️  Skipping event type: {}", event.getEventType());
-            log.info("═══════════════════════════════════════════════════\n");
+            log.debug("⏭️  Skipping event type: {}", event.getEventType());
             return;
         }
 
         if (!event.isSuccess()) {
             log.warn("⚠️ Payment not successful - Skipping shipment creation");
-            log.info("═══════════════════════════════════════════════════\n");
             return;
         }
 
+        String outcome;
         try {
-            log.info("✅ Payment successfully processed - Creating shipment...");
+            log.debug("✅ Payment successfully processed - Creating shipment...");
             
             // Create shipment
-            shippingService.createShipment(event.getOrderId(), event.getCorrelationId());
-
+            outcome = shippingService.createShipment(event.getOrderId(), event.getCorrelationId()).getEventType();
+            shippingService.refreshOriginWarehouses(event.getCorrelationId());
         } catch (Exception e) {
+            outcome = "error";
             log.error("❌ Error handling payment event: {}", e.getMessage(), e);
         }
 
-        log.info("═══════════════════════════════════════════════════\n");
+        EventLog.handled(log, event.getEventType(), event.getOrderId(), event.getCorrelationId(), outcome, start);
+    }
+
+    /**
+     * Listen to inventory-events topic
+     * Record the warehouses each order's items were allocated from
+     */
+    @KafkaListener(
+        topics = "inventory-events",
+        groupId = "shipping-service-group",
+        containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void handleInventoryEvent(InventoryEvent event) {
+        if (!"INVENTORY_RESERVED".equals(event.getEventType())) {
+            return;
+        }
+        log.debug("🏬 Order {} item {} allocated from {}", event.getOrderId(), event.getProductId(), event.getAllocations());
+        if (shippingService.recordAllocations(event.getCorrelationId(), event.getAllocations())) {
+            shippingService.refreshOriginWarehouses(event.getCorrelationId());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package com.payment.shipping.service;
 
+import com.payment.common.id.IdGenerator;
+import com.payment.inventory.event.InventoryEvent;
 import com.payment.shipping.event.ShipmentEvent;
 import com.payment.shipping.model.Shipment;
 import com.payment.shipping.model.ShipmentStatus;
+import com.payment.shipping.repository.ShipmentAllocationRepository;
 import com.payment.shipping.repository.ShipmentRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,7 +14,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Random;
-import java.util.UUID;
 
 /**
  * Shipping Service - Business logic for shipment management
@@ -23,11 +25,15 @@ import java.util.UUID;
 public class ShippingService {
 
     private final ShipmentRepository shipmentRepository;
+    private final ShipmentAllocationRepository shipmentAllocationRepository;
     private final EventPublisher eventPublisher;
     private final Random random = new Random();
 
-    public ShippingService(ShipmentRepository shipmentRepository, EventPublisher eventPublisher) {
+    public ShippingService(ShipmentRepository shipmentRepository,
+                           ShipmentAllocationRepository shipmentAllocationRepository,
+                           EventPublisher eventPublisher) {
         this.shipmentRepository = shipmentRepository;
+        this.shipmentAllocationRepository = shipmentAllocationRepository;
         this.eventPublisher = eventPublisher;
     }
 
@@ -36,10 +42,7 @@ public class ShippingService {
      */
     @Transactional
     public ShipmentEvent createShipment(Long orderId, String correlationId) {
-        log.info("═══════════════════════════════════════════════════");
-        log.info("📦 Creating shipment for order: {}", orderId);
-        log.info("Correlation ID: {}", correlationId);
-        log.info("═══════════════════════════════════════════════════");
+        log.debug("📦 Creating shipment for order: {}", orderId);
 
         try {
             // Check if shipment already exists
@@ -73,11 +76,8 @@ public class ShippingService {
             // Save to database
             Shipment savedShipment = shipmentRepository.save(shipment);
 
-            log.info("✅ Shipment created successfully");
-            log.info("Shipment ID: {}", savedShipment.getId());
-            log.info("Tracking Number: {}", trackingNumber);
-            log.info("Carrier: {}", carrier);
-            log.info("Estimated Delivery: {}", estimatedDelivery);
+            log.debug("✅ Shipment {} created: {} via {}, estimated delivery {}",
+                savedShipment.getId(), trackingNumber, carrier, estimatedDelivery);
 
             // Publish SHIPMENT_CREATED event
             ShipmentEvent event = ShipmentEvent.created(
@@ -90,18 +90,53 @@ public class ShippingService {
             );
 
             eventPublisher.publishEvent("shipping-events", correlationId, event);
-            log.info("📤 SHIPMENT_CREATED event published");
+            log.debug("📤 SHIPMENT_CREATED event published");
 
             return event;
 
         } catch (Exception e) {
             log.error("❌ Error creating shipment: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to create shipment", e);
-        } finally {
-            log.info("═══════════════════════════════════════════════════\n");
         }
     }
 
+    /**
+     * Record which warehouses an order's inventory was allocated from (one call per reserved item)
+     * Returns true if a warehouse was new for the order
+     */
+    @Transactional
+    public boolean recordAllocations(String correlationId, List<InventoryEvent.WarehouseAllocation> allocations) {
+        if (correlationId == null || allocations == null || allocations.isEmpty()) {
+            return false;
+        }
+        int added = 0;
+        for (InventoryEvent.WarehouseAllocation allocation : allocations) {
+            added += shipmentAllocationRepository.insertIfAbsent(correlationId, allocation.getWarehouseCode());
+        }
+        return added > 0;
+    }
+
+    /**
+     * Copy an order's recorded allocations onto its shipment
+     *
+     * INVENTORY_RESERVED and PAYMENT_PROCESSED arrive on different topics in either order, so both sides
+     * call this after their own transaction commits: whichever commits last sees the other's rows.
+     */
+    @Transactional
+    public void refreshOriginWarehouses(String correlationId) {
+        if (correlationId != null) {
+            shipmentRepository.refreshOriginWarehouses(correlationId);
+        }
+    }
+
+    /**
+     * Delete allocations recorded before the cutoff
+     */
+    @Transactional
+    public int purgeAllocations(LocalDateTime cutoff) {
+        return shipmentAllocationRepository.deleteOlderThan(cutoff);
+    }
+
     /**
      * Update shipment status (called by scheduled job)
      */
@@ -121,7 +156,7 @@ public class ShippingService {
         
         shipmentRepository.save(shipment);
 
-        log.info("📦 Shipment {} status updated: {} → {}", 
+        log.debug("📦 Shipment {} status updated: {} → {}", 
             shipmentId, oldStatus, shipment.getStatus());
 
         // Publish SHIPMENT_UPDATED event
@@ -134,7 +169,7 @@ public class ShippingService {
         );
 
         eventPublisher.publishEvent("shipping-events", shipment.getCorrelationId(), event);
-        log.info("📤 SHIPMENT_UPDATED event published (status: {})", shipment.getStatus());
+        log.debug("📤 SHIPMENT_UPDATED event published (status: {})", shipment.getStatus());
     }
 
     /**
@@ -167,7 +202,7 @@ public class ShippingService {
      * Generate unique tracking number
      */
     private String generateTrackingNumber() {
-        return "TRK-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        return "TRK-" + IdGenerator.nextString();
     }
 
     /**